@@ -8,33 +8,151 @@
 
 package edu.bu.met.cs665;
 
-import edu.bu.met.cs665.client.OpenRouterClient;
+import edu.bu.met.cs665.client.HedgedDueParser;
+import edu.bu.met.cs665.ingest.DueIngestion;
+import edu.bu.met.cs665.metrics.Metrics;
+import edu.bu.met.cs665.metrics.MetricsMBean;
+import edu.bu.met.cs665.metrics.MetricsReporter;
 import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.script.ScriptRunner;
+import edu.bu.met.cs665.server.DueHttpServer;
+import edu.bu.met.cs665.service.DueDashboard;
 import edu.bu.met.cs665.service.DueManager;
 import edu.bu.met.cs665.command.*;
-import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is the DueManagerApp class.
  */
 public class DueManagerApp {
-    private final DueManager dueManager;
+    private final CompletableFuture<DueManager> dueManagerReady;
     private final Scanner scanner;
-    private final OpenRouterClient openRouterClient;
+    private HedgedDueParser dueParser;
+    private DueIngestion dueIngestion;
+    private DueDashboard dashboard;
     private final CommandHistory commandHistory = new CommandHistory();
+    private long launchNanos = -1;
+
+    /**
+     * Controls when the due store is loaded relative to showing the menu.
+     */
+    public enum StartupMode {
+        /** Load the store before the constructor returns. */
+        EAGER,
+        /** Show the menu immediately and load the store on a background thread. */
+        BACKGROUND
+    }
 
     /**
      * A DueManagerApp method to run the application.
      */
     public DueManagerApp() {
-        this.dueManager = new DueManager();
+        this(StartupMode.EAGER);
+    }
+
+    /**
+     * Creates the application using the given startup mode.
+     * In background mode every operation that touches the store waits on the readiness future.
+     *
+     * @param mode when to load the due store
+     */
+    public DueManagerApp(StartupMode mode) {
+        if (mode == StartupMode.BACKGROUND) {
+            this.dueManagerReady = CompletableFuture.supplyAsync(DueManager::new, runnable -> {
+                Thread loader = new Thread(runnable, "due-loader");
+                loader.setDaemon(true);
+                loader.start();
+            });
+        } else {
+            this.dueManagerReady = CompletableFuture.completedFuture(new DueManager());
+        }
         this.scanner = new Scanner(System.in);
-        this.openRouterClient = new OpenRouterClient();
+        Metrics.global().gauge("command.undo.depth", commandHistory::getUndoDepth);
+        dueManagerReady.thenAccept(manager -> manager.registerGauges(Metrics.global()));
+    }
+
+    /**
+     * Returns a future that completes once the due store has been loaded.
+     *
+     * @return the readiness future of the due store
+     */
+    public CompletableFuture<DueManager> getDueManagerReady() {
+        return dueManagerReady;
+    }
+
+    /**
+     * Reports the time to the first prompt on standard error, measured from the given instant.
+     *
+     * @param launchNanos the System.nanoTime() value taken when the application was launched
+     */
+    public void reportStartupFrom(long launchNanos) {
+        this.launchNanos = launchNanos;
+    }
+
+    /**
+     * Gets the due manager, waiting for a background load to finish if necessary.
+     *
+     * @return the loaded DueManager
+     */
+    private DueManager dueManager() {
+        if (!dueManagerReady.isDone()) {
+            System.out.println("Loading dues...");
+        }
+        return dueManagerReady.join();
+    }
+
+    /**
+     * Gets the AI parser, creating it on first use so that only option 0 pays for its setup.
+     * Models are configured with the "duemanager.ai.models" system property.
+     *
+     * @return the hedging parser over the configured models
+     */
+    private HedgedDueParser dueParser() {
+        if (dueParser == null) {
+            dueParser = HedgedDueParser.fromSystemProperties();
+        }
+        return dueParser;
+    }
+
+    /**
+     * Gets the AI ingestion pipeline. The store is only awaited once a due is ready to be added,
+     * so a background load overlaps with the model call.
+     *
+     * @return the pipeline over the AI parser and the due store
+     */
+    private DueIngestion dueIngestion() {
+        if (dueIngestion == null) {
+            dueIngestion = new DueIngestion(dueParser(), this::dueManager, commandHistory);
+        }
+        return dueIngestion;
+    }
+
+    /**
+     * Gets the dashboard counters, counting the store once on first use and following its
+     * changes from then on.
+     *
+     * @return the dashboard over the due store
+     */
+    private DueDashboard dashboard() {
+        if (dashboard == null) {
+            dashboard = new DueDashboard(dueManager());
+            dashboard.registerGauges(Metrics.global());
+        }
+        return dashboard;
     }
 
     /**
@@ -45,6 +163,9 @@ public class DueManagerApp {
 
         while (true) {
             displayMenu();
+            if (launchNanos >= 0) {
+                printStartupReport();
+            }
             try {
                 String input = scanner.nextLine().trim();
                 if (input.isEmpty()) {
@@ -90,6 +211,12 @@ public class DueManagerApp {
                         break;
                     case 8:
                         System.out.println("Exiting...");
+                        if (dashboard != null) {
+                            dashboard.close();
+                        }
+                        if (dueManagerReady.isDone() && !dueManagerReady.isCompletedExceptionally()) {
+                            dueManagerReady.join().close();
+                        }
                         return;
                     default:
                         System.out.println("Invalid choice. Please enter a number between 1 and 6.");
@@ -119,60 +246,88 @@ public class DueManagerApp {
     }
 
     /**
-     * Adds a new due using AI assistance to parse natural language input.
-     * Communicates with OpenRouter API to interpret user input and create a structured due.
+     * Prints the time from launch to the first prompt, once.
+     */
+    private void printStartupReport() {
+        long firstPromptMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launchNanos);
+        launchNanos = -1;
+        long uptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        System.err.println("[startup] first prompt after " + firstPromptMillis + " ms (JVM uptime "
+                + uptimeMillis + " ms, store " + (dueManagerReady.isDone() ? "loaded" : "loading") + ")");
+    }
+
+    /**
+     * Adds new dues using AI assistance to parse natural language input.
+     * Communicates with OpenRouter API to interpret user input and create structured dues.
+     * Several descriptions separated by semicolons are parsed concurrently and added in order.
      */
     private void addNewDue() {
-        System.out.println("Enter due details (e.g., 'CS665 assignment 1 next tuesday'):");
-        String prompt = scanner.nextLine();
+        System.out.println("Enter due details (e.g., 'CS665 assignment 1 next tuesday'),"
+                + " separating several with ';':");
+        List<String> prompts = new ArrayList<>();
+        for (String prompt : scanner.nextLine().split(";")) {
+            if (!prompt.trim().isEmpty()) {
+                prompts.add(prompt.trim());
+            }
+        }
 
-        if (prompt.trim().isEmpty()) {
+        if (prompts.isEmpty()) {
             System.out.println("Error: Due details cannot be empty");
             return;
         }
 
-        String response = openRouterClient.getResponse(prompt);
-
-        try {
-            JSONObject jsonResponse = new JSONObject(response);
-
-            // Check if there was an error in the response
-            if (jsonResponse.has("error")) {
-                String errorMessage = jsonResponse.getString("error");
-                System.out.println("⚠️ " + errorMessage);
-                System.out.println("Please try again.");
-                return;
-            }
+        if (prompts.size() == 1) {
+            printIngestionResult(dueIngestion().ingest(prompts.get(0)));
+            return;
+        }
+        List<DueIngestion.Result> results = dueIngestion().ingestAll(prompts);
+        for (int i = 0; i < results.size(); i++) {
+            System.out.println();
+            System.out.println("(" + (i + 1) + "/" + results.size() + ") " + prompts.get(i));
+            printIngestionResult(results.get(i));
+        }
+    }
 
-            // Validate required fields exist in the response
-            String[] requiredFields = {"course", "title", "due_date"};
-            for (String field : requiredFields) {
-                if (!jsonResponse.has(field) || jsonResponse.getString(field).trim().isEmpty()) {
-                    System.out.println("Error: Missing or invalid " + field + " in the response");
-                    System.out.println("Please try again with more specific details.");
-                    return;
+    /**
+     * Prints the outcome of one AI-assisted addition.
+     *
+     * @param result The outcome
+     */
+    private void printIngestionResult(DueIngestion.Result result) {
+        switch (result.getStatus()) {
+            case ADDED:
+                Due due = result.getDue();
+                System.out.println("Due added successfully!");
+                System.out.println("Title: " + due.getTitle());
+                System.out.println("Course: " + due.getCourse());
+                System.out.println("Due Date: " + due.getFormattedDueDate());
+                if (due.getLocation() != null && !due.getLocation().isEmpty()) {
+                    System.out.println("Location: " + due.getLocation());
                 }
-            }
-
-            Due due = dueManager.createDueFromJson(response);
-            AddDueCommand addCommand = new AddDueCommand(dueManager, due);
-            commandHistory.executeCommand(addCommand);
-            System.out.println("Due added successfully!");
-            System.out.println("Title: " + due.getTitle());
-            System.out.println("Course: " + due.getCourse());
-            System.out.println("Due Date: " + due.getFormattedDueDate());
-            if (due.getLocation() != null && !due.getLocation().isEmpty()) {
-                System.out.println("Location: " + due.getLocation());
-            }
-            if (due.getNotes() != null && !due.getNotes().isEmpty()) {
-                System.out.println("Notes: " + due.getNotes());
-            }
-        } catch (JSONException e) {
-            System.out.println("Error: Invalid response format received");
-            System.out.println("Please try again with more specific details.");
-        } catch (Exception e) {
-            System.out.println("Error adding due: " + e.getMessage());
-            System.out.println("Please try again with a different format or more specific details.");
+                if (due.getNotes() != null && !due.getNotes().isEmpty()) {
+                    System.out.println("Notes: " + due.getNotes());
+                }
+                break;
+            case NOT_CONFIGURED:
+                // The AI client is not configured; the rest of the menu keeps working
+                System.out.println("⚠️ " + result.getDetail());
+                break;
+            case REJECTED:
+                System.out.println("⚠️ " + result.getDetail());
+                System.out.println("Please try again.");
+                break;
+            case MISSING_FIELD:
+                System.out.println("Error: Missing or invalid " + result.getDetail() + " in the response");
+                System.out.println("Please try again with more specific details.");
+                break;
+            case INVALID_RESPONSE:
+                System.out.println("Error: Invalid response format received");
+                System.out.println("Please try again with more specific details.");
+                break;
+            default:
+                System.out.println("Error adding due: " + result.getDetail());
+                System.out.println("Please try again with a different format or more specific details.");
+                break;
         }
     }
 
@@ -212,8 +367,8 @@ public class DueManagerApp {
         dueJson.put("title", title);
         dueJson.put("due_date", dueDate.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
 
-        Due due = dueManager.createDueFromJson(dueJson.toString());
-        dueManager.addDue(due);
+        Due due = dueManager().createDueFromJson(dueJson.toString());
+        dueManager().addDue(due);
 
         System.out.println("Due added successfully!");
         System.out.println("Title: " + due.getTitle());
@@ -226,7 +381,7 @@ public class DueManagerApp {
      * Shows completed dues with strikethrough formatting and highlights dues due today.
      */
     private void displayDues() {
-        Map<LocalDate, List<Due>> duesByDate = dueManager.getDuesByDate();
+        Map<LocalDate, List<Due>> duesByDate = dueManager().getDuesByDate();
         DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MMMM d, yyyy");
         DateTimeFormatter dayFormatter = DateTimeFormatter.ofPattern("EEEE");
 
@@ -279,8 +434,12 @@ public class DueManagerApp {
             }
         }
 
-        int todayDuesCount = duesByDate.getOrDefault(today, Collections.emptyList()).size();
-        System.out.println("\nYou have " + todayDuesCount + " due(s) today!");
+        DueDashboard.Summary summary = dashboard().getSummary();
+        System.out.println("\nYou have " + summary.getCount(DueDashboard.Bucket.TODAY) + " due(s) today!");
+        System.out.println("Overdue: " + summary.getCount(DueDashboard.Bucket.OVERDUE)
+                + " ∙ Tomorrow: " + summary.getCount(DueDashboard.Bucket.TOMORROW)
+                + " ∙ This week: " + summary.getCount(DueDashboard.Bucket.THIS_WEEK)
+                + " ∙ Later: " + summary.getCount(DueDashboard.Bucket.LATER));
     }
 
     /**
@@ -303,8 +462,7 @@ public class DueManagerApp {
      * Displays all dues with their IDs and processes user selection.
      */
     private void markDueAsCompleted() {
-        List<Due> allDues = dueManager.getAllDues();
-        if (allDues.isEmpty()) {
+        if (dueManager().getSnapshot().isEmpty()) {
             System.out.println("No dues available to mark as completed.");
             return;
         }
@@ -323,11 +481,13 @@ public class DueManagerApp {
                     System.out.println("Operation cancelled.");
                     return;
                 }
-                Due dueToMark = dueManager.getDueById(id);
+                Due dueToMark = dueManager().getDueById(id);
                 if (dueToMark != null) {
-                    MarkCompletedCommand markCommand = new MarkCompletedCommand(dueToMark);
+                    MarkCompletedCommand markCommand = new MarkCompletedCommand(dueManager(), dueToMark);
                     commandHistory.executeCommand(markCommand);
                     System.out.println("Due marked as completed!");
+                } else if (dueManager().isArchived(id)) {
+                    System.out.println("Due with ID " + id + " is archived and can no longer be changed.");
                 } else {
                     System.out.println("Due with ID " + id + " not found.");
                 }
@@ -343,8 +503,7 @@ public class DueManagerApp {
      * Displays all dues with their IDs and processes user selection for removal.
      */
     private void removeDue() {
-        List<Due> allDues = dueManager.getAllDues();
-        if (allDues.isEmpty()) {
+        if (dueManager().getSnapshot().isEmpty()) {
             System.out.println("No dues available to remove.");
             return;
         }
@@ -363,11 +522,13 @@ public class DueManagerApp {
                     System.out.println("Operation cancelled.");
                     return;
                 }
-                Due dueToRemove = dueManager.getDueById(id);
+                Due dueToRemove = dueManager().getDueById(id);
                 if (dueToRemove != null) {
-                    RemoveDueCommand removeCommand = new RemoveDueCommand(dueManager, dueToRemove);
+                    RemoveDueCommand removeCommand = new RemoveDueCommand(dueManager(), dueToRemove);
                     commandHistory.executeCommand(removeCommand);
                     System.out.println("Due removed successfully!");
+                } else if (dueManager().isArchived(id)) {
+                    System.out.println("Due with ID " + id + " is archived and can no longer be changed.");
                 } else {
                     System.out.println("Due with ID " + id + " not found.");
                 }
@@ -383,8 +544,7 @@ public class DueManagerApp {
      * Requires explicit "YES" confirmation to prevent accidental deletion.
      */
     private void removeAllDues() {
-        List<Due> allDues = dueManager.getAllDues();
-        if (allDues.isEmpty()) {
+        if (dueManager().getSnapshot().isEmpty()) {
             System.out.println("No dues available to remove.");
             return;
         }
@@ -394,7 +554,7 @@ public class DueManagerApp {
         String confirmation = scanner.nextLine().trim();
 
         if (confirmation.equals("YES")) {
-            dueManager.removeAllDues();
+            dueManager().removeAllDues();
             System.out.println("All dues have been removed successfully!");
         } else {
             System.out.println("Operation cancelled.");
@@ -406,8 +566,7 @@ public class DueManagerApp {
      * Shows both completed and pending dues with appropriate formatting.
      */
     private void displayDuesWithIds() {
-        List<Due> allDues = dueManager.getAllDues();
-        for (Due due : allDues) {
+        dueManager().forEachDue(due -> {
             if (due.isCompleted()) {
                 System.out.println("ID: " + due.getId());
                 System.out.println(applyStrikethrough(due.getTitle() + " - " + due.getCourse()));
@@ -418,15 +577,124 @@ public class DueManagerApp {
                 System.out.println("Due: " + due.getFormattedDueDate());
             }
             System.out.println();
+        });
+    }
+
+    /**
+     * Serves the due store over HTTP until the process is stopped.
+     *
+     * @param port The port to listen on
+     */
+    private static void runServer(int port) {
+        // The JDK reads this once, when the first HTTP server in the process is created
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        DueManager dueManager = new DueManager();
+        dueManager.registerGauges(Metrics.global());
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+        try {
+            DueHttpServer server = new DueHttpServer(dueManager, new CommandHistory(),
+                    new InetSocketAddress(port), threads, 1024);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.close();
+                dueManager.close();
+            }, "server-shutdown"));
+            server.start();
+            System.out.println("Due Manager API listening on http://localhost:" + server.getPort() + "/dues");
+        } catch (IOException e) {
+            System.err.println("Error starting server: " + e.getMessage());
+            dueManager.close();
+        }
+    }
+
+    /**
+     * Runs a command script against the store without rendering the menu.
+     *
+     * @param script The script file, or "-" for standard input
+     * @return the process exit status: 0 if every line succeeded
+     */
+    private static int runScript(String script) {
+        DueManager dueManager = new DueManager();
+        try (BufferedReader reader = "-".equals(script)
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(script), StandardCharsets.UTF_8)) {
+            ScriptRunner runner = new ScriptRunner(dueManager, new CommandHistory(), System.out, System.err,
+                    ScriptRunner.DEFAULT_BATCH_SIZE);
+            return runner.run(reader) == 0 ? 0 : 1;
+        } catch (IOException e) {
+            System.err.println("Error reading script: " + e.getMessage());
+            return 2;
+        } finally {
+            dueManager.close();
         }
     }
 
     /**
      * The main entry point of the Due Manager application.
      * Creates a new DueManagerApp instance and starts the application.
+     * The store loads in the background unless "--eager" is passed, and "--report-startup"
+     * prints the time to the first prompt. Metrics are published over JMX unless "--no-jmx"
+     * is passed, and "--metrics-dump=SECONDS" prints them periodically to standard error.
+     * "--server=PORT" serves the store as a JSON API instead of showing the menu, and
+     * "--script=FILE" runs a command script ("-" reads it from standard input).
      */
     public static void main(String[] args) {
-        DueManagerApp app = new DueManagerApp();
+        long launchNanos = System.nanoTime();
+        StartupMode mode = StartupMode.BACKGROUND;
+        boolean reportStartup = false;
+        boolean jmx = true;
+        long metricsDumpSeconds = 0;
+        int serverPort = -1;
+        String script = null;
+        for (String arg : args) {
+            if ("--eager".equals(arg)) {
+                mode = StartupMode.EAGER;
+            } else if ("--report-startup".equals(arg)) {
+                reportStartup = true;
+            } else if ("--no-jmx".equals(arg)) {
+                jmx = false;
+            } else if (arg.startsWith("--metrics-dump=")) {
+                metricsDumpSeconds = Long.parseLong(arg.substring("--metrics-dump=".length()));
+            } else if (arg.startsWith("--server=")) {
+                serverPort = Integer.parseInt(arg.substring("--server=".length()));
+            } else if (arg.startsWith("--script=")) {
+                script = arg.substring("--script=".length());
+            } else {
+                System.err.println("Unknown option: " + arg);
+                System.err.println("Usage: DueManagerApp [--eager] [--report-startup] [--no-jmx]"
+                        + " [--metrics-dump=SECONDS] [--server=PORT] [--script=FILE|-]");
+                return;
+            }
+        }
+        if (script != null) {
+            System.exit(runScript(script));
+        }
+        if (serverPort >= 0) {
+            if (jmx) {
+                MetricsMBean.registerGlobal();
+            }
+            if (metricsDumpSeconds > 0) {
+                new MetricsReporter(Metrics.global(), System.err, metricsDumpSeconds);
+            }
+            runServer(serverPort);
+            return;
+        }
+        DueManagerApp app = new DueManagerApp(mode);
+        if (reportStartup) {
+            app.reportStartupFrom(launchNanos);
+        }
+        if (jmx) {
+            // Registering touches the platform MBean server, so keep it off the path to the first prompt
+            Thread registrar = new Thread(MetricsMBean::registerGlobal, "metrics-jmx");
+            registrar.setDaemon(true);
+            registrar.start();
+        }
+        MetricsReporter reporter = metricsDumpSeconds > 0
+                ? new MetricsReporter(Metrics.global(), System.err, metricsDumpSeconds) : null;
         app.start();
+        if (reporter != null) {
+            reporter.close();
+        }
     }
 }
\ No newline at end of file
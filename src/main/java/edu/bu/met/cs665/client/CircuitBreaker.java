@@ -0,0 +1,129 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: CircuitBreaker.java
+ * Description: This class stops calls to an endpoint that keeps failing.
+ */
+
+package edu.bu.met.cs665.client;
+
+import edu.bu.met.cs665.metrics.Metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for an unhealthy endpoint.
+ * After a run of consecutive failures the breaker opens and calls fail fast without touching
+ * the network. Once the open period has passed a single trial call is let through: success
+ * closes the breaker, failure opens it again for another period.
+ */
+public class CircuitBreaker {
+    /**
+     * The states of the breaker.
+     */
+    public enum State {
+        /** Calls flow normally. */
+        CLOSED,
+        /** Calls are rejected. */
+        OPEN,
+        /** One trial call is probing the endpoint. */
+        HALF_OPEN
+    }
+
+    private static final LongAdder OPENED = Metrics.global().counter("ai.circuit.opened");
+    private static final LongAdder REJECTED = Metrics.global().counter("ai.circuit.rejected");
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier clock;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    /**
+     * Creates a breaker using the system clock.
+     *
+     * @param failureThreshold The number of consecutive failures that opens the breaker
+     * @param openMillis       How long the breaker stays open before a trial call
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        this(failureThreshold, openMillis, System::nanoTime);
+    }
+
+    /**
+     * Creates a breaker.
+     *
+     * @param failureThreshold The number of consecutive failures that opens the breaker
+     * @param openMillis       How long the breaker stays open before a trial call
+     * @param clock            The source of nanosecond timestamps
+     * @throws IllegalArgumentException if the threshold or period is not positive
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis, LongSupplier clock) {
+        if (failureThreshold <= 0 || openMillis <= 0) {
+            throw new IllegalArgumentException("Failure threshold and open period must be positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * Checks whether a call may go ahead. A true result in the half-open state reserves the
+     * trial call, which must be reported through {@link #recordSuccess()} or
+     * {@link #recordFailure()}.
+     *
+     * @return true if the call may go ahead
+     */
+    public synchronized boolean allowRequest() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return true;
+        }
+        REJECTED.increment();
+        return false;
+    }
+
+    /**
+     * Records a successful call, closing the breaker.
+     */
+    public synchronized void recordSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    /**
+     * Records a failed call, opening the breaker once the threshold is reached or the trial failed.
+     */
+    public synchronized void recordFailure() {
+        trialInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = clock.getAsLong();
+            OPENED.increment();
+        }
+    }
+
+    /**
+     * Gets the current state, moving from open to half-open if the open period has passed.
+     *
+     * @return the state
+     */
+    public synchronized State getState() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+        }
+        return state;
+    }
+}
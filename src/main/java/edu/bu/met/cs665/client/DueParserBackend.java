@@ -0,0 +1,32 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: DueParserBackend.java
+ * Description: This interface is implemented by anything that turns a due request into JSON.
+ */
+
+package edu.bu.met.cs665.client;
+
+/**
+ * A way of turning a natural language due request into the due JSON object.
+ * Implementations include the AI client for one model or endpoint, the local rule-based parser,
+ * and the hedging router that combines several of them.
+ */
+public interface DueParserBackend {
+    /**
+     * Gets a short name identifying the backend in metrics and statistics.
+     *
+     * @return the backend name
+     */
+    String getName();
+
+    /**
+     * Parses a due request.
+     *
+     * @param prompt The natural language description of the due
+     * @return a JSON object with course, title and due_date, or an {"error": ...} object
+     * @throws IllegalStateException if the backend is not configured
+     */
+    String parse(String prompt);
+}
@@ -0,0 +1,379 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: HedgedDueParser.java
+ * Description: This class sends due requests to several backends to cut tail latency.
+ */
+
+package edu.bu.met.cs665.client;
+
+import edu.bu.met.cs665.metrics.Metrics;
+import org.json.JSONObject;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Routes due requests across several backends with hedging.
+ * The request goes to the primary backend first. If it has not answered within its recent
+ * 90th percentile latency, or as soon as it fails, the next backend is asked as well, and the
+ * first valid due wins. Slower requests keep running in the background so that every backend
+ * keeps fresh latency statistics, and the primary is re-chosen on every request as the backend
+ * with the best recent p90 adjusted for its failure rate.
+ */
+public class HedgedDueParser implements DueParserBackend, AutoCloseable {
+    /** System property listing the models, each "model" or "model@baseUrl", separated by commas. */
+    public static final String MODELS_PROPERTY = "duemanager.ai.models";
+    /** System property setting the hedge delay used before a backend has enough samples. */
+    public static final String HEDGE_DELAY_PROPERTY = "duemanager.ai.hedge.delay.ms";
+
+    // Latency samples kept per backend, and how many are needed before they are trusted
+    private static final int WINDOW = 64;
+    private static final int MIN_SAMPLES = 5;
+    private static final long MIN_HEDGE_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final LongAdder HEDGES = Metrics.global().counter("ai.hedge.fired");
+    private static final LongAdder HEDGE_WINS = Metrics.global().counter("ai.hedge.wins");
+
+    private final List<BackendStats> backends = new ArrayList<>();
+    private final DueParserBackend fallback;
+    private final long defaultHedgeDelayNanos;
+    private final long deadlineNanos;
+    private final ExecutorService executor;
+
+    /**
+     * Recent latency and outcome statistics of one backend.
+     */
+    private static final class BackendStats {
+        private final DueParserBackend backend;
+        private final int position;
+        private final long[] latencies = new long[WINDOW];
+        private final boolean[] outcomes = new boolean[WINDOW];
+        private int latencyCount;
+        private int latencyNext;
+        private int outcomeCount;
+        private int outcomeNext;
+
+        private BackendStats(DueParserBackend backend, int position) {
+            this.backend = backend;
+            this.position = position;
+        }
+
+        private synchronized void record(long nanos, boolean valid) {
+            if (valid) {
+                latencies[latencyNext] = nanos;
+                latencyNext = (latencyNext + 1) % WINDOW;
+                latencyCount = Math.min(latencyCount + 1, WINDOW);
+            }
+            outcomes[outcomeNext] = valid;
+            outcomeNext = (outcomeNext + 1) % WINDOW;
+            outcomeCount = Math.min(outcomeCount + 1, WINDOW);
+        }
+
+        /**
+         * Gets a recent latency percentile of valid answers.
+         *
+         * @return the percentile in nanoseconds, or -1 without enough samples
+         */
+        private synchronized long percentileNanos(double percentile) {
+            if (latencyCount < MIN_SAMPLES) {
+                return -1;
+            }
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+            return sorted[(int) Math.min(latencyCount - 1, Math.ceil(percentile / 100 * latencyCount) - 1)];
+        }
+
+        private synchronized double successRatio() {
+            int successes = 0;
+            for (int i = 0; i < outcomeCount; i++) {
+                if (outcomes[i]) {
+                    successes++;
+                }
+            }
+            // Smoothed so that a single early failure does not condemn a backend
+            return (successes + 1.0) / (outcomeCount + 2.0);
+        }
+
+        /**
+         * Ranks the backend; lower is better. A backend never tried yet ranks best if it is the
+         * first configured and last otherwise. One with answers but too few valid ones for a p90
+         * is ranked as if its p90 were the default hedge delay, so its failures still push it
+         * down instead of keeping it primary.
+         *
+         * @param defaultHedgeDelayNanos The hedge delay used before a backend has enough samples
+         */
+        private synchronized double score(long defaultHedgeDelayNanos) {
+            long p90 = percentileNanos(90);
+            if (p90 >= 0) {
+                return p90 / successRatio();
+            }
+            if (outcomeCount == 0) {
+                return position == 0 ? 0 : Double.MAX_VALUE;
+            }
+            return defaultHedgeDelayNanos / successRatio();
+        }
+    }
+
+    /**
+     * The answer of one backend.
+     */
+    private static final class Result {
+        private final BackendStats stats;
+        private final String response;
+        private final RuntimeException failure;
+
+        private Result(BackendStats stats, String response, RuntimeException failure) {
+            this.stats = stats;
+            this.response = response;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * Creates a hedging router.
+     *
+     * @param backends               The backends in order of preference, at least one
+     * @param fallback               The backend answering when every backend fails, or null
+     * @param defaultHedgeDelayMillis The hedge delay used before a backend has enough samples
+     * @param deadlineMillis         The time allowed for a whole request
+     * @throws IllegalArgumentException if there are no backends or a time is not positive
+     */
+    public HedgedDueParser(List<? extends DueParserBackend> backends, DueParserBackend fallback,
+                           long defaultHedgeDelayMillis, long deadlineMillis) {
+        if (backends.isEmpty()) {
+            throw new IllegalArgumentException("At least one backend is required");
+        }
+        if (defaultHedgeDelayMillis <= 0 || deadlineMillis <= 0) {
+            throw new IllegalArgumentException("Hedge delay and deadline must be positive");
+        }
+        for (DueParserBackend backend : backends) {
+            this.backends.add(new BackendStats(backend, this.backends.size()));
+        }
+        this.fallback = fallback;
+        this.defaultHedgeDelayNanos = TimeUnit.MILLISECONDS.toNanos(defaultHedgeDelayMillis);
+        this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "ai-backend-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates a router over the models in the "duemanager.ai.models" system property, or the
+     * default model alone, streaming from each and falling back to the {@link LocalDueParser}.
+     * Models on the same endpoint share one {@link RateLimiter}. Entries without an "@baseUrl"
+     * go to {@link OpenRouterClient#defaultBaseUrl()}.
+     * The hedge delay before statistics exist comes from "duemanager.ai.hedge.delay.ms".
+     *
+     * @return the router
+     */
+    public static HedgedDueParser fromSystemProperties() {
+        RetryPolicy retryPolicy = RetryPolicy.fromSystemProperties();
+        // Models on the same endpoint share its quota, so they share one limiter
+        Map<String, RateLimiter> limiters = new HashMap<>();
+        List<OpenRouterClient> clients = new ArrayList<>();
+        String defaultBaseUrl = OpenRouterClient.defaultBaseUrl();
+        for (String entry : System.getProperty(MODELS_PROPERTY, OpenRouterClient.MODEL).split(",")) {
+            if (entry.trim().isEmpty()) {
+                continue;
+            }
+            String model = entry.trim();
+            String baseUrl = defaultBaseUrl;
+            int at = model.indexOf('@');
+            if (at >= 0) {
+                baseUrl = model.substring(at + 1);
+                model = model.substring(0, at);
+            }
+            clients.add(new OpenRouterClient.Builder()
+                    .baseUrl(baseUrl)
+                    .model(model)
+                    .streaming(true)
+                    .retryPolicy(retryPolicy)
+                    .rateLimiter(limiters.computeIfAbsent(baseUrl, url -> RateLimiter.fromSystemProperties()))
+                    .build());
+        }
+        RateLimiter openRouterLimiter = limiters.get(defaultBaseUrl);
+        if (openRouterLimiter != null) {
+            openRouterLimiter.registerGauges(Metrics.global());
+        }
+        return new HedgedDueParser(clients, new LocalDueParser(), Long.getLong(HEDGE_DELAY_PROPERTY, 2000),
+                retryPolicy.getDeadlineMillis());
+    }
+
+    /**
+     * Gets the name of this backend.
+     *
+     * @return "hedged"
+     */
+    @Override
+    public String getName() {
+        return "hedged";
+    }
+
+    /**
+     * Gets the backend the next request will go to first.
+     *
+     * @return the primary backend's name
+     */
+    public String getPrimaryName() {
+        return ranking().get(0).backend.getName();
+    }
+
+    /**
+     * Describes the recent statistics of every backend, best first.
+     *
+     * @return one line per backend
+     */
+    public String summary() {
+        StringBuilder summary = new StringBuilder();
+        for (BackendStats stats : ranking()) {
+            summary.append(String.format("%s p50=%d ms p90=%d ms success=%.0f%%%n", stats.backend.getName(),
+                    TimeUnit.NANOSECONDS.toMillis(Math.max(0, stats.percentileNanos(50))),
+                    TimeUnit.NANOSECONDS.toMillis(Math.max(0, stats.percentileNanos(90))),
+                    stats.successRatio() * 100));
+        }
+        return summary.toString();
+    }
+
+    /**
+     * Parses a due request, hedging across backends.
+     *
+     * @param prompt The natural language description of the due
+     * @return the first valid due, the fallback's answer, or the last error
+     * @throws IllegalStateException if a backend is not configured
+     */
+    @Override
+    public String parse(String prompt) {
+        List<BackendStats> order = ranking();
+        BlockingQueue<Result> results = new LinkedBlockingQueue<>();
+        long deadline = System.nanoTime() + deadlineNanos;
+        int launched = 0;
+        int finished = 0;
+        long lastLaunch = 0;
+        String lastError = null;
+
+        while (true) {
+            long now = System.nanoTime();
+            boolean canHedge = launched < order.size();
+            if (canHedge && (launched == finished || now - lastLaunch >= hedgeDelayNanos(order.get(launched - 1)))) {
+                if (launched > 0) {
+                    HEDGES.increment();
+                }
+                launch(order.get(launched++), prompt, results);
+                lastLaunch = now;
+                continue;
+            }
+            if (launched == finished || now >= deadline) {
+                break;
+            }
+
+            long waitNanos = deadline - now;
+            if (canHedge) {
+                waitNanos = Math.min(waitNanos, lastLaunch + hedgeDelayNanos(order.get(launched - 1)) - now);
+            }
+            Result result;
+            try {
+                result = results.poll(Math.max(0, waitNanos), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (result == null) {
+                continue;
+            }
+            finished++;
+            if (result.failure instanceof IllegalStateException) {
+                throw result.failure;
+            }
+            if (result.failure == null && isValid(result.response)) {
+                if (result.stats != order.get(0)) {
+                    HEDGE_WINS.increment();
+                }
+                return result.response;
+            }
+            lastError = result.failure != null ? error(result.failure.getMessage()) : result.response;
+        }
+
+        if (fallback != null) {
+            return fallback.parse(prompt);
+        }
+        return lastError != null ? lastError : error("AI request timed out");
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts a backend on a worker thread; its result is recorded even if another backend wins.
+     */
+    private void launch(BackendStats stats, String prompt, BlockingQueue<Result> results) {
+        executor.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                String response = stats.backend.parse(prompt);
+                stats.record(System.nanoTime() - start, isValid(response));
+                results.add(new Result(stats, response, null));
+            } catch (RuntimeException e) {
+                stats.record(System.nanoTime() - start, false);
+                results.add(new Result(stats, null, e));
+            }
+        });
+    }
+
+    /**
+     * Gets how long to wait for a backend before asking the next one.
+     */
+    private long hedgeDelayNanos(BackendStats stats) {
+        long p90 = stats.percentileNanos(90);
+        return p90 < 0 ? defaultHedgeDelayNanos : Math.max(MIN_HEDGE_DELAY_NANOS, p90);
+    }
+
+    /**
+     * Orders the backends by score, best first, keeping configuration order for ties.
+     */
+    private List<BackendStats> ranking() {
+        // Scores are taken once up front, since workers keep updating the statistics while sorting
+        Map<BackendStats, Double> scores = new HashMap<>();
+        for (BackendStats stats : backends) {
+            scores.put(stats, stats.score(defaultHedgeDelayNanos));
+        }
+        List<BackendStats> order = new ArrayList<>(backends);
+        order.sort(Comparator.comparingDouble((BackendStats stats) -> scores.get(stats))
+                .thenComparingInt(stats -> stats.position));
+        return order;
+    }
+
+    /**
+     * Checks that a response is a due object with every required field.
+     */
+    private static boolean isValid(String response) {
+        if (response == null) {
+            return false;
+        }
+        try {
+            JSONObject json = new JSONObject(response);
+            return !json.has("error") && !json.optString("course").trim().isEmpty()
+                    && !json.optString("title").trim().isEmpty() && !json.optString("due_date").trim().isEmpty();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static String error(String message) {
+        return new JSONObject().put("error", String.valueOf(message)).toString();
+    }
+}
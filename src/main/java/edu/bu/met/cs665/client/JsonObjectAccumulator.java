@@ -0,0 +1,83 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: JsonObjectAccumulator.java
+ * Description: This class finds the end of a JSON object in streamed text.
+ */
+
+package edu.bu.met.cs665.client;
+
+/**
+ * Collects streamed text and detects when the first top-level JSON object in it is complete.
+ * Braces inside strings and escaped quotes are tracked, so the object is recognised the moment
+ * its closing brace arrives, without waiting for the rest of the stream.
+ */
+public class JsonObjectAccumulator {
+    private final StringBuilder text = new StringBuilder();
+    private int objectStart = -1;
+    private int objectEnd = -1;
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+
+    /**
+     * Appends streamed text.
+     *
+     * @param chunk The next piece of text
+     * @return true once the first JSON object is complete
+     */
+    public boolean append(CharSequence chunk) {
+        if (objectEnd >= 0) {
+            return true;
+        }
+        int from = text.length();
+        text.append(chunk);
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (objectStart < 0) {
+                if (c == '{') {
+                    objectStart = i;
+                    depth = 1;
+                }
+                continue;
+            }
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                objectEnd = i + 1;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the first JSON object is complete.
+     *
+     * @return true if complete
+     */
+    public boolean isComplete() {
+        return objectEnd >= 0;
+    }
+
+    /**
+     * Gets the first complete JSON object, or all text collected so far if there is none,
+     * such as a model answering with prose.
+     *
+     * @return the object text or the collected text
+     */
+    public String getResult() {
+        return objectEnd >= 0 ? text.substring(objectStart, objectEnd) : text.toString();
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: LocalDueParser.java
+ * Description: This class parses simple due requests without calling the AI API.
+ */
+
+package edu.bu.met.cs665.client;
+
+import edu.bu.met.cs665.storage.DueJsonFormat;
+import org.json.JSONObject;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rule-based parser used when the AI endpoint is unavailable.
+ * It understands a course code ("CS665", "cs 544"), a date ("2024-12-10", "12/10", "today",
+ * "tomorrow", "friday", "next tuesday", "in 3 days") and an optional time ("5pm", "17:30");
+ * whatever text remains becomes the title. It produces the same JSON as the AI model.
+ */
+public class LocalDueParser implements DueParserBackend {
+    private static final Pattern COURSE = Pattern.compile("\\b([A-Za-z]{2,4})\\s?-?(\\d{3,4})\\b");
+    private static final Pattern ISO_DATE = Pattern.compile("\\b(\\d{4}-\\d{2}-\\d{2})\\b");
+    private static final Pattern SLASH_DATE = Pattern.compile("\\b(\\d{1,2})/(\\d{1,2})(?:/(\\d{2,4}))?\\b");
+    private static final Pattern RELATIVE_DAYS = Pattern.compile("\\bin (\\d{1,3}) days?\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern NAMED_DAY = Pattern.compile(
+            "\\b(?:(next|this) )?(today|tonight|tomorrow|monday|tuesday|wednesday|thursday|friday|saturday|sunday)\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern TIME = Pattern.compile(
+            "\\b(\\d{1,2})(?::(\\d{2}))?\\s*(am|pm)\\b|\\b(\\d{1,2}):(\\d{2})\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern FILLER = Pattern.compile("\\b(due|on|at|by|before)\\b", Pattern.CASE_INSENSITIVE);
+    private static final LocalTime DEFAULT_TIME = LocalTime.of(23, 59);
+
+    /**
+     * Gets the name of this backend.
+     *
+     * @return "local"
+     */
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    /**
+     * Parses a due request relative to the current time.
+     *
+     * @param prompt The natural language description of the due
+     * @return a JSON object with course, title and due_date, or an {"error": ...} object
+     */
+    @Override
+    public String parse(String prompt) {
+        return parse(prompt, LocalDateTime.now());
+    }
+
+    /**
+     * Parses a due request relative to the given time.
+     *
+     * @param prompt The natural language description of the due
+     * @param now    The time that relative dates are resolved against
+     * @return a JSON object with course, title and due_date, or an {"error": ...} object
+     */
+    public String parse(String prompt, LocalDateTime now) {
+        StringBuilder rest = new StringBuilder(prompt == null ? "" : prompt);
+
+        String course = null;
+        Matcher matcher = COURSE.matcher(rest);
+        if (matcher.find()) {
+            course = matcher.group(1).toUpperCase(Locale.ROOT) + matcher.group(2);
+            cut(rest, matcher);
+        }
+
+        LocalDate date;
+        try {
+            date = findDate(rest, now.toLocalDate());
+        } catch (DateTimeException e) {
+            return error("Could not understand the date in: " + prompt);
+        }
+
+        LocalTime time = DEFAULT_TIME;
+        matcher = TIME.matcher(rest);
+        if (matcher.find()) {
+            time = toTime(matcher);
+            if (time == null) {
+                return error("Could not understand the time in: " + prompt);
+            }
+            cut(rest, matcher);
+        }
+
+        if (course == null) {
+            return error("Could not find a course code (e.g. CS665) in: " + prompt);
+        }
+        if (date == null) {
+            return error("Could not find a due date in: " + prompt);
+        }
+
+        String title = FILLER.matcher(rest).replaceAll(" ").replaceAll("[\\s,]+", " ").trim();
+        JSONObject json = new JSONObject();
+        json.put("course", course);
+        json.put("title", title.isEmpty() ? "Due" : Character.toUpperCase(title.charAt(0)) + title.substring(1));
+        json.put("due_date", LocalDateTime.of(date, time).format(DueJsonFormat.DATE_TIME));
+        return json.toString();
+    }
+
+    /**
+     * Finds and removes the first date expression.
+     *
+     * @param rest  The remaining prompt text
+     * @param today The date relative expressions are resolved against
+     * @return the date, or null if there is none
+     */
+    private static LocalDate findDate(StringBuilder rest, LocalDate today) {
+        Matcher matcher = ISO_DATE.matcher(rest);
+        if (matcher.find()) {
+            LocalDate date = LocalDate.parse(matcher.group(1));
+            cut(rest, matcher);
+            return date;
+        }
+        matcher = SLASH_DATE.matcher(rest);
+        if (matcher.find()) {
+            int year = today.getYear();
+            if (matcher.group(3) != null) {
+                year = Integer.parseInt(matcher.group(3));
+                year = year < 100 ? 2000 + year : year;
+            }
+            LocalDate date = LocalDate.of(year, Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (matcher.group(3) == null && date.isBefore(today)) {
+                date = date.plusYears(1);
+            }
+            cut(rest, matcher);
+            return date;
+        }
+        matcher = RELATIVE_DAYS.matcher(rest);
+        if (matcher.find()) {
+            LocalDate date = today.plusDays(Integer.parseInt(matcher.group(1)));
+            cut(rest, matcher);
+            return date;
+        }
+        matcher = NAMED_DAY.matcher(rest);
+        if (matcher.find()) {
+            String day = matcher.group(2).toLowerCase(Locale.ROOT);
+            LocalDate date;
+            if ("today".equals(day) || "tonight".equals(day)) {
+                date = today;
+            } else if ("tomorrow".equals(day)) {
+                date = today.plusDays(1);
+            } else {
+                DayOfWeek target = DayOfWeek.valueOf(day.toUpperCase(Locale.ROOT));
+                int ahead = (target.getValue() - today.getDayOfWeek().getValue() + 7) % 7;
+                date = today.plusDays(ahead == 0 ? 7 : ahead);
+            }
+            cut(rest, matcher);
+            return date;
+        }
+        return null;
+    }
+
+    /**
+     * Converts a TIME match to a time of day.
+     *
+     * @param matcher The matcher positioned on a time
+     * @return the time, or null if it is out of range
+     */
+    private static LocalTime toTime(Matcher matcher) {
+        int hour;
+        int minute;
+        if (matcher.group(3) != null) {
+            hour = Integer.parseInt(matcher.group(1));
+            minute = matcher.group(2) == null ? 0 : Integer.parseInt(matcher.group(2));
+            if (hour < 1 || hour > 12) {
+                return null;
+            }
+            boolean pm = "pm".equals(matcher.group(3).toLowerCase(Locale.ROOT));
+            hour = hour % 12 + (pm ? 12 : 0);
+        } else {
+            hour = Integer.parseInt(matcher.group(4));
+            minute = Integer.parseInt(matcher.group(5));
+        }
+        if (hour > 23 || minute > 59) {
+            return null;
+        }
+        return LocalTime.of(hour, minute);
+    }
+
+    /**
+     * Removes a matched expression from the remaining text.
+     */
+    private static void cut(StringBuilder rest, Matcher matcher) {
+        rest.replace(matcher.start(), matcher.end(), " ");
+    }
+
+    private static String error(String message) {
+        return new JSONObject().put("error", message).toString();
+    }
+}
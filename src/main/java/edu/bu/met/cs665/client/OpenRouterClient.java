@@ -10,71 +10,229 @@ package edu.bu.met.cs665.client;
 
 import java.io.*;
 import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
+import edu.bu.met.cs665.metrics.LatencyHistogram;
+import edu.bu.met.cs665.metrics.Metrics;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
 /**
  * This class is responsible for interacting with the OpenRouter AI API.
  * Handles API key management and natural language processing of due requests.
+ * The API key is resolved lazily on the first request, never at class initialization.
+ * The endpoint and key can be injected, through the {@link Builder} or the
+ * "duemanager.ai.base.url" and "duemanager.ai.api.key" system properties, so that the client
+ * can be pointed at a local stand-in server for offline testing and benchmarking.
+ *
+ * <p>Every call runs under the deadline of a {@link RetryPolicy}: timeouts, 429 and 5xx
+ * responses are retried with jittered backoff, honoring Retry-After. A {@link CircuitBreaker}
+ * stops calling an endpoint that keeps failing; while it is open, and once retries are used up,
+ * requests are answered by the fallback parser if one is configured. A {@link RateLimiter}
+ * queues attempts so that bursts stay within the provider's quota, shedding them when its
+ * queue is full.
+ *
+ * <p>{@link #getStreamingResponse(String)} asks for a server-sent event stream instead and
+ * returns as soon as the closing brace of the due object arrives.
  */
-public class OpenRouterClient {
+public class OpenRouterClient implements DueParserBackend {
 
-    private static String OPENROUTER_API_KEY;
-    private static final String BASE_URL = "https://openrouter.ai/api/v1";
+    /** The OpenRouter API base URL. */
+    public static final String BASE_URL = "https://openrouter.ai/api/v1";
+    /** System property replacing {@link #BASE_URL} as the default endpoint. */
+    public static final String BASE_URL_PROPERTY = "duemanager.ai.base.url";
+    /** System property holding the API key; it takes precedence over the environment and config file. */
+    public static final String API_KEY_PROPERTY = "duemanager.ai.api.key";
+    /** The model used unless another is configured. */
+    public static final String MODEL = "meta-llama/llama-3.2-90b-vision-instruct:free";
+    private static final String CONFIG_FILE = "config.properties";
+    private static final LatencyHistogram REQUEST_LATENCY = Metrics.global().histogram("ai.request");
+    private static final LatencyHistogram ATTEMPT_LATENCY = Metrics.global().histogram("ai.attempt");
+    private static final LongAdder REQUEST_ERRORS = Metrics.global().counter("ai.request.errors");
+    private static final LongAdder RETRIES = Metrics.global().counter("ai.retries");
+    private static final LongAdder TIMEOUTS = Metrics.global().counter("ai.timeouts");
+    private static final LongAdder FALLBACKS = Metrics.global().counter("ai.fallbacks");
+    private static final LatencyHistogram STREAM_FIRST_DELTA = Metrics.global().histogram("ai.stream.first.delta");
+    private static final LatencyHistogram STREAM_OBJECT = Metrics.global().histogram("ai.stream.object");
 
-    static {
-        loadApiKey();
+    private final String baseUrl;
+    private final String model;
+    private final boolean streaming;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker circuitBreaker;
+    private final RateLimiter rateLimiter;
+    private final DueParserBackend fallback;
+    // Resolved on the first request so that constructing the client has no side effects
+    private String apiKey;
+
+    /**
+     * The result of one HTTP attempt.
+     */
+    private static final class Attempt {
+        private final String response;
+        private final boolean retryable;
+        private final long retryAfterMillis;
+
+        private Attempt(String response, boolean retryable, long retryAfterMillis) {
+            this.response = response;
+            this.retryable = retryable;
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        private boolean isError() {
+            return response.startsWith("{\"error\"");
+        }
+    }
+
+    /**
+     * Creates a client for the OpenRouter API using the default resilience settings.
+     * The API key is read from the environment or config.properties on first use, timeouts
+     * come from {@link RetryPolicy#fromSystemProperties()}, and the breaker opens after five
+     * consecutive failures for thirty seconds, answering with the {@link LocalDueParser}.
+     */
+    public OpenRouterClient() {
+        this(new Builder().fallback(new LocalDueParser()));
+    }
+
+    /**
+     * Creates a client for an OpenRouter-compatible endpoint.
+     *
+     * @param baseUrl        The API base URL, e.g. "https://openrouter.ai/api/v1"
+     * @param apiKey         The API key, or null to load it on first use
+     * @param retryPolicy    The timeouts and retry settings
+     * @param circuitBreaker The breaker guarding the endpoint
+     * @param fallback       The parser used when the endpoint is unavailable, or null to fail fast
+     */
+    public OpenRouterClient(String baseUrl, String apiKey, RetryPolicy retryPolicy, CircuitBreaker circuitBreaker,
+                            DueParserBackend fallback) {
+        this(new Builder()
+                .baseUrl(baseUrl)
+                .apiKey(apiKey)
+                .retryPolicy(retryPolicy)
+                .circuitBreaker(circuitBreaker)
+                .fallback(fallback));
+    }
+
+    /**
+     * Create an OpenRouterClient using a builder.
+     *
+     * @param builder for creating an OpenRouterClient
+     */
+    private OpenRouterClient(Builder builder) {
+        this.baseUrl = builder.baseUrl;
+        this.apiKey = builder.apiKey;
+        this.model = builder.model;
+        this.streaming = builder.streaming;
+        this.retryPolicy = builder.retryPolicy != null ? builder.retryPolicy : RetryPolicy.fromSystemProperties();
+        this.circuitBreaker = builder.circuitBreaker != null ? builder.circuitBreaker : new CircuitBreaker(5, 30_000);
+        this.rateLimiter = builder.limited && builder.rateLimiter == null
+                ? RateLimiter.fromSystemProperties() : builder.rateLimiter;
+        this.fallback = builder.fallback;
+    }
+
+    /**
+     * Gets the model and endpoint this client talks to.
+     *
+     * @return the model name, followed by "@baseUrl" for endpoints other than OpenRouter
+     */
+    @Override
+    public String getName() {
+        return BASE_URL.equals(baseUrl) ? model : model + "@" + baseUrl;
+    }
+
+    /**
+     * Parses a due request with this client's model, streaming if the client was built to.
+     *
+     * @param prompt The natural language description of the due
+     * @return A JSON string containing the structured due information or an {"error": ...} object
+     * @throws IllegalStateException if no usable API key is configured
+     */
+    @Override
+    public String parse(String prompt) {
+        return respond(prompt, streaming);
+    }
+
+    /**
+     * Gets the breaker guarding the endpoint.
+     *
+     * @return the circuit breaker
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
     }
 
     /**
-     * Loads the OpenRouter API key from environment variables or config file.
-     * If no API key is found, creates a config file template and exits.
-     * The API key can be set either through the OPENROUTER_API_KEY environment variable
-     * or in the config.properties file.
+     * Gets the OpenRouter API key, loading it on first use.
+     *
+     * @return the API key
+     * @throws IllegalStateException if no usable API key is configured
+     */
+    private synchronized String apiKey() {
+        if (apiKey == null) {
+            apiKey = loadApiKey();
+        }
+        return apiKey;
+    }
+
+    /**
+     * Loads the OpenRouter API key from a system property, environment variables or config file.
+     * If no API key is found, creates a config file template and fails.
+     * The API key can be set through the "duemanager.ai.api.key" system property, the
+     * OPENROUTER_API_KEY environment variable or the config.properties file.
+     *
+     * @return the API key
+     * @throws IllegalStateException if no usable API key is configured
      */
-    private static void loadApiKey() {
+    private static String loadApiKey() {
+        // An explicitly configured key wins, e.g. for a local stand-in server
+        String key = System.getProperty(API_KEY_PROPERTY);
+        if (key != null && !key.trim().isEmpty()) {
+            return key;
+        }
+
         // Load from environment variable
-        OPENROUTER_API_KEY = System.getenv("OPENROUTER_API_KEY");
+        key = System.getenv("OPENROUTER_API_KEY");
+        if (key != null && !key.trim().isEmpty()) {
+            return key;
+        }
 
         // If not found in environment, try to load from properties file
-        if (OPENROUTER_API_KEY == null || OPENROUTER_API_KEY.trim().isEmpty()) {
-            Properties props = new Properties();
-            File configFile = new File("config.properties");
-
-            // Create config file if it doesn't exist
-            if (!configFile.exists()) {
-                try (FileOutputStream out = new FileOutputStream(configFile)) {
-                    props.setProperty("openrouter.api.key", "API_KEY");
-                    props.store(out, "OpenRouter API Configuration");
-                    System.out.println("Created config.properties file. Please set your API key in the file.");
-                    System.exit(1);
-                } catch (IOException e) {
-                    System.err.println("Error creating config file: " + e.getMessage());
-                    System.exit(1);
-                }
-            }
+        Properties props = new Properties();
+        File configFile = new File(CONFIG_FILE);
 
-            // Load API key from config file
-            try (FileInputStream in = new FileInputStream(configFile)) {
-                props.load(in);
-                OPENROUTER_API_KEY = props.getProperty("openrouter.api.key");
-
-                if (OPENROUTER_API_KEY == null || OPENROUTER_API_KEY.trim().isEmpty()
-                        || "YOUR_API_KEY_HERE".equals(OPENROUTER_API_KEY)) {
-                    System.out.println("Please set your API key in config.properties file");
-                    System.exit(1);
-                }
+        // Create config file if it doesn't exist
+        if (!configFile.exists()) {
+            try (FileOutputStream out = new FileOutputStream(configFile)) {
+                props.setProperty("openrouter.api.key", "API_KEY");
+                props.store(out, "OpenRouter API Configuration");
             } catch (IOException e) {
-                System.err.println("Error loading config file: " + e.getMessage());
-                System.exit(1);
+                throw new IllegalStateException("Error creating config file: " + e.getMessage());
             }
+            throw new IllegalStateException("Created config.properties file. Please set your API key in the file.");
+        }
+
+        // Load API key from config file
+        try (FileInputStream in = new FileInputStream(configFile)) {
+            props.load(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Error loading config file: " + e.getMessage());
+        }
+        key = props.getProperty("openrouter.api.key");
+        if (key == null || key.trim().isEmpty() || "API_KEY".equals(key)
+                || "YOUR_API_KEY_HERE".equals(key)) {
+            throw new IllegalStateException("Please set your API key in config.properties file");
         }
+        return key;
     }
 
     /**
@@ -82,114 +240,517 @@ public class OpenRouterClient {
      * Converts user input into a structured JSON format containing course, title, and due date.
      *
      * @param prompt The natural language description of the due (e.g., "CS665 assignment 1 next tuesday")
-     * @return A JSON string containing the structured due information or error message
+     * @return A JSON string containing the structured due information or an {"error": ...} object
+     * @throws IllegalStateException if no usable API key is configured
+     */
+    public String getResponse(String prompt) {
+        return respond(prompt, false);
+    }
+
+    /**
+     * Sends a due request in streaming mode. The completion is read incrementally as
+     * server-sent events and the connection is dropped as soon as the due object is complete,
+     * instead of waiting for the whole completion body.
+     *
+     * @param prompt The natural language description of the due
+     * @return A JSON string containing the structured due information or an {"error": ...} object
+     * @throws IllegalStateException if no usable API key is configured
+     */
+    public String getStreamingResponse(String prompt) {
+        return respond(prompt, true);
+    }
+
+    /**
+     * Runs a due request with metrics.
+     *
+     * @param prompt The natural language description of the due
+     * @param stream Whether to request a streamed completion
+     * @return the model's answer, the fallback's answer, or an error object
+     */
+    private String respond(String prompt, boolean stream) {
+        String key = apiKey();
+        long start = System.nanoTime();
+        try {
+            String response = requestWithRetries(prompt, key, start, stream);
+            if (response.startsWith("{\"error\"")) {
+                REQUEST_ERRORS.increment();
+            }
+            return response;
+        } finally {
+            REQUEST_LATENCY.recordSince(start);
+        }
+    }
+
+    /**
+     * Runs attempts until one succeeds, fails permanently, or the deadline or attempts run out.
+     *
+     * @param prompt The natural language description of the due
+     * @param key    The API key
+     * @param start  The nanoTime at which the call started
+     * @param stream Whether to request a streamed completion
+     * @return the model's answer, the fallback's answer, or an error object
+     */
+    private String requestWithRetries(String prompt, String key, long start, boolean stream) {
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(retryPolicy.getDeadlineMillis());
+        Attempt last = null;
+        for (int attempt = 1; attempt <= retryPolicy.getMaxAttempts(); attempt++) {
+            boolean unreadable = false;
+            // Every attempt, retries included, counts against the provider's quota
+            if (!acquirePermit(deadline)) {
+                return fallback(prompt, last == null ? "Too many AI requests, try again later" : last.response);
+            }
+            try {
+                if (!circuitBreaker.allowRequest()) {
+                    return fallback(prompt, last == null ? "AI service unavailable, try again later" : last.response);
+                }
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                long attemptStart = System.nanoTime();
+                try {
+                    last = requestCompletion(prompt, key, Math.max(1, remainingMillis), stream);
+                } catch (RuntimeException e) {
+                    last = new Attempt(error("Failed to process API response: " + e.getMessage()), false, -1);
+                    unreadable = true;
+                }
+                ATTEMPT_LATENCY.recordSince(attemptStart);
+            } finally {
+                if (rateLimiter != null) {
+                    rateLimiter.release();
+                }
+            }
+            if (unreadable) {
+                // Every allowed request must be recorded, or a half-open trial would never end
+                circuitBreaker.recordFailure();
+                return fallback(prompt, last.response);
+            }
+            if (!last.isError() || !last.retryable) {
+                // The endpoint answered; a permanent error such as a bad key says nothing about its health
+                circuitBreaker.recordSuccess();
+                return last.response;
+            }
+            circuitBreaker.recordFailure();
+
+            if (attempt == retryPolicy.getMaxAttempts()) {
+                break;
+            }
+            long backoffMillis = retryPolicy.backoffMillis(attempt, last.retryAfterMillis);
+            if (System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMillis) >= deadline) {
+                break;
+            }
+            RETRIES.increment();
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return fallback(prompt, last.response);
+    }
+
+    /**
+     * Waits for the rate limiter to admit an attempt, at most until the call's deadline.
+     *
+     * @param deadline The nanoTime by which the call must finish
+     * @return true if the attempt may start, false if it was shed
+     */
+    private boolean acquirePermit(long deadline) {
+        if (rateLimiter == null) {
+            return true;
+        }
+        try {
+            return rateLimiter.acquire(deadline - System.nanoTime());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Answers with the fallback parser, or with the given error if there is none.
+     *
+     * @param prompt The natural language description of the due
+     * @param error  The error object to return without a fallback
+     * @return the fallback's answer or the error object
+     */
+    private String fallback(String prompt, String error) {
+        if (fallback == null) {
+            return error.startsWith("{\"error\"") ? error : error(error);
+        }
+        FALLBACKS.increment();
+        return fallback.parse(prompt);
+    }
+
+    /**
+     * Builds the chat completion request body for a due prompt.
+     *
+     * @param prompt The natural language description of the due
+     * @param stream Whether to request a streamed completion
+     * @return the request payload
+     */
+    private JSONObject buildPayload(String prompt, boolean stream) {
+        JSONObject message = new JSONObject();
+        message.put("role", "user");
+        LocalDateTime TodayDate = LocalDateTime.now();
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        String formattedDate = TodayDate.format(formatter);
+        DayOfWeek dayOfWeek = TodayDate.getDayOfWeek();
+        String currentDay = dayOfWeek.toString();
+        message.put("content", "You are a Due Manager Assistant. Return ONLY a raw JSON object without any markdown formatting or code blocks. "
+                + "The JSON must contain these required fields: course, title, and due_date. "
+                + "Optional fields that may be included if mentioned: location, notes. "
+                + "The current time is " + formattedDate + " and today is " + currentDay + ". "
+                + "Rules:"
+                + "1. The 'due_date' must be in the format 'yyyy-MM-dd HH:mm' (e.g., '2024-11-15 23:59')"
+                + "2. Do not include any explanations or markdown formatting"
+                + "3. Do not assume any data except for fixing obvious typos"
+                + "4. Always set time to 23:59 if no specific time is given"
+                + "5. Include 'location' if a place is mentioned"
+                + "6. Include 'notes' for any additional details"
+                + "7. Return ONLY the JSON object"
+                + "\nNow parse this due request: "
+                + prompt);
+        JSONObject payload = new JSONObject();
+        payload.put("model", model);
+        JSONArray messages = new JSONArray();
+        messages.put(message);
+        payload.put("messages", messages);
+        if (stream) {
+            payload.put("stream", true);
+        }
+        return payload;
+    }
+
+    /**
+     * Performs one chat completion request for a due prompt.
+     *
+     * @param prompt          The natural language description of the due
+     * @param key             The API key
+     * @param remainingMillis The time left before the call's deadline
+     * @param stream          Whether to request a streamed completion
+     * @return the outcome of the attempt
      */
-    public static String getResponse(String prompt) {
+    private Attempt requestCompletion(String prompt, String key, long remainingMillis, boolean stream) {
+        HttpURLConnection connection = null;
+        long start = System.nanoTime();
         try {
-            JSONObject message = new JSONObject();
-            message.put("role", "user");
-            LocalDateTime TodayDate = LocalDateTime.now();
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-            String formattedDate = TodayDate.format(formatter);
-            DayOfWeek dayOfWeek = TodayDate.getDayOfWeek();
-            String currentDay = dayOfWeek.toString();
-            message.put("content", "You are a Due Manager Assistant. Return ONLY a raw JSON object without any markdown formatting or code blocks. "
-                    + "The JSON must contain these required fields: course, title, and due_date. "
-                    + "Optional fields that may be included if mentioned: location, notes. "
-                    + "The current time is " + formattedDate + " and today is " + currentDay + ". "
-                    + "Rules:"
-                    + "1. The 'due_date' must be in the format 'yyyy-MM-dd HH:mm' (e.g., '2024-11-15 23:59')"
-                    + "2. Do not include any explanations or markdown formatting"
-                    + "3. Do not assume any data except for fixing obvious typos"
-                    + "4. Always set time to 23:59 if no specific time is given"
-                    + "5. Include 'location' if a place is mentioned"
-                    + "6. Include 'notes' for any additional details"
-                    + "7. Return ONLY the JSON object"
-                    + "\nNow parse this due request: "
-                    + prompt);
-            JSONObject payload = new JSONObject();
-            payload.put("model", "meta-llama/llama-3.2-90b-vision-instruct:free");
-            JSONArray messages = new JSONArray();
-            messages.put(message);
-            payload.put("messages", messages);
+            JSONObject payload = buildPayload(prompt, stream);
 
             // Create the URL object
-            URL url = new URL(BASE_URL + "/chat/completions");
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            URL url = new URL(baseUrl + "/chat/completions");
+            connection = (HttpURLConnection) url.openConnection();
+            connection.setConnectTimeout((int) Math.min(retryPolicy.getConnectTimeoutMillis(), remainingMillis));
+            connection.setReadTimeout((int) Math.min(retryPolicy.getReadTimeoutMillis(), remainingMillis));
             connection.setRequestMethod("POST");
-            connection.setRequestProperty("Authorization", "Bearer " + OPENROUTER_API_KEY);
+            connection.setRequestProperty("Authorization", "Bearer " + key);
             connection.setRequestProperty("Content-Type", "application/json");
+            if (stream) {
+                connection.setRequestProperty("Accept", "text/event-stream");
+            }
             connection.setDoOutput(true);
 
             try (OutputStream os = connection.getOutputStream()) {
-                byte[] input = payload.toString().getBytes("utf-8");
+                byte[] input = payload.toString().getBytes(StandardCharsets.UTF_8);
                 os.write(input, 0, input.length);
             }
 
             int responseCode = connection.getResponseCode();
             if (responseCode == HttpURLConnection.HTTP_OK) {
-                BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-                String inputLine;
-                StringBuilder response = new StringBuilder();
-                while ((inputLine = in.readLine()) != null) {
-                    response.append(inputLine);
+                String contentType = connection.getContentType();
+                if (stream && contentType != null && contentType.startsWith("text/event-stream")) {
+                    return readStream(connection.getInputStream(), start);
                 }
-                in.close();
+                return parseCompletion(readFully(connection.getInputStream()));
+            }
+            String errorResponse;
+            try {
+                InputStream errorStream = connection.getErrorStream();
+                errorResponse = errorStream == null ? "" : readFully(errorStream);
+            } catch (IOException e) {
+                errorResponse = "Failed to read error response";
+            }
+            return new Attempt(error("HTTP " + responseCode + ": " + errorResponse), isRetryable(responseCode),
+                    parseRetryAfter(connection.getHeaderField("Retry-After")));
+        } catch (SocketTimeoutException e) {
+            TIMEOUTS.increment();
+            return new Attempt(error("AI request timed out: " + e.getMessage()), true, -1);
+        } catch (IOException e) {
+            return new Attempt(error("AI request failed: " + e.getMessage()), true, -1);
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Extracts the model's answer from a successful chat completion body.
+     * Upstream providers report some failures, such as rate limits, inside a 200 response.
+     *
+     * @param body The response body
+     * @return the outcome of the attempt
+     */
+    private static Attempt parseCompletion(String body) {
+        try {
+            JSONObject jsonResponse = new JSONObject(body);
 
-                // Print raw response for debugging
-                //System.out.println("Debug - Raw API Response: " + response.toString());
+            // Check for error response
+            if (jsonResponse.has("error")) {
+                JSONObject error = jsonResponse.getJSONObject("error");
+                String errorMessage = "API Error";
 
-                try {
-                    JSONObject jsonResponse = new JSONObject(response.toString());
-
-                    // Check for error response
-                    if (jsonResponse.has("error")) {
-                        JSONObject error = jsonResponse.getJSONObject("error");
-                        String errorMessage = "API Error";
-
-                        // Check for nested error message in metadata
-                        if (error.has("metadata")) {
-                            JSONObject metadata = error.getJSONObject("metadata");
-                            if (metadata.has("raw")) {
-                                JSONObject rawError = new JSONObject(metadata.getString("raw"));
-                                if (rawError.has("error")) {
-                                    JSONObject detailedError = rawError.getJSONObject("error");
-                                    if (detailedError.has("message")) {
-                                        errorMessage = detailedError.getString("message");
-                                    }
-                                }
-                            }
-                        } else if (error.has("message")) {
-                            errorMessage = error.getString("message");
-                        }
-
-                        return "{\"error\": \"" + errorMessage + "\"}";
+                // Check for nested error message in metadata
+                if (error.has("metadata") && error.getJSONObject("metadata").has("raw")) {
+                    JSONObject rawError = new JSONObject(error.getJSONObject("metadata").getString("raw"));
+                    if (rawError.has("error") && rawError.getJSONObject("error").has("message")) {
+                        errorMessage = rawError.getJSONObject("error").getString("message");
                     }
+                } else if (error.has("message")) {
+                    errorMessage = error.getString("message");
+                }
+
+                return new Attempt(error(errorMessage), isRetryable(error.optInt("code", 500)), -1);
+            }
 
-                    JSONArray choices = jsonResponse.getJSONArray("choices");
-                    JSONObject choice = choices.getJSONObject(0);
-                    JSONObject messageResponse = choice.getJSONObject("message");
-                    return messageResponse.getString("content");
+            JSONArray choices = jsonResponse.getJSONArray("choices");
+            JSONObject choice = choices.getJSONObject(0);
+            JSONObject messageResponse = choice.getJSONObject("message");
+            return new Attempt(messageResponse.getString("content"), false, -1);
+        } catch (Exception e) {
+            return new Attempt(error("Failed to process API response: " + e.getMessage()), false, -1);
+        }
+    }
+
+    /**
+     * Reads a streamed completion until the due object is complete or the stream ends.
+     * Each event carries a content delta; an event may instead carry an error, which the
+     * provider uses for failures that happen after the response has started.
+     *
+     * @param body  The event stream
+     * @param start The nanoTime at which the attempt started
+     * @return the outcome of the attempt
+     * @throws IOException if the stream breaks before the object is complete
+     */
+    private static Attempt readStream(InputStream body, long start) throws IOException {
+        JsonObjectAccumulator content = new JsonObjectAccumulator();
+        boolean first = true;
+        try (ServerSentEventReader events = new ServerSentEventReader(body)) {
+            String data;
+            while ((data = events.nextData()) != null && !"[DONE]".equals(data)) {
+                JSONObject event;
+                try {
+                    event = new JSONObject(data);
                 } catch (Exception e) {
-                    return "{\"error\": \"Failed to process API response: " + e.getMessage() + "\"}";
+                    continue;
                 }
-            } else {
-                StringBuilder errorResponse = new StringBuilder();
-                try (BufferedReader errorReader = new BufferedReader(new InputStreamReader(connection.getErrorStream()))) {
-                    String line;
-                    while ((line = errorReader.readLine()) != null) {
-                        errorResponse.append(line);
-                    }
-                } catch (IOException e) {
-                    return "{\"error\": \"Failed to read error response\"}";
+                if (event.has("error")) {
+                    return parseCompletion(data);
+                }
+                JSONArray choices = event.optJSONArray("choices");
+                // A malformed event is skipped like one without content
+                JSONObject choice = choices == null ? null : choices.optJSONObject(0);
+                JSONObject delta = choice == null ? null : choice.optJSONObject("delta");
+                String text = delta == null ? null : delta.optString("content", null);
+                if (text == null || text.isEmpty()) {
+                    continue;
+                }
+                if (first) {
+                    STREAM_FIRST_DELTA.recordSince(start);
+                    first = false;
+                }
+                if (content.append(text)) {
+                    // Everything after the closing brace is of no use; stop reading and drop the connection
+                    STREAM_OBJECT.recordSince(start);
+                    return new Attempt(content.getResult(), false, -1);
                 }
-                return "{\"error\": \"HTTP " + responseCode + ": " + errorResponse.toString() + "\"}";
-
             }
+        }
+        String result = content.getResult();
+        if (result.isEmpty()) {
+            return new Attempt(error("Empty streamed response"), true, -1);
+        }
+        return new Attempt(result, false, -1);
+    }
 
+    /**
+     * Checks whether a status code signals a transient condition worth retrying.
+     *
+     * @param status The HTTP status code
+     * @return true for timeouts, rate limiting and server errors
+     */
+    private static boolean isRetryable(int status) {
+        return status == 408 || status == 429 || status >= 500;
+    }
+
+    /**
+     * Parses a Retry-After header given either in seconds or as an HTTP date.
+     *
+     * @param value The header value, or null
+     * @return the requested wait in milliseconds, or -1 if there is none
+     */
+    static long parseRetryAfter(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return -1;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            // Not a number of seconds; try an HTTP date
+        }
+        try {
+            ZonedDateTime when = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Math.max(0, Duration.between(ZonedDateTime.now(when.getZone()), when).toMillis());
         } catch (Exception e) {
-            e.printStackTrace();
-            return "An error occurred: " + e.getMessage();
+            return -1;
+        }
+    }
+
+    /**
+     * Reads a response stream completely as UTF-8.
+     */
+    private static String readFully(InputStream stream) throws IOException {
+        StringBuilder response = new StringBuilder();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String inputLine;
+            while ((inputLine = in.readLine()) != null) {
+                response.append(inputLine);
+            }
+        }
+        return response.toString();
+    }
+
+    /**
+     * Builds an {"error": ...} object with the message properly escaped.
+     */
+    private static String error(String message) {
+        return new JSONObject().put("error", message).toString();
+    }
+
+    /**
+     * Gets the endpoint used when none is given: the "duemanager.ai.base.url" system property,
+     * or OpenRouter.
+     *
+     * @return the default base URL
+     */
+    public static String defaultBaseUrl() {
+        String baseUrl = System.getProperty(BASE_URL_PROPERTY);
+        return baseUrl == null || baseUrl.trim().isEmpty() ? BASE_URL : baseUrl.trim();
+    }
+
+    /**
+     * Builder class for creating OpenRouterClient objects.
+     * Unset settings default to {@link #defaultBaseUrl()}, the default model, the key from the
+     * system property, the environment or config.properties, {@link RetryPolicy#fromSystemProperties()}, a breaker opening after five
+     * failures for thirty seconds, {@link RateLimiter#fromSystemProperties()}, no streaming and
+     * no fallback.
+     */
+    public static class Builder {
+        private String baseUrl = defaultBaseUrl();
+        private String apiKey;
+        private String model = MODEL;
+        private boolean streaming;
+        private RetryPolicy retryPolicy;
+        private CircuitBreaker circuitBreaker;
+        private RateLimiter rateLimiter;
+        private boolean limited = true;
+        private DueParserBackend fallback;
+
+        /**
+         * Sets the API base URL.
+         *
+         * @param baseUrl the base URL, e.g. "https://openrouter.ai/api/v1"
+         * @return this builder for method chaining
+         */
+        public Builder baseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+            return this;
+        }
+
+        /**
+         * Sets the API key.
+         *
+         * @param apiKey the API key, or null to load it on first use
+         * @return this builder for method chaining
+         */
+        public Builder apiKey(String apiKey) {
+            this.apiKey = apiKey;
+            return this;
+        }
+
+        /**
+         * Sets the model to request.
+         *
+         * @param model the model name
+         * @return this builder for method chaining
+         */
+        public Builder model(String model) {
+            this.model = model;
+            return this;
+        }
+
+        /**
+         * Sets whether {@link OpenRouterClient#parse(String)} requests streamed completions.
+         *
+         * @param streaming true to stream
+         * @return this builder for method chaining
+         */
+        public Builder streaming(boolean streaming) {
+            this.streaming = streaming;
+            return this;
+        }
+
+        /**
+         * Sets the timeouts and retry settings.
+         *
+         * @param retryPolicy the retry policy
+         * @return this builder for method chaining
+         */
+        public Builder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the breaker guarding the endpoint.
+         *
+         * @param circuitBreaker the circuit breaker
+         * @return this builder for method chaining
+         */
+        public Builder circuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        /**
+         * Sets the rate limiter admitting requests. Clients calling the same provider should
+         * share one limiter so that together they stay within its quota.
+         *
+         * @param rateLimiter the rate limiter, or null for no limit
+         * @return this builder for method chaining
+         */
+        public Builder rateLimiter(RateLimiter rateLimiter) {
+            this.rateLimiter = rateLimiter;
+            this.limited = rateLimiter != null;
+            return this;
+        }
+
+        /**
+         * Sets the backend answering when the endpoint is unavailable.
+         *
+         * @param fallback the fallback backend, or null to fail fast
+         * @return this builder for method chaining
+         */
+        public Builder fallback(DueParserBackend fallback) {
+            this.fallback = fallback;
+            return this;
+        }
+
+        /**
+         * Builds and returns a new OpenRouterClient with the configured settings.
+         *
+         * @return a new OpenRouterClient instance
+         */
+        public OpenRouterClient build() {
+            return new OpenRouterClient(this);
         }
     }
 }
@@ -0,0 +1,211 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: RateLimiter.java
+ * Description: This class keeps AI requests within the provider's rate limits.
+ */
+
+package edu.bu.met.cs665.client;
+
+import edu.bu.met.cs665.metrics.LatencyHistogram;
+import edu.bu.met.cs665.metrics.Metrics;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token-bucket rate limiter with a cap on requests in flight and a bounded wait queue.
+ * A request needs a token, refilled at the configured rate up to the burst size, and a free
+ * in-flight slot. Callers that cannot start at once wait in first-come order; when the queue
+ * is full, or the wait would outlast the caller's deadline, the request is shed instead.
+ */
+public class RateLimiter {
+    /** System property setting the sustained request rate. */
+    public static final String REQUESTS_PER_MINUTE_PROPERTY = "duemanager.ai.requests.per.minute";
+    /** System property setting the number of requests allowed at once. */
+    public static final String MAX_IN_FLIGHT_PROPERTY = "duemanager.ai.max.in.flight";
+    /** System property setting the number of callers allowed to wait. */
+    public static final String QUEUE_CAPACITY_PROPERTY = "duemanager.ai.queue.capacity";
+
+    private static final LatencyHistogram WAIT = Metrics.global().histogram("ai.ratelimit.wait");
+    private static final LongAdder SHED = Metrics.global().counter("ai.ratelimit.shed");
+
+    private final double tokensPerNano;
+    private final double burst;
+    private final int maxInFlight;
+    private final int queueCapacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Deque<Object> queue = new ArrayDeque<>();
+    private double tokens;
+    private long lastRefill = System.nanoTime();
+    private int inFlight;
+
+    /**
+     * Creates a limiter whose bucket starts full.
+     *
+     * @param requestsPerMinute The sustained request rate
+     * @param burst             The number of requests that may start back to back after a quiet period
+     * @param maxInFlight       The number of requests allowed at once
+     * @param queueCapacity     The number of callers allowed to wait; 0 sheds whenever a caller would wait
+     * @throws IllegalArgumentException if a setting is out of range
+     */
+    public RateLimiter(double requestsPerMinute, int burst, int maxInFlight, int queueCapacity) {
+        if (requestsPerMinute <= 0 || burst < 1 || maxInFlight < 1 || queueCapacity < 0) {
+            throw new IllegalArgumentException("Rate, burst and in-flight limit must be positive, queue non-negative");
+        }
+        this.tokensPerNano = requestsPerMinute / TimeUnit.MINUTES.toNanos(1);
+        this.burst = burst;
+        this.maxInFlight = maxInFlight;
+        this.queueCapacity = queueCapacity;
+        this.tokens = burst;
+    }
+
+    /**
+     * Creates a limiter from the "duemanager.ai.*" system properties. The defaults, 20 requests
+     * per minute with 4 in flight and 32 waiting, match OpenRouter's free tier; the burst equals
+     * the in-flight limit.
+     *
+     * @return the limiter
+     */
+    public static RateLimiter fromSystemProperties() {
+        int maxInFlight = Integer.getInteger(MAX_IN_FLIGHT_PROPERTY, 4);
+        return new RateLimiter(Double.parseDouble(System.getProperty(REQUESTS_PER_MINUTE_PROPERTY, "20")),
+                maxInFlight, maxInFlight, Integer.getInteger(QUEUE_CAPACITY_PROPERTY, 32));
+    }
+
+    /**
+     * Publishes gauges for the number of waiting and running requests.
+     *
+     * @param metrics The registry to publish to
+     */
+    public void registerGauges(Metrics metrics) {
+        metrics.gauge("ai.ratelimit.queue.depth", this::getQueueDepth);
+        metrics.gauge("ai.ratelimit.in.flight", this::getInFlight);
+    }
+
+    /**
+     * Waits for permission to start a request. Every successful call must be paired with
+     * {@link #release()} once the request has finished.
+     *
+     * @param maxWaitNanos The longest the caller is willing to wait
+     * @return true if the request may start, false if it was shed
+     * @throws InterruptedException if the caller is interrupted while waiting
+     */
+    public boolean acquire(long maxWaitNanos) throws InterruptedException {
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            if (queue.isEmpty() && tryTake()) {
+                WAIT.recordSince(start);
+                return true;
+            }
+            if (queue.size() >= queueCapacity) {
+                SHED.increment();
+                return false;
+            }
+            Object ticket = new Object();
+            queue.addLast(ticket);
+            try {
+                long deadline = start + maxWaitNanos;
+                while (true) {
+                    if (queue.peekFirst() == ticket && tryTake()) {
+                        WAIT.recordSince(start);
+                        return true;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        SHED.increment();
+                        return false;
+                    }
+                    changed.awaitNanos(Math.min(remaining, nanosUntilToken()));
+                }
+            } finally {
+                queue.remove(ticket);
+                // The next caller in line may be able to go now
+                changed.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reports that a request has finished, freeing its in-flight slot.
+     */
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of callers waiting for permission.
+     *
+     * @return the queue depth
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of requests currently running.
+     *
+     * @return the in-flight count
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a token and an in-flight slot if both are available. Must hold the lock.
+     */
+    private boolean tryTake() {
+        refill();
+        if (inFlight < maxInFlight && tokens >= 1) {
+            tokens--;
+            inFlight++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds the tokens earned since the last refill. Must hold the lock.
+     */
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+
+    /**
+     * Gets the time until the next token, or a long wait if a token is available and the
+     * caller is waiting for a slot or its turn, which a signal will end. Must hold the lock.
+     */
+    private long nanosUntilToken() {
+        if (tokens >= 1) {
+            return TimeUnit.SECONDS.toNanos(1);
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+    }
+}
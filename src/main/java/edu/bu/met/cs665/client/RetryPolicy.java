@@ -0,0 +1,208 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: RetryPolicy.java
+ * Description: This class holds the timeouts and retry settings of the AI client.
+ */
+
+package edu.bu.met.cs665.client;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Timeouts and retry settings for calls to the AI endpoint.
+ * A call gets an overall deadline; within it, transient failures (timeouts, 429 and 5xx
+ * responses) are retried with exponential backoff and full jitter, waiting at least as long
+ * as the server asks for in a Retry-After header.
+ */
+public class RetryPolicy {
+    /** System property prefix for overriding the defaults, e.g. "duemanager.ai.deadline.ms". */
+    public static final String PROPERTY_PREFIX = "duemanager.ai.";
+
+    private final long connectTimeoutMillis;
+    private final long readTimeoutMillis;
+    private final long deadlineMillis;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    private RetryPolicy(Builder builder) {
+        this.connectTimeoutMillis = builder.connectTimeoutMillis;
+        this.readTimeoutMillis = builder.readTimeoutMillis;
+        this.deadlineMillis = builder.deadlineMillis;
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoffMillis = builder.initialBackoffMillis;
+        this.maxBackoffMillis = builder.maxBackoffMillis;
+    }
+
+    /**
+     * Creates the default policy, overridden by any "duemanager.ai.*" system properties:
+     * connect.timeout.ms, read.timeout.ms, deadline.ms, max.attempts, backoff.initial.ms and
+     * backoff.max.ms.
+     *
+     * @return the policy
+     * @throws IllegalArgumentException if a property holds an invalid value
+     */
+    public static RetryPolicy fromSystemProperties() {
+        Builder builder = new Builder();
+        return builder
+                .connectTimeoutMillis(Long.getLong(PROPERTY_PREFIX + "connect.timeout.ms", builder.connectTimeoutMillis))
+                .readTimeoutMillis(Long.getLong(PROPERTY_PREFIX + "read.timeout.ms", builder.readTimeoutMillis))
+                .deadlineMillis(Long.getLong(PROPERTY_PREFIX + "deadline.ms", builder.deadlineMillis))
+                .maxAttempts(Integer.getInteger(PROPERTY_PREFIX + "max.attempts", builder.maxAttempts))
+                .initialBackoffMillis(Long.getLong(PROPERTY_PREFIX + "backoff.initial.ms",
+                        builder.initialBackoffMillis))
+                .maxBackoffMillis(Long.getLong(PROPERTY_PREFIX + "backoff.max.ms", builder.maxBackoffMillis))
+                .build();
+    }
+
+    /**
+     * Gets the time allowed to establish a connection.
+     *
+     * @return the connect timeout in milliseconds
+     */
+    public long getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    /**
+     * Gets the time allowed between bytes of a response.
+     *
+     * @return the read timeout in milliseconds
+     */
+    public long getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    /**
+     * Gets the time allowed for a whole call, including every retry and backoff.
+     *
+     * @return the deadline in milliseconds
+     */
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    /**
+     * Gets the maximum number of attempts of a call, including the first.
+     *
+     * @return the maximum number of attempts
+     */
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Computes how long to wait before a retry.
+     * The wait is drawn uniformly from zero to the exponential ceiling so that clients which
+     * failed together do not retry together, and is never shorter than the server's Retry-After.
+     *
+     * @param retry            The number of the retry, starting at 1
+     * @param retryAfterMillis The wait the server asked for, or a negative value if it did not
+     * @return the wait in milliseconds
+     */
+    public long backoffMillis(int retry, long retryAfterMillis) {
+        int shift = Math.min(retry - 1, 30);
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << shift);
+        long jittered = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        return Math.max(jittered, retryAfterMillis);
+    }
+
+    /**
+     * Builder class for creating RetryPolicy objects.
+     */
+    public static class Builder {
+        private long connectTimeoutMillis = 5_000;
+        private long readTimeoutMillis = 30_000;
+        private long deadlineMillis = 60_000;
+        private int maxAttempts = 4;
+        private long initialBackoffMillis = 500;
+        private long maxBackoffMillis = 8_000;
+
+        /**
+         * Sets the time allowed to establish a connection.
+         *
+         * @param millis the connect timeout in milliseconds
+         * @return this builder for method chaining
+         */
+        public Builder connectTimeoutMillis(long millis) {
+            this.connectTimeoutMillis = millis;
+            return this;
+        }
+
+        /**
+         * Sets the time allowed between bytes of a response.
+         *
+         * @param millis the read timeout in milliseconds
+         * @return this builder for method chaining
+         */
+        public Builder readTimeoutMillis(long millis) {
+            this.readTimeoutMillis = millis;
+            return this;
+        }
+
+        /**
+         * Sets the time allowed for a whole call, including every retry.
+         *
+         * @param millis the deadline in milliseconds
+         * @return this builder for method chaining
+         */
+        public Builder deadlineMillis(long millis) {
+            this.deadlineMillis = millis;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of attempts of a call, including the first.
+         *
+         * @param attempts the maximum number of attempts
+         * @return this builder for method chaining
+         */
+        public Builder maxAttempts(int attempts) {
+            this.maxAttempts = attempts;
+            return this;
+        }
+
+        /**
+         * Sets the backoff ceiling of the first retry; it doubles with every further retry.
+         *
+         * @param millis the initial backoff in milliseconds
+         * @return this builder for method chaining
+         */
+        public Builder initialBackoffMillis(long millis) {
+            this.initialBackoffMillis = millis;
+            return this;
+        }
+
+        /**
+         * Sets the largest backoff ceiling.
+         *
+         * @param millis the maximum backoff in milliseconds
+         * @return this builder for method chaining
+         */
+        public Builder maxBackoffMillis(long millis) {
+            this.maxBackoffMillis = millis;
+            return this;
+        }
+
+        /**
+         * Builds and returns a new RetryPolicy with the configured settings.
+         *
+         * @return a new RetryPolicy instance
+         * @throws IllegalArgumentException if a setting is out of range
+         */
+        public RetryPolicy build() {
+            if (connectTimeoutMillis <= 0 || readTimeoutMillis <= 0 || deadlineMillis <= 0) {
+                throw new IllegalArgumentException("Timeouts and deadline must be positive");
+            }
+            if (maxAttempts < 1) {
+                throw new IllegalArgumentException("Max attempts must be at least 1");
+            }
+            if (initialBackoffMillis < 0 || maxBackoffMillis < initialBackoffMillis) {
+                throw new IllegalArgumentException("Backoff must be non-negative and max >= initial");
+            }
+            return new RetryPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: ServerSentEventReader.java
+ * Description: This class reads the data of server-sent events from a stream.
+ */
+
+package edu.bu.met.cs665.client;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Incremental reader for a text/event-stream body.
+ * Each call returns the data of the next event as soon as its terminating blank line has
+ * arrived, so a caller can act on early events while later ones are still in flight.
+ * Comment lines (": keep-alive") and fields other than "data" are skipped.
+ */
+public class ServerSentEventReader implements Closeable {
+    private final BufferedReader reader;
+    private final StringBuilder data = new StringBuilder();
+
+    /**
+     * Creates a reader over a UTF-8 event stream.
+     *
+     * @param stream The response body
+     */
+    public ServerSentEventReader(InputStream stream) {
+        this.reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads up to the end of the next event that carries data.
+     *
+     * @return the event data, with multiple data lines joined by newlines, or null at the end of the stream
+     * @throws IOException if the stream cannot be read
+     */
+    public String nextData() throws IOException {
+        data.setLength(0);
+        boolean hasData = false;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                if (hasData) {
+                    return data.toString();
+                }
+                continue;
+            }
+            if (line.startsWith(":") || !line.startsWith("data")) {
+                continue;
+            }
+            String value = line.length() > 4 && line.charAt(4) == ':' ? line.substring(5) : "";
+            if (value.startsWith(" ")) {
+                value = value.substring(1);
+            }
+            if (hasData) {
+                data.append('\n');
+            }
+            data.append(value);
+            hasData = true;
+        }
+        // A final event without its blank line still counts
+        return hasData ? data.toString() : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: AddRecurringDueCommand.java
+ * Description: This class implements the Command pattern for adding recurring dues.
+ */
+
+package edu.bu.met.cs665.command;
+
+import edu.bu.met.cs665.model.RecurringDue;
+import edu.bu.met.cs665.service.DueManager;
+
+/**
+ * Command implementation for adding a recurring due.
+ * Provides functionality to execute and undo the addition of a whole series.
+ */
+public class AddRecurringDueCommand implements DueCommand {
+    private final RecurringDue recurringDue;
+    private final DueManager dueManager;
+
+    /**
+     * Creates a new AddRecurringDueCommand.
+     *
+     * @param dueManager   The DueManager instance to perform operations on
+     * @param recurringDue The series to be added
+     */
+    public AddRecurringDueCommand(DueManager dueManager, RecurringDue recurringDue) {
+        this.dueManager = dueManager;
+        this.recurringDue = recurringDue;
+    }
+
+    /**
+     * Executes the add operation by adding the series to the manager.
+     */
+    @Override
+    public void execute() {
+        dueManager.addRecurringDue(recurringDue);
+    }
+
+    /**
+     * Undoes the add operation by removing the series from the manager.
+     */
+    @Override
+    public void undo() {
+        dueManager.removeRecurringDue(recurringDue.getId());
+    }
+}
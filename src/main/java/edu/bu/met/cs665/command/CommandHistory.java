@@ -8,6 +8,9 @@
 
 package edu.bu.met.cs665.command;
 
+import edu.bu.met.cs665.metrics.LatencyHistogram;
+import edu.bu.met.cs665.metrics.Metrics;
+
 import java.util.Stack;
 
 /**
@@ -15,6 +18,9 @@ import java.util.Stack;
  * Uses two stacks to track commands that can be undone or redone.
  */
 public class CommandHistory {
+    private static final LatencyHistogram EXECUTE_LATENCY = Metrics.global().histogram("command.execute");
+    private static final LatencyHistogram UNDO_LATENCY = Metrics.global().histogram("command.undo");
+    private static final LatencyHistogram REDO_LATENCY = Metrics.global().histogram("command.redo");
     private final Stack<DueCommand> undoStack = new Stack<>();
     private final Stack<DueCommand> redoStack = new Stack<>();
 
@@ -25,9 +31,11 @@ public class CommandHistory {
      * @param command The command to execute
      */
     public void executeCommand(DueCommand command) {
+        long start = System.nanoTime();
         command.execute();
         undoStack.push(command);
         redoStack.clear();
+        EXECUTE_LATENCY.recordSince(start);
     }
 
     /**
@@ -35,9 +43,11 @@ public class CommandHistory {
      */
     public void undo() {
         if (!undoStack.isEmpty()) {
+            long start = System.nanoTime();
             DueCommand command = undoStack.pop();
             command.undo();
             redoStack.push(command);
+            UNDO_LATENCY.recordSince(start);
         }
     }
 
@@ -46,12 +56,23 @@ public class CommandHistory {
      */
     public void redo() {
         if (!redoStack.isEmpty()) {
+            long start = System.nanoTime();
             DueCommand command = redoStack.pop();
             command.execute();
             undoStack.push(command);
+            REDO_LATENCY.recordSince(start);
         }
     }
 
+    /**
+     * Gets the number of commands that can be undone.
+     *
+     * @return the size of the undo stack
+     */
+    public int getUndoDepth() {
+        return undoStack.size();
+    }
+
     /**
      * Checks if there are commands that can be undone.
      *
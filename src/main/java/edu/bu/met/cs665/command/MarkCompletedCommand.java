@@ -9,21 +9,26 @@
 package edu.bu.met.cs665.command;
 
 import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.service.DueManager;
 
 /**
  * Command implementation for marking a due as completed.
  * Provides functionality to execute and undo completion status changes.
+ * The due may be an occurrence of a recurring due, in which case only that occurrence changes.
  */
 public class MarkCompletedCommand implements DueCommand {
     private final Due due;
+    private final DueManager dueManager;
     private final boolean previousState;
 
     /**
-     * Creates a new MarkCompletedCommand.
+     * Creates a new MarkCompletedCommand that goes through the manager, so the change is saved.
      *
-     * @param due The Due instance to be marked as completed
+     * @param dueManager The DueManager instance to perform operations on
+     * @param due        The Due instance to be marked as completed
      */
-    public MarkCompletedCommand(Due due) {
+    public MarkCompletedCommand(DueManager dueManager, Due due) {
+        this.dueManager = dueManager;
         this.due = due;
         this.previousState = due.isCompleted();
     }
@@ -33,7 +38,7 @@ public class MarkCompletedCommand implements DueCommand {
      */
     @Override
     public void execute() {
-        due.setCompleted(true);
+        setCompleted(true);
     }
 
     /**
@@ -41,6 +46,15 @@ public class MarkCompletedCommand implements DueCommand {
      */
     @Override
     public void undo() {
-        due.setCompleted(previousState);
+        setCompleted(previousState);
+    }
+
+    /**
+     * Applies a completion status through the manager, which publishes a new version of the due.
+     *
+     * @param completed The completion status to apply
+     */
+    private void setCompleted(boolean completed) {
+        dueManager.setCompleted(due, completed);
     }
 }
\ No newline at end of file
@@ -0,0 +1,105 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: CsvDueExporter.java
+ * Description: This class is responsible for exporting dues as CSV.
+ */
+
+package edu.bu.met.cs665.export;
+
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.storage.DueJsonFormat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes RFC 4180 CSV: a header row, then one row per due with CRLF line endings. Fields
+ * holding a comma, a quote or a line break are quoted, with quotes doubled; missing optional
+ * fields are left empty. Dates use the stored "yyyy-MM-dd HH:mm" pattern. A recurring series is
+ * written as one row per occurrence, each carrying the series ID and its own completion status.
+ */
+class CsvDueExporter extends DueExporter {
+    private static final String HEADER = "id,course,title,due_date,completed,location,notes";
+    private static final String LINE_END = "\r\n";
+
+    private final Writer writer;
+
+    /**
+     * Creates an exporter.
+     *
+     * @param out The stream to write to
+     */
+    CsvDueExporter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    @Override
+    public void begin() throws IOException {
+        writer.write(HEADER);
+        writer.write(LINE_END);
+    }
+
+    @Override
+    public void write(Due due) throws IOException {
+        writer.write(Integer.toString(due.getId()));
+        writer.write(',');
+        writeField(due.getCourse());
+        writer.write(',');
+        writeField(due.getTitle());
+        writer.write(',');
+        writer.write(due.getDueDate().format(DueJsonFormat.DATE_TIME));
+        writer.write(',');
+        writer.write(due.isCompleted() ? "true" : "false");
+        writer.write(',');
+        writeField(due.getLocation());
+        writer.write(',');
+        writeField(due.getNotes());
+        writer.write(LINE_END);
+    }
+
+    @Override
+    public void end() throws IOException {
+        writer.flush();
+    }
+
+    /**
+     * Writes a text field, quoting it only when it needs to be.
+     *
+     * @param value The field, may be null
+     * @throws IOException if the stream cannot be written
+     */
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (!needsQuotes(value)) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
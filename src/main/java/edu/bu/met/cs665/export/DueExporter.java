@@ -0,0 +1,195 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: DueExporter.java
+ * Description: This class is the base of the streaming due exporters.
+ */
+
+package edu.bu.met.cs665.export;
+
+import edu.bu.met.cs665.metrics.LatencyHistogram;
+import edu.bu.met.cs665.metrics.Metrics;
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.model.RecurringDue;
+import edu.bu.met.cs665.query.DueQuery;
+import edu.bu.met.cs665.service.DueSnapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Streams dues to an output stream in one {@link ExportFormat}. Each due is encoded into a
+ * fixed-size buffer and the buffer is drained to the stream as it fills. Memory use therefore
+ * does not grow with the store, and a store of any size can be exported from an iterator over
+ * a snapshot. Recurring series follow the one-off dues; each format decides whether a series
+ * is written once, with its rule, or as its occurrences. Implements the Template Method
+ * pattern: {@link #export} drives {@link #begin()}, {@link #write(Due)},
+ * {@link #write(RecurringDue, List, long)} and {@link #end()}. Exporters never close the stream
+ * they write to.
+ */
+public abstract class DueExporter {
+    /** Size of the buffer each exporter encodes into. */
+    protected static final int BUFFER_SIZE = 8 * 1024;
+
+    private static final LatencyHistogram EXPORT_LATENCY = Metrics.global().histogram("export");
+    private static final LongAdder EXPORTED = Metrics.global().counter("export.dues");
+
+    /**
+     * Writes what comes before the first due, such as a header row.
+     *
+     * @throws IOException if the stream cannot be written
+     */
+    public abstract void begin() throws IOException;
+
+    /**
+     * Writes one due.
+     *
+     * @param due The due to write
+     * @throws IOException if the stream cannot be written
+     */
+    public abstract void write(Due due) throws IOException;
+
+    /**
+     * Writes one recurring series. By default each given occurrence is written as a due, up to
+     * the limit; formats that can carry the rule itself write the series once instead.
+     *
+     * @param recurringDue The series to write
+     * @param occurrences  The occurrences the filter accepted, in date order; never empty
+     * @param limit        The most records that may still be written
+     * @return the number of records written
+     * @throws IOException if the stream cannot be written
+     */
+    public long write(RecurringDue recurringDue, List<Due> occurrences, long limit) throws IOException {
+        long written = 0;
+        for (Due occurrence : occurrences) {
+            if (written >= limit) {
+                break;
+            }
+            write(occurrence);
+            written++;
+        }
+        return written;
+    }
+
+    /**
+     * Writes what comes after the last due and flushes the buffer to the stream.
+     *
+     * @throws IOException if the stream cannot be written
+     */
+    public abstract void end() throws IOException;
+
+    /**
+     * Exports the dues of a snapshot matching a query, one-off dues in ID order and then the
+     * recurring series with an occurrence matching the query, up to the query's limit. A series
+     * is looked at over the query's date range, or over its whole span without one.
+     *
+     * @param snapshot The store snapshot
+     * @param query    The dues to export
+     * @param format   The format to write
+     * @param out      The stream to write to; it is flushed but not closed
+     * @return the number of records written
+     * @throws IOException if the stream cannot be written
+     * @throws IllegalArgumentException if the query asks for a sort order
+     */
+    public static long export(DueSnapshot snapshot, DueQuery query, ExportFormat format, OutputStream out)
+            throws IOException {
+        requireStreamable(query);
+        return export(snapshot.iterator(), snapshot.getSeries(), query.getFrom(), query.getTo(), query::matches,
+                query.getLimit() > 0 ? query.getLimit() : Long.MAX_VALUE, format, out);
+    }
+
+    /**
+     * Exports the dues accepted by a filter, in iteration order. Only the given dues are
+     * written; export a {@link DueSnapshot} to include recurring series.
+     *
+     * @param dues   The dues, e.g. the iterator of a store snapshot
+     * @param filter The dues to export
+     * @param format The format to write
+     * @param out    The stream to write to; it is flushed but not closed
+     * @return the number of dues written
+     * @throws IOException if the stream cannot be written
+     */
+    public static long export(Iterator<Due> dues, Predicate<? super Due> filter, ExportFormat format,
+                              OutputStream out) throws IOException {
+        return export(dues, Collections.<RecurringDue>emptyList(), null, null, filter, Long.MAX_VALUE, format, out);
+    }
+
+    /**
+     * Exports the dues matching a query, in iteration order and up to the query's limit.
+     * A query's date range and course are the usual filters. Only the given dues are written;
+     * export a {@link DueSnapshot} to include recurring series.
+     *
+     * @param dues   The dues, e.g. the iterator of a store snapshot
+     * @param query  The dues to export
+     * @param format The format to write
+     * @param out    The stream to write to; it is flushed but not closed
+     * @return the number of dues written
+     * @throws IOException if the stream cannot be written
+     * @throws IllegalArgumentException if the query asks for a sort order, which would need
+     *                                  every match in memory
+     */
+    public static long export(Iterator<Due> dues, DueQuery query, ExportFormat format, OutputStream out)
+            throws IOException {
+        requireStreamable(query);
+        return export(dues, Collections.<RecurringDue>emptyList(), null, null, query::matches,
+                query.getLimit() > 0 ? query.getLimit() : Long.MAX_VALUE, format, out);
+    }
+
+    /**
+     * Checks that a query can be exported without holding its matches in memory, so callers
+     * can reject it before they start a response.
+     *
+     * @param query The query to check
+     * @throws IllegalArgumentException if the query asks for a sort order
+     */
+    public static void requireStreamable(DueQuery query) {
+        if (query.getSort() != DueQuery.Sort.ID) {
+            throw new IllegalArgumentException("Exports stream in ID order and cannot be sorted");
+        }
+    }
+
+    private static long export(Iterator<Due> dues, Collection<RecurringDue> series, LocalDate from, LocalDate to,
+                               Predicate<? super Due> filter, long limit, ExportFormat format, OutputStream out)
+            throws IOException {
+        long start = System.nanoTime();
+        DueExporter exporter = format.newExporter(out);
+        long written = 0;
+        exporter.begin();
+        while (written < limit && dues.hasNext()) {
+            Due due = dues.next();
+            if (filter.test(due)) {
+                exporter.write(due);
+                written++;
+            }
+        }
+        for (RecurringDue recurringDue : series) {
+            if (written >= limit) {
+                break;
+            }
+            // Held one series at a time; a series without an end expands to at most ten years
+            List<Due> occurrences = new ArrayList<>();
+            for (Due occurrence : recurringDue.occurrencesBetween(from == null ? LocalDate.MIN : from,
+                    to == null ? LocalDate.MAX : to)) {
+                if (filter.test(occurrence)) {
+                    occurrences.add(occurrence);
+                }
+            }
+            if (!occurrences.isEmpty()) {
+                written += exporter.write(recurringDue, occurrences, limit - written);
+            }
+        }
+        exporter.end();
+        EXPORTED.add(written);
+        EXPORT_LATENCY.recordSince(start);
+        return written;
+    }
+}
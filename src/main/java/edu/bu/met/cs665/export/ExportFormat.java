@@ -0,0 +1,99 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: ExportFormat.java
+ * Description: This enum defines the formats dues can be exported in.
+ */
+
+package edu.bu.met.cs665.export;
+
+import java.io.OutputStream;
+
+/**
+ * Formats dues can be exported in. Each format creates the {@link DueExporter} that writes it,
+ * so another format is added as another constant with its own exporter.
+ */
+public enum ExportFormat {
+    /** JSON Lines: one due per line in the stored JSON shape, for data pipelines. */
+    NDJSON("ndjson", "application/x-ndjson; charset=utf-8") {
+        @Override
+        public DueExporter newExporter(OutputStream out) {
+            return new NdjsonDueExporter(out);
+        }
+    },
+    /** RFC 4180 CSV with a header row, for spreadsheets. */
+    CSV("csv", "text/csv; charset=utf-8") {
+        @Override
+        public DueExporter newExporter(OutputStream out) {
+            return new CsvDueExporter(out);
+        }
+    },
+    /** RFC 5545 iCalendar with one event per due, for calendar apps. */
+    ICS("ics", "text/calendar; charset=utf-8") {
+        @Override
+        public DueExporter newExporter(OutputStream out) {
+            return new IcsDueExporter(out);
+        }
+    };
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    /**
+     * Creates an exporter writing this format to a stream. The exporter never closes the stream.
+     *
+     * @param out The stream to write to
+     * @return the exporter
+     */
+    public abstract DueExporter newExporter(OutputStream out);
+
+    /**
+     * Gets the usual file extension, without the dot.
+     *
+     * @return the extension, e.g. "ics"
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Gets the MIME type of the format.
+     *
+     * @return the content type, with its charset
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Parses a format name or file extension, ignoring case. "jsonl" and "ical" are accepted too.
+     *
+     * @param name The format name, e.g. "ics"
+     * @return the matching format
+     * @throws IllegalArgumentException if the name does not match any format
+     */
+    public static ExportFormat parse(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Export format cannot be null");
+        }
+        String key = name.trim().toLowerCase();
+        if ("jsonl".equals(key)) {
+            return NDJSON;
+        }
+        if ("ical".equals(key)) {
+            return ICS;
+        }
+        for (ExportFormat format : values()) {
+            if (format.extension.equals(key)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export format: " + name);
+    }
+}
@@ -0,0 +1,249 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: IcsDueExporter.java
+ * Description: This class is responsible for exporting dues as an iCalendar file.
+ */
+
+package edu.bu.met.cs665.export;
+
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.model.RecurringDue;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Writes an RFC 5545 calendar with one event per due. The event starts at the deadline, in
+ * floating local time like the due itself, and has no DTEND: a DTEND must be later than
+ * DTSTART, and an event whose DTSTART is a date-time already ends at that instant (RFC 5545
+ * section 3.6.1). Its UID is stable across exports so calendar apps update events instead of
+ * duplicating them. The course becomes a category, and completed dues also carry the
+ * "Completed" category and are marked transparent. A recurring series is one event with a
+ * weekly RRULE starting at its first occurrence, plus an override sharing its UID for each
+ * completed occurrence. Text is escaped, and lines are folded at 75 octets without splitting a
+ * UTF-8 sequence.
+ */
+class IcsDueExporter extends DueExporter {
+    private static final String LINE_END = "\r\n";
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final DateTimeFormatter LOCAL = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UTC =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final Writer writer;
+    private final String stamp;
+
+    /**
+     * Creates an exporter stamping events with the current time.
+     *
+     * @param out The stream to write to
+     */
+    IcsDueExporter(OutputStream out) {
+        this(out, Instant.now());
+    }
+
+    /**
+     * Creates an exporter.
+     *
+     * @param out   The stream to write to
+     * @param stamp The time the events are stamped with
+     */
+    IcsDueExporter(OutputStream out, Instant stamp) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.stamp = UTC.format(stamp);
+    }
+
+    @Override
+    public void begin() throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:-//CS665//Due Manager//EN");
+        line("CALSCALE:GREGORIAN");
+    }
+
+    @Override
+    public void write(Due due) throws IOException {
+        line("BEGIN:VEVENT");
+        line("UID:" + uid(due.getId()));
+        line("DTSTAMP:" + stamp);
+        line("DTSTART:" + LOCAL.format(due.getDueDate()));
+        details(due.getCourse(), due.getTitle(), due.getLocation(), due.getNotes(), due.isCompleted());
+        line("END:VEVENT");
+    }
+
+    @Override
+    public long write(RecurringDue recurringDue, List<Due> occurrences, long limit) throws IOException {
+        LocalDate start = recurringDue.getStart().toLocalDate();
+        // DTSTART counts as an occurrence, so it must be the first date the rule produces
+        LocalDateTime first = recurringDue.occurrencesBetween(start,
+                start.plusWeeks(recurringDue.getIntervalWeeks() + 1L)).get(0).getDueDate();
+        line("BEGIN:VEVENT");
+        line("UID:" + uid(recurringDue.getId()));
+        line("DTSTAMP:" + stamp);
+        line("DTSTART:" + LOCAL.format(first));
+        // A rule on every weekday with an interval and UNTIL passes 75 octets, so it is folded
+        writer.write("RRULE:");
+        writeEscaped(rule(recurringDue), "RRULE:".length(), false);
+        writer.write(LINE_END);
+        details(recurringDue.getCourse(), recurringDue.getTitle(), recurringDue.getLocation(),
+                recurringDue.getNotes(), false);
+        line("END:VEVENT");
+        for (LocalDate date : recurringDue.getCompletedDates()) {
+            if (!recurringDue.occursOn(date)) {
+                continue;
+            }
+            String occurrence = LOCAL.format(date.atTime(recurringDue.getStart().toLocalTime()));
+            line("BEGIN:VEVENT");
+            line("UID:" + uid(recurringDue.getId()));
+            line("DTSTAMP:" + stamp);
+            line("RECURRENCE-ID:" + occurrence);
+            line("DTSTART:" + occurrence);
+            details(recurringDue.getCourse(), recurringDue.getTitle(), recurringDue.getLocation(),
+                    recurringDue.getNotes(), true);
+            line("END:VEVENT");
+        }
+        return 1;
+    }
+
+    @Override
+    public void end() throws IOException {
+        line("END:VCALENDAR");
+        writer.flush();
+    }
+
+    private static String uid(int id) {
+        return "due-" + id + "@duemanager";
+    }
+
+    /**
+     * Writes the properties after the event's dates: its text, categories and transparency.
+     */
+    private void details(String course, String title, String location, String notes, boolean completed)
+            throws IOException {
+        text("SUMMARY", course + ": " + title);
+        if (location != null && !location.isEmpty()) {
+            text("LOCATION", location);
+        }
+        if (notes != null && !notes.isEmpty()) {
+            text("DESCRIPTION", notes);
+        }
+        writer.write("CATEGORIES:");
+        int octets = writeEscaped(course, "CATEGORIES:".length(), true);
+        if (completed) {
+            // The comma separates the categories, so it is not escaped
+            octets = writeEscaped(",", octets, false);
+            writeEscaped("Completed", octets, true);
+        }
+        writer.write(LINE_END);
+        line(completed ? "TRANSP:TRANSPARENT" : "TRANSP:OPAQUE");
+    }
+
+    /**
+     * Builds the RRULE value of a series. RFC 5545 forbids UNTIL and COUNT in one rule, so a
+     * series with both ends at whichever comes first, as UNTIL. Weeks start on Monday, the
+     * RFC's default, as they do for the series.
+     */
+    private static String rule(RecurringDue recurringDue) {
+        StringBuilder rule = new StringBuilder("FREQ=WEEKLY");
+        if (recurringDue.getIntervalWeeks() > 1) {
+            rule.append(";INTERVAL=").append(recurringDue.getIntervalWeeks());
+        }
+        rule.append(";BYDAY=");
+        boolean firstDay = true;
+        for (DayOfWeek day : recurringDue.getDays()) {
+            if (!firstDay) {
+                rule.append(',');
+            }
+            firstDay = false;
+            rule.append(day.name(), 0, 2);
+        }
+        LocalDate until = recurringDue.getUntil();
+        if (until != null && recurringDue.getCount() > 0) {
+            List<Due> occurrences = recurringDue.occurrencesBetween(recurringDue.getStart().toLocalDate(), until);
+            until = occurrences.get(occurrences.size() - 1).getDueDate().toLocalDate();
+        }
+        if (until != null) {
+            // A floating DTSTART needs a floating UNTIL; the end of the day keeps the last occurrence
+            rule.append(";UNTIL=").append(LOCAL.format(until.atTime(23, 59, 59)));
+        } else if (recurringDue.getCount() > 0) {
+            rule.append(";COUNT=").append(recurringDue.getCount());
+        }
+        return rule.toString();
+    }
+
+    /**
+     * Writes a line of ASCII that needs neither escaping nor folding.
+     */
+    private void line(String content) throws IOException {
+        writer.write(content);
+        writer.write(LINE_END);
+    }
+
+    /**
+     * Writes a property whose value is escaped text.
+     */
+    private void text(String name, String value) throws IOException {
+        writer.write(name);
+        writer.write(':');
+        writeEscaped(value, name.length() + 1, true);
+        writer.write(LINE_END);
+    }
+
+    /**
+     * Writes text, escaping backslashes, semicolons, commas and line breaks if asked, and
+     * folding the line before it would pass 75 octets.
+     *
+     * @param value  The text
+     * @param octets The octets already on the current line
+     * @param escape Whether to escape the text
+     * @return the octets on the current line afterwards
+     * @throws IOException if the stream cannot be written
+     */
+    private int writeEscaped(String value, int octets, boolean escape) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String escaped = null;
+            if (escape) {
+                if (c == '\\' || c == ';' || c == ',') {
+                    escaped = "\\" + c;
+                } else if (c == '\n') {
+                    escaped = "\\n";
+                } else if (c == '\r') {
+                    // Dropped; a CRLF pair is escaped once, by its LF
+                    continue;
+                }
+            }
+            boolean pair = Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1));
+            int length = escaped != null ? escaped.length() : pair ? 4 : c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+            if (octets + length > MAX_LINE_OCTETS) {
+                writer.write(LINE_END);
+                writer.write(' ');
+                octets = 1;
+            }
+            if (escaped != null) {
+                writer.write(escaped);
+            } else {
+                writer.write(c);
+                if (pair) {
+                    writer.write(value.charAt(++i));
+                }
+            }
+            octets += length;
+        }
+        return octets;
+    }
+}
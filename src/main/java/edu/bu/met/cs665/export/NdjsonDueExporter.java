@@ -0,0 +1,60 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: NdjsonDueExporter.java
+ * Description: This class is responsible for exporting dues as JSON Lines.
+ */
+
+package edu.bu.met.cs665.export;
+
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.model.RecurringDue;
+import edu.bu.met.cs665.storage.DueJsonWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.List;
+
+/**
+ * Writes one JSON object per line, in the same shape as the stored file, using the
+ * allocation-free {@link DueJsonWriter}. A recurring series is one line holding its
+ * "recurrence" rule and completed dates, which {@code DueJsonFormat.readRecurringDue} reads back.
+ */
+class NdjsonDueExporter extends DueExporter {
+    private final DueJsonWriter writer;
+
+    /**
+     * Creates an exporter.
+     *
+     * @param out The stream to write to
+     */
+    NdjsonDueExporter(OutputStream out) {
+        this.writer = new DueJsonWriter(Channels.newChannel(out), ByteBuffer.allocate(BUFFER_SIZE));
+    }
+
+    @Override
+    public void begin() {
+        // JSON Lines has no header
+    }
+
+    @Override
+    public void write(Due due) throws IOException {
+        writer.writeDue(due);
+        writer.newLine();
+    }
+
+    @Override
+    public long write(RecurringDue recurringDue, List<Due> occurrences, long limit) throws IOException {
+        writer.writeRecurringDue(recurringDue);
+        writer.newLine();
+        return 1;
+    }
+
+    @Override
+    public void end() throws IOException {
+        writer.flush();
+    }
+}
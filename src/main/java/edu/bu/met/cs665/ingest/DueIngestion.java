@@ -0,0 +1,325 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: DueIngestion.java
+ * Description: This class is responsible for turning natural language requests into added dues.
+ */
+
+package edu.bu.met.cs665.ingest;
+
+import edu.bu.met.cs665.client.DueParserBackend;
+import edu.bu.met.cs665.command.AddDueCommand;
+import edu.bu.met.cs665.command.CommandHistory;
+import edu.bu.met.cs665.metrics.LatencyHistogram;
+import edu.bu.met.cs665.metrics.Metrics;
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.service.DueManager;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * The AI path for adding a due: the request is parsed by a {@link DueParserBackend}, the
+ * answer is checked for the required fields, turned into a due by the {@link DueManager} and
+ * added through an {@link AddDueCommand} so that it can be undone. Every outcome is reported
+ * as a {@link Result} rather than printed, so the same pipeline serves the console and
+ * benchmarks. Parsing and adding are separate steps: the slow parse needs no store, so it can
+ * run while the store is still loading, and only the quick add touches the manager.
+ *
+ * <p>A list of requests is pipelined by {@link #ingestAll(List)}: the parses run on a bounded
+ * pool of worker threads while the calling thread adds the answers in input order, so N
+ * requests take about as long as the slowest one rather than the sum of all of them.
+ */
+public class DueIngestion {
+    /** System property for the number of requests parsed at once by {@link #ingestAll(List)}. */
+    public static final String THREADS_PROPERTY = "duemanager.ai.ingest.threads";
+
+    private static final LatencyHistogram INGEST_LATENCY = Metrics.global().histogram("ai.ingest");
+    private static final LatencyHistogram INGEST_ALL_LATENCY = Metrics.global().histogram("ai.ingest.all");
+    private static final long IDLE_SECONDS = 30;
+    private static final AtomicInteger WORKER_COUNT = new AtomicInteger();
+    private static final String[] REQUIRED_FIELDS = {"course", "title", "due_date"};
+
+    /**
+     * How an ingestion ended.
+     */
+    public enum Status {
+        /** The answer is a valid due, not yet added. */
+        PARSED,
+        /** The due was added. */
+        ADDED,
+        /** The parser is not configured, e.g. no API key is set. */
+        NOT_CONFIGURED,
+        /** The parser answered with an error. */
+        REJECTED,
+        /** The answer lacks a required field. */
+        MISSING_FIELD,
+        /** The answer is not a JSON object. */
+        INVALID_RESPONSE,
+        /** The due could not be created or added. */
+        FAILED
+    }
+
+    /**
+     * The outcome of one ingestion.
+     */
+    public static final class Result {
+        private final Status status;
+        private final Due due;
+        private final String detail;
+        private final String response;
+
+        private Result(Status status, Due due, String detail) {
+            this(status, due, detail, null);
+        }
+
+        private Result(Status status, Due due, String detail, String response) {
+            this.status = status;
+            this.due = due;
+            this.detail = detail;
+            this.response = response;
+        }
+
+        /**
+         * Gets how the ingestion ended.
+         *
+         * @return the status
+         */
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * Gets the added due.
+         *
+         * @return the due, or null unless the status is ADDED
+         */
+        public Due getDue() {
+            return due;
+        }
+
+        /**
+         * Gets the reason for a failure: the error message, or the missing field's name.
+         *
+         * @return the detail, or null if the due was added
+         */
+        public String getDetail() {
+            return detail;
+        }
+    }
+
+    private final DueParserBackend parser;
+    private final Supplier<DueManager> dueManager;
+    private final CommandHistory commandHistory;
+    private final ThreadPoolExecutor workers;
+
+    /**
+     * Creates the pipeline.
+     *
+     * @param parser         Turns requests into due JSON
+     * @param dueManager     Creates and stores the dues
+     * @param commandHistory Records the additions for undo
+     */
+    public DueIngestion(DueParserBackend parser, DueManager dueManager, CommandHistory commandHistory) {
+        this(parser, () -> dueManager, commandHistory);
+    }
+
+    /**
+     * Creates the pipeline over a store that may still be loading.
+     *
+     * @param parser         Turns requests into due JSON
+     * @param dueManager     Supplies the manager when a due is added, waiting for it if needed
+     * @param commandHistory Records the additions for undo
+     */
+    public DueIngestion(DueParserBackend parser, Supplier<DueManager> dueManager, CommandHistory commandHistory) {
+        this(parser, dueManager, commandHistory, Integer.getInteger(THREADS_PROPERTY, 8));
+    }
+
+    /**
+     * Creates the pipeline with a given number of parse workers.
+     *
+     * @param parser         Turns requests into due JSON; must allow concurrent calls
+     * @param dueManager     Supplies the manager when a due is added, waiting for it if needed
+     * @param commandHistory Records the additions for undo
+     * @param threads        The number of requests {@link #ingestAll(List)} parses at once
+     */
+    public DueIngestion(DueParserBackend parser, Supplier<DueManager> dueManager, CommandHistory commandHistory,
+                        int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Ingestion needs at least one thread");
+        }
+        this.parser = parser;
+        this.dueManager = dueManager;
+        this.commandHistory = commandHistory;
+        // No thread is started until a list is ingested, and idle workers exit again
+        this.workers = new ThreadPoolExecutor(threads, threads, IDLE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "due-ingest-" + WORKER_COUNT.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.workers.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Parses a request and adds the resulting due.
+     *
+     * @param prompt The natural language description of the due
+     * @return the outcome
+     */
+    public Result ingest(String prompt) {
+        long start = System.nanoTime();
+        try {
+            return add(parse(prompt));
+        } finally {
+            INGEST_LATENCY.recordSince(start);
+        }
+    }
+
+    /**
+     * Parses a list of requests concurrently and adds the resulting dues in input order.
+     * At most the configured number of parses are in flight; the client's rate limiter may
+     * hold them to fewer. Each due is added through its own {@link AddDueCommand} on the
+     * calling thread as soon as every request before it has been handled, and each run of
+     * answers that are ready together is added in one store batch, so it is saved once.
+     *
+     * @param prompts The natural language descriptions of the dues
+     * @return the outcome of each request, in input order
+     */
+    public List<Result> ingestAll(List<String> prompts) {
+        long start = System.nanoTime();
+        List<Future<Result>> parses = new ArrayList<>(prompts.size());
+        for (String prompt : prompts) {
+            parses.add(workers.submit(() -> parse(prompt)));
+        }
+        List<Result> results = new ArrayList<>(prompts.size());
+        try {
+            while (results.size() < parses.size()) {
+                // Wait for the next request in order, then take every later one already answered
+                Result next = await(parses.get(results.size()));
+                List<Result> ready = new ArrayList<>();
+                ready.add(next);
+                for (int i = results.size() + 1; i < parses.size() && parses.get(i).isDone(); i++) {
+                    ready.add(await(parses.get(i)));
+                }
+                addInBatch(ready, results);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (int i = results.size(); i < parses.size(); i++) {
+                parses.get(i).cancel(true);
+                results.add(new Result(Status.FAILED, null, "Interrupted"));
+            }
+        } finally {
+            INGEST_ALL_LATENCY.recordSince(start);
+        }
+        return results;
+    }
+
+    /**
+     * Parses a request and checks the answer, without touching the store.
+     *
+     * @param prompt The natural language description of the due
+     * @return a PARSED result to pass to {@link #add(Result)}, or the reason parsing failed
+     */
+    public Result parse(String prompt) {
+        String response;
+        try {
+            response = parser.parse(prompt);
+        } catch (IllegalStateException e) {
+            return new Result(Status.NOT_CONFIGURED, null, e.getMessage());
+        } catch (RuntimeException e) {
+            return new Result(Status.FAILED, null, e.getMessage());
+        }
+        try {
+            JSONObject json = new JSONObject(response);
+            if (json.has("error")) {
+                return new Result(Status.REJECTED, null, json.getString("error"));
+            }
+            for (String field : REQUIRED_FIELDS) {
+                if (!json.has(field) || json.getString(field).trim().isEmpty()) {
+                    return new Result(Status.MISSING_FIELD, null, field);
+                }
+            }
+        } catch (JSONException e) {
+            return new Result(Status.INVALID_RESPONSE, null, e.getMessage());
+        }
+        return new Result(Status.PARSED, null, null, response);
+    }
+
+    /**
+     * Creates the due of a parsed request and adds it through the command history.
+     *
+     * @param parsed The result of {@link #parse(String)}
+     * @return ADDED with the due, or the given result unchanged if it is not PARSED
+     */
+    public Result add(Result parsed) {
+        if (parsed.status != Status.PARSED) {
+            return parsed;
+        }
+        try {
+            DueManager manager = dueManager.get();
+            Due due = manager.createDueFromJson(parsed.response);
+            commandHistory.executeCommand(new AddDueCommand(manager, due));
+            return new Result(Status.ADDED, due, null);
+        } catch (RuntimeException e) {
+            return new Result(Status.FAILED, null, e.getMessage());
+        }
+    }
+
+    /**
+     * Adds parsed answers in order, inside one store batch if any of them is to be added.
+     */
+    private void addInBatch(List<Result> ready, List<Result> results) {
+        DueManager manager = null;
+        try {
+            for (Result result : ready) {
+                if (result.status == Status.PARSED) {
+                    manager = dueManager.get();
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            // Reported per request by add below
+            manager = null;
+        }
+        if (manager == null) {
+            for (Result result : ready) {
+                results.add(add(result));
+            }
+            return;
+        }
+        manager.beginBatch();
+        try {
+            for (Result result : ready) {
+                results.add(add(result));
+            }
+        } finally {
+            manager.endBatch();
+        }
+    }
+
+    /**
+     * Waits for a parse, turning a failed or cancelled one into a FAILED result.
+     */
+    private static Result await(Future<Result> parse) throws InterruptedException {
+        try {
+            return parse.get();
+        } catch (ExecutionException e) {
+            return new Result(Status.FAILED, null, String.valueOf(e.getCause().getMessage()));
+        } catch (CancellationException e) {
+            return new Result(Status.FAILED, null, "Cancelled");
+        }
+    }
+}
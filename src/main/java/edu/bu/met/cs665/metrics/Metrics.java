@@ -0,0 +1,121 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: Metrics.java
+ * Description: This class is the registry of operational counters, gauges and histograms.
+ */
+
+package edu.bu.met.cs665.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of named metrics.
+ * Counters and histograms are created on first lookup and should be kept in a field by
+ * hot paths; gauges are sampled only when the registry is read.
+ */
+public class Metrics {
+    private static final Metrics GLOBAL = new Metrics();
+
+    private final ConcurrentMap<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the process-wide registry.
+     *
+     * @return the global registry
+     */
+    public static Metrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Gets or creates a counter.
+     *
+     * @param name The counter name
+     * @return the counter
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Gets or creates a latency histogram.
+     *
+     * @param name The histogram name
+     * @return the histogram
+     */
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /**
+     * Registers a gauge, replacing any gauge of the same name.
+     *
+     * @param name   The gauge name
+     * @param sample Supplies the current value whenever the gauge is read
+     */
+    public void gauge(String name, LongSupplier sample) {
+        gauges.put(name, sample);
+    }
+
+    /**
+     * Gets the current value of every counter.
+     *
+     * @return counter values sorted by name
+     */
+    public Map<String, Long> counterValues() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        return values;
+    }
+
+    /**
+     * Samples every gauge. A gauge that throws is reported as -1.
+     *
+     * @return gauge values sorted by name
+     */
+    public Map<String, Long> gaugeValues() {
+        Map<String, Long> values = new TreeMap<>();
+        gauges.forEach((name, gauge) -> {
+            long value;
+            try {
+                value = gauge.getAsLong();
+            } catch (RuntimeException e) {
+                value = -1;
+            }
+            values.put(name, value);
+        });
+        return values;
+    }
+
+    /**
+     * Gets every histogram.
+     *
+     * @return histograms sorted by name
+     */
+    public Map<String, LatencyHistogram> histograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    /**
+     * Formats all metrics as plain text, one metric per line.
+     *
+     * @return the text dump
+     */
+    public String dump() {
+        StringBuilder text = new StringBuilder();
+        counterValues().forEach((name, value) -> text.append(name).append(' ').append(value).append('\n'));
+        gaugeValues().forEach((name, value) -> text.append(name).append(' ').append(value).append('\n'));
+        histograms().forEach((name, histogram) ->
+                text.append(name).append(' ').append(histogram.summary()).append('\n'));
+        return text.toString();
+    }
+}
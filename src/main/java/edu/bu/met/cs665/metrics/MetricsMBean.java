@@ -0,0 +1,143 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: MetricsMBean.java
+ * Description: This class exposes the metrics registry over JMX.
+ */
+
+package edu.bu.met.cs665.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * Dynamic MBean publishing every counter and gauge as a long attribute, and every histogram
+ * as "name.count", "name.mean_us", "name.p50_us", "name.p99_us", "name.p999_us" and
+ * "name.max_us" attributes. The attribute set follows the registry as metrics are added.
+ */
+public class MetricsMBean implements DynamicMBean {
+    /** Object name under which the global registry is published. */
+    public static final String OBJECT_NAME = "edu.bu.met.cs665:type=Metrics";
+
+    private final Metrics metrics;
+
+    /**
+     * Creates an MBean for the registry.
+     *
+     * @param metrics The registry to expose
+     */
+    public MetricsMBean(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Registers the global registry with the platform MBean server, once.
+     *
+     * @throws IllegalStateException if registration fails
+     */
+    public static synchronized void registerGlobal() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MetricsMBean(Metrics.global()), name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Error registering metrics MBean: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Takes a snapshot of every attribute value.
+     *
+     * @return attribute values sorted by name
+     */
+    private Map<String, Long> values() {
+        Map<String, Long> values = new TreeMap<>();
+        values.putAll(metrics.counterValues());
+        values.putAll(metrics.gaugeValues());
+        metrics.histograms().forEach((name, histogram) -> {
+            values.put(name + ".count", histogram.getCount());
+            values.put(name + ".mean_us", micros(histogram.getMeanNanos()));
+            values.put(name + ".p50_us", micros(histogram.getPercentileNanos(50)));
+            values.put(name + ".p99_us", micros(histogram.getPercentileNanos(99)));
+            values.put(name + ".p999_us", micros(histogram.getPercentileNanos(99.9)));
+            values.put(name + ".max_us", micros(histogram.getMaxNanos()));
+        });
+        return values;
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Long value = values().get(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException(attribute);
+        }
+        return value;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        Map<String, Long> values = values();
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            Long value = values.get(attribute);
+            if (value != null) {
+                list.add(new Attribute(attribute, value));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        if ("dump".equals(actionName)) {
+            return metrics.dump();
+        }
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        List<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (String name : values().keySet()) {
+            attributes.add(new MBeanAttributeInfo(name, "long", name, true, false, false));
+        }
+        MBeanOperationInfo dump = new MBeanOperationInfo("dump", "Text dump of all metrics",
+                new MBeanParameterInfo[0], "java.lang.String", MBeanOperationInfo.INFO);
+        return new MBeanInfo(getClass().getName(), "Due Manager operational metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null,
+                new MBeanOperationInfo[] {dump}, null);
+    }
+}
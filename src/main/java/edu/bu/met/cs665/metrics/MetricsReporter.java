@@ -0,0 +1,51 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: MetricsReporter.java
+ * Description: This class periodically prints a text dump of the metrics.
+ */
+
+package edu.bu.met.cs665.metrics;
+
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prints {@link Metrics#dump()} to a stream at a fixed period on a daemon thread.
+ */
+public class MetricsReporter implements AutoCloseable {
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Starts reporting.
+     *
+     * @param metrics       The registry to report
+     * @param out           The stream to print to
+     * @param periodSeconds The reporting period
+     * @throws IllegalArgumentException if the period is not positive
+     */
+    public MetricsReporter(Metrics metrics, PrintStream out, long periodSeconds) {
+        if (periodSeconds <= 0) {
+            throw new IllegalArgumentException("Reporting period must be positive");
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> out.print("[metrics " + LocalDateTime.now() + "]\n" + metrics.dump()),
+                periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops reporting.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdown();
+    }
+}
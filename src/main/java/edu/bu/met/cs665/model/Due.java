@@ -14,15 +14,18 @@ import java.time.format.DateTimeFormatter;
 /**
  * Represents a due item in the Due Manager system.
  * Implements the Builder pattern for flexible object creation.
+ * A due is immutable; changing its completion status yields a new version of the due.
  */
 public class Due {
     private final int id;
     private final String course;
     private final String title;
     private final LocalDateTime dueDate;
-    private boolean completed;
+    private final boolean completed;
     private final String location; // Optional location field
     private final String notes;    // Optional notes field
+    private final boolean recurring;
+    private final int version;
 
     /**
      * Create a Due object using a builder.
@@ -37,6 +40,8 @@ public class Due {
         this.completed = builder.completed;
         this.location = builder.location;
         this.notes = builder.notes;
+        this.recurring = builder.recurring;
+        this.version = builder.version;
     }
 
     /**
@@ -85,12 +90,43 @@ public class Due {
     }
 
     /**
-     * Sets the completion status of the due.
+     * Checks if the due is one occurrence of a {@link RecurringDue}, whose ID it carries.
+     *
+     * @return true if the due is an occurrence of a series
+     */
+    public boolean isRecurring() {
+        return recurring;
+    }
+
+    /**
+     * Gets the version of the due, which grows each time the due is changed.
+     *
+     * @return the due's version
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Creates the next version of the due with the given completion status.
      *
      * @param completed the new completion status
+     * @return this due if the status is unchanged, otherwise a new due
      */
-    public void setCompleted(boolean completed) {
-        this.completed = completed;
+    public Due withCompleted(boolean completed) {
+        if (completed == this.completed) {
+            return this;
+        }
+        return new DueBuilder(id)
+                .course(course)
+                .title(title)
+                .dueDate(dueDate)
+                .completed(completed)
+                .location(location)
+                .notes(notes)
+                .recurring(recurring)
+                .version(version + 1)
+                .build();
     }
 
     /**
@@ -132,6 +168,8 @@ public class Due {
         private boolean completed;
         private String location;
         private String notes;
+        private boolean recurring;
+        private int version;
 
         /**
          * Creates a new DueBuilder with the specified ID.
@@ -208,6 +246,28 @@ public class Due {
             return this;
         }
 
+        /**
+         * Marks the due being built as an occurrence of a recurring due.
+         *
+         * @param recurring true if the due is an occurrence of a series
+         * @return this builder for method chaining
+         */
+        public DueBuilder recurring(boolean recurring) {
+            this.recurring = recurring;
+            return this;
+        }
+
+        /**
+         * Sets the version for the due being built.
+         *
+         * @param version the version of the due
+         * @return this builder for method chaining
+         */
+        public DueBuilder version(int version) {
+            this.version = version;
+            return this;
+        }
+
         /**
          * Builds and returns a new Due object with the configured properties.
          *
@@ -0,0 +1,475 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: RecurringDue.java
+ * Description: This class is responsible for the methods and attributes of a recurring Due.
+ */
+
+package edu.bu.met.cs665.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+
+/**
+ * A due that repeats every week or every few weeks on one or more weekdays, such as weekly
+ * homework or a quiz every Tuesday and Thursday. The rule is stored once; its occurrences are
+ * produced on demand as {@link Due}s for the dates being looked at. Completed occurrences are
+ * kept as a sparse set of dates, so a long series costs nothing per occurrence.
+ * Implements the Builder pattern for flexible object creation and is immutable.
+ */
+public class RecurringDue {
+    /** Longest span expanded for a series without an end, however wide the query. */
+    public static final int MAX_UNBOUNDED_WEEKS = 520;
+
+    private final int id;
+    private final String course;
+    private final String title;
+    private final LocalDateTime start;
+    private final int intervalWeeks;
+    private final Set<DayOfWeek> days;
+    private final LocalDate until;
+    private final int count;
+    private final String location;
+    private final String notes;
+    private final SortedSet<LocalDate> completedDates;
+    private final int version;
+
+    /**
+     * Create a RecurringDue object using a builder.
+     *
+     * @param builder for creating a RecurringDue
+     */
+    private RecurringDue(RecurringDueBuilder builder) {
+        this.id = builder.id;
+        this.course = builder.course;
+        this.title = builder.title;
+        this.start = builder.start;
+        this.intervalWeeks = builder.intervalWeeks;
+        this.days = Collections.unmodifiableSet(builder.days.isEmpty()
+                ? EnumSet.of(builder.start.getDayOfWeek()) : EnumSet.copyOf(builder.days));
+        this.until = builder.until;
+        this.count = builder.count;
+        this.location = builder.location;
+        this.notes = builder.notes;
+        this.completedDates = Collections.unmodifiableSortedSet(new TreeSet<>(builder.completedDates));
+        this.version = builder.version;
+    }
+
+    /**
+     * Gets the unique identifier of the series; its occurrences carry the same ID.
+     *
+     * @return the series ID
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets the course associated with the series.
+     *
+     * @return the course name
+     */
+    public String getCourse() {
+        return course;
+    }
+
+    /**
+     * Gets the title shared by every occurrence.
+     *
+     * @return the title
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Gets the date and time of the first possible occurrence; every occurrence is due at this time of day.
+     *
+     * @return the series start
+     */
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    /**
+     * Gets the number of weeks between repeats: 1 for weekly, 2 for biweekly.
+     *
+     * @return the interval in weeks
+     */
+    public int getIntervalWeeks() {
+        return intervalWeeks;
+    }
+
+    /**
+     * Gets the weekdays the series falls on.
+     *
+     * @return the weekdays
+     */
+    public Set<DayOfWeek> getDays() {
+        return days;
+    }
+
+    /**
+     * Gets the last date an occurrence may fall on.
+     *
+     * @return the end date, or null if the series has none
+     */
+    public LocalDate getUntil() {
+        return until;
+    }
+
+    /**
+     * Gets the maximum number of occurrences.
+     *
+     * @return the count, or 0 if the series has no limit
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the location shared by every occurrence.
+     *
+     * @return the location or null if not specified
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Gets the notes shared by every occurrence.
+     *
+     * @return the notes or null if not specified
+     */
+    public String getNotes() {
+        return notes;
+    }
+
+    /**
+     * Gets the dates of the occurrences marked as completed.
+     *
+     * @return the completed occurrence dates, in order
+     */
+    public SortedSet<LocalDate> getCompletedDates() {
+        return completedDates;
+    }
+
+    /**
+     * Gets the version of the series, which grows each time it is changed.
+     *
+     * @return the series version
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Creates the next version of the series with one occurrence's completion status changed.
+     *
+     * @param date      The date of the occurrence
+     * @param completed The new completion status
+     * @return this series if the status is unchanged, otherwise a new series
+     */
+    public RecurringDue withCompleted(LocalDate date, boolean completed) {
+        if (completedDates.contains(date) == completed) {
+            return this;
+        }
+        RecurringDueBuilder builder = toBuilder().version(version + 1);
+        if (completed) {
+            builder.completedDates.add(date);
+        } else {
+            builder.completedDates.remove(date);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Checks whether the series has an occurrence on a date.
+     *
+     * @param date The date to check
+     * @return true if an occurrence falls on the date
+     */
+    public boolean occursOn(LocalDate date) {
+        return !occurrencesBetween(date, date).isEmpty();
+    }
+
+    /**
+     * Expands the occurrences falling between two dates, inclusive, in date order.
+     * A series without an until date or count is expanded for at most
+     * {@link #MAX_UNBOUNDED_WEEKS} weeks after its start.
+     *
+     * @param from The first date of the window
+     * @param to   The last date of the window
+     * @return the occurrences as dues carrying the series ID
+     */
+    public List<Due> occurrencesBetween(LocalDate from, LocalDate to) {
+        List<Due> occurrences = new ArrayList<>();
+        LocalDate first = start.toLocalDate();
+        LocalDate last = until != null ? until
+                : count == 0 ? first.plusWeeks(MAX_UNBOUNDED_WEEKS) : LocalDate.MAX;
+        if (to.isBefore(last)) {
+            last = to;
+        }
+        if (last.isBefore(first) || last.isBefore(from)) {
+            return occurrences;
+        }
+
+        LocalDate firstWeek = first.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        long week = 0;
+        if (count == 0 && from.isAfter(first)) {
+            // Without a count nothing before the window matters, so jump straight to it
+            long weeksToWindow = ChronoUnit.WEEKS.between(firstWeek,
+                    from.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)));
+            week = weeksToWindow - weeksToWindow % intervalWeeks;
+        }
+        int seen = 0;
+        while (true) {
+            LocalDate weekStart = firstWeek.plusWeeks(week);
+            if (weekStart.isAfter(last)) {
+                return occurrences;
+            }
+            for (DayOfWeek day : days) {
+                LocalDate date = weekStart.plusDays(day.getValue() - 1L);
+                if (date.isBefore(first)) {
+                    continue;
+                }
+                if (date.isAfter(last) || (count > 0 && seen >= count)) {
+                    return occurrences;
+                }
+                seen++;
+                if (!date.isBefore(from)) {
+                    occurrences.add(occurrence(date));
+                }
+            }
+            week += intervalWeeks;
+        }
+    }
+
+    /**
+     * Creates the occurrence on a date.
+     *
+     * @param date The date of the occurrence
+     * @return the occurrence as a due carrying the series ID
+     */
+    private Due occurrence(LocalDate date) {
+        return new Due.DueBuilder(id)
+                .course(course)
+                .title(title)
+                .dueDate(date.atTime(start.toLocalTime()))
+                .completed(completedDates.contains(date))
+                .location(location)
+                .notes(notes)
+                .recurring(true)
+                .version(version)
+                .build();
+    }
+
+    /**
+     * Creates a builder holding this series' settings.
+     *
+     * @return a new builder
+     */
+    private RecurringDueBuilder toBuilder() {
+        RecurringDueBuilder builder = new RecurringDueBuilder(id)
+                .course(course)
+                .title(title)
+                .start(start)
+                .everyWeeks(intervalWeeks)
+                .on(days.toArray(new DayOfWeek[0]))
+                .until(until)
+                .count(count)
+                .location(location)
+                .notes(notes)
+                .version(version);
+        builder.completedDates.addAll(completedDates);
+        return builder;
+    }
+
+    /**
+     * Builder class for creating RecurringDue objects.
+     * Provides a fluent interface for setting the series and its recurrence rule.
+     */
+    public static class RecurringDueBuilder {
+        private final int id;
+        private String course;
+        private String title;
+        private LocalDateTime start;
+        private int intervalWeeks = 1;
+        private final Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        private LocalDate until;
+        private int count;
+        private String location;
+        private String notes;
+        private final Set<LocalDate> completedDates = new TreeSet<>();
+        private int version;
+
+        /**
+         * Creates a new RecurringDueBuilder with the specified ID.
+         *
+         * @param id the unique identifier for the series
+         */
+        public RecurringDueBuilder(int id) {
+            this.id = id;
+        }
+
+        /**
+         * Sets the course for the series being built.
+         *
+         * @param course the course name
+         * @return this builder for method chaining
+         */
+        public RecurringDueBuilder course(String course) {
+            this.course = course;
+            return this;
+        }
+
+        /**
+         * Sets the title for the series being built.
+         *
+         * @param title the title of every occurrence
+         * @return this builder for method chaining
+         */
+        public RecurringDueBuilder title(String title) {
+            this.title = title;
+            return this;
+        }
+
+        /**
+         * Sets the first possible occurrence and the time of day of every occurrence.
+         *
+         * @param start the series start
+         * @return this builder for method chaining
+         */
+        public RecurringDueBuilder start(LocalDateTime start) {
+            this.start = start;
+            return this;
+        }
+
+        /**
+         * Makes the series repeat every week.
+         *
+         * @return this builder for method chaining
+         */
+        public RecurringDueBuilder weekly() {
+            return everyWeeks(1);
+        }
+
+        /**
+         * Makes the series repeat every other week.
+         *
+         * @return this builder for method chaining
+         */
+        public RecurringDueBuilder biweekly() {
+            return everyWeeks(2);
+        }
+
+        /**
+         * Sets the number of weeks between repeats.
+         *
+         * @param weeks the interval in weeks
+         * @return this builder for method chaining
+         */
+        public RecurringDueBuilder everyWeeks(int weeks) {
+            this.intervalWeeks = weeks;
+            return this;
+        }
+
+        /**
+         * Adds weekdays the series falls on; without any, it falls on the start's weekday.
+         *
+         * @param weekdays the weekdays
+         * @return this builder for method chaining
+         */
+        public RecurringDueBuilder on(DayOfWeek... weekdays) {
+            days.addAll(Arrays.asList(weekdays));
+            return this;
+        }
+
+        /**
+         * Sets the last date an occurrence may fall on.
+         *
+         * @param until the end date, or null for none
+         * @return this builder for method chaining
+         */
+        public RecurringDueBuilder until(LocalDate until) {
+            this.until = until;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of occurrences.
+         *
+         * @param count the count, or 0 for no limit
+         * @return this builder for method chaining
+         */
+        public RecurringDueBuilder count(int count) {
+            this.count = count;
+            return this;
+        }
+
+        /**
+         * Sets the location for every occurrence.
+         *
+         * @param location the location
+         * @return this builder for method chaining
+         */
+        public RecurringDueBuilder location(String location) {
+            this.location = location;
+            return this;
+        }
+
+        /**
+         * Sets the notes for every occurrence.
+         *
+         * @param notes the notes
+         * @return this builder for method chaining
+         */
+        public RecurringDueBuilder notes(String notes) {
+            this.notes = notes;
+            return this;
+        }
+
+        /**
+         * Marks an occurrence as completed.
+         *
+         * @param date the date of the occurrence
+         * @return this builder for method chaining
+         */
+        public RecurringDueBuilder completed(LocalDate date) {
+            completedDates.add(date);
+            return this;
+        }
+
+        /**
+         * Sets the version for the series being built.
+         *
+         * @param version the version of the series
+         * @return this builder for method chaining
+         */
+        public RecurringDueBuilder version(int version) {
+            this.version = version;
+            return this;
+        }
+
+        /**
+         * Builds and returns a new RecurringDue with the configured properties.
+         *
+         * @return a new RecurringDue instance
+         * @throws IllegalArgumentException if the start is missing or the interval or count is invalid
+         */
+        public RecurringDue build() {
+            if (start == null) {
+                throw new IllegalArgumentException("A recurring due needs a start");
+            }
+            if (intervalWeeks < 1 || count < 0) {
+                throw new IllegalArgumentException("Interval must be at least one week and count non-negative");
+            }
+            return new RecurringDue(this);
+        }
+    }
+}
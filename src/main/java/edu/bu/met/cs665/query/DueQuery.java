@@ -0,0 +1,517 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: DueQuery.java
+ * Description: This class describes an ad hoc query over dues.
+ */
+
+package edu.bu.met.cs665.query;
+
+import edu.bu.met.cs665.model.Due;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An ad hoc query over dues: every condition set must hold, and the matches are sorted and
+ * optionally cut to a limit. Implements the Builder pattern and is immutable. Queries can also
+ * be written as "key=value" terms, for example
+ * {@code course=CS665 pending location=yes from=2024-12-01 to=2024-12-15 sort=due limit=20}.
+ */
+public final class DueQuery {
+    /**
+     * The orders a query can return its matches in.
+     */
+    public enum Sort {
+        /** By ID, the store's own order. */
+        ID,
+        /** Earliest deadline first. */
+        DUE_DATE,
+        /** Latest deadline first. */
+        DUE_DATE_DESC
+    }
+
+    private final Integer id;
+    private final String course;
+    private final Boolean completed;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final List<String> textTerms;
+    private final Boolean hasLocation;
+    private final Sort sort;
+    private final int limit;
+
+    /**
+     * Create a DueQuery object using a builder.
+     *
+     * @param builder for creating a DueQuery
+     */
+    private DueQuery(Builder builder) {
+        this.id = builder.id;
+        this.course = builder.course;
+        this.completed = builder.completed;
+        this.from = builder.from;
+        this.to = builder.to;
+        this.textTerms = Collections.unmodifiableList(new ArrayList<>(builder.textTerms));
+        this.hasLocation = builder.hasLocation;
+        this.sort = builder.sort;
+        this.limit = builder.limit;
+    }
+
+    /**
+     * Parses a query from "key=value" terms. Keys are id, course, completed (true/false),
+     * from and to (yyyy-MM-dd), text, location (yes/no), sort (id, due or -due) and limit; the
+     * bare words "pending" and "done" stand for completed=false and completed=true.
+     *
+     * @param terms The terms
+     * @return the query
+     * @throws IllegalArgumentException if a term is not understood
+     */
+    public static DueQuery parse(List<String> terms) {
+        Builder builder = new Builder();
+        for (String term : terms) {
+            if ("pending".equals(term) || "done".equals(term)) {
+                builder.completed("done".equals(term));
+                continue;
+            }
+            int equals = term.indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Expected key=value, got: " + term);
+            }
+            String key = term.substring(0, equals);
+            String value = term.substring(equals + 1);
+            switch (key) {
+                case "id":
+                    builder.id(parseInt(key, value));
+                    break;
+                case "course":
+                    builder.course(value);
+                    break;
+                case "completed":
+                    builder.completed(parseBoolean(key, value));
+                    break;
+                case "from":
+                    builder.from(parseDate(key, value));
+                    break;
+                case "to":
+                    builder.to(parseDate(key, value));
+                    break;
+                case "text":
+                    builder.text(value);
+                    break;
+                case "location":
+                    builder.hasLocation(parseBoolean(key, value));
+                    break;
+                case "sort":
+                    builder.sortBy(parseSort(value));
+                    break;
+                case "limit":
+                    builder.limit(parseInt(key, value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown query key: " + key);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Splits text into the lower-case words that text conditions and the text index work on.
+     *
+     * @param text The text to split, may be null
+     * @return the words, in order, possibly repeated
+     */
+    public static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Normalizes a course name for comparison, so "cs665" finds "CS665".
+     *
+     * @param course The course name
+     * @return the normalized name
+     */
+    public static String courseKey(String course) {
+        return course.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Checks whether a due satisfies every condition of the query.
+     *
+     * @param due The due to check
+     * @return true if the due matches
+     */
+    public boolean matches(Due due) {
+        if (id != null && due.getId() != id) {
+            return false;
+        }
+        if (course != null && (due.getCourse() == null || !courseKey(due.getCourse()).equals(course))) {
+            return false;
+        }
+        if (completed != null && due.isCompleted() != completed) {
+            return false;
+        }
+        LocalDate date = due.getDueDate().toLocalDate();
+        if ((from != null && date.isBefore(from)) || (to != null && date.isAfter(to))) {
+            return false;
+        }
+        if (hasLocation != null) {
+            boolean present = due.getLocation() != null && !due.getLocation().trim().isEmpty();
+            if (present != hasLocation) {
+                return false;
+            }
+        }
+        if (!textTerms.isEmpty()) {
+            List<String> dueTerms = textTermsOf(due);
+            return dueTerms.containsAll(textTerms);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the words of a due that text conditions search: its course, title, location and notes.
+     *
+     * @param due The due
+     * @return the words
+     */
+    public static List<String> textTermsOf(Due due) {
+        List<String> terms = terms(due.getCourse());
+        terms.addAll(terms(due.getTitle()));
+        terms.addAll(terms(due.getLocation()));
+        terms.addAll(terms(due.getNotes()));
+        return terms;
+    }
+
+    /**
+     * Gets the ID condition.
+     *
+     * @return the ID, or null if any ID matches
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * Gets the course condition, normalized with {@link #courseKey(String)}.
+     *
+     * @return the course, or null if any course matches
+     */
+    public String getCourse() {
+        return course;
+    }
+
+    /**
+     * Gets the completion condition.
+     *
+     * @return the required status, or null if either matches
+     */
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    /**
+     * Gets the first date of the date range.
+     *
+     * @return the first date, or null if unbounded
+     */
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    /**
+     * Gets the last date of the date range.
+     *
+     * @return the last date, or null if unbounded
+     */
+    public LocalDate getTo() {
+        return to;
+    }
+
+    /**
+     * Gets the words that must all appear in a matching due.
+     *
+     * @return the lower-case words, empty if there is no text condition
+     */
+    public List<String> getTextTerms() {
+        return textTerms;
+    }
+
+    /**
+     * Gets the location condition.
+     *
+     * @return true if a location is required, false if it must be absent, null if either matches
+     */
+    public Boolean getHasLocation() {
+        return hasLocation;
+    }
+
+    /**
+     * Gets the order of the results.
+     *
+     * @return the sort order
+     */
+    public Sort getSort() {
+        return sort;
+    }
+
+    /**
+     * Gets the maximum number of results.
+     *
+     * @return the limit, or 0 for no limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Renders the query in the "key=value" form accepted by {@link #parse(List)}.
+     *
+     * @return the query terms
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        if (id != null) {
+            text.append(" id=").append(id);
+        }
+        if (course != null) {
+            text.append(" course=").append(course);
+        }
+        if (completed != null) {
+            text.append(completed ? " done" : " pending");
+        }
+        if (from != null) {
+            text.append(" from=").append(from);
+        }
+        if (to != null) {
+            text.append(" to=").append(to);
+        }
+        if (!textTerms.isEmpty()) {
+            text.append(" text=\"").append(String.join(" ", textTerms)).append('"');
+        }
+        if (hasLocation != null) {
+            text.append(" location=").append(hasLocation ? "yes" : "no");
+        }
+        text.append(" sort=").append(sort == Sort.ID ? "id" : sort == Sort.DUE_DATE ? "due" : "-due");
+        if (limit > 0) {
+            text.append(" limit=").append(limit);
+        }
+        return text.substring(1);
+    }
+
+    private static int parseInt(String key, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": " + value);
+        }
+    }
+
+    private static boolean parseBoolean(String key, String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "true":
+            case "yes":
+                return true;
+            case "false":
+            case "no":
+                return false;
+            default:
+                throw new IllegalArgumentException("Invalid " + key + ", expected yes or no: " + value);
+        }
+    }
+
+    private static LocalDate parseDate(String key, String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + key + " date, expected yyyy-MM-dd: " + value);
+        }
+    }
+
+    private static Sort parseSort(String value) {
+        switch (value) {
+            case "id":
+                return Sort.ID;
+            case "due":
+                return Sort.DUE_DATE;
+            case "-due":
+                return Sort.DUE_DATE_DESC;
+            default:
+                throw new IllegalArgumentException("Invalid sort, expected id, due or -due: " + value);
+        }
+    }
+
+    /**
+     * Builder class for creating DueQuery objects.
+     * Every condition is optional; a query with none matches every due.
+     */
+    public static class Builder {
+        private Integer id;
+        private String course;
+        private Boolean completed;
+        private LocalDate from;
+        private LocalDate to;
+        private final List<String> textTerms = new ArrayList<>();
+        private Boolean hasLocation;
+        private Sort sort = Sort.ID;
+        private int limit;
+
+        /**
+         * Matches only the due with an ID.
+         *
+         * @param id the due ID
+         * @return this builder for method chaining
+         */
+        public Builder id(int id) {
+            this.id = id;
+            return this;
+        }
+
+        /**
+         * Matches only dues of a course, ignoring case.
+         *
+         * @param course the course name
+         * @return this builder for method chaining
+         */
+        public Builder course(String course) {
+            this.course = courseKey(course);
+            return this;
+        }
+
+        /**
+         * Matches only dues with a completion status.
+         *
+         * @param completed the required status
+         * @return this builder for method chaining
+         */
+        public Builder completed(boolean completed) {
+            this.completed = completed;
+            return this;
+        }
+
+        /**
+         * Matches only dues that are not completed.
+         *
+         * @return this builder for method chaining
+         */
+        public Builder pending() {
+            return completed(false);
+        }
+
+        /**
+         * Matches only dues due on or after a date.
+         *
+         * @param from the first date
+         * @return this builder for method chaining
+         */
+        public Builder from(LocalDate from) {
+            this.from = from;
+            return this;
+        }
+
+        /**
+         * Matches only dues due on or before a date.
+         *
+         * @param to the last date
+         * @return this builder for method chaining
+         */
+        public Builder to(LocalDate to) {
+            this.to = to;
+            return this;
+        }
+
+        /**
+         * Matches only dues due between two dates, inclusive.
+         *
+         * @param from the first date
+         * @param to   the last date
+         * @return this builder for method chaining
+         */
+        public Builder dueBetween(LocalDate from, LocalDate to) {
+            return from(from).to(to);
+        }
+
+        /**
+         * Matches only dues whose course, title, location and notes contain every word of the text.
+         *
+         * @param text the words to look for
+         * @return this builder for method chaining
+         */
+        public Builder text(String text) {
+            for (String term : terms(text)) {
+                if (!textTerms.contains(term)) {
+                    textTerms.add(term);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Matches only dues with, or without, a location.
+         *
+         * @param hasLocation true to require a location, false to require none
+         * @return this builder for method chaining
+         */
+        public Builder hasLocation(boolean hasLocation) {
+            this.hasLocation = hasLocation;
+            return this;
+        }
+
+        /**
+         * Sets the order of the results; by ID unless set.
+         *
+         * @param sort the sort order
+         * @return this builder for method chaining
+         */
+        public Builder sortBy(Sort sort) {
+            this.sort = sort;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of results.
+         *
+         * @param limit the limit, or 0 for no limit
+         * @return this builder for method chaining
+         */
+        public Builder limit(int limit) {
+            this.limit = limit;
+            return this;
+        }
+
+        /**
+         * Builds and returns a new DueQuery with the configured conditions.
+         *
+         * @return a new DueQuery instance
+         * @throws IllegalArgumentException if the date range is empty or the limit is negative
+         */
+        public DueQuery build() {
+            if (from != null && to != null && to.isBefore(from)) {
+                throw new IllegalArgumentException("Invalid date range: " + from + " to " + to);
+            }
+            if (limit < 0) {
+                throw new IllegalArgumentException("Limit cannot be negative");
+            }
+            return new DueQuery(this);
+        }
+    }
+}
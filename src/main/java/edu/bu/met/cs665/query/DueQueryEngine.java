@@ -0,0 +1,401 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: DueQueryEngine.java
+ * Description: This class is responsible for planning and running queries over dues.
+ */
+
+package edu.bu.met.cs665.query;
+
+import edu.bu.met.cs665.metrics.LatencyHistogram;
+import edu.bu.met.cs665.metrics.Metrics;
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.model.RecurringDue;
+import edu.bu.met.cs665.query.QueryPlan.AccessPath;
+import edu.bu.met.cs665.service.DueChangeEvent;
+import edu.bu.met.cs665.service.DueChangeListener;
+import edu.bu.met.cs665.service.DueManager;
+import edu.bu.met.cs665.service.DueSnapshot;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Answers {@link DueQuery}s against a {@link DueManager} using secondary indexes by date,
+ * course and word, kept up to date from the manager's change events.
+ * For each query the planner estimates how many candidates every usable access path would
+ * produce, picks the smallest (a lookup by ID beats everything, a full scan is the fallback),
+ * and checks the remaining conditions on each candidate. When the plan walks the dues in the
+ * order the query asks for, it stops as soon as the limit is reached.
+ * Indexes hold IDs only; candidates are read from the snapshot the indexes were last brought up
+ * to date with, not the manager's latest one, which is published before its change event
+ * reaches the indexes. Candidates are always re-checked, so a query running alongside a change
+ * sees the store either before or after it.
+ */
+public class DueQueryEngine implements DueChangeListener, AutoCloseable {
+    private static final LatencyHistogram QUERY_LATENCY = Metrics.global().histogram("dues.query");
+
+    private final DueManager dueManager;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<LocalDate, Set<Integer>> byDate = new TreeMap<>();
+    private final Map<String, Set<Integer>> byCourse = new HashMap<>();
+    private final Map<String, Set<Integer>> byTerm = new HashMap<>();
+    // The snapshot the indexes describe; guarded by the lock
+    private DueSnapshot indexed;
+
+    /**
+     * Creates an engine, indexes the manager's dues and starts following its changes.
+     *
+     * @param dueManager The store to query
+     */
+    public DueQueryEngine(DueManager dueManager) {
+        this.dueManager = dueManager;
+        lock.writeLock().lock();
+        try {
+            // Changes arriving while the initial dues are indexed wait for the lock
+            indexed = dueManager.addChangeListener(this);
+            for (Due due : indexed) {
+                index(due);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stops following the manager's changes.
+     */
+    @Override
+    public void close() {
+        dueManager.removeChangeListener(this);
+    }
+
+    /**
+     * Keeps the indexes in step with the store. Every change moves the indexed snapshot on;
+     * completion is not indexed, and occurrences of recurring dues are expanded at query time,
+     * so only one-off dues being added, replaced or removed change the indexes themselves.
+     *
+     * @param event The change
+     */
+    @Override
+    public void onDueChange(DueChangeEvent event) {
+        Due due = event.getDue();
+        lock.writeLock().lock();
+        try {
+            // Events are delivered under the manager's lock right after the change is published,
+            // so its current snapshot is the one this event leads to
+            indexed = dueManager.getSnapshot();
+            if (due == null || due.isRecurring()) {
+                return;
+            }
+            if (event.getType() == DueChangeEvent.Type.ADDED) {
+                if (event.getPrevious() != null) {
+                    unindex(event.getPrevious());
+                }
+                index(due);
+            } else if (event.getType() == DueChangeEvent.Type.REMOVED) {
+                unindex(due);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Describes how a query would be answered, without running it.
+     *
+     * @param query The query
+     * @return the plan
+     */
+    public QueryPlan explain(DueQuery query) {
+        lock.readLock().lock();
+        try {
+            return plan(query, indexed);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a query. With a bounded date range, occurrences of recurring dues in the range are
+     * included as well.
+     *
+     * @param query The query
+     * @return a new list of the matching dues, in the query's order and within its limit
+     */
+    public List<Due> execute(DueQuery query) {
+        long start = System.nanoTime();
+        List<Due> results = new ArrayList<>();
+        DueSnapshot snapshot;
+        QueryPlan plan;
+        boolean ordered;
+        lock.readLock().lock();
+        try {
+            snapshot = indexed;
+            plan = plan(query, snapshot);
+            ordered = collect(query, plan, snapshot, results);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (expandsRecurring(query, snapshot)) {
+            for (RecurringDue recurringDue : snapshot.getSeries()) {
+                for (Due occurrence : recurringDue.occurrencesBetween(query.getFrom(), query.getTo())) {
+                    if (query.matches(occurrence)) {
+                        results.add(occurrence);
+                    }
+                }
+            }
+        }
+        if (!ordered) {
+            results.sort(comparator(query.getSort()));
+        }
+        if (query.getLimit() > 0 && results.size() > query.getLimit()) {
+            results = new ArrayList<>(results.subList(0, query.getLimit()));
+        }
+        QUERY_LATENCY.recordSince(start);
+        return results;
+    }
+
+    /**
+     * Collects the matching one-off dues along the planned access path. Must hold the read lock.
+     *
+     * @param query    The query
+     * @param plan     The plan
+     * @param snapshot The snapshot candidates are read from
+     * @param results  Receives the matches
+     * @return true if the matches were collected in the query's order and cut at its limit
+     */
+    private boolean collect(DueQuery query, QueryPlan plan, DueSnapshot snapshot, List<Due> results) {
+        int limit = query.getLimit();
+        boolean canStopEarly = limit > 0 && !expandsRecurring(query, snapshot);
+        switch (plan.getAccessPath()) {
+            case ID_LOOKUP:
+                addIfMatches(query, snapshot.get(query.getId()), results);
+                return false;
+            case TEXT_INDEX:
+                collectIds(query, snapshot, postings(byTerm, rarestTerm(query)), results);
+                return false;
+            case COURSE_INDEX:
+                collectIds(query, snapshot, postings(byCourse, query.getCourse()), results);
+                return false;
+            case DATE_INDEX:
+                boolean dateOrder = query.getSort() != DueQuery.Sort.ID;
+                NavigableMap<LocalDate, Set<Integer>> range = dateRange(query);
+                if (query.getSort() == DueQuery.Sort.DUE_DATE_DESC) {
+                    range = range.descendingMap();
+                }
+                Comparator<Due> order = comparator(query.getSort());
+                for (Map.Entry<LocalDate, Set<Integer>> bucket : range.entrySet()) {
+                    List<Due> matches = new ArrayList<>();
+                    for (int id : bucket.getValue()) {
+                        Due due = snapshot.get(id);
+                        // A due whose date just changed may still sit in its old bucket
+                        if (due != null && due.getDueDate().toLocalDate().equals(bucket.getKey())) {
+                            addIfMatches(query, due, matches);
+                        }
+                    }
+                    if (dateOrder) {
+                        matches.sort(order);
+                    }
+                    results.addAll(matches);
+                    if (dateOrder && canStopEarly && results.size() >= limit) {
+                        return true;
+                    }
+                }
+                return false;
+            default:
+                for (Due due : snapshot) {
+                    addIfMatches(query, due, results);
+                    if (query.getSort() == DueQuery.Sort.ID && canStopEarly && results.size() >= limit) {
+                        return true;
+                    }
+                }
+                return false;
+        }
+    }
+
+    private static void collectIds(DueQuery query, DueSnapshot snapshot, Set<Integer> ids, List<Due> results) {
+        for (int id : ids) {
+            addIfMatches(query, snapshot.get(id), results);
+        }
+    }
+
+    private static void addIfMatches(DueQuery query, Due due, List<Due> results) {
+        if (due != null && query.matches(due)) {
+            results.add(due);
+        }
+    }
+
+    /**
+     * Chooses the access path with the fewest expected candidates. Must hold the read lock.
+     *
+     * @param query    The query
+     * @param snapshot The snapshot the query runs against
+     * @return the plan
+     */
+    private QueryPlan plan(DueQuery query, DueSnapshot snapshot) {
+        AccessPath path = AccessPath.FULL_SCAN;
+        String key = null;
+        long cost = snapshot.size();
+        if (query.getId() != null) {
+            path = AccessPath.ID_LOOKUP;
+            key = "id=" + query.getId();
+            cost = snapshot.get(query.getId()) == null ? 0 : 1;
+        }
+        if (!query.getTextTerms().isEmpty()) {
+            String term = rarestTerm(query);
+            long termCost = postings(byTerm, term).size();
+            if (termCost < cost) {
+                path = AccessPath.TEXT_INDEX;
+                key = "word=" + term;
+                cost = termCost;
+            }
+        }
+        if (query.getCourse() != null) {
+            long courseCost = postings(byCourse, query.getCourse()).size();
+            if (courseCost < cost) {
+                path = AccessPath.COURSE_INDEX;
+                key = "course=" + query.getCourse();
+                cost = courseCost;
+            }
+        }
+        if (query.getFrom() != null || query.getTo() != null) {
+            long dateCost = 0;
+            for (Set<Integer> ids : dateRange(query).values()) {
+                dateCost += ids.size();
+            }
+            // Walking dates in order also saves the sort, so it wins ties when sorting by date
+            boolean sortsByDate = query.getSort() != DueQuery.Sort.ID;
+            if (dateCost < cost || (dateCost == cost && sortsByDate && path != AccessPath.ID_LOOKUP)) {
+                path = AccessPath.DATE_INDEX;
+                key = (query.getFrom() == null ? "" : query.getFrom().toString()) + ".."
+                        + (query.getTo() == null ? "" : query.getTo().toString());
+                cost = dateCost;
+            }
+        }
+        return new QueryPlan(path, key, cost, snapshot.size(), filters(query, path), order(query, path),
+                query.getLimit(), expandsRecurring(query, snapshot));
+    }
+
+    /**
+     * Lists the conditions left to check after the access path.
+     */
+    private static List<String> filters(DueQuery query, AccessPath path) {
+        List<String> filters = new ArrayList<>();
+        if (query.getId() != null && path != AccessPath.ID_LOOKUP) {
+            filters.add("id=" + query.getId());
+        }
+        if (query.getCourse() != null && path != AccessPath.COURSE_INDEX) {
+            filters.add("course=" + query.getCourse());
+        }
+        if (query.getCompleted() != null) {
+            filters.add(query.getCompleted() ? "done" : "pending");
+        }
+        if ((query.getFrom() != null || query.getTo() != null) && path != AccessPath.DATE_INDEX) {
+            filters.add("due " + (query.getFrom() == null ? "" : query.getFrom()) + ".."
+                    + (query.getTo() == null ? "" : query.getTo()));
+        }
+        if (!query.getTextTerms().isEmpty()
+                && !(path == AccessPath.TEXT_INDEX && query.getTextTerms().size() == 1)) {
+            filters.add("text=\"" + String.join(" ", query.getTextTerms()) + "\"");
+        }
+        if (query.getHasLocation() != null) {
+            filters.add(query.getHasLocation() ? "has location" : "no location");
+        }
+        return filters;
+    }
+
+    /**
+     * Describes how the results are put in order.
+     */
+    private static String order(DueQuery query, AccessPath path) {
+        String stop = query.getLimit() > 0 ? ", stops at limit" : "";
+        if (query.getSort() == DueQuery.Sort.ID && path == AccessPath.FULL_SCAN) {
+            return "by id, store order" + stop;
+        }
+        if (query.getSort() != DueQuery.Sort.ID && path == AccessPath.DATE_INDEX) {
+            return "by due date, index order" + stop;
+        }
+        return "sort by " + (query.getSort() == DueQuery.Sort.ID ? "id"
+                : query.getSort() == DueQuery.Sort.DUE_DATE ? "due date" : "due date, latest first");
+    }
+
+    private static boolean expandsRecurring(DueQuery query, DueSnapshot snapshot) {
+        return query.getFrom() != null && query.getTo() != null && !snapshot.getSeries().isEmpty();
+    }
+
+    private static Comparator<Due> comparator(DueQuery.Sort sort) {
+        Comparator<Due> byDueDate = Comparator.comparing(Due::getDueDate).thenComparingInt(Due::getId);
+        switch (sort) {
+            case DUE_DATE:
+                return byDueDate;
+            case DUE_DATE_DESC:
+                return byDueDate.reversed();
+            default:
+                return Comparator.comparingInt(Due::getId).thenComparing(Due::getDueDate);
+        }
+    }
+
+    /**
+     * Finds the word of the text condition that the fewest dues contain. Must hold the read lock.
+     */
+    private String rarestTerm(DueQuery query) {
+        String rarest = null;
+        for (String term : query.getTextTerms()) {
+            if (rarest == null || postings(byTerm, term).size() < postings(byTerm, rarest).size()) {
+                rarest = term;
+            }
+        }
+        return rarest;
+    }
+
+    private NavigableMap<LocalDate, Set<Integer>> dateRange(DueQuery query) {
+        if (query.getFrom() != null && query.getTo() != null) {
+            return byDate.subMap(query.getFrom(), true, query.getTo(), true);
+        }
+        if (query.getFrom() != null) {
+            return byDate.tailMap(query.getFrom(), true);
+        }
+        return query.getTo() != null ? byDate.headMap(query.getTo(), true) : byDate;
+    }
+
+    private static Set<Integer> postings(Map<String, Set<Integer>> index, String key) {
+        Set<Integer> ids = index.get(key);
+        return ids == null ? Collections.<Integer>emptySet() : ids;
+    }
+
+    /**
+     * Adds a due to every index. Must hold the write lock.
+     */
+    private void index(Due due) {
+        byDate.computeIfAbsent(due.getDueDate().toLocalDate(), k -> new HashSet<>()).add(due.getId());
+        if (due.getCourse() != null) {
+            byCourse.computeIfAbsent(DueQuery.courseKey(due.getCourse()), k -> new HashSet<>()).add(due.getId());
+        }
+        for (String term : new HashSet<>(DueQuery.textTermsOf(due))) {
+            byTerm.computeIfAbsent(term, k -> new HashSet<>()).add(due.getId());
+        }
+    }
+
+    /**
+     * Removes a due from every index, dropping keys left empty. Must hold the write lock.
+     */
+    private void unindex(Due due) {
+        remove(byDate, due.getDueDate().toLocalDate(), due.getId());
+        if (due.getCourse() != null) {
+            remove(byCourse, DueQuery.courseKey(due.getCourse()), due.getId());
+        }
+        for (String term : DueQuery.textTermsOf(due)) {
+            remove(byTerm, term, due.getId());
+        }
+    }
+
+    private static <K> void remove(Map<K, Set<Integer>> index, K key, int id) {
+        Set<Integer> ids = index.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: QueryPlan.java
+ * Description: This class describes how a query will be answered.
+ */
+
+package edu.bu.met.cs665.query;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The plan chosen for a {@link DueQuery}: which access path produces the candidate dues, how
+ * many candidates it is expected to yield, and what is left to do with them. Returned by
+ * {@link DueQueryEngine#explain(DueQuery)} so that queries can be tuned.
+ */
+public final class QueryPlan {
+    /**
+     * The ways candidate dues can be found, from most to least selective in general.
+     */
+    public enum AccessPath {
+        /** Fetch a single due by its ID. */
+        ID_LOOKUP,
+        /** Walk the dues whose words include the rarest word of the text condition. */
+        TEXT_INDEX,
+        /** Walk the dues of one course. */
+        COURSE_INDEX,
+        /** Walk the dues in the date range, in date order. */
+        DATE_INDEX,
+        /** Walk every due. */
+        FULL_SCAN
+    }
+
+    private final AccessPath accessPath;
+    private final String key;
+    private final long estimatedRows;
+    private final int totalRows;
+    private final List<String> filters;
+    private final String order;
+    private final int limit;
+    private final boolean expandsRecurring;
+
+    /**
+     * Creates a plan.
+     *
+     * @param accessPath       The access path producing candidates
+     * @param key              The index key or range used, or null for a scan
+     * @param estimatedRows    The expected number of candidates
+     * @param totalRows        The number of dues in the store
+     * @param filters          The conditions checked on each candidate
+     * @param order            How the results are put in order
+     * @param limit            The maximum number of results, or 0
+     * @param expandsRecurring Whether recurring dues are expanded within the date range
+     */
+    QueryPlan(AccessPath accessPath, String key, long estimatedRows, int totalRows, List<String> filters,
+              String order, int limit, boolean expandsRecurring) {
+        this.accessPath = accessPath;
+        this.key = key;
+        this.estimatedRows = estimatedRows;
+        this.totalRows = totalRows;
+        this.filters = Collections.unmodifiableList(filters);
+        this.order = order;
+        this.limit = limit;
+        this.expandsRecurring = expandsRecurring;
+    }
+
+    /**
+     * Gets the access path producing candidates.
+     *
+     * @return the access path
+     */
+    public AccessPath getAccessPath() {
+        return accessPath;
+    }
+
+    /**
+     * Gets the expected number of candidates.
+     *
+     * @return the estimated candidate count
+     */
+    public long getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    /**
+     * Gets the conditions checked on each candidate.
+     *
+     * @return the filters, in words
+     */
+    public List<String> getFilters() {
+        return filters;
+    }
+
+    /**
+     * Describes the plan, one step per line.
+     *
+     * @return the plan description
+     */
+    public String explain() {
+        StringBuilder text = new StringBuilder();
+        text.append("access: ").append(accessPath);
+        if (key != null) {
+            text.append(" [").append(key).append(']');
+        }
+        text.append(" (est. ").append(estimatedRows).append(" of ").append(totalRows).append(" dues)\n");
+        if (expandsRecurring) {
+            text.append("recurring: expand occurrences in range\n");
+        }
+        text.append("filter: ").append(filters.isEmpty() ? "none" : String.join(", ", filters)).append('\n');
+        text.append("order: ").append(order);
+        if (limit > 0) {
+            text.append("\nlimit: ").append(limit);
+        }
+        return text.toString();
+    }
+
+    @Override
+    public String toString() {
+        return explain();
+    }
+}
@@ -0,0 +1,516 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: ScriptRunner.java
+ * Description: This class is responsible for running due commands from a script.
+ */
+
+package edu.bu.met.cs665.script;
+
+import edu.bu.met.cs665.command.AddDueCommand;
+import edu.bu.met.cs665.command.AddRecurringDueCommand;
+import edu.bu.met.cs665.command.CommandHistory;
+import edu.bu.met.cs665.command.MarkCompletedCommand;
+import edu.bu.met.cs665.command.RemoveDueCommand;
+import edu.bu.met.cs665.export.DueExporter;
+import edu.bu.met.cs665.export.ExportFormat;
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.model.RecurringDue;
+import edu.bu.met.cs665.query.DueQuery;
+import edu.bu.met.cs665.query.DueQueryEngine;
+import edu.bu.met.cs665.service.DueManager;
+import edu.bu.met.cs665.storage.DueJsonFormat;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs due commands non-interactively, one command per line.
+ *
+ * <pre>
+ * # comments and blank lines are ignored
+ * add CS665 "Assignment 5" "2024-12-10 23:59" location="Room 101" notes="Submit PDF"
+ * add CS544 Quiz 2024-12-12
+ * recur CS665 "Weekly reading" "2024-09-03 18:00" weekly days=TUE,THU until=2024-12-10
+ * recur CS544 Lab 2024-09-06 biweekly count=6
+ * complete 3 4 5@2024-09-05
+ * remove 7
+ * list --from 2024-12-01 --to 2024-12-31
+ * query course=CS665 pending location=yes from=2024-12-01 to=2024-12-15 sort=due limit=20
+ * explain course=CS665 text="lab report"
+ * export ics calendar.ics course=CS665 from=2024-09-01
+ * undo
+ * redo
+ * </pre>
+ *
+ * <p>A due date without a time means 23:59. A recurring due repeats on the weekdays given,
+ * or on its start's weekday, until a date or for a number of occurrences; "id@date" refers to
+ * one occurrence of it. Changes go through the command history, so undo
+ * and redo work within a script, and are saved once per batch of commands instead of once
+ * per command. A failing line is reported and the script continues.
+ */
+public class ScriptRunner {
+    /** Default number of mutating commands between saves. */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final DueManager dueManager;
+    private final CommandHistory commandHistory;
+    private final PrintStream out;
+    private final PrintStream err;
+    private final int batchSize;
+    private int mutationsInBatch;
+    private DueQueryEngine queryEngine;
+
+    /**
+     * Creates a script runner.
+     *
+     * @param dueManager     The store to run commands against
+     * @param commandHistory The history used for undo and redo
+     * @param out            Receives the output of list commands
+     * @param err            Receives error messages
+     * @param batchSize      The number of mutating commands between saves
+     * @throws IllegalArgumentException if the batch size is not positive
+     */
+    public ScriptRunner(DueManager dueManager, CommandHistory commandHistory, PrintStream out, PrintStream err,
+                        int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        this.dueManager = dueManager;
+        this.commandHistory = commandHistory;
+        this.out = out;
+        this.err = err;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Runs every line of a script.
+     *
+     * @param script The script to read
+     * @return the number of lines that failed
+     * @throws IOException if the script cannot be read
+     */
+    public int run(BufferedReader script) throws IOException {
+        int failures = 0;
+        int lineNumber = 0;
+        String line;
+        dueManager.beginBatch();
+        try {
+            while ((line = script.readLine()) != null) {
+                lineNumber++;
+                try {
+                    List<String> tokens = tokenize(line);
+                    if (!tokens.isEmpty()) {
+                        execute(tokens);
+                    }
+                } catch (IllegalArgumentException e) {
+                    failures++;
+                    err.println("line " + lineNumber + ": " + e.getMessage());
+                }
+            }
+        } finally {
+            dueManager.endBatch();
+        }
+        return failures;
+    }
+
+    /**
+     * Executes a single tokenized command.
+     *
+     * @param tokens The command name followed by its arguments
+     * @throws IllegalArgumentException if the command or its arguments are invalid
+     */
+    private void execute(List<String> tokens) {
+        String command = tokens.get(0);
+        List<String> args = tokens.subList(1, tokens.size());
+        switch (command) {
+            case "add":
+                add(args);
+                break;
+            case "recur":
+                recur(args);
+                break;
+            case "complete":
+                if (args.isEmpty()) {
+                    throw new IllegalArgumentException("Usage: complete <id>[@yyyy-MM-dd] [...]");
+                }
+                for (String arg : args) {
+                    Due due = requireDueOrOccurrence(arg);
+                    commandHistory.executeCommand(new MarkCompletedCommand(dueManager, due));
+                    mutated();
+                }
+                break;
+            case "remove":
+                for (int id : parseIds(command, args)) {
+                    Due due = requireDue(id);
+                    commandHistory.executeCommand(new RemoveDueCommand(dueManager, due));
+                    mutated();
+                }
+                break;
+            case "list":
+                list(args);
+                break;
+            case "query":
+                print(queryEngine().execute(DueQuery.parse(args)));
+                break;
+            case "explain":
+                out.println(queryEngine().explain(DueQuery.parse(args)).explain());
+                break;
+            case "export":
+                export(args);
+                break;
+            case "undo":
+                if (!commandHistory.canUndo()) {
+                    throw new IllegalArgumentException("Nothing to undo");
+                }
+                commandHistory.undo();
+                mutated();
+                break;
+            case "redo":
+                if (!commandHistory.canRedo()) {
+                    throw new IllegalArgumentException("Nothing to redo");
+                }
+                commandHistory.redo();
+                mutated();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown command: " + command);
+        }
+    }
+
+    /**
+     * Adds a due from "course title due_date [location=...] [notes=...]" arguments.
+     *
+     * @param args The command arguments
+     */
+    private void add(List<String> args) {
+        if (args.size() < 3) {
+            throw new IllegalArgumentException("Usage: add <course> <title> <due_date> [location=..] [notes=..]");
+        }
+        JSONObject json = new JSONObject();
+        json.put("course", args.get(0));
+        json.put("title", args.get(1));
+        json.put("due_date", parseDueDate(args.get(2)).format(DueJsonFormat.DATE_TIME));
+        for (String option : args.subList(3, args.size())) {
+            if (option.startsWith("location=")) {
+                json.put("location", option.substring("location=".length()));
+            } else if (option.startsWith("notes=")) {
+                json.put("notes", option.substring("notes=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown add option: " + option);
+            }
+        }
+        Due due = dueManager.createDueFromJson(json.toString());
+        commandHistory.executeCommand(new AddDueCommand(dueManager, due));
+        mutated();
+    }
+
+    /**
+     * Adds a recurring due from "course title start weekly|biweekly [days=..] [until=..] [count=..]
+     * [location=...] [notes=...]" arguments.
+     *
+     * @param args The command arguments
+     */
+    private void recur(List<String> args) {
+        if (args.size() < 4) {
+            throw new IllegalArgumentException("Usage: recur <course> <title> <start> weekly|biweekly"
+                    + " [days=MON,..] [until=yyyy-MM-dd] [count=n] [location=..] [notes=..]");
+        }
+        RecurringDue.RecurringDueBuilder builder = dueManager.newRecurringDue()
+                .course(args.get(0))
+                .title(args.get(1))
+                .start(parseDueDate(args.get(2)));
+        if ("weekly".equals(args.get(3))) {
+            builder.weekly();
+        } else if ("biweekly".equals(args.get(3))) {
+            builder.biweekly();
+        } else {
+            throw new IllegalArgumentException("Unknown frequency, expected weekly or biweekly: " + args.get(3));
+        }
+        for (String option : args.subList(4, args.size())) {
+            if (option.startsWith("days=")) {
+                for (String day : option.substring("days=".length()).split(",")) {
+                    builder.on(parseDay(day));
+                }
+            } else if (option.startsWith("until=")) {
+                builder.until(parseDate(option.substring("until=".length())));
+            } else if (option.startsWith("count=")) {
+                builder.count(parseCount(option.substring("count=".length())));
+            } else if (option.startsWith("location=")) {
+                builder.location(option.substring("location=".length()));
+            } else if (option.startsWith("notes=")) {
+                builder.notes(option.substring("notes=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown recur option: " + option);
+            }
+        }
+        commandHistory.executeCommand(new AddRecurringDueCommand(dueManager, builder.build()));
+        mutated();
+    }
+
+    /**
+     * Prints dues, optionally limited to a date range, one tab-separated line per due. Without a
+     * range, recurring dues are expanded as far as the menu's listing expands them.
+     *
+     * @param args The command arguments
+     */
+    private void list(List<String> args) {
+        LocalDate from = null;
+        LocalDate to = null;
+        for (int i = 0; i < args.size(); i++) {
+            String option = args.get(i);
+            if (i + 1 >= args.size() || !("--from".equals(option) || "--to".equals(option))) {
+                throw new IllegalArgumentException("Usage: list [--from yyyy-MM-dd] [--to yyyy-MM-dd]");
+            }
+            LocalDate date = parseDate(args.get(++i));
+            if ("--from".equals(option)) {
+                from = date;
+            } else {
+                to = date;
+            }
+        }
+        print(from == null && to == null ? dueManager.streamDuesWithOccurrences()::iterator
+                : dueManager.getDuesBetween(from == null ? LocalDate.MIN : from, to == null ? LocalDate.MAX : to));
+    }
+
+    /**
+     * Streams the dues matching optional query terms to a file, from "format file [terms]".
+     *
+     * @param args The command arguments
+     */
+    private void export(List<String> args) {
+        if (args.size() < 2) {
+            throw new IllegalArgumentException("Usage: export <ndjson|csv|ics> <file> [query terms]");
+        }
+        ExportFormat format = ExportFormat.parse(args.get(0));
+        DueQuery query = DueQuery.parse(args.subList(2, args.size()));
+        Path file = Paths.get(args.get(1));
+        try (OutputStream stream = Files.newOutputStream(file)) {
+            long exported = DueExporter.export(dueManager.getSnapshot(), query, format, stream);
+            out.println("Exported " + exported + " dues to " + file);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not export to " + file + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the query engine, indexing the store on first use.
+     *
+     * @return the query engine
+     */
+    private DueQueryEngine queryEngine() {
+        if (queryEngine == null) {
+            queryEngine = new DueQueryEngine(dueManager);
+        }
+        return queryEngine;
+    }
+
+    /**
+     * Prints dues one tab-separated line per due.
+     *
+     * @param dues The dues to print
+     */
+    private void print(Iterable<Due> dues) {
+        for (Due due : dues) {
+            out.println(due.getId() + "\t" + due.getDueDate().format(DueJsonFormat.DATE_TIME) + "\t"
+                    + due.getCourse() + "\t" + due.getTitle() + "\t" + (due.isCompleted() ? "done" : "pending"));
+        }
+    }
+
+    /**
+     * Counts a mutation, saving when the batch is full.
+     */
+    private void mutated() {
+        if (++mutationsInBatch >= batchSize) {
+            dueManager.endBatch();
+            dueManager.beginBatch();
+            mutationsInBatch = 0;
+        }
+    }
+
+    /**
+     * Looks up a due that a command refers to.
+     *
+     * @param id The due ID
+     * @return the due
+     * @throws IllegalArgumentException if no due in the working set has the ID
+     */
+    private Due requireDue(int id) {
+        Due due = dueManager.getDueById(id);
+        if (due == null && dueManager.isArchived(id)) {
+            throw new IllegalArgumentException("Due with ID " + id + " is archived and cannot be changed");
+        }
+        if (due == null) {
+            throw new IllegalArgumentException("Due with ID " + id + " not found");
+        }
+        return due;
+    }
+
+    /**
+     * Looks up a due, or with "id@yyyy-MM-dd" one occurrence of a recurring due.
+     *
+     * @param arg The due reference
+     * @return the due or occurrence
+     * @throws IllegalArgumentException if there is no such due or occurrence
+     */
+    private Due requireDueOrOccurrence(String arg) {
+        int at = arg.indexOf('@');
+        if (at < 0) {
+            return requireDue(parseIds("complete", Collections.singletonList(arg)).get(0));
+        }
+        int id = parseIds("complete", Collections.singletonList(arg.substring(0, at))).get(0);
+        LocalDate date = parseDate(arg.substring(at + 1));
+        RecurringDue recurringDue = dueManager.getRecurringDue(id);
+        List<Due> occurrences = recurringDue == null ? Collections.<Due>emptyList()
+                : recurringDue.occurrencesBetween(date, date);
+        if (occurrences.isEmpty()) {
+            throw new IllegalArgumentException("Recurring due " + id + " has no occurrence on " + date);
+        }
+        return occurrences.get(0);
+    }
+
+    /**
+     * Parses the ID arguments of a command.
+     *
+     * @param command The command name, for error messages
+     * @param args    The ID arguments
+     * @return the IDs
+     */
+    private static List<Integer> parseIds(String command, List<String> args) {
+        if (args.isEmpty()) {
+            throw new IllegalArgumentException("Usage: " + command + " <id> [<id>...]");
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (String arg : args) {
+            try {
+                ids.add(Integer.parseInt(arg));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid due ID: " + arg);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Parses "yyyy-MM-dd HH:mm", "yyyy-MM-ddTHH:mm" or "yyyy-MM-dd" (meaning 23:59).
+     *
+     * @param text The date text
+     * @return the due date
+     */
+    private static LocalDateTime parseDueDate(String text) {
+        try {
+            if (text.length() == 10) {
+                return LocalDate.parse(text).atTime(23, 59);
+            }
+            return LocalDateTime.parse(text.replace('T', ' '), DueJsonFormat.DATE_TIME);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid due date, expected yyyy-MM-dd [HH:mm]: " + text);
+        }
+    }
+
+    /**
+     * Parses a weekday name or its three letter abbreviation, in any case.
+     *
+     * @param text The weekday text
+     * @return the weekday
+     */
+    private static DayOfWeek parseDay(String text) {
+        String upper = text.trim().toUpperCase(Locale.ROOT);
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if (day.name().equals(upper) || (upper.length() == 3 && day.name().startsWith(upper))) {
+                return day;
+            }
+        }
+        throw new IllegalArgumentException("Invalid weekday: " + text);
+    }
+
+    /**
+     * Parses a positive occurrence count.
+     *
+     * @param text The count text
+     * @return the count
+     */
+    private static int parseCount(String text) {
+        try {
+            int count = Integer.parseInt(text);
+            if (count > 0) {
+                return count;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid count, expected a positive number: " + text);
+    }
+
+    /**
+     * Parses a yyyy-MM-dd date.
+     *
+     * @param text The date text
+     * @return the date
+     */
+    private static LocalDate parseDate(String text) {
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date, expected yyyy-MM-dd: " + text);
+        }
+    }
+
+    /**
+     * Splits a line into whitespace-separated tokens. Double quotes group words, a backslash
+     * escapes the next character, and a "#" outside quotes starts a comment.
+     *
+     * @param line The line to split
+     * @return the tokens
+     * @throws IllegalArgumentException if a quote is not closed
+     */
+    static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean inToken = false;
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\\' && i + 1 < line.length()) {
+                token.append(line.charAt(++i));
+                inToken = true;
+            } else if (c == '"') {
+                quoted = !quoted;
+                inToken = true;
+            } else if (!quoted && c == '#') {
+                break;
+            } else if (!quoted && Character.isWhitespace(c)) {
+                if (inToken) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                    inToken = false;
+                }
+            } else {
+                token.append(c);
+                inToken = true;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        if (inToken) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,506 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: DueHttpServer.java
+ * Description: This class exposes the DueManager as a JSON API over HTTP.
+ */
+
+package edu.bu.met.cs665.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import edu.bu.met.cs665.command.AddDueCommand;
+import edu.bu.met.cs665.command.CommandHistory;
+import edu.bu.met.cs665.command.MarkCompletedCommand;
+import edu.bu.met.cs665.command.RemoveDueCommand;
+import edu.bu.met.cs665.export.DueExporter;
+import edu.bu.met.cs665.export.ExportFormat;
+import edu.bu.met.cs665.metrics.LatencyHistogram;
+import edu.bu.met.cs665.metrics.Metrics;
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.query.DueQuery;
+import edu.bu.met.cs665.service.DueDashboard;
+import edu.bu.met.cs665.service.DueManager;
+import edu.bu.met.cs665.storage.DueJsonWriter;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Embedded HTTP server backed by a DueManager and a CommandHistory.
+ *
+ * <p>Endpoints:
+ * <ul>
+ *   <li>GET /dues, optionally with from=yyyy-MM-dd and to=yyyy-MM-dd for a date range</li>
+ *   <li>GET /dues/{id}</li>
+ *   <li>POST /dues with a JSON due (course, title, due_date, optional location and notes)</li>
+ *   <li>POST /dues/{id}/complete</li>
+ *   <li>DELETE /dues/{id}</li>
+ *   <li>POST /undo and POST /redo</li>
+ *   <li>GET /export?format=ndjson|csv|ics, optionally with query terms such as course, from
+ *       and to, streaming the matching dues as a download</li>
+ *   <li>GET /dashboard for the counts of pending dues overdue, due today, tomorrow, this week
+ *       and later</li>
+ *   <li>GET /metrics for a text dump of the metrics registry</li>
+ * </ul>
+ *
+ * <p>Requests run on a bounded pool. When the pool and its queue are full, a request is handed
+ * to a single overflow thread that only answers 503 with a Retry-After, so the dispatcher thread
+ * never runs a request and keeps accepting connections; when that thread's queue is full too, the
+ * connection is closed. Responses are written in several small writes, so keep-alive clients
+ * stall on delayed ACKs unless the JDK sets TCP_NODELAY: start the JVM with
+ * -Dsun.net.httpserver.nodelay=true, which the --server launcher does.
+ * Changes are serialized with the command history; reads use the store's current snapshot
+ * without locking, and responses are streamed outside the lock.
+ */
+public class DueHttpServer implements AutoCloseable {
+    private static final String JSON = "application/json; charset=utf-8";
+    // Set while the overflow thread runs a request, which is then only turned away
+    private static final ThreadLocal<Boolean> SHEDDING = new ThreadLocal<>();
+
+    private final DueManager dueManager;
+    private final CommandHistory commandHistory;
+    private final DueDashboard dashboard;
+    private final HttpServer server;
+    private final ThreadPoolExecutor executor;
+    private final ThreadPoolExecutor overflow;
+    private final Object lock = new Object();
+    private final Metrics metrics = Metrics.global();
+    private final LatencyHistogram requestLatency = metrics.histogram("http.request");
+
+    /**
+     * Creates a server; call {@link #start()} to begin accepting requests.
+     *
+     * @param dueManager     The store to serve
+     * @param commandHistory The history used for undo and redo
+     * @param address        The address to bind, port 0 for any free port
+     * @param threads        The number of request worker threads
+     * @param queueCapacity  The number of accepted requests that may wait for a worker
+     * @throws IOException if the address cannot be bound
+     */
+    public DueHttpServer(DueManager dueManager, CommandHistory commandHistory, InetSocketAddress address,
+                         int threads, int queueCapacity) throws IOException {
+        this.dueManager = dueManager;
+        this.commandHistory = commandHistory;
+        AtomicInteger workerCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), daemon(() -> "http-worker-" + workerCount.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.overflow = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                daemon(() -> "http-overflow"), new ThreadPoolExecutor.AbortPolicy());
+        this.server = HttpServer.create(address, 1024);
+        this.server.setExecutor(this::dispatch);
+        this.server.createContext("/", this::handle);
+        // Created once the address is bound, so a failed bind leaves no scheduler or listener behind
+        this.dashboard = new DueDashboard(dueManager);
+        metrics.gauge("http.queue.depth", () -> executor.getQueue().size());
+        dashboard.registerGauges(metrics);
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Gets the port the server is bound to.
+     *
+     * @return the local port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server, giving in-flight requests a second to finish.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+        overflow.shutdown();
+        dashboard.close();
+    }
+
+    /**
+     * Hands a connection's exchange to a worker, or to the overflow thread when the workers and
+     * their queue are full. Called on the dispatcher thread, so it never runs the exchange itself.
+     *
+     * @param exchange The server's task reading and handling one request
+     * @throws RejectedExecutionException if the overflow queue is full too; the server then
+     *                                    closes the connection
+     */
+    private void dispatch(Runnable exchange) {
+        try {
+            executor.execute(exchange);
+        } catch (RejectedExecutionException e) {
+            overflow.execute(() -> {
+                SHEDDING.set(Boolean.TRUE);
+                try {
+                    exchange.run();
+                } finally {
+                    SHEDDING.remove();
+                }
+            });
+        }
+    }
+
+    /**
+     * Creates a factory of daemon threads, so the pools never keep the JVM alive.
+     */
+    private static ThreadFactory daemon(Supplier<String> name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name.get());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Routes a request and records its latency. A failure before the response starts is
+     * answered with a 400 or 500 error. A failure after a streamed response has started aborts
+     * it instead. The exception is rethrown so that the server drops the connection without
+     * ending the body, and the client sees a truncated response rather than a complete one.
+     * Aborts are counted as "http.aborted", not by status.
+     *
+     * @param exchange The HTTP exchange
+     */
+    private void handle(HttpExchange exchange) {
+        long start = System.nanoTime();
+        String route = "unknown";
+        int status = 0;
+        RuntimeException abort = null;
+        try {
+            String method = exchange.getRequestMethod();
+            String[] path = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/+");
+            if (SHEDDING.get() != null) {
+                route = "rejected";
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                status = sendError(exchange, 503, "Server is busy");
+            } else if (path.length >= 1 && "dues".equals(path[0])) {
+                if (path.length == 1 && "GET".equals(method)) {
+                    route = "list";
+                    status = list(exchange);
+                } else if (path.length == 1 && "POST".equals(method)) {
+                    route = "add";
+                    status = add(exchange);
+                } else if (path.length == 2 && "GET".equals(method)) {
+                    route = "get";
+                    status = get(exchange, parseId(path[1]));
+                } else if (path.length == 2 && "DELETE".equals(method)) {
+                    route = "remove";
+                    status = remove(exchange, parseId(path[1]));
+                } else if (path.length == 3 && "complete".equals(path[2]) && "POST".equals(method)) {
+                    route = "complete";
+                    status = complete(exchange, parseId(path[1]));
+                } else {
+                    status = sendError(exchange, 405, "Method not allowed");
+                }
+            } else if (path.length == 1 && ("undo".equals(path[0]) || "redo".equals(path[0]))) {
+                route = path[0];
+                status = "POST".equals(method) ? undoRedo(exchange, "undo".equals(path[0]))
+                        : sendError(exchange, 405, "Method not allowed");
+            } else if (path.length == 1 && "export".equals(path[0])) {
+                route = "export";
+                status = "GET".equals(method) ? export(exchange) : sendError(exchange, 405, "Method not allowed");
+            } else if (path.length == 1 && "dashboard".equals(path[0])) {
+                route = "dashboard";
+                status = "GET".equals(method) ? dashboard(exchange) : sendError(exchange, 405, "Method not allowed");
+            } else if (path.length == 1 && "metrics".equals(path[0])) {
+                route = "metrics";
+                status = send(exchange, 200, "text/plain; charset=utf-8", metrics.dump());
+            } else {
+                status = sendError(exchange, 404, "Not found");
+            }
+        } catch (Exception e) {
+            if (exchange.getResponseCode() != -1) {
+                // The status is already sent, so a second one cannot be
+                abort = e instanceof RuntimeException ? (RuntimeException) e
+                        : new IllegalStateException("Response aborted: " + e.getMessage(), e);
+            } else if (e instanceof IllegalArgumentException) {
+                status = sendErrorQuietly(exchange, 400, e.getMessage());
+            } else {
+                status = sendErrorQuietly(exchange, 500, "Internal error: " + e.getMessage());
+            }
+        } finally {
+            if (abort == null) {
+                exchange.close();
+            }
+        }
+        requestLatency.recordSince(start);
+        metrics.histogram("http." + route).recordSince(start);
+        if (abort != null) {
+            metrics.counter("http.aborted").increment();
+            throw abort;
+        }
+        metrics.counter("http.status." + status / 100 + "xx").increment();
+    }
+
+    /**
+     * Lists all dues, or the dues in the from/to date range, streaming them as a JSON array.
+     * Without a range, recurring dues are expanded as far as the menu's listing expands them.
+     */
+    private int list(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        Iterable<Due> dues;
+        if (query.containsKey("from") || query.containsKey("to")) {
+            LocalDate from = parseDate(query.get("from"), "from");
+            LocalDate to = parseDate(query.get("to"), "to");
+            dues = dueManager.getDuesBetween(from, to);
+        } else {
+            dues = dueManager.streamDuesWithOccurrences()::iterator;
+        }
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream body = exchange.getResponseBody();
+        DueJsonWriter writer = new DueJsonWriter(Channels.newChannel(body), ByteBuffer.allocate(8192));
+        writer.beginArray();
+        for (Due due : dues) {
+            writer.writeArrayElement(due);
+        }
+        writer.endArray();
+        writer.flush();
+        // Closed only on success; closing after a failure would end the body as if it were complete
+        body.close();
+        return 200;
+    }
+
+    /**
+     * Streams the dues matching the query terms in the requested format, NDJSON by default.
+     * The terms are those of {@link DueQuery#parse(List)}, e.g. course=CS665&amp;from=2024-12-01.
+     */
+    private int export(HttpExchange exchange) throws IOException {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        ExportFormat format = ExportFormat.parse(query.getOrDefault("format", ExportFormat.NDJSON.getExtension()));
+        List<String> terms = new ArrayList<>();
+        for (Map.Entry<String, String> term : query.entrySet()) {
+            if (!"format".equals(term.getKey())) {
+                // Bare words such as "pending" arrive with an empty value
+                terms.add(term.getValue().isEmpty() ? term.getKey() : term.getKey() + "=" + term.getValue());
+            }
+        }
+        DueQuery filter = DueQuery.parse(terms);
+        DueExporter.requireStreamable(filter);
+        exchange.getResponseHeaders().set("Content-Type", format.getContentType());
+        exchange.getResponseHeaders().set("Content-Disposition",
+                "attachment; filename=\"dues." + format.getExtension() + "\"");
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream body = exchange.getResponseBody();
+        DueExporter.export(dueManager.getSnapshot(), filter, format, body);
+        body.close();
+        return 200;
+    }
+
+    /**
+     * Sends the dashboard counts, e.g. {"date":"2024-12-10","overdue":1,"today":2,...}.
+     */
+    private int dashboard(HttpExchange exchange) throws IOException {
+        DueDashboard.Summary summary = dashboard.getSummary();
+        JSONObject json = new JSONObject().put("date", summary.getDate().toString());
+        for (DueDashboard.Bucket bucket : DueDashboard.Bucket.values()) {
+            json.put(bucket.name().toLowerCase(), summary.getCount(bucket));
+        }
+        return send(exchange, 200, JSON, json.put("pending", summary.getPending()).toString());
+    }
+
+    /**
+     * Sends a single due, reading it from the archive if it has been archived.
+     */
+    private int get(HttpExchange exchange, int id) throws IOException {
+        Due due = dueManager.findDue(id);
+        return due == null ? sendError(exchange, 404, "Due with ID " + id + " not found") : sendDue(exchange, 200, due);
+    }
+
+    /**
+     * Adds a due from the JSON request body through the command history.
+     */
+    private int add(HttpExchange exchange) throws IOException {
+        String body = readBody(exchange);
+        Due due;
+        synchronized (lock) {
+            due = dueManager.createDueFromJson(body);
+            commandHistory.executeCommand(new AddDueCommand(dueManager, due));
+        }
+        return sendDue(exchange, 201, due);
+    }
+
+    /**
+     * Marks a due as completed through the command history.
+     */
+    private int complete(HttpExchange exchange, int id) throws IOException {
+        Due due;
+        synchronized (lock) {
+            due = dueManager.getDueById(id);
+            if (due != null) {
+                commandHistory.executeCommand(new MarkCompletedCommand(dueManager, due));
+                due = dueManager.getDueById(id);
+            }
+        }
+        return due == null ? sendNotFound(exchange, id) : sendDue(exchange, 200, due);
+    }
+
+    /**
+     * Removes a due through the command history.
+     */
+    private int remove(HttpExchange exchange, int id) throws IOException {
+        Due due;
+        synchronized (lock) {
+            due = dueManager.getDueById(id);
+            if (due != null) {
+                commandHistory.executeCommand(new RemoveDueCommand(dueManager, due));
+            }
+        }
+        return due == null ? sendNotFound(exchange, id) : sendDue(exchange, 200, due);
+    }
+
+    /**
+     * Answers a change to a due that is not in the working set; archived dues cannot be changed.
+     */
+    private int sendNotFound(HttpExchange exchange, int id) throws IOException {
+        return sendError(exchange, 404, dueManager.isArchived(id)
+                ? "Due with ID " + id + " is archived and cannot be changed" : "Due with ID " + id + " not found");
+    }
+
+    /**
+     * Undoes or redoes the most recent command.
+     */
+    private int undoRedo(HttpExchange exchange, boolean undo) throws IOException {
+        boolean applied;
+        synchronized (lock) {
+            applied = undo ? commandHistory.canUndo() : commandHistory.canRedo();
+            if (undo) {
+                commandHistory.undo();
+            } else {
+                commandHistory.redo();
+            }
+        }
+        if (!applied) {
+            return sendError(exchange, 409, undo ? "Nothing to undo" : "Nothing to redo");
+        }
+        return send(exchange, 200, JSON, new JSONObject().put(undo ? "undone" : "redone", true).toString());
+    }
+
+    /**
+     * Sends a due as a JSON object.
+     */
+    private int sendDue(HttpExchange exchange, int status, Due due) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, 0);
+        OutputStream body = exchange.getResponseBody();
+        DueJsonWriter writer = new DueJsonWriter(Channels.newChannel(body), ByteBuffer.allocate(1024));
+        writer.writeDue(due);
+        writer.flush();
+        body.close();
+        return status;
+    }
+
+    /**
+     * Sends an {"error": message} JSON body.
+     */
+    private int sendError(HttpExchange exchange, int status, String message) throws IOException {
+        return send(exchange, status, JSON, new JSONObject().put("error", String.valueOf(message)).toString());
+    }
+
+    /**
+     * Sends an error body, ignoring failures to do so.
+     */
+    private int sendErrorQuietly(HttpExchange exchange, int status, String message) {
+        try {
+            return sendError(exchange, status, message);
+        } catch (IOException e) {
+            // The client went away
+            return status;
+        }
+    }
+
+    /**
+     * Sends a complete text body with a fixed content length.
+     */
+    private static int send(HttpExchange exchange, int status, String contentType, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(bytes);
+        }
+        return status;
+    }
+
+    /**
+     * Reads the request body as UTF-8 text.
+     */
+    private static String readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] chunk = new byte[4096];
+        try (InputStream in = exchange.getRequestBody()) {
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                body.write(chunk, 0, read);
+            }
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses a due ID from a path segment.
+     */
+    private static int parseId(String text) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid due ID: " + text);
+        }
+    }
+
+    /**
+     * Parses a required yyyy-MM-dd query parameter.
+     */
+    private static LocalDate parseDate(String text, String name) {
+        if (text == null) {
+            throw new IllegalArgumentException("Missing query parameter: " + name);
+        }
+        try {
+            return LocalDate.parse(text);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + name + " date, expected yyyy-MM-dd: " + text);
+        }
+    }
+
+    /**
+     * Decodes a URL query string into a map.
+     */
+    private static Map<String, String> parseQuery(String rawQuery) throws IOException {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            query.put(URLDecoder.decode(key, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+        }
+        return query;
+    }
+}
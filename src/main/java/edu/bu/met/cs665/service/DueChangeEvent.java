@@ -0,0 +1,107 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: DueChangeEvent.java
+ * Description: This class describes a single change to the due store.
+ */
+
+package edu.bu.met.cs665.service;
+
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.model.RecurringDue;
+
+/**
+ * A change to the due store, delivered to {@link DueChangeListener}s.
+ * Changes to one-off dues and to single occurrences of recurring dues carry the due; adding
+ * or removing a whole recurring due carries the series instead.
+ */
+public final class DueChangeEvent {
+    /**
+     * The kinds of change.
+     */
+    public enum Type {
+        /** A due or series was added, or a due replaced by a new version with the same ID. */
+        ADDED,
+        /** A due or series was removed, or a due moved to the archive. */
+        REMOVED,
+        /** A due or an occurrence was marked as completed. */
+        COMPLETED,
+        /** A due or an occurrence was marked as not completed. */
+        UNCOMPLETED
+    }
+
+    private final Type type;
+    private final Due due;
+    private final Due previous;
+    private final RecurringDue recurringDue;
+    private final long version;
+
+    /**
+     * Creates an event.
+     *
+     * @param type         The kind of change
+     * @param due          The due after the change, or the removed due; null for series changes
+     * @param previous     The due before the change, or null if there was none
+     * @param recurringDue The series added or removed, or null for due changes
+     * @param version      The version of the snapshot that includes the change
+     */
+    DueChangeEvent(Type type, Due due, Due previous, RecurringDue recurringDue, long version) {
+        this.type = type;
+        this.due = due;
+        this.previous = previous;
+        this.recurringDue = recurringDue;
+        this.version = version;
+    }
+
+    /**
+     * Gets the kind of change.
+     *
+     * @return the change type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Gets the due after the change; for a removal, the due that was removed.
+     *
+     * @return the due, or null if a whole recurring due was added or removed
+     */
+    public Due getDue() {
+        return due;
+    }
+
+    /**
+     * Gets the due as it was before the change.
+     *
+     * @return the previous version, or null for a new due or a removal
+     */
+    public Due getPrevious() {
+        return previous;
+    }
+
+    /**
+     * Gets the recurring due that was added or removed.
+     *
+     * @return the series, or null if the change concerns a single due
+     */
+    public RecurringDue getRecurringDue() {
+        return recurringDue;
+    }
+
+    /**
+     * Gets the version of the snapshot that first includes the change.
+     *
+     * @return the snapshot version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + (due != null ? "due " + due.getId() : "series " + recurringDue.getId())
+                + " @" + version;
+    }
+}
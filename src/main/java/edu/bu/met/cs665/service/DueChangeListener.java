@@ -0,0 +1,25 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: DueChangeListener.java
+ * Description: This interface defines the Observer pattern contract for due changes.
+ */
+
+package edu.bu.met.cs665.service;
+
+/**
+ * Interface for implementing the Observer pattern for changes to a {@link DueManager}.
+ * Listeners are told about every change as it happens, so indexes, caches and views can be
+ * updated incrementally instead of being rebuilt from the whole store.
+ */
+public interface DueChangeListener {
+    /**
+     * Called after a change has been published. Runs on the thread making the change while
+     * the manager is locked, so events arrive in the order the changes were made; keep the
+     * work short. An exception thrown here is reported and does not undo the change.
+     *
+     * @param event The change
+     */
+    void onDueChange(DueChangeEvent event);
+}
@@ -0,0 +1,417 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: DueDashboard.java
+ * Description: This class keeps time-bucketed counts of pending dues.
+ */
+
+package edu.bu.met.cs665.service;
+
+import edu.bu.met.cs665.metrics.Metrics;
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.model.RecurringDue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts of pending dues by how soon they are due, kept up to date as the store changes so
+ * that reading them is O(1) and can be polled freely. Buckets are by calendar day: a due is
+ * overdue from the day after its date, so counts only move on changes and at midnight, when a
+ * scheduled rebucketing shifts every day along.
+ *
+ * <p>Pending one-off dues are kept as a count per date, so rebucketing costs one pass over
+ * the distinct dates rather than the dues. Occurrences of recurring dues are counted within
+ * the coming week, and as overdue from the series' start up to yesterday, as far as
+ * {@link RecurringDue#occurrencesBetween} expands them; their far future is not counted. A
+ * series' past is expanded once, when it is added or replaced, and at midnight only the day
+ * that passed is. Every change publishes a new immutable {@link Summary}, which readers take
+ * without locking.
+ */
+public class DueDashboard implements DueChangeListener, AutoCloseable {
+    /**
+     * How soon a pending due is due, relative to today.
+     */
+    public enum Bucket {
+        /** Due before today. */
+        OVERDUE,
+        /** Due today, including earlier today. */
+        TODAY,
+        /** Due tomorrow. */
+        TOMORROW,
+        /** Due in two to six days. */
+        THIS_WEEK,
+        /** Due a week or more from today. */
+        LATER
+    }
+
+    /**
+     * The counts of one moment.
+     */
+    public static final class Summary {
+        private final LocalDate date;
+        private final int[] counts;
+
+        private Summary(LocalDate date, int[] counts) {
+            this.date = date;
+            this.counts = counts;
+        }
+
+        /**
+         * Gets the day the buckets are relative to.
+         *
+         * @return the date counted as today
+         */
+        public LocalDate getDate() {
+            return date;
+        }
+
+        /**
+         * Gets the number of pending dues in a bucket.
+         *
+         * @param bucket The bucket
+         * @return the count
+         */
+        public int getCount(Bucket bucket) {
+            return counts[bucket.ordinal()];
+        }
+
+        /**
+         * Gets the number of pending dues in every bucket together.
+         *
+         * @return the total
+         */
+        public int getPending() {
+            int total = 0;
+            for (int count : counts) {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * Gets every count by bucket.
+         *
+         * @return the counts, in bucket order
+         */
+        public Map<Bucket, Integer> asMap() {
+            Map<Bucket, Integer> map = new EnumMap<>(Bucket.class);
+            for (Bucket bucket : Bucket.values()) {
+                map.put(bucket, counts[bucket.ordinal()]);
+            }
+            return map;
+        }
+
+        @Override
+        public String toString() {
+            return date + " " + asMap();
+        }
+    }
+
+    private static final int WEEK_DAYS = 7;
+
+    private final DueManager dueManager;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler;
+    private final NavigableMap<LocalDate, Integer> pendingByDate = new TreeMap<>();
+    private final Map<Integer, RecurringDue> series = new HashMap<>();
+    private final int[] oneOffCounts = new int[Bucket.values().length];
+    private int[] seriesCounts = new int[Bucket.values().length];
+    // Pending occurrences before today, per series and in total
+    private final Map<Integer, Integer> seriesOverdue = new HashMap<>();
+    private int seriesOverdueTotal;
+    private LocalDate today;
+    private volatile Summary summary;
+
+    /**
+     * Creates a dashboard over the manager's dues using the system clock, rebucketing at
+     * each local midnight.
+     *
+     * @param dueManager The store to count
+     */
+    public DueDashboard(DueManager dueManager) {
+        this(dueManager, Clock.systemDefaultZone(), true);
+    }
+
+    /**
+     * Creates a dashboard over the manager's dues.
+     *
+     * @param dueManager The store to count
+     * @param clock      The clock deciding what today is
+     * @param schedule   Whether to rebucket at midnight on a background thread; without it,
+     *                   rebucketing happens on the first read of a new day
+     */
+    public DueDashboard(DueManager dueManager, Clock clock, boolean schedule) {
+        this.dueManager = dueManager;
+        this.clock = clock;
+        synchronized (this) {
+            // Changes arriving while the initial dues are counted wait for this lock
+            DueSnapshot snapshot = dueManager.addChangeListener(this);
+            for (Due due : snapshot) {
+                if (!due.isCompleted()) {
+                    adjust(due.getDueDate().toLocalDate(), 1);
+                }
+            }
+            for (RecurringDue recurringDue : snapshot.getSeries()) {
+                series.put(recurringDue.getId(), recurringDue);
+            }
+            rebucket(LocalDate.now(clock));
+        }
+        if (schedule) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "due-dashboard");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduleRollover();
+        } else {
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Gets the current counts. Costs a clock read and, on the first read after midnight if the
+     * scheduled rebucketing has not run yet, one rebucketing.
+     *
+     * @return the counts
+     */
+    public Summary getSummary() {
+        Summary current = summary;
+        LocalDate now = LocalDate.now(clock);
+        if (!current.date.equals(now)) {
+            synchronized (this) {
+                if (!today.equals(now)) {
+                    rebucket(now);
+                }
+                current = summary;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Gets the number of pending dues in a bucket.
+     *
+     * @param bucket The bucket
+     * @return the count
+     */
+    public int getCount(Bucket bucket) {
+        return getSummary().getCount(bucket);
+    }
+
+    /**
+     * Publishes a gauge per bucket, e.g. "dues.dashboard.overdue".
+     *
+     * @param metrics The registry to publish to
+     */
+    public void registerGauges(Metrics metrics) {
+        for (Bucket bucket : Bucket.values()) {
+            metrics.gauge("dues.dashboard." + bucket.name().toLowerCase().replace('_', '.'),
+                    () -> getCount(bucket));
+        }
+    }
+
+    /**
+     * Stops following the manager's changes and cancels the midnight rebucketing.
+     */
+    @Override
+    public void close() {
+        dueManager.removeChangeListener(this);
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Moves pending dues between buckets as they are added, replaced, completed or removed.
+     *
+     * @param event The change
+     */
+    @Override
+    public synchronized void onDueChange(DueChangeEvent event) {
+        Due due = event.getDue();
+        if (due == null) {
+            RecurringDue recurringDue = event.getRecurringDue();
+            if (event.getType() == DueChangeEvent.Type.ADDED) {
+                series.put(recurringDue.getId(), recurringDue);
+                countOverdue(recurringDue);
+            } else {
+                series.remove(recurringDue.getId());
+                addOverdue(recurringDue.getId(), -seriesOverdue.getOrDefault(recurringDue.getId(), 0));
+            }
+            countSeries();
+        } else if (due.isRecurring()) {
+            // An occurrence was completed or reopened; its series is stored with the change
+            RecurringDue recurringDue = dueManager.getSnapshot().getSeries(due.getId());
+            if (recurringDue != null) {
+                series.put(recurringDue.getId(), recurringDue);
+                if (due.getDueDate().toLocalDate().isBefore(today)) {
+                    addOverdue(recurringDue.getId(), due.isCompleted() ? -1 : 1);
+                }
+            }
+            countSeries();
+        } else {
+            Due previous = event.getPrevious();
+            if (previous != null && !previous.isCompleted()) {
+                count(previous.getDueDate().toLocalDate(), -1);
+            }
+            if (event.getType() == DueChangeEvent.Type.REMOVED) {
+                if (!due.isCompleted()) {
+                    count(due.getDueDate().toLocalDate(), -1);
+                }
+            } else if (!due.isCompleted()) {
+                count(due.getDueDate().toLocalDate(), 1);
+            }
+        }
+        publish();
+    }
+
+    /**
+     * Recounts every bucket for a new day. Called at midnight, or by the first read of a day.
+     *
+     * @param date The new today
+     */
+    private void rebucket(LocalDate date) {
+        LocalDate previous = today;
+        today = date;
+        Arrays.fill(oneOffCounts, 0);
+        oneOffCounts[Bucket.OVERDUE.ordinal()] = sum(pendingByDate.headMap(date, false));
+        oneOffCounts[Bucket.TODAY.ordinal()] = pendingByDate.getOrDefault(date, 0);
+        oneOffCounts[Bucket.TOMORROW.ordinal()] = pendingByDate.getOrDefault(date.plusDays(1), 0);
+        oneOffCounts[Bucket.THIS_WEEK.ordinal()] =
+                sum(pendingByDate.subMap(date.plusDays(2), true, date.plusDays(WEEK_DAYS - 1), true));
+        oneOffCounts[Bucket.LATER.ordinal()] = sum(pendingByDate.tailMap(date.plusDays(WEEK_DAYS), true));
+        for (RecurringDue recurringDue : series.values()) {
+            if (previous != null && previous.isBefore(date)) {
+                // Only the days that just passed become overdue; earlier ones are counted already
+                addOverdue(recurringDue.getId(), pendingBetween(recurringDue, previous, date.minusDays(1)));
+            } else {
+                countOverdue(recurringDue);
+            }
+        }
+        countSeries();
+        publish();
+    }
+
+    /**
+     * Recounts the pending occurrences of a series before today.
+     */
+    private void countOverdue(RecurringDue recurringDue) {
+        int count = pendingBetween(recurringDue, LocalDate.MIN, today.minusDays(1));
+        addOverdue(recurringDue.getId(), count - seriesOverdue.getOrDefault(recurringDue.getId(), 0));
+    }
+
+    /**
+     * Adds to the overdue count of a series, dropping series that reach zero.
+     */
+    private void addOverdue(int id, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        seriesOverdue.merge(id, delta, (a, b) -> a + b == 0 ? null : a + b);
+        seriesOverdueTotal += delta;
+    }
+
+    private static int pendingBetween(RecurringDue recurringDue, LocalDate from, LocalDate to) {
+        int pending = 0;
+        for (Due occurrence : recurringDue.occurrencesBetween(from, to)) {
+            if (!occurrence.isCompleted()) {
+                pending++;
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Recounts the pending occurrences of recurring dues within the coming week, and takes the
+     * overdue ones from the running count.
+     */
+    private void countSeries() {
+        int[] counts = new int[Bucket.values().length];
+        counts[Bucket.OVERDUE.ordinal()] = seriesOverdueTotal;
+        for (RecurringDue recurringDue : series.values()) {
+            for (Due occurrence : recurringDue.occurrencesBetween(today, today.plusDays(WEEK_DAYS - 1))) {
+                if (!occurrence.isCompleted()) {
+                    counts[bucketOf(occurrence.getDueDate().toLocalDate()).ordinal()]++;
+                }
+            }
+        }
+        seriesCounts = counts;
+    }
+
+    /**
+     * Adds to the count of a date and of its bucket.
+     */
+    private void count(LocalDate date, int delta) {
+        adjust(date, delta);
+        oneOffCounts[bucketOf(date).ordinal()] += delta;
+    }
+
+    /**
+     * Adds to the count of a date, dropping dates that reach zero.
+     */
+    private void adjust(LocalDate date, int delta) {
+        pendingByDate.merge(date, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    private Bucket bucketOf(LocalDate date) {
+        long days = date.toEpochDay() - today.toEpochDay();
+        if (days < 0) {
+            return Bucket.OVERDUE;
+        }
+        if (days == 0) {
+            return Bucket.TODAY;
+        }
+        if (days == 1) {
+            return Bucket.TOMORROW;
+        }
+        return days < WEEK_DAYS ? Bucket.THIS_WEEK : Bucket.LATER;
+    }
+
+    private void publish() {
+        int[] counts = oneOffCounts.clone();
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += seriesCounts[i];
+        }
+        summary = new Summary(today, counts);
+    }
+
+    private static int sum(Map<LocalDate, Integer> counts) {
+        int total = 0;
+        for (int count : counts.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Schedules the next rebucketing just after the coming midnight; each run schedules the
+     * next, so changes of the UTC offset are followed.
+     */
+    private void scheduleRollover() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime midnight = now.toLocalDate().plusDays(1).atStartOfDay();
+        long delay = Duration.between(now, midnight).toMillis() + 1;
+        scheduler.schedule(() -> {
+            synchronized (this) {
+                LocalDate date = LocalDate.now(clock);
+                if (!date.equals(today)) {
+                    rebucket(date);
+                }
+            }
+            scheduleRollover();
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+}
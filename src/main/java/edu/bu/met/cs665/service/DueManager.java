@@ -8,114 +8,710 @@
 
 package edu.bu.met.cs665.service;
 
+import edu.bu.met.cs665.metrics.LatencyHistogram;
+import edu.bu.met.cs665.metrics.Metrics;
 import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.model.RecurringDue;
+import edu.bu.met.cs665.storage.AtomicFileWriter;
+import edu.bu.met.cs665.storage.DueArchive;
+import edu.bu.met.cs665.storage.DueJsonFormat;
+import edu.bu.met.cs665.storage.DueJsonWriter;
+import edu.bu.met.cs665.storage.DueShardStore;
+import edu.bu.met.cs665.storage.DurabilityMode;
+import edu.bu.met.cs665.storage.StorageCodec;
+import edu.bu.met.cs665.storage.StorageLayout;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.*;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * This is the DueManager class.
+ * The store is published as immutable {@link DueSnapshot}s: writers are serialized and swap in
+ * a new snapshot, readers take the current one and never lock or copy.
+ * Recurring dues are stored once as rules and expanded into occurrences only for the dates a
+ * query asks about. Dues that are done with, completed and past their date or older than the
+ * retention period, are moved to an append-only {@link DueArchive} so that the working set
+ * grows with pending work rather than with history.
+ * Every change is also announced to registered {@link DueChangeListener}s.
+ * The store is saved either as one file or, for large stores, as monthly shards that load in
+ * parallel and are rewritten only when their dues change; see {@link StorageLayout}.
  */
-public class DueManager {
-    private final List<Due> dues = new ArrayList<>();
+public class DueManager implements AutoCloseable {
+    private volatile DueSnapshot snapshot = DueSnapshot.EMPTY;
     private int nextId = 1;
+    private long estimatedBytes;
+    private int batchDepth;
+    private boolean unsavedChanges;
     private static final String SAVE_FILE_PATH = "dues.json";
+    /** Weeks past today that {@link #getDuesByDate()} expands recurring dues to. */
+    public static final int DEFAULT_HORIZON_WEEKS = 4;
+    /** System property setting how many days past their date dues stay in the working set. */
+    public static final String ARCHIVE_RETENTION_PROPERTY = "duemanager.archive.retention.days";
+    /** Retention used when none is configured. */
+    public static final Duration DEFAULT_ARCHIVE_RETENTION = Duration.ofDays(30);
+    private static final LatencyHistogram LOAD_LATENCY = Metrics.global().histogram("dues.load");
+    private static final LatencyHistogram SAVE_LATENCY = Metrics.global().histogram("dues.save");
+    private static final LatencyHistogram PARSE_LATENCY = Metrics.global().histogram("dues.parse");
+    private static final LongAdder LOAD_ERRORS = Metrics.global().counter("dues.load.errors");
+    private static final LongAdder SAVE_ERRORS = Metrics.global().counter("dues.save.errors");
+    private static final LongAdder PARSE_ERRORS = Metrics.global().counter("dues.parse.errors");
+    private static final LongAdder ARCHIVED = Metrics.global().counter("dues.archived");
+    private static final LongAdder LISTENER_ERRORS = Metrics.global().counter("dues.listener.errors");
+    private static final LatencyHistogram ARCHIVE_READ_LATENCY = Metrics.global().histogram("dues.archive.read");
+    private final Path saveFile;
+    private final AtomicFileWriter fileWriter;
+    private final DueArchive archive;
+    private final Duration retention;
+    private final DueShardStore shardStore;
+    private final StorageLayout layout;
+    private final StorageCodec codec;
+    // Shards whose dues changed since the last save, only tracked for MONTHLY_SHARDS
+    private final Set<String> dirtyShards = new HashSet<>();
+    private boolean allShardsDirty;
+    // IDs of archived dues, so lookups only read the archive for dues known to be there.
+    // A published set is never modified but replaced, so it is read without the lock
+    private volatile BitSet archivedIds = new BitSet();
+    private final List<DueChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // Scratch buffer reused by every save so serialization does not allocate per record
+    private final ByteBuffer saveBuffer = ByteBuffer.allocate(DueJsonWriter.DEFAULT_BUFFER_SIZE);
 
     /**
      * Constructs a new DueManager and loads existing dues from storage.
+     * The durability mode is taken from the "duemanager.durability" system property, the
+     * archive retention from "duemanager.archive.retention.days" (30 by default) and the
+     * layout from "duemanager.storage.layout" (a single file by default) and the compression
+     * from "duemanager.storage.codec" (none by default).
      */
     public DueManager() {
-        loadDues();
+        this(Paths.get(SAVE_FILE_PATH), DurabilityMode.fromSystemProperty(), Duration.ofDays(
+                Long.getLong(ARCHIVE_RETENTION_PROPERTY, DEFAULT_ARCHIVE_RETENTION.toDays())),
+                StorageLayout.fromSystemProperty(), StorageCodec.fromSystemProperty());
+    }
+
+    /**
+     * Constructs a new DueManager backed by the given file and loads existing dues from it.
+     * Nothing is archived automatically; see {@link #archiveDues()}.
+     *
+     * @param saveFile   The JSON file holding the dues
+     * @param durability How hard each save works to reach stable storage
+     */
+    public DueManager(Path saveFile, DurabilityMode durability) {
+        this(saveFile, durability, null);
+    }
+
+    /**
+     * Constructs a new DueManager backed by the given file, loads existing dues from it and
+     * archives the dues that are done with. The archive is kept next to the save file, with
+     * ".archive" appended to its name.
+     *
+     * @param saveFile   The JSON file holding the dues
+     * @param durability How hard each save works to reach stable storage
+     * @param retention  How long past their date dues stay in the working set, or null to
+     *                   archive only on request
+     */
+    public DueManager(Path saveFile, DurabilityMode durability, Duration retention) {
+        this(saveFile, durability, retention, StorageLayout.SINGLE_FILE);
+    }
+
+    /**
+     * Constructs a new DueManager stored in the given layout. With {@link StorageLayout#MONTHLY_SHARDS}
+     * the shards live in a directory next to the save file, with ".shards" appended to its name.
+     * A store found only in the other layout is loaded from it, rewritten in this one and removed.
+     *
+     * @param saveFile   The JSON file holding the dues, which also names the shard directory
+     * @param durability How hard each save works to reach stable storage
+     * @param retention  How long past their date dues stay in the working set, or null to
+     *                   archive only on request
+     * @param layout     How the dues are laid out on disk
+     */
+    public DueManager(Path saveFile, DurabilityMode durability, Duration retention, StorageLayout layout) {
+        this(saveFile, durability, retention, layout, StorageCodec.NONE);
+    }
+
+    /**
+     * Constructs a new DueManager whose saves are compressed with the given codec. Loading
+     * detects the codec of each file, so an existing store is read whatever codec wrote it
+     * and is converted as it is saved.
+     *
+     * @param saveFile   The JSON file holding the dues, which also names the shard directory
+     * @param durability How hard each save works to reach stable storage
+     * @param retention  How long past their date dues stay in the working set, or null to
+     *                   archive only on request
+     * @param layout     How the dues are laid out on disk
+     * @param codec      How saves are compressed
+     */
+    public DueManager(Path saveFile, DurabilityMode durability, Duration retention, StorageLayout layout,
+                      StorageCodec codec) {
+        this.saveFile = saveFile;
+        this.fileWriter = new AtomicFileWriter(saveFile, durability);
+        this.archive = new DueArchive(saveFile.resolveSibling(saveFile.getFileName() + ".archive"), durability);
+        this.retention = retention;
+        this.shardStore = new DueShardStore(saveFile.resolveSibling(saveFile.getFileName() + ".shards"), fileWriter,
+                codec);
+        this.layout = layout;
+        this.codec = codec;
+        boolean sharded = layout == StorageLayout.MONTHLY_SHARDS;
+        boolean fromShards = sharded ? shardStore.exists() || !Files.exists(saveFile)
+                : !Files.exists(saveFile) && shardStore.exists();
+        if (fromShards) {
+            loadShards();
+        } else {
+            loadDues();
+        }
+        if (fromShards != sharded) {
+            migrate(fromShards);
+        }
+        loadArchivedIds();
+        if (retention != null) {
+            archiveDues();
+        }
+    }
+
+    /**
+     * Gets the file backing this manager.
+     *
+     * @return the save file path
+     */
+    public Path getSaveFile() {
+        return saveFile;
+    }
+
+    /**
+     * Gets the directory holding the shards of a {@link StorageLayout#MONTHLY_SHARDS} store.
+     *
+     * @return the shard directory path, which exists only for a sharded store
+     */
+    public Path getShardDirectory() {
+        return shardStore.getDirectory();
+    }
+
+    /**
+     * Publishes gauges for the store size and the size of its file or shards.
+     *
+     * @param metrics The registry to publish to
+     */
+    public void registerGauges(Metrics metrics) {
+        metrics.gauge("dues.store.size", () -> snapshot.size());
+        metrics.gauge("dues.archive.bytes", () -> {
+            try {
+                return Files.exists(archive.getFile()) ? Files.size(archive.getFile()) : 0;
+            } catch (IOException e) {
+                return -1;
+            }
+        });
+        metrics.gauge("dues.file.bytes", () -> {
+            try {
+                if (layout == StorageLayout.MONTHLY_SHARDS) {
+                    return shardStore.sizeInBytes();
+                }
+                return Files.exists(saveFile) ? Files.size(saveFile) : 0;
+            } catch (IOException e) {
+                return -1;
+            }
+        });
     }
 
     /**
      * Loads dues from the JSON file storage.
      * Initializes the dues list and sets the next available ID.
+     * The file is streamed, decompressing it if needed, and parsed completely before any due
+     * is accepted, so a damaged file never yields a partial list; it is moved aside instead of
+     * being overwritten by the next save.
      */
     private void loadDues() {
-        File file = new File(SAVE_FILE_PATH);
-        if (!file.exists()) {
+        try {
+            // A leftover temporary file is an interrupted save; the target still holds the last good copy
+            Files.deleteIfExists(fileWriter.getTempFile());
+        } catch (IOException e) {
+            System.err.println("Error removing stale temporary file: " + e.getMessage());
+        }
+        if (!Files.exists(saveFile)) {
             return;
         }
 
+        long start = System.nanoTime();
+        List<Due> loaded = new ArrayList<>();
+        List<RecurringDue> loadedSeries = new ArrayList<>();
         try {
-            String content = new String(Files.readAllBytes(file.toPath()));
-            JSONArray jsonArray = new JSONArray(content);
-
-            for (int i = 0; i < jsonArray.length(); i++) {
-                JSONObject dueJson = jsonArray.getJSONObject(i);
-                Due.DueBuilder builder = new Due.DueBuilder(dueJson.getInt("id"))
-                        .course(dueJson.getString("course"))
-                        .title(dueJson.getString("title"))
-                        .dueDate(LocalDateTime.parse(dueJson.getString("due_date"),
-                                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")))
-                        .completed(dueJson.getBoolean("completed"));
-
-                // Add optional fields if they exist in JSON
-                if (dueJson.has("location")) {
-                    builder.location(dueJson.getString("location"));
-                }
-                if (dueJson.has("notes")) {
-                    builder.notes(dueJson.getString("notes"));
-                }
+            DueJsonFormat.readArray(saveFile, loaded::add, loadedSeries::add);
+        } catch (Exception e) {
+            LOAD_ERRORS.increment();
+            System.err.println("Error loading dues: " + e.getMessage());
+            quarantineCorruptFile();
+            return;
+        } finally {
+            LOAD_LATENCY.recordSince(start);
+        }
+        publishLoaded(loaded, loadedSeries);
+    }
 
-                dues.add(builder.build());
-                if (dueJson.getInt("id") >= nextId) {
-                    nextId = dueJson.getInt("id") + 1;
+    /**
+     * Loads dues from the shard directory. The shards are parsed in parallel on the common
+     * fork-join pool and then merged into a single snapshot. A shard that cannot be read is
+     * moved aside and the others still load.
+     */
+    private void loadShards() {
+        long start = System.nanoTime();
+        List<DueShardStore.Shard> shards;
+        try {
+            shards = shardStore.loadAll();
+        } catch (IOException e) {
+            LOAD_ERRORS.increment();
+            System.err.println("Error loading dues: " + e.getMessage());
+            return;
+        } finally {
+            LOAD_LATENCY.recordSince(start);
+        }
+        List<Due> loaded = new ArrayList<>();
+        List<RecurringDue> loadedSeries = new ArrayList<>();
+        for (DueShardStore.Shard shard : shards) {
+            if (shard.getError() != null) {
+                LOAD_ERRORS.increment();
+                System.err.println("Error loading dues shard " + shard.getName() + ": " + shard.getError().getMessage());
+                try {
+                    System.err.println("Unreadable dues shard moved to " + shardStore.quarantine(shard.getName()));
+                } catch (IOException e) {
+                    System.err.println("Error moving unreadable dues shard: " + e.getMessage());
                 }
+                continue;
             }
-        } catch (Exception e) {
-            System.err.println("Error loading dues: " + e.getMessage());
+            loaded.addAll(shard.getDues());
+            loadedSeries.addAll(shard.getSeries());
+        }
+        publishLoaded(loaded, loadedSeries);
+    }
+
+    /**
+     * Publishes the dues read at startup and numbers new dues past them.
+     *
+     * @param loaded       The one-off dues
+     * @param loadedSeries The recurring dues
+     */
+    private void publishLoaded(List<Due> loaded, List<RecurringDue> loadedSeries) {
+        for (Due due : loaded) {
+            estimatedBytes += estimateBytes(due);
+            nextId = Math.max(nextId, due.getId() + 1);
+        }
+        for (RecurringDue recurringDue : loadedSeries) {
+            estimatedBytes += estimateBytes(recurringDue);
+            nextId = Math.max(nextId, recurringDue.getId() + 1);
+        }
+        snapshot = DueSnapshot.of(loaded, loadedSeries);
+    }
+
+    /**
+     * Rewrites a store found in the other layout in the configured one, then removes the old
+     * copy. The old copy is kept if the new one cannot be written.
+     *
+     * @param fromShards Whether the store was loaded from shards
+     */
+    private void migrate(boolean fromShards) {
+        allShardsDirty = true;
+        if (!saveDues()) {
+            return;
+        }
+        try {
+            if (fromShards) {
+                shardStore.deleteAll();
+            } else {
+                Files.deleteIfExists(saveFile);
+            }
+        } catch (IOException e) {
+            System.err.println("Error removing migrated dues: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Notes which IDs have been archived. Only the start of each archive line is read.
+     */
+    private void loadArchivedIds() {
+        try {
+            BitSet ids = archive.readIds();
+            // Archived IDs stay taken, so new dues must be numbered past them
+            nextId = Math.max(nextId, ids.length());
+            // A due put back into the working set is no longer archived, though its archive line remains
+            for (Due due : snapshot) {
+                ids.clear(due.getId());
+            }
+            archivedIds = ids;
+        } catch (IOException e) {
+            LOAD_ERRORS.increment();
+            System.err.println("Error reading archived dues: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Moves an unreadable save file aside so that it can be inspected or recovered by hand.
+     */
+    private void quarantineCorruptFile() {
+        Path corrupt = saveFile.resolveSibling(saveFile.getFileName() + ".corrupt-" + System.currentTimeMillis());
+        try {
+            Files.move(saveFile, corrupt, StandardCopyOption.REPLACE_EXISTING);
+            System.err.println("Unreadable dues file moved to " + corrupt);
+        } catch (IOException e) {
+            System.err.println("Error moving unreadable dues file: " + e.getMessage());
         }
     }
 
     /**
      * Saves the current dues list to JSON file storage.
      * Persists all due information including completion status.
+     * Dues are streamed straight to a temporary file that atomically replaces the save file,
+     * so a crash mid-save leaves the previous contents intact. A sharded store rewrites only
+     * the shards whose dues changed.
+     *
+     * @return true if the store was written, false if the save was deferred or failed
      */
-    private void saveDues() {
+    private boolean saveDues() {
+        if (batchDepth > 0) {
+            unsavedChanges = true;
+            return false;
+        }
+        unsavedChanges = false;
+        DueSnapshot dues = snapshot;
+        long start = System.nanoTime();
         try {
-            JSONArray jsonArray = new JSONArray();
-            for (Due due : dues) {
-                JSONObject dueJson = new JSONObject();
-                dueJson.put("id", due.getId());
-                dueJson.put("course", due.getCourse());
-                dueJson.put("title", due.getTitle());
-                dueJson.put("due_date", due.getDueDate().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")));
-                dueJson.put("completed", due.isCompleted());
-                // Add optional fields if they exist
-                if (due.getLocation() != null) {
-                    dueJson.put("location", due.getLocation());
+            if (layout == StorageLayout.MONTHLY_SHARDS) {
+                saveShards(dues);
+                return true;
+            }
+            fileWriter.write(codec.compressing(channel -> {
+                DueJsonWriter writer = new DueJsonWriter(channel, saveBuffer);
+                writer.beginArray();
+                for (Due due : dues) {
+                    writer.writeArrayElement(due);
                 }
-                if (due.getNotes() != null) {
-                    dueJson.put("notes", due.getNotes());
+                for (RecurringDue recurringDue : dues.getSeries()) {
+                    writer.writeArrayElement(recurringDue);
                 }
-                jsonArray.put(dueJson);
-            }
-
-            Files.write(Paths.get(SAVE_FILE_PATH), jsonArray.toString().getBytes());
+                writer.endArray();
+                writer.flush();
+            }));
+            return true;
         } catch (Exception e) {
+            SAVE_ERRORS.increment();
             System.err.println("Error saving dues: " + e.getMessage());
+            return false;
+        } finally {
+            SAVE_LATENCY.recordSince(start);
+        }
+    }
+
+    /**
+     * Rewrites the dirty shards, deleting those left empty. The shards stay dirty until they
+     * are all written, so a failed save is retried in full by the next one.
+     *
+     * @param dues The snapshot to save
+     * @throws IOException if a shard cannot be written
+     */
+    private void saveShards(DueSnapshot dues) throws IOException {
+        Set<String> toWrite = new TreeSet<>(dirtyShards);
+        if (allShardsDirty) {
+            toWrite.addAll(shardStore.listShards());
+            toWrite.add(DueShardStore.SERIES_SHARD);
+        }
+        // Matching months rather than shard names keeps the scan free of string building
+        Set<YearMonth> dirtyMonths = new HashSet<>();
+        for (String shard : toWrite) {
+            YearMonth month = DueShardStore.monthOfShard(shard);
+            if (month != null) {
+                dirtyMonths.add(month);
+            }
+        }
+        Map<YearMonth, List<Due>> contents = new HashMap<>();
+        dues.forEach(due -> {
+            YearMonth month = DueShardStore.monthOf(due);
+            if (allShardsDirty || dirtyMonths.contains(month)) {
+                contents.computeIfAbsent(month, key -> new ArrayList<>()).add(due);
+            }
+        });
+        for (YearMonth month : contents.keySet()) {
+            toWrite.add(month.toString());
+        }
+        for (String shard : toWrite) {
+            boolean series = shard.equals(DueShardStore.SERIES_SHARD);
+            List<Due> shardDues = contents.get(DueShardStore.monthOfShard(shard));
+            shardStore.write(shard, shardDues == null ? Collections.<Due>emptyList() : shardDues,
+                    series ? dues.getSeries() : Collections.<RecurringDue>emptyList(), saveBuffer);
+        }
+        dirtyShards.clear();
+        allShardsDirty = false;
+    }
+
+    /**
+     * Notes that the shard holding a due must be rewritten by the next save.
+     *
+     * @param due The changed due, or null
+     */
+    private void markDirty(Due due) {
+        if (due != null && layout == StorageLayout.MONTHLY_SHARDS) {
+            dirtyShards.add(DueShardStore.shardOf(due));
         }
     }
 
     /**
-     * Gets a due by its ID.
+     * Notes that the shard holding the recurring dues must be rewritten by the next save.
+     */
+    private void markSeriesDirty() {
+        if (layout == StorageLayout.MONTHLY_SHARDS) {
+            dirtyShards.add(DueShardStore.SERIES_SHARD);
+        }
+    }
+
+    /**
+     * Starts a batch. Until the matching {@link #endBatch()} changes are kept in memory only,
+     * so a run of mutations costs a single save. Batches may be nested.
+     */
+    public synchronized void beginBatch() {
+        batchDepth++;
+    }
+
+    /**
+     * Ends a batch, saving once if the outermost batch changed anything.
+     *
+     * @throws IllegalStateException if no batch is open
+     */
+    public synchronized void endBatch() {
+        if (batchDepth == 0) {
+            throw new IllegalStateException("No batch in progress");
+        }
+        batchDepth--;
+        if (batchDepth == 0 && unsavedChanges) {
+            saveDues();
+        }
+    }
+
+    /**
+     * Forces pending saves to stable storage and stops background syncing.
+     */
+    @Override
+    public void close() {
+        fileWriter.close();
+    }
+
+    /**
+     * Registers a listener to be told about every later change. No change can happen while the
+     * listener is being added, so the returned snapshot plus the events that follow describe the
+     * store exactly; a listener maintaining a derived view can start from it.
+     *
+     * @param listener The listener to add
+     * @return the snapshot the listener's first event will follow
+     * @throws IllegalArgumentException if listener is null
+     */
+    public synchronized DueSnapshot addChangeListener(DueChangeListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+        return snapshot;
+    }
+
+    /**
+     * Stops telling a listener about changes.
+     *
+     * @param listener The listener to remove
+     * @return true if the listener was registered
+     */
+    public boolean removeChangeListener(DueChangeListener listener) {
+        return listeners.remove(listener);
+    }
+
+    /**
+     * Delivers a change to every listener. Called with the lock held, after the change is published.
+     *
+     * @param type         The kind of change
+     * @param due          The due concerned, or null for a series change
+     * @param previous     The due before the change, or null
+     * @param recurringDue The series concerned, or null for a due change
+     */
+    private void fire(DueChangeEvent.Type type, Due due, Due previous, RecurringDue recurringDue) {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        DueChangeEvent event = new DueChangeEvent(type, due, previous, recurringDue, snapshot.getVersion());
+        for (DueChangeListener listener : listeners) {
+            try {
+                listener.onDueChange(event);
+            } catch (RuntimeException e) {
+                LISTENER_ERRORS.increment();
+                System.err.println("Error in due change listener: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gets a due in the working set by its ID. Archived dues are not returned, so a due
+     * found here can be changed.
      *
      * @param id The ID of the due to find
      * @return The due with the specified ID, or null if not found
      */
     public Due getDueById(int id) {
-        return dues.stream()
-                .filter(due -> due.getId() == id)
-                .findFirst()
-                .orElse(null);
+        return snapshot.get(id);
+    }
+
+    /**
+     * Gets a due by its ID for reading, from the working set or, if it has been archived,
+     * from the archive.
+     *
+     * @param id The ID of the due to find
+     * @return The due with the specified ID, or null if not found
+     */
+    public Due findDue(int id) {
+        Due due = snapshot.get(id);
+        if (due != null || !isArchived(id)) {
+            return due;
+        }
+        return findArchivedDue(id);
+    }
+
+    /**
+     * Checks whether a due has been moved to the archive. Archived dues can be read but not
+     * changed. Does not take the manager's lock.
+     *
+     * @param id The ID of the due
+     * @return true if the due is archived
+     */
+    public boolean isArchived(int id) {
+        return id >= 0 && archivedIds.get(id);
+    }
+
+    /**
+     * Moves the dues that are done with into the archive, using the configured retention or
+     * {@link #DEFAULT_ARCHIVE_RETENTION}.
+     *
+     * @return the number of dues archived
+     */
+    public int archiveDues() {
+        return archiveDues(LocalDateTime.now(), retention == null ? DEFAULT_ARCHIVE_RETENTION : retention);
+    }
+
+    /**
+     * Moves the dues that are done with into the archive: completed dues whose date has passed,
+     * and any due more than the retention period past its date. Completed dues still ahead stay
+     * in the working set so they keep showing up until their date. The dues are appended to the
+     * archive before they leave the working set, so a crash in between only archives them twice.
+     *
+     * @param now       The current time
+     * @param retention How long past their date dues stay in the working set
+     * @return the number of dues archived
+     */
+    public synchronized int archiveDues(LocalDateTime now, Duration retention) {
+        LocalDateTime cutoff = now.minus(retention);
+        List<Due> done = new ArrayList<>();
+        for (Due due : snapshot) {
+            if ((due.isCompleted() && due.getDueDate().isBefore(now)) || due.getDueDate().isBefore(cutoff)) {
+                done.add(due);
+            }
+        }
+        if (done.isEmpty()) {
+            return 0;
+        }
+        try {
+            archive.append(done);
+        } catch (IOException e) {
+            SAVE_ERRORS.increment();
+            System.err.println("Error archiving dues: " + e.getMessage());
+            return 0;
+        }
+        DueSnapshot next = snapshot;
+        BitSet ids = (BitSet) archivedIds.clone();
+        for (Due due : done) {
+            next = next.without(due.getId());
+            markDirty(due);
+            estimatedBytes -= estimateBytes(due);
+            ids.set(due.getId());
+        }
+        snapshot = next;
+        archivedIds = ids;
+        ARCHIVED.add(done.size());
+        saveDues();
+        for (Due due : done) {
+            fire(DueChangeEvent.Type.REMOVED, due, null, null);
+        }
+        return done.size();
+    }
+
+    /**
+     * Reads every archived due from the archive file.
+     *
+     * @return a new list of the archived dues, ordered by ID
+     */
+    public List<Due> getArchivedDues() {
+        return readArchive(due -> isArchived(due.getId()));
+    }
+
+    /**
+     * Reads the archived dues falling between two dates, inclusive, sorted by due date.
+     *
+     * @param from The first date of the range
+     * @param to   The last date of the range
+     * @return a new list of the archived dues in the range
+     * @throws IllegalArgumentException if the range is empty or a bound is null
+     */
+    public List<Due> getArchivedDuesBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("Invalid date range: " + from + " to " + to);
+        }
+        List<Due> inRange = readArchive(due -> isArchived(due.getId())
+                && !due.getDueDate().toLocalDate().isBefore(from)
+                && !due.getDueDate().toLocalDate().isAfter(to));
+        inRange.sort(Comparator.comparing(Due::getDueDate));
+        return inRange;
+    }
+
+    /**
+     * Reads the archived dues accepted by a filter, reporting a read failure as an empty result.
+     *
+     * @param filter The dues to keep
+     * @return a new list of the matching archived dues, ordered by ID
+     */
+    private List<Due> readArchive(Predicate<Due> filter) {
+        long start = System.nanoTime();
+        try {
+            return archive.read(filter);
+        } catch (IOException e) {
+            LOAD_ERRORS.increment();
+            System.err.println("Error reading archived dues: " + e.getMessage());
+            return new ArrayList<>();
+        } finally {
+            ARCHIVE_READ_LATENCY.recordSince(start);
+        }
+    }
+
+    /**
+     * Reads one archived due.
+     *
+     * @param id The ID of the due
+     * @return the due, or null if it cannot be read
+     */
+    private Due findArchivedDue(int id) {
+        List<Due> found = readArchive(due -> due.getId() == id);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /**
+     * Gets the current version of the whole store.
+     * The snapshot never changes, so it can be iterated without locking while other threads
+     * keep modifying the manager.
+     *
+     * @return the current snapshot
+     */
+    public DueSnapshot getSnapshot() {
+        return snapshot;
     }
 
     /**
@@ -124,12 +720,26 @@ public class DueManager {
      * @param due The due to add
      * @throws IllegalArgumentException if due is null
      */
-    public void addDue(Due due) {
+    public synchronized void addDue(Due due) {
         if (due == null) {
             throw new IllegalArgumentException("Due cannot be null");
         }
-        dues.add(due);
+        Due replaced = snapshot.get(due.getId());
+        if (replaced != null) {
+            estimatedBytes -= estimateBytes(replaced);
+        }
+        if (isArchived(due.getId())) {
+            // Back in the working set; the stale archive line is ignored from now on
+            BitSet ids = (BitSet) archivedIds.clone();
+            ids.clear(due.getId());
+            archivedIds = ids;
+        }
+        snapshot = snapshot.with(due);
+        estimatedBytes += estimateBytes(due);
+        markDirty(replaced);
+        markDirty(due);
         saveDues();
+        fire(DueChangeEvent.Type.ADDED, due, replaced, null);
     }
 
     /**
@@ -138,21 +748,104 @@ public class DueManager {
      * @param id The ID of the due to remove
      * @return true if the due was found and removed, false otherwise
      */
-    public boolean removeDue(int id) {
-        boolean removed = dues.removeIf(due -> due.getId() == id);
-        if (removed) {
-            saveDues();
+    public synchronized boolean removeDue(int id) {
+        Due removed = snapshot.get(id);
+        if (removed == null) {
+            return false;
         }
-        return removed;
+        snapshot = snapshot.without(id);
+        estimatedBytes -= estimateBytes(removed);
+        markDirty(removed);
+        saveDues();
+        fire(DueChangeEvent.Type.REMOVED, removed, null, null);
+        return true;
+    }
+
+    /**
+     * Creates a builder for a new recurring due with the next unused ID.
+     *
+     * @return a builder to finish and pass to {@link #addRecurringDue(RecurringDue)}
+     */
+    public RecurringDue.RecurringDueBuilder newRecurringDue() {
+        return new RecurringDue.RecurringDueBuilder(allocateId());
+    }
+
+    /**
+     * Gets a recurring due by its ID.
+     *
+     * @param id The ID of the series
+     * @return The series with the specified ID, or null if not found
+     */
+    public RecurringDue getRecurringDue(int id) {
+        return snapshot.getSeries(id);
+    }
+
+    /**
+     * Gets every recurring due, in ID order.
+     *
+     * @return an unmodifiable collection of the series
+     */
+    public Collection<RecurringDue> getRecurringDues() {
+        return snapshot.getSeries();
+    }
+
+    /**
+     * Adds a recurring due, or replaces the series with the same ID, and persists it.
+     * Only the rule is stored; occurrences are expanded when queried.
+     *
+     * @param recurringDue The series to add
+     * @throws IllegalArgumentException if the series is null
+     */
+    public synchronized void addRecurringDue(RecurringDue recurringDue) {
+        if (recurringDue == null) {
+            throw new IllegalArgumentException("Recurring due cannot be null");
+        }
+        RecurringDue replaced = snapshot.getSeries(recurringDue.getId());
+        if (replaced != null) {
+            estimatedBytes -= estimateBytes(replaced);
+        }
+        snapshot = snapshot.withSeries(recurringDue);
+        estimatedBytes += estimateBytes(recurringDue);
+        markSeriesDirty();
+        saveDues();
+        fire(DueChangeEvent.Type.ADDED, null, null, recurringDue);
+    }
+
+    /**
+     * Removes a recurring due, with all its occurrences, by its ID.
+     *
+     * @param id The ID of the series to remove
+     * @return true if the series was found and removed, false otherwise
+     */
+    public synchronized boolean removeRecurringDue(int id) {
+        RecurringDue removed = snapshot.getSeries(id);
+        if (removed == null) {
+            return false;
+        }
+        snapshot = snapshot.withoutSeries(id);
+        estimatedBytes -= estimateBytes(removed);
+        markSeriesDirty();
+        saveDues();
+        fire(DueChangeEvent.Type.REMOVED, null, null, removed);
+        return true;
     }
 
     /**
      * Removes all dues from the manager.
      * Clears the dues list and persists the empty state.
      */
-    public void removeAllDues() {
-        dues.clear();
+    public synchronized void removeAllDues() {
+        DueSnapshot removed = snapshot;
+        snapshot = snapshot.cleared();
+        estimatedBytes = 0;
+        allShardsDirty = layout == StorageLayout.MONTHLY_SHARDS;
         saveDues();
+        for (Due due : removed) {
+            fire(DueChangeEvent.Type.REMOVED, due, null, null);
+        }
+        for (RecurringDue recurringDue : removed.getSeries()) {
+            fire(DueChangeEvent.Type.REMOVED, null, null, recurringDue);
+        }
     }
 
     /**
@@ -162,16 +855,117 @@ public class DueManager {
      * @return true if the due was found and marked as completed, false otherwise
      */
     public boolean markAsCompleted(int id) {
-        Optional<Due> dueOpt = dues.stream()
-                .filter(due -> due.getId() == id)
-                .findFirst();
+        return setCompleted(id, true);
+    }
 
-        if (dueOpt.isPresent()) {
-            dueOpt.get().setCompleted(true);
+    /**
+     * Sets the completion status of a due by its ID and persists the change.
+     * The due is replaced by its next version; earlier snapshots keep the previous one.
+     *
+     * @param id        The ID of the due to update
+     * @param completed The new completion status
+     * @return true if the due was found, false otherwise
+     */
+    public synchronized boolean setCompleted(int id, boolean completed) {
+        Due due = snapshot.get(id);
+        if (due == null) {
+            return false;
+        }
+        if (due.isCompleted() != completed) {
+            Due updated = due.withCompleted(completed);
+            snapshot = snapshot.with(updated);
+            markDirty(updated);
             saveDues();
-            return true;
+            fire(completed ? DueChangeEvent.Type.COMPLETED : DueChangeEvent.Type.UNCOMPLETED, updated, due, null);
         }
-        return false;
+        return true;
+    }
+
+    /**
+     * Sets the completion status of one occurrence of a recurring due and persists the change.
+     * Only the dates of completed occurrences are stored.
+     *
+     * @param seriesId  The ID of the series
+     * @param date      The date of the occurrence
+     * @param completed The new completion status
+     * @return true if the series has an occurrence on the date, false otherwise
+     */
+    public synchronized boolean setOccurrenceCompleted(int seriesId, LocalDate date, boolean completed) {
+        RecurringDue recurringDue = snapshot.getSeries(seriesId);
+        if (recurringDue == null || !recurringDue.occursOn(date)) {
+            return false;
+        }
+        RecurringDue updated = recurringDue.withCompleted(date, completed);
+        if (updated != recurringDue) {
+            snapshot = snapshot.withSeries(updated);
+            estimatedBytes += estimateBytes(updated) - estimateBytes(recurringDue);
+            markSeriesDirty();
+            saveDues();
+            fire(completed ? DueChangeEvent.Type.COMPLETED : DueChangeEvent.Type.UNCOMPLETED,
+                    updated.occurrencesBetween(date, date).get(0), recurringDue.occurrencesBetween(date, date).get(0),
+                    null);
+        }
+        return true;
+    }
+
+    /**
+     * Sets the completion status of a due, which may be an occurrence of a recurring due.
+     *
+     * @param due       The due or occurrence to update
+     * @param completed The new completion status
+     * @return true if the due or occurrence was found, false otherwise
+     */
+    public boolean setCompleted(Due due, boolean completed) {
+        if (due.isRecurring()) {
+            return setOccurrenceCompleted(due.getId(), due.getDueDate().toLocalDate(), completed);
+        }
+        return setCompleted(due.getId(), completed);
+    }
+
+    /**
+     * Gets the approximate heap footprint of the dues held by this manager.
+     * Used to keep many managers within a memory budget.
+     *
+     * @return the estimated size in bytes
+     */
+    public synchronized long getEstimatedMemoryBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Estimates the heap footprint of a due together with its share of the snapshot trie.
+     *
+     * @param due The due to measure
+     * @return the estimated size in bytes
+     */
+    private static long estimateBytes(Due due) {
+        // Object headers and fields, the date/time objects and the trie leaf slot with its path
+        long bytes = 200;
+        bytes += estimateBytes(due.getCourse());
+        bytes += estimateBytes(due.getTitle());
+        bytes += estimateBytes(due.getLocation());
+        bytes += estimateBytes(due.getNotes());
+        return bytes;
+    }
+
+    /**
+     * Estimates the heap footprint of a recurring due, including its completed occurrence dates.
+     *
+     * @param recurringDue The series to measure
+     * @return the estimated size in bytes
+     */
+    private static long estimateBytes(RecurringDue recurringDue) {
+        // The rule itself, its map entry, and a tree node plus date per completed occurrence
+        long bytes = 300 + 64L * recurringDue.getCompletedDates().size();
+        bytes += estimateBytes(recurringDue.getCourse());
+        bytes += estimateBytes(recurringDue.getTitle());
+        bytes += estimateBytes(recurringDue.getLocation());
+        bytes += estimateBytes(recurringDue.getNotes());
+        return bytes;
+    }
+
+    private static long estimateBytes(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
     }
 
     /**
@@ -186,6 +980,7 @@ public class DueManager {
         if (jsonString == null || jsonString.trim().isEmpty()) {
             throw new IllegalArgumentException("JSON string cannot be null or empty");
         }
+        long start = System.nanoTime();
         try {
             // Handle array response by taking the first item
             JSONObject json;
@@ -199,16 +994,14 @@ public class DueManager {
                 json = new JSONObject(jsonString);
             }
 
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-
             // Validate required fields
             validateJsonField(json, "course");
             validateJsonField(json, "title");
             validateJsonField(json, "due_date");
 
-            LocalDateTime dueDate = LocalDateTime.parse(json.getString("due_date"), formatter);
+            LocalDateTime dueDate = LocalDateTime.parse(json.getString("due_date"), DueJsonFormat.DATE_TIME);
 
-            Due.DueBuilder builder = new Due.DueBuilder(nextId++)
+            Due.DueBuilder builder = new Due.DueBuilder(allocateId())
                     .course(json.getString("course"))
                     .title(json.getString("title"))
                     .dueDate(dueDate)
@@ -224,10 +1017,22 @@ public class DueManager {
 
             return builder.build();
         } catch (Exception e) {
+            PARSE_ERRORS.increment();
             throw new IllegalArgumentException("Error parsing due data: " + e.getMessage());
+        } finally {
+            PARSE_LATENCY.recordSince(start);
         }
     }
 
+    /**
+     * Reserves the next unused due ID.
+     *
+     * @return the reserved ID
+     */
+    private synchronized int allocateId() {
+        return nextId++;
+    }
+
     /**
      * Validates that a required field exists in the JSON object.
      *
@@ -245,15 +1050,53 @@ public class DueManager {
      * Gets all dues organized by their due date.
      * Returns a sorted map with dates as keys and lists of dues as values.
      * Dues within each date are sorted by time.
+     * Recurring dues contribute their occurrences up to {@link #DEFAULT_HORIZON_WEEKS} weeks from today.
      *
      * @return Map of dates to lists of dues
      */
     public Map<LocalDate, List<Due>> getDuesByDate() {
+        return getDuesByDate(LocalDate.MIN, LocalDate.now().plusWeeks(DEFAULT_HORIZON_WEEKS), true);
+    }
+
+    /**
+     * Gets the dues falling between two dates, inclusive, organized by their due date.
+     * Recurring dues are expanded within the range only.
+     *
+     * @param from The first date of the range
+     * @param to   The last date of the range
+     * @return Map of dates to lists of dues, sorted by time within each date
+     * @throws IllegalArgumentException if the range is empty or a bound is null
+     */
+    public Map<LocalDate, List<Due>> getDuesByDate(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("Invalid date range: " + from + " to " + to);
+        }
+        return getDuesByDate(from, to, false);
+    }
+
+    /**
+     * Groups the dues by date.
+     *
+     * @param from        The first date to expand recurring dues from
+     * @param to          The last date to expand recurring dues to
+     * @param allOneOffs  Whether one-off dues outside the range are included as well
+     * @return Map of dates to lists of dues
+     */
+    private Map<LocalDate, List<Due>> getDuesByDate(LocalDate from, LocalDate to, boolean allOneOffs) {
         Map<LocalDate, List<Due>> duesByDate = new TreeMap<>();
+        DueSnapshot current = snapshot;
 
-        for (Due due : dues) {
+        for (Due due : current) {
             LocalDate dueDate = due.getDueDate().toLocalDate();
-            duesByDate.computeIfAbsent(dueDate, k -> new ArrayList<>()).add(due);
+            if (allOneOffs || (!dueDate.isBefore(from) && !dueDate.isAfter(to))) {
+                duesByDate.computeIfAbsent(dueDate, k -> new ArrayList<>()).add(due);
+            }
+        }
+        for (RecurringDue recurringDue : current.getSeries()) {
+            for (Due occurrence : recurringDue.occurrencesBetween(from, to)) {
+                duesByDate.computeIfAbsent(occurrence.getDueDate().toLocalDate(), k -> new ArrayList<>())
+                        .add(occurrence);
+            }
         }
 
         // Sort dues within each date by due time
@@ -265,11 +1108,109 @@ public class DueManager {
     }
 
     /**
-     * Gets a copy of all dues in the manager.
+     * Gets the dues falling between two dates, inclusive, sorted by due date.
+     * Occurrences of recurring dues within the range are included.
+     *
+     * @param from The first date of the range
+     * @param to   The last date of the range
+     * @return A new list of the dues in the range
+     * @throws IllegalArgumentException if the range is empty or a bound is null
+     */
+    public List<Due> getDuesBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("Invalid date range: " + from + " to " + to);
+        }
+        List<Due> inRange = new ArrayList<>();
+        DueSnapshot current = snapshot;
+        for (Due due : current) {
+            LocalDate dueDate = due.getDueDate().toLocalDate();
+            if (!dueDate.isBefore(from) && !dueDate.isAfter(to)) {
+                inRange.add(due);
+            }
+        }
+        for (RecurringDue recurringDue : current.getSeries()) {
+            inRange.addAll(recurringDue.occurrencesBetween(from, to));
+        }
+        inRange.sort(Comparator.comparing(Due::getDueDate));
+        return inRange;
+    }
+
+    /**
+     * Gets a read-only view of the one-off dues in the manager, ordered by ID. Nothing is
+     * copied; the view shows the store as it was when this was called.
+     *
+     * @return an unmodifiable view of the dues
+     */
+    public Collection<Due> getDuesView() {
+        return snapshot.asCollection();
+    }
+
+    /**
+     * Visits every one-off due in ID order without copying the store.
+     *
+     * @param action The action to run for each due
+     */
+    public void forEachDue(Consumer<? super Due> action) {
+        snapshot.forEach(action);
+    }
+
+    /**
+     * Visits the one-off dues accepted by a filter in ID order without copying the store.
+     *
+     * @param filter The dues to visit
+     * @param action The action to run for each accepted due
+     */
+    public void forEachDue(Predicate<? super Due> filter, Consumer<? super Due> action) {
+        snapshot.forEach(filter, action);
+    }
+
+    /**
+     * Streams the one-off dues in ID order without copying the store.
+     *
+     * @return a sequential stream over the dues
+     */
+    public Stream<Due> streamDues() {
+        return snapshot.stream();
+    }
+
+    /**
+     * Streams the one-off dues accepted by a filter in ID order. The filter is applied while
+     * walking the store, so rejected dues never enter the stream pipeline.
+     *
+     * @param filter The dues to stream
+     * @return a sequential stream over the accepted dues
+     */
+    public Stream<Due> streamDues(Predicate<? super Due> filter) {
+        return snapshot.stream(filter);
+    }
+
+    /**
+     * Streams every due as {@link #getDuesByDate()} sees them: the one-off dues in ID order,
+     * then each recurring due's occurrences, in date order, up to {@link #DEFAULT_HORIZON_WEEKS}
+     * weeks from today. Both come from the same snapshot, and a series is only expanded when the
+     * stream reaches it.
+     *
+     * @return a sequential stream over the dues and occurrences
+     */
+    public Stream<Due> streamDuesWithOccurrences() {
+        DueSnapshot current = snapshot;
+        LocalDate horizon = LocalDate.now().plusWeeks(DEFAULT_HORIZON_WEEKS);
+        return Stream.concat(current.stream(), current.getSeries().stream()
+                .flatMap(recurringDue -> recurringDue.occurrencesBetween(LocalDate.MIN, horizon).stream()));
+    }
+
+    /**
+     * Gets a copy of all one-off dues in the manager, ordered by ID.
+     * Recurring dues are not expanded here; see {@link #getRecurringDues()}.
+     * Readers that only iterate should use {@link #getDuesView()}, {@link #forEachDue} or
+     * {@link #streamDues()} instead, which do not copy.
      *
      * @return A new list containing all dues
      */
     public List<Due> getAllDues() {
-        return new ArrayList<>(dues);
+        DueSnapshot current = snapshot;
+        List<Due> dues = new ArrayList<>(current.size());
+        current.forEach(dues::add);
+        return dues;
     }
 }
\ No newline at end of file
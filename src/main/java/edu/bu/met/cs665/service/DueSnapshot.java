@@ -0,0 +1,438 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: DueSnapshot.java
+ * Description: This class is an immutable, versioned snapshot of the due store.
+ */
+
+package edu.bu.met.cs665.service;
+
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.model.RecurringDue;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SortedMap;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Persistent (structurally shared) map from due ID to due, iterated in ID order.
+ * Dues are kept in a fixed-depth 32-way trie keyed by ID, so an update copies only the seven
+ * nodes on the path to the changed slot and shares everything else with the previous version.
+ * A snapshot never changes once published, which lets any number of readers iterate it
+ * without copying or locking while writers build and publish newer versions.
+ * Recurring dues are held beside the trie as rules, one entry per series, since there are
+ * few of them; iterating the snapshot yields the one-off dues only.
+ */
+public final class DueSnapshot implements Iterable<Due> {
+    /** The snapshot of an empty store. */
+    public static final DueSnapshot EMPTY =
+            new DueSnapshot(null, 0, Collections.<Integer, RecurringDue>emptySortedMap(), 0);
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    // 7 levels of 5 bits cover all 32 bits of an ID
+    private static final int LEVELS = 7;
+
+    private final Object[] root;
+    private final int size;
+    private final SortedMap<Integer, RecurringDue> series;
+    private final long version;
+
+    private DueSnapshot(Object[] root, int size, SortedMap<Integer, RecurringDue> series, long version) {
+        this.root = root;
+        this.size = size;
+        this.series = series;
+        this.version = version;
+    }
+
+    /**
+     * Builds a snapshot from loaded dues and series in one pass. The trie is private until it is
+     * returned, so its nodes are filled in place rather than copied along the path for each due.
+     * A due or series whose ID repeats replaces the earlier one.
+     *
+     * @param dues   The one-off dues
+     * @param series The recurring dues
+     * @return the snapshot, counting one version per due and series
+     */
+    public static DueSnapshot of(Iterable<Due> dues, Iterable<RecurringDue> series) {
+        Object[] root = null;
+        int size = 0;
+        long version = 0;
+        for (Due due : dues) {
+            long key = key(due.getId());
+            if (root == null) {
+                root = new Object[WIDTH];
+            }
+            Object[] node = root;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                int slot = slot(key, level);
+                if (node[slot] == null) {
+                    node[slot] = new Object[WIDTH];
+                }
+                node = (Object[]) node[slot];
+            }
+            int slot = slot(key, 0);
+            if (node[slot] == null) {
+                size++;
+            }
+            node[slot] = due;
+            version++;
+        }
+        SortedMap<Integer, RecurringDue> byId = new TreeMap<>();
+        for (RecurringDue recurringDue : series) {
+            byId.put(recurringDue.getId(), recurringDue);
+            version++;
+        }
+        return new DueSnapshot(root, size, byId.isEmpty() ? EMPTY.series : Collections.unmodifiableSortedMap(byId),
+                version);
+    }
+
+    /**
+     * Gets the version of the store this snapshot captures; it grows with every change.
+     *
+     * @return the store version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the number of dues in the snapshot.
+     *
+     * @return the number of dues
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the snapshot holds no dues.
+     *
+     * @return true if empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets a due by its ID.
+     *
+     * @param id The ID of the due
+     * @return the due, or null if the snapshot has none with that ID
+     */
+    public Due get(int id) {
+        long key = key(id);
+        Object[] node = root;
+        for (int level = LEVELS - 1; level > 0 && node != null; level--) {
+            node = (Object[]) node[slot(key, level)];
+        }
+        return node == null ? null : (Due) node[slot(key, 0)];
+    }
+
+    /**
+     * Creates a newer snapshot with a due added, or replacing the due with the same ID.
+     *
+     * @param due The due to put
+     * @return the new snapshot
+     */
+    public DueSnapshot with(Due due) {
+        long key = key(due.getId());
+        boolean added = get(due.getId()) == null;
+        return new DueSnapshot(assoc(root, LEVELS - 1, key, due), added ? size + 1 : size, series, version + 1);
+    }
+
+    /**
+     * Creates a newer snapshot without the due of the given ID.
+     *
+     * @param id The ID of the due to drop
+     * @return the new snapshot, or this snapshot if it has no due with that ID
+     */
+    public DueSnapshot without(int id) {
+        if (get(id) == null) {
+            return this;
+        }
+        return new DueSnapshot(assoc(root, LEVELS - 1, key(id), null), size - 1, series, version + 1);
+    }
+
+    /**
+     * Gets a recurring due by its ID.
+     *
+     * @param id The ID of the series
+     * @return the series, or null if the snapshot has none with that ID
+     */
+    public RecurringDue getSeries(int id) {
+        return series.get(id);
+    }
+
+    /**
+     * Gets every recurring due, in ID order.
+     *
+     * @return an unmodifiable view of the series
+     */
+    public Collection<RecurringDue> getSeries() {
+        return series.values();
+    }
+
+    /**
+     * Creates a newer snapshot with a recurring due added, or replacing the series with the same ID.
+     *
+     * @param recurringDue The series to put
+     * @return the new snapshot
+     */
+    public DueSnapshot withSeries(RecurringDue recurringDue) {
+        SortedMap<Integer, RecurringDue> copy = new TreeMap<>(series);
+        copy.put(recurringDue.getId(), recurringDue);
+        return new DueSnapshot(root, size, Collections.unmodifiableSortedMap(copy), version + 1);
+    }
+
+    /**
+     * Creates a newer snapshot without the recurring due of the given ID.
+     *
+     * @param id The ID of the series to drop
+     * @return the new snapshot, or this snapshot if it has no series with that ID
+     */
+    public DueSnapshot withoutSeries(int id) {
+        if (!series.containsKey(id)) {
+            return this;
+        }
+        SortedMap<Integer, RecurringDue> copy = new TreeMap<>(series);
+        copy.remove(id);
+        return new DueSnapshot(root, size, Collections.unmodifiableSortedMap(copy), version + 1);
+    }
+
+    /**
+     * Creates a newer, empty snapshot.
+     *
+     * @return the new snapshot
+     */
+    public DueSnapshot cleared() {
+        return new DueSnapshot(null, 0, EMPTY.series, version + 1);
+    }
+
+    /**
+     * Visits every due in ID order without allocating an iterator.
+     *
+     * @param action The action to run for each due
+     */
+    @Override
+    public void forEach(Consumer<? super Due> action) {
+        forEach(root, LEVELS - 1, action);
+    }
+
+    /**
+     * Visits the dues accepted by a filter in ID order. The filter runs during the walk, so
+     * nothing is allocated for the dues it rejects.
+     *
+     * @param filter The dues to visit
+     * @param action The action to run for each accepted due
+     */
+    public void forEach(Predicate<? super Due> filter, Consumer<? super Due> action) {
+        forEach(root, LEVELS - 1, due -> {
+            if (filter.test(due)) {
+                action.accept(due);
+            }
+        });
+    }
+
+    /**
+     * Iterates the dues in ID order.
+     *
+     * @return an iterator over the dues
+     */
+    @Override
+    public Iterator<Due> iterator() {
+        return new TrieIterator(root);
+    }
+
+    /**
+     * Splits the dues for streaming; the size is exact and the order is by ID.
+     *
+     * @return a spliterator over the dues
+     */
+    @Override
+    public Spliterator<Due> spliterator() {
+        return Spliterators.spliterator(iterator(), size,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * Streams the dues in ID order.
+     *
+     * @return a sequential stream over the dues
+     */
+    public Stream<Due> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Streams the dues accepted by a filter in ID order. The filter is applied while walking
+     * the trie, before anything enters the stream pipeline.
+     *
+     * @param filter The dues to stream
+     * @return a sequential stream over the accepted dues
+     */
+    public Stream<Due> stream(Predicate<? super Due> filter) {
+        Iterator<Due> dues = iterator();
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<Due>(size,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Due> action) {
+                while (dues.hasNext()) {
+                    Due due = dues.next();
+                    if (filter.test(due)) {
+                        action.accept(due);
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }, false);
+    }
+
+    /**
+     * Gets a read-only collection view of the dues. Nothing is copied; the view always shows
+     * this snapshot, however the store changes later.
+     *
+     * @return an unmodifiable view of the dues in ID order
+     */
+    public Collection<Due> asCollection() {
+        return new AbstractCollection<Due>() {
+            @Override
+            public Iterator<Due> iterator() {
+                return DueSnapshot.this.iterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Due && get(((Due) o).getId()) == o;
+            }
+        };
+    }
+
+    /**
+     * Copies the path to a slot, placing the value there.
+     *
+     * @param node  The node at this level, or null if the path does not exist yet
+     * @param level The level of the node, 0 for leaves
+     * @param key   The trie key
+     * @param value The due to place, or null to clear the slot
+     * @return the copied node, or null if it became empty
+     */
+    private static Object[] assoc(Object[] node, int level, long key, Due value) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        int slot = slot(key, level);
+        copy[slot] = level == 0 ? value : assoc((Object[]) copy[slot], level - 1, key, value);
+        if (value == null) {
+            for (Object child : copy) {
+                if (child != null) {
+                    return copy;
+                }
+            }
+            return null;
+        }
+        return copy;
+    }
+
+    private static void forEach(Object[] node, int level, Consumer<? super Due> action) {
+        if (node == null) {
+            return;
+        }
+        for (Object child : node) {
+            if (child == null) {
+                continue;
+            }
+            if (level == 0) {
+                action.accept((Due) child);
+            } else {
+                forEach((Object[]) child, level - 1, action);
+            }
+        }
+    }
+
+    /**
+     * Maps an ID to an unsigned key so that negative IDs sort before positive ones.
+     */
+    private static long key(int id) {
+        return (id ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+    }
+
+    private static int slot(long key, int level) {
+        return (int) (key >>> (level * BITS)) & MASK;
+    }
+
+    /**
+     * Depth-first iterator over the trie, keeping one cursor per level.
+     */
+    private static final class TrieIterator implements Iterator<Due> {
+        private final Object[][] nodes = new Object[LEVELS][];
+        private final int[] positions = new int[LEVELS];
+        private Due next;
+
+        private TrieIterator(Object[] root) {
+            nodes[LEVELS - 1] = root;
+            advance();
+        }
+
+        /**
+         * Moves to the next non-empty leaf slot.
+         */
+        private void advance() {
+            next = null;
+            int level = 0;
+            while (nodes[level] == null && level < LEVELS - 1) {
+                level++;
+            }
+            while (level < LEVELS && nodes[level] != null) {
+                Object[] node = nodes[level];
+                if (positions[level] >= WIDTH) {
+                    nodes[level] = null;
+                    level++;
+                    continue;
+                }
+                Object child = node[positions[level]++];
+                if (child == null) {
+                    continue;
+                }
+                if (level == 0) {
+                    next = (Due) child;
+                    return;
+                }
+                level--;
+                nodes[level] = (Object[]) child;
+                positions[level] = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Due next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Due current = next;
+            advance();
+            return current;
+        }
+    }
+}
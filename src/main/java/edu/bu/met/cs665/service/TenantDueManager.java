@@ -0,0 +1,219 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: TenantDueManager.java
+ * Description: This class is responsible for managing one due partition per user.
+ */
+
+package edu.bu.met.cs665.service;
+
+import edu.bu.met.cs665.metrics.Metrics;
+import edu.bu.met.cs665.storage.DurabilityMode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Serves the dues of many users from one process.
+ * Every user owns a partition: a DueManager with its own file, ID sequence and indexes under
+ * "baseDirectory/userId/dues.json". Partitions are loaded on first use and the least recently
+ * used idle partitions are evicted once the estimated resident size exceeds the memory budget.
+ */
+public class TenantDueManager implements AutoCloseable {
+    private static final Pattern USER_ID = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._-]{0,63}");
+    private static final String SAVE_FILE_NAME = "dues.json";
+
+    private final Path baseDirectory;
+    private final DurabilityMode durability;
+    private final long memoryBudgetBytes;
+    // Access-ordered, so iteration starts at the least recently used partition
+    private final LinkedHashMap<String, Partition> partitions = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder loads = Metrics.global().counter("tenants.loads");
+    private final LongAdder evictions = Metrics.global().counter("tenants.evictions");
+    private long residentBytes;
+
+    /**
+     * A user's partition. The DueManager is only touched while holding the partition's lock.
+     */
+    private static final class Partition {
+        private DueManager manager;
+        private int pins;
+        private long bytes;
+    }
+
+    /**
+     * Creates a tenant-aware manager.
+     *
+     * @param baseDirectory     The directory holding one subdirectory per user
+     * @param durability        The durability mode of every partition
+     * @param memoryBudgetBytes The estimated heap size above which idle partitions are evicted
+     * @throws IllegalArgumentException if the memory budget is not positive
+     */
+    public TenantDueManager(Path baseDirectory, DurabilityMode durability, long memoryBudgetBytes) {
+        if (memoryBudgetBytes <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive");
+        }
+        this.baseDirectory = baseDirectory;
+        this.durability = durability;
+        this.memoryBudgetBytes = memoryBudgetBytes;
+    }
+
+    /**
+     * Publishes gauges for the number and estimated size of resident partitions.
+     *
+     * @param metrics The registry to publish to
+     */
+    public void registerGauges(Metrics metrics) {
+        metrics.gauge("tenants.resident", this::getResidentTenantCount);
+        metrics.gauge("tenants.resident.bytes", this::getResidentBytes);
+    }
+
+    /**
+     * Runs work against a user's dues, loading the partition if it is not resident.
+     * The partition is pinned, and therefore never evicted, while the work runs; work for the
+     * same user is serialized, work for different users runs concurrently.
+     *
+     * @param userId The user whose dues to use
+     * @param work   The work to run against the user's DueManager
+     * @param <T>    The result type of the work
+     * @return the result of the work
+     * @throws IllegalArgumentException if the user ID is not a safe file name
+     */
+    public <T> T withTenant(String userId, Function<DueManager, T> work) {
+        validateUserId(userId);
+        Partition partition;
+        synchronized (this) {
+            partition = partitions.computeIfAbsent(userId, id -> new Partition());
+            partition.pins++;
+        }
+
+        long bytes = 0;
+        try {
+            synchronized (partition) {
+                if (partition.manager == null) {
+                    partition.manager = load(userId);
+                }
+                try {
+                    return work.apply(partition.manager);
+                } finally {
+                    bytes = partition.manager.getEstimatedMemoryBytes();
+                }
+            }
+        } finally {
+            synchronized (this) {
+                partition.pins--;
+                residentBytes += bytes - partition.bytes;
+                partition.bytes = bytes;
+                evictIdlePartitions();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of partitions currently held in memory.
+     *
+     * @return the resident partition count
+     */
+    public synchronized int getResidentTenantCount() {
+        return partitions.size();
+    }
+
+    /**
+     * Gets the estimated heap size of all resident partitions.
+     *
+     * @return the estimated size in bytes
+     */
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /**
+     * Checks whether a user's partition is currently held in memory.
+     *
+     * @param userId The user to check
+     * @return true if the partition is resident
+     */
+    public synchronized boolean isResident(String userId) {
+        return partitions.containsKey(userId);
+    }
+
+    /**
+     * Closes every resident partition, syncing pending saves.
+     * Partition locks are taken only after the registry lock is released, the same order
+     * {@link #withTenant} uses, so closing cannot deadlock with running work.
+     */
+    @Override
+    public void close() {
+        List<Partition> resident;
+        synchronized (this) {
+            resident = new ArrayList<>(partitions.values());
+            partitions.clear();
+            residentBytes = 0;
+        }
+        for (Partition partition : resident) {
+            synchronized (partition) {
+                if (partition.manager != null) {
+                    partition.manager.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads a user's partition from disk.
+     *
+     * @param userId The user to load
+     * @return the user's DueManager
+     */
+    private DueManager load(String userId) {
+        Path directory = baseDirectory.resolve(userId);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Error creating directory for " + userId + ": " + e.getMessage(), e);
+        }
+        loads.increment();
+        return new DueManager(directory.resolve(SAVE_FILE_NAME), durability);
+    }
+
+    /**
+     * Evicts least recently used, unpinned partitions until the budget is met.
+     * Every mutation is already saved, so eviction only has to sync and drop the manager.
+     * Must be called while holding this object's lock.
+     */
+    private void evictIdlePartitions() {
+        Iterator<Partition> lru = partitions.values().iterator();
+        while (residentBytes > memoryBudgetBytes && lru.hasNext()) {
+            Partition partition = lru.next();
+            if (partition.pins > 0) {
+                continue;
+            }
+            lru.remove();
+            residentBytes -= partition.bytes;
+            evictions.increment();
+            synchronized (partition) {
+                if (partition.manager != null) {
+                    partition.manager.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Rejects user IDs that could escape the base directory or are not portable file names.
+     *
+     * @param userId The user ID to check
+     * @throws IllegalArgumentException if the user ID is invalid
+     */
+    private static void validateUserId(String userId) {
+        if (userId == null || !USER_ID.matcher(userId).matches()) {
+            throw new IllegalArgumentException("Invalid user ID: " + userId);
+        }
+    }
+}
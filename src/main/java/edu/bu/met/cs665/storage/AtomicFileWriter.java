@@ -0,0 +1,210 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: AtomicFileWriter.java
+ * Description: This class is responsible for crash-safe replacement of a file.
+ */
+
+package edu.bu.met.cs665.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replaces a file atomically by writing a sibling temporary file and renaming it over the target.
+ * Readers therefore only ever see the previous or the new complete contents.
+ * When data is forced to the disk is controlled by the {@link DurabilityMode}.
+ * One writer can also replace other files, such as the shards of a sharded store, so they share
+ * its durability mode and background syncer.
+ */
+public class AtomicFileWriter implements Closeable {
+    /** System property overriding the interval used by {@link DurabilityMode#SYNC_INTERVAL}. */
+    public static final String SYNC_INTERVAL_PROPERTY = "duemanager.sync.interval.ms";
+    /** Default fsync interval for {@link DurabilityMode#SYNC_INTERVAL}. */
+    public static final long DEFAULT_SYNC_INTERVAL_MILLIS = 1000;
+
+    /**
+     * Produces the contents of the file.
+     */
+    public interface ContentWriter {
+        /**
+         * Writes the complete file contents to the channel.
+         *
+         * @param channel The channel of the temporary file
+         * @throws IOException if writing fails
+         */
+        void writeTo(WritableByteChannel channel) throws IOException;
+    }
+
+    private final Path target;
+    private final Path tempFile;
+    private final DurabilityMode mode;
+    private final ScheduledExecutorService syncer;
+    // Directories holding renames since the last sync, only tracked by SYNC_INTERVAL
+    private final Set<Path> unsynced = new LinkedHashSet<>();
+
+    /**
+     * Creates a writer for the target file using the default sync interval.
+     *
+     * @param target The file to replace on every write
+     * @param mode   The durability mode
+     */
+    public AtomicFileWriter(Path target, DurabilityMode mode) {
+        this(target, mode, Long.getLong(SYNC_INTERVAL_PROPERTY, DEFAULT_SYNC_INTERVAL_MILLIS));
+    }
+
+    /**
+     * Creates a writer for the target file.
+     *
+     * @param target             The file to replace on every write
+     * @param mode               The durability mode
+     * @param syncIntervalMillis The fsync interval, only used by {@link DurabilityMode#SYNC_INTERVAL}
+     * @throws IllegalArgumentException if the interval is not positive in interval mode
+     */
+    public AtomicFileWriter(Path target, DurabilityMode mode, long syncIntervalMillis) {
+        this.target = target.toAbsolutePath();
+        this.tempFile = this.target.resolveSibling(this.target.getFileName() + ".tmp");
+        this.mode = mode;
+        if (mode == DurabilityMode.SYNC_INTERVAL) {
+            if (syncIntervalMillis <= 0) {
+                throw new IllegalArgumentException("Sync interval must be positive");
+            }
+            this.syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "due-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.syncer.scheduleWithFixedDelay(this::sync, syncIntervalMillis, syncIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.syncer = null;
+        }
+    }
+
+    /**
+     * Gets the file this writer replaces.
+     *
+     * @return the target path
+     */
+    public Path getTarget() {
+        return target;
+    }
+
+    /**
+     * Gets the temporary file used while a write is in progress.
+     *
+     * @return the temporary path
+     */
+    public Path getTempFile() {
+        return tempFile;
+    }
+
+    /**
+     * Gets the durability mode of this writer.
+     *
+     * @return the durability mode
+     */
+    public DurabilityMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Writes new contents and atomically swaps them in for the target file.
+     *
+     * @param content Produces the new file contents
+     * @throws IOException if the contents cannot be written or moved into place
+     */
+    public void write(ContentWriter content) throws IOException {
+        write(target, content);
+    }
+
+    /**
+     * Writes new contents and atomically swaps them in for another file, using a temporary
+     * file next to it and this writer's durability mode.
+     *
+     * @param file    The file to replace
+     * @param content Produces the new file contents
+     * @throws IOException if the contents cannot be written or moved into place
+     */
+    public synchronized void write(Path file, ContentWriter content) throws IOException {
+        Path destination = file.toAbsolutePath();
+        Path temp = destination.equals(target) ? tempFile
+                : destination.resolveSibling(destination.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            content.writeTo(channel);
+            if (mode != DurabilityMode.NONE) {
+                // The data must be durable before the rename can be; otherwise a power loss could
+                // keep the rename and lose the contents, replacing the last good file with an empty one
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        try {
+            Files.move(temp, destination, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, destination, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        if (mode == DurabilityMode.SYNC_EACH) {
+            syncDirectory(destination.getParent());
+        } else if (mode == DurabilityMode.SYNC_INTERVAL) {
+            unsynced.add(destination.getParent());
+        }
+    }
+
+    /**
+     * Forces the directories of the renames since the last sync to the disk. The renamed files'
+     * data was already forced before each rename.
+     */
+    public synchronized void sync() {
+        for (Path directory : unsynced) {
+            syncDirectory(directory);
+        }
+        unsynced.clear();
+    }
+
+    /**
+     * Stops the background syncer and forces any pending rename to the disk.
+     */
+    @Override
+    public void close() {
+        if (syncer != null) {
+            syncer.shutdown();
+        }
+        sync();
+    }
+
+    /**
+     * Forces the directory entry of a rename to the disk.
+     * Some platforms (e.g. Windows) cannot open directories; the rename is still atomic there.
+     *
+     * @param directory The directory holding the renamed file
+     */
+    private static void syncDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directory fsync is not supported on this platform
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: DueArchive.java
+ * Description: This class is responsible for the append-only file of archived dues.
+ */
+
+package edu.bu.met.cs665.storage;
+
+import edu.bu.met.cs665.model.Due;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Cold tier for dues that no longer need to be in memory.
+ * Dues are appended one JSON object per line and never rewritten, so archiving costs only the
+ * archived dues themselves. The file is read only when archived dues are asked for; if a due
+ * was archived more than once, as after a crash between archiving it and saving the working
+ * set, its last line wins. A line torn by a crash mid-append is skipped, and the next append
+ * starts on a new line so the torn line cannot swallow its first due.
+ */
+public class DueArchive {
+    private static final byte[] ID_PREFIX = "{\"id\":".getBytes(StandardCharsets.US_ASCII);
+
+    private final Path file;
+    private final DurabilityMode durability;
+
+    /**
+     * Creates an archive backed by the given file, which is created on the first append.
+     *
+     * @param file       The archive file
+     * @param durability Whether appends are forced to stable storage; any mode but NONE forces them
+     */
+    public DueArchive(Path file, DurabilityMode durability) {
+        this.file = file;
+        this.durability = durability;
+    }
+
+    /**
+     * Gets the file backing this archive.
+     *
+     * @return the archive file path
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Appends dues to the end of the archive.
+     *
+     * @param dues The dues to archive
+     * @throws IOException if the archive cannot be written
+     */
+    public synchronized void append(Collection<Due> dues) throws IOException {
+        boolean torn = endsTorn();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            DueJsonWriter writer = new DueJsonWriter(channel);
+            if (torn) {
+                writer.newLine();
+            }
+            for (Due due : dues) {
+                writer.writeDue(due);
+                writer.newLine();
+            }
+            writer.flush();
+            if (durability != DurabilityMode.NONE) {
+                channel.force(true);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the archive ends part way through a line, as after a crash mid-append.
+     *
+     * @return true if the file is not empty and its last byte is not a newline
+     * @throws IOException if the archive cannot be read
+     */
+    private boolean endsTorn() throws IOException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return false;
+            }
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, size - 1);
+            return last.get(0) != '\n';
+        }
+    }
+
+    /**
+     * Collects the IDs of the archived dues by reading only the start of each line.
+     *
+     * @return the archived IDs
+     * @throws IOException if the archive cannot be read
+     */
+    public BitSet readIds() throws IOException {
+        BitSet ids = new BitSet();
+        if (!Files.exists(file)) {
+            return ids;
+        }
+        byte[] content = Files.readAllBytes(file);
+        int lineStart = 0;
+        while (lineStart < content.length) {
+            int id = 0;
+            int position = lineStart + ID_PREFIX.length;
+            boolean matches = position < content.length;
+            for (int i = 0; matches && i < ID_PREFIX.length; i++) {
+                matches = content[lineStart + i] == ID_PREFIX[i];
+            }
+            while (matches && position < content.length && content[position] >= '0' && content[position] <= '9') {
+                id = id * 10 + (content[position++] - '0');
+            }
+            if (matches && position > lineStart + ID_PREFIX.length) {
+                ids.set(id);
+            }
+            while (position < content.length && content[position] != '\n') {
+                position++;
+            }
+            lineStart = position + 1;
+        }
+        return ids;
+    }
+
+    /**
+     * Reads every archived due, ordered by ID.
+     *
+     * @return a new list of the archived dues
+     * @throws IOException if the archive cannot be read
+     */
+    public List<Due> readAll() throws IOException {
+        return read(due -> true);
+    }
+
+    /**
+     * Reads the archived dues accepted by a filter, ordered by ID.
+     *
+     * @param filter The dues to keep
+     * @return a new list of the matching archived dues
+     * @throws IOException if the archive cannot be read
+     */
+    public List<Due> read(Predicate<Due> filter) throws IOException {
+        Map<Integer, Due> latest = new TreeMap<>();
+        if (!Files.exists(file)) {
+            return new ArrayList<>();
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Due due = parseLine(line);
+                if (due == null) {
+                    continue;
+                }
+                if (filter.test(due)) {
+                    latest.put(due.getId(), due);
+                } else {
+                    // A later copy that no longer matches replaces an earlier one that did
+                    latest.remove(due.getId());
+                }
+            }
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    /**
+     * Finds an archived due by its ID.
+     *
+     * @param id The ID of the due
+     * @return the due, or null if it is not archived
+     * @throws IOException if the archive cannot be read
+     */
+    public Due find(int id) throws IOException {
+        List<Due> found = read(due -> due.getId() == id);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /**
+     * Parses one archive line.
+     *
+     * @param line The line
+     * @return the due, or null for a blank or torn line
+     */
+    private static Due parseLine(String line) {
+        if (line.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return DueJsonFormat.readDue(new JSONObject(line));
+        } catch (JSONException | DateTimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: DueJsonFormat.java
+ * Description: This class holds the shared constants of the stored due format.
+ */
+
+package edu.bu.met.cs665.storage;
+
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.model.RecurringDue;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+/**
+ * Constants shared by everything that reads or writes the stored due format.
+ * DateTimeFormatter is immutable and thread-safe, so one instance serves every caller.
+ */
+public final class DueJsonFormat {
+    /** Pattern of the "due_date" field, e.g. "2024-11-15 23:59". */
+    public static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private DueJsonFormat() {
+    }
+
+    /**
+     * Streams a stored array of dues and recurring dues, decompressing it if it was saved
+     * compressed. Entries are parsed one at a time, so neither the file nor its full JSON
+     * tree is ever held in memory.
+     *
+     * @param file   The stored file
+     * @param dues   Receives each one-off due
+     * @param series Receives each recurring due
+     * @throws IOException if the file cannot be read or decompressed
+     * @throws org.json.JSONException if the file is not a well-formed array of dues
+     * @throws java.time.DateTimeException if a date is malformed
+     */
+    public static void readArray(Path file, Consumer<Due> dues, Consumer<RecurringDue> series) throws IOException {
+        try (InputStream in = StorageCodec.decompressing(Files.newInputStream(file));
+             Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            JSONTokener tokener = new JSONTokener(reader);
+            if (tokener.nextClean() != '[') {
+                throw tokener.syntaxError("A JSON array text must start with '['");
+            }
+            char next = tokener.nextClean();
+            if (next != ']') {
+                tokener.back();
+                do {
+                    JSONObject json = new JSONObject(tokener);
+                    if (json.has("recurrence")) {
+                        series.accept(readRecurringDue(json));
+                    } else {
+                        dues.accept(readDue(json));
+                    }
+                    next = tokener.nextClean();
+                } while (next == ',');
+                if (next != ']') {
+                    throw tokener.syntaxError("Expected a ',' or ']'");
+                }
+            }
+            if (tokener.nextClean() != 0) {
+                throw tokener.syntaxError("Unexpected content after the array");
+            }
+        }
+    }
+
+    /**
+     * Reads a due from its stored JSON object. Optional fields are left null when absent.
+     *
+     * @param json The stored due
+     * @return the due
+     * @throws org.json.JSONException if a required field is missing or has the wrong type
+     * @throws java.time.format.DateTimeParseException if the due date is malformed
+     */
+    public static Due readDue(JSONObject json) {
+        Due.DueBuilder builder = new Due.DueBuilder(json.getInt("id"))
+                .course(json.getString("course"))
+                .title(json.getString("title"))
+                .dueDate(LocalDateTime.parse(json.getString("due_date"), DATE_TIME))
+                .completed(json.getBoolean("completed"));
+
+        // Add optional fields if they exist in JSON
+        if (json.has("location")) {
+            builder.location(json.getString("location"));
+        }
+        if (json.has("notes")) {
+            builder.notes(json.getString("notes"));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reads a recurring due stored as its shared fields plus a "recurrence" rule.
+     *
+     * @param json The stored series
+     * @return the series
+     * @throws org.json.JSONException if a required field is missing or has the wrong type
+     * @throws java.time.format.DateTimeParseException if a date is malformed
+     */
+    public static RecurringDue readRecurringDue(JSONObject json) {
+        JSONObject recurrence = json.getJSONObject("recurrence");
+        RecurringDue.RecurringDueBuilder builder = new RecurringDue.RecurringDueBuilder(json.getInt("id"))
+                .course(json.getString("course"))
+                .title(json.getString("title"))
+                .start(LocalDateTime.parse(json.getString("due_date"), DATE_TIME))
+                .everyWeeks(recurrence.optInt("every_weeks", 1))
+                .count(recurrence.optInt("count", 0));
+        JSONArray days = recurrence.optJSONArray("days");
+        for (int i = 0; days != null && i < days.length(); i++) {
+            builder.on(DayOfWeek.valueOf(days.getString(i)));
+        }
+        if (recurrence.has("until")) {
+            builder.until(LocalDate.parse(recurrence.getString("until")));
+        }
+        JSONArray completed = recurrence.optJSONArray("completed");
+        for (int i = 0; completed != null && i < completed.length(); i++) {
+            builder.completed(LocalDate.parse(completed.getString(i)));
+        }
+        if (json.has("location")) {
+            builder.location(json.getString("location"));
+        }
+        if (json.has("notes")) {
+            builder.notes(json.getString("notes"));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,441 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: DueJsonWriter.java
+ * Description: This class is responsible for streaming dues to a channel as JSON.
+ */
+
+package edu.bu.met.cs665.storage;
+
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.model.RecurringDue;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Streaming JSON serializer for dues.
+ * Encodes each due straight into a reusable byte buffer (UTF-8, escaped in place)
+ * and drains the buffer to the channel whenever it fills up, so a save never holds
+ * the whole document in memory and allocates nothing per record.
+ */
+public class DueJsonWriter implements Flushable {
+    /** Default size of the scratch buffer used when none is supplied. */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_ID = "{\"id\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_COURSE = ",\"course\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_TITLE = ",\"title\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_DUE_DATE = ",\"due_date\":\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_COMPLETED = ",\"completed\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_LOCATION = ",\"location\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_NOTES = ",\"notes\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_RECURRING = ",\"recurring\":true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_RECURRENCE =
+            ",\"recurrence\":{\"every_weeks\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_DAYS = ",\"days\":[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_UNTIL = ",\"until\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_COUNT = ",\"count\":".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] KEY_COMPLETED_DATES = ",\"completed\":[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private boolean firstElement = true;
+
+    /**
+     * Creates a new DueJsonWriter with its own scratch buffer.
+     *
+     * @param channel The channel to write the encoded JSON to
+     */
+    public DueJsonWriter(WritableByteChannel channel) {
+        this(channel, ByteBuffer.allocate(DEFAULT_BUFFER_SIZE));
+    }
+
+    /**
+     * Creates a new DueJsonWriter that encodes into a caller-owned scratch buffer.
+     * The buffer is cleared before use, which lets callers reuse it across saves.
+     *
+     * @param channel The channel to write the encoded JSON to
+     * @param buffer  The scratch buffer, at least 16 bytes
+     * @throws IllegalArgumentException if the buffer is too small
+     */
+    public DueJsonWriter(WritableByteChannel channel, ByteBuffer buffer) {
+        if (buffer.capacity() < 16) {
+            throw new IllegalArgumentException("Buffer must hold at least 16 bytes");
+        }
+        this.channel = channel;
+        this.buffer = buffer;
+        this.buffer.clear();
+    }
+
+    /**
+     * Writes the opening bracket of a JSON array.
+     *
+     * @throws IOException if the channel cannot be written
+     */
+    public void beginArray() throws IOException {
+        put((byte) '[');
+        firstElement = true;
+    }
+
+    /**
+     * Writes the closing bracket of a JSON array.
+     *
+     * @throws IOException if the channel cannot be written
+     */
+    public void endArray() throws IOException {
+        put((byte) ']');
+    }
+
+    /**
+     * Writes a due as an element of the current JSON array.
+     *
+     * @param due The due to write
+     * @throws IOException if the channel cannot be written
+     */
+    public void writeArrayElement(Due due) throws IOException {
+        if (!firstElement) {
+            put((byte) ',');
+        }
+        firstElement = false;
+        writeDue(due);
+    }
+
+    /**
+     * Writes a recurring due as an element of the current JSON array.
+     *
+     * @param recurringDue The series to write
+     * @throws IOException if the channel cannot be written
+     */
+    public void writeArrayElement(RecurringDue recurringDue) throws IOException {
+        if (!firstElement) {
+            put((byte) ',');
+        }
+        firstElement = false;
+        writeRecurringDue(recurringDue);
+    }
+
+    /**
+     * Writes a due as a standalone JSON object.
+     * Optional fields are omitted when they are null, matching the stored file format.
+     *
+     * @param due The due to write
+     * @throws IOException if the channel cannot be written
+     */
+    public void writeDue(Due due) throws IOException {
+        put(KEY_ID);
+        writeInt(due.getId());
+        put(KEY_COURSE);
+        writeString(due.getCourse());
+        put(KEY_TITLE);
+        writeString(due.getTitle());
+        put(KEY_DUE_DATE);
+        writeDateTime(due.getDueDate());
+        put((byte) '"');
+        put(KEY_COMPLETED);
+        put(due.isCompleted() ? TRUE : FALSE);
+        if (due.getLocation() != null) {
+            put(KEY_LOCATION);
+            writeString(due.getLocation());
+        }
+        if (due.getNotes() != null) {
+            put(KEY_NOTES);
+            writeString(due.getNotes());
+        }
+        if (due.isRecurring()) {
+            put(KEY_RECURRING);
+        }
+        put((byte) '}');
+    }
+
+    /**
+     * Writes a recurring due as a standalone JSON object: the shared fields, with the series
+     * start as its due date, and a "recurrence" object holding the rule and the dates of the
+     * completed occurrences.
+     *
+     * @param recurringDue The series to write
+     * @throws IOException if the channel cannot be written
+     */
+    public void writeRecurringDue(RecurringDue recurringDue) throws IOException {
+        put(KEY_ID);
+        writeInt(recurringDue.getId());
+        put(KEY_COURSE);
+        writeString(recurringDue.getCourse());
+        put(KEY_TITLE);
+        writeString(recurringDue.getTitle());
+        put(KEY_DUE_DATE);
+        writeDateTime(recurringDue.getStart());
+        put((byte) '"');
+        put(KEY_RECURRENCE);
+        writeInt(recurringDue.getIntervalWeeks());
+        put(KEY_DAYS);
+        boolean first = true;
+        for (DayOfWeek day : recurringDue.getDays()) {
+            if (!first) {
+                put((byte) ',');
+            }
+            first = false;
+            writeString(day.name());
+        }
+        put((byte) ']');
+        if (recurringDue.getUntil() != null) {
+            put(KEY_UNTIL);
+            writeDate(recurringDue.getUntil());
+        }
+        if (recurringDue.getCount() > 0) {
+            put(KEY_COUNT);
+            writeInt(recurringDue.getCount());
+        }
+        put(KEY_COMPLETED_DATES);
+        first = true;
+        for (LocalDate date : recurringDue.getCompletedDates()) {
+            if (!first) {
+                put((byte) ',');
+            }
+            first = false;
+            writeDate(date);
+        }
+        put((byte) ']');
+        put((byte) '}');
+        if (recurringDue.getLocation() != null) {
+            put(KEY_LOCATION);
+            writeString(recurringDue.getLocation());
+        }
+        if (recurringDue.getNotes() != null) {
+            put(KEY_NOTES);
+            writeString(recurringDue.getNotes());
+        }
+        put((byte) '}');
+    }
+
+    /**
+     * Writes a raw newline, used to separate records in line-oriented output.
+     *
+     * @throws IOException if the channel cannot be written
+     */
+    public void newLine() throws IOException {
+        put((byte) '\n');
+    }
+
+    /**
+     * Drains any buffered bytes to the channel.
+     *
+     * @throws IOException if the channel cannot be written
+     */
+    @Override
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Writes a JSON string literal, escaping and UTF-8 encoding it in place.
+     * A null value is written as the JSON literal null.
+     *
+     * @param value The string to write
+     * @throws IOException if the channel cannot be written
+     */
+    public void writeString(String value) throws IOException {
+        if (value == null) {
+            ensure(4);
+            buffer.put((byte) 'n').put((byte) 'u').put((byte) 'l').put((byte) 'l');
+            return;
+        }
+        put((byte) '"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            // Worst case per char is a six byte \\uXXXX escape
+            ensure(6);
+            if (c == '"' || c == '\\') {
+                buffer.put((byte) '\\').put((byte) c);
+            } else if (c < 0x20) {
+                writeControlChar(c);
+            } else if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogates cannot be encoded; keep them as escapes
+                writeUnicodeEscape(c);
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        put((byte) '"');
+    }
+
+    /**
+     * Writes a control character using its short escape when JSON defines one.
+     *
+     * @param c The control character
+     */
+    private void writeControlChar(char c) {
+        switch (c) {
+            case '\n':
+                buffer.put((byte) '\\').put((byte) 'n');
+                break;
+            case '\r':
+                buffer.put((byte) '\\').put((byte) 'r');
+                break;
+            case '\t':
+                buffer.put((byte) '\\').put((byte) 't');
+                break;
+            case '\b':
+                buffer.put((byte) '\\').put((byte) 'b');
+                break;
+            case '\f':
+                buffer.put((byte) '\\').put((byte) 'f');
+                break;
+            default:
+                writeUnicodeEscape(c);
+        }
+    }
+
+    /**
+     * Writes a character as a \\uXXXX escape. The caller must have ensured six bytes.
+     *
+     * @param c The character to escape
+     */
+    private void writeUnicodeEscape(char c) {
+        buffer.put((byte) '\\').put((byte) 'u');
+        buffer.put(HEX[(c >> 12) & 0xF]);
+        buffer.put(HEX[(c >> 8) & 0xF]);
+        buffer.put(HEX[(c >> 4) & 0xF]);
+        buffer.put(HEX[c & 0xF]);
+    }
+
+    /**
+     * Writes a decimal integer without going through a String.
+     *
+     * @param value The value to write
+     * @throws IOException if the channel cannot be written
+     */
+    private void writeInt(int value) throws IOException {
+        ensure(11);
+        long v = value;
+        if (v < 0) {
+            buffer.put((byte) '-');
+            v = -v;
+        }
+        long divisor = 1;
+        while (divisor * 10 <= v) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            buffer.put((byte) ('0' + (v / divisor)));
+            v %= divisor;
+            divisor /= 10;
+        }
+    }
+
+    /**
+     * Writes a date time in the stored "yyyy-MM-dd HH:mm" format.
+     *
+     * @param dateTime The date time to write
+     * @throws IOException if the channel cannot be written
+     */
+    private void writeDateTime(LocalDateTime dateTime) throws IOException {
+        int year = dateTime.getYear();
+        if (year < 0 || year > 9999) {
+            // Outside the fixed width pattern; fall back to the formatter for this rare case
+            byte[] formatted = dateTime.format(DueJsonFormat.DATE_TIME).getBytes(StandardCharsets.US_ASCII);
+            put(formatted);
+            return;
+        }
+        ensure(16);
+        putDigits(year / 100);
+        putDigits(year % 100);
+        buffer.put((byte) '-');
+        putDigits(dateTime.getMonthValue());
+        buffer.put((byte) '-');
+        putDigits(dateTime.getDayOfMonth());
+        buffer.put((byte) ' ');
+        putDigits(dateTime.getHour());
+        buffer.put((byte) ':');
+        putDigits(dateTime.getMinute());
+    }
+
+    /**
+     * Writes a date as a quoted ISO "yyyy-MM-dd" string.
+     *
+     * @param date The date to write
+     * @throws IOException if the channel cannot be written
+     */
+    private void writeDate(LocalDate date) throws IOException {
+        // Series are few and their exception sets sparse, so the formatter's allocation is fine here
+        writeString(date.toString());
+    }
+
+    /**
+     * Writes a two digit, zero padded number. The caller must have ensured two bytes.
+     *
+     * @param value A value between 0 and 99
+     */
+    private void putDigits(int value) {
+        buffer.put((byte) ('0' + value / 10));
+        buffer.put((byte) ('0' + value % 10));
+    }
+
+    /**
+     * Writes a single byte.
+     *
+     * @param b The byte to write
+     * @throws IOException if the channel cannot be written
+     */
+    private void put(byte b) throws IOException {
+        ensure(1);
+        buffer.put(b);
+    }
+
+    /**
+     * Writes a constant byte sequence, draining the buffer as needed.
+     *
+     * @param bytes The bytes to write
+     * @throws IOException if the channel cannot be written
+     */
+    private void put(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            ensure(1);
+            int chunk = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, chunk);
+            offset += chunk;
+        }
+    }
+
+    /**
+     * Makes sure the buffer has room for the given number of bytes.
+     *
+     * @param bytes The number of bytes about to be written
+     * @throws IOException if the channel cannot be written
+     */
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,351 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: DueShardStore.java
+ * Description: This class is responsible for the sharded on-disk layout of the dues.
+ */
+
+package edu.bu.met.cs665.storage;
+
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.model.RecurringDue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A directory of JSON array files, each holding the dues of one month of due dates, plus a
+ * {@value #SERIES_SHARD} shard holding the recurring dues. Shards are independent, so they are
+ * parsed in parallel on a fork-join pool and a damaged shard costs only its own dues. Dues
+ * that change are mostly the upcoming ones, so most saves rewrite one or two small shards
+ * instead of the whole store. Every shard is replaced atomically through an
+ * {@link AtomicFileWriter}.
+ */
+public class DueShardStore {
+    /** Name of the shard holding the recurring dues. */
+    public static final String SERIES_SHARD = "recurring";
+    private static final String EXTENSION = ".json";
+
+    /**
+     * The contents of one shard as read from disk.
+     */
+    public static final class Shard {
+        private final String name;
+        private final List<Due> dues;
+        private final List<RecurringDue> series;
+        private final Exception error;
+
+        private Shard(String name, List<Due> dues, List<RecurringDue> series, Exception error) {
+            this.name = name;
+            this.dues = dues;
+            this.series = series;
+            this.error = error;
+        }
+
+        /**
+         * Gets the name of the shard, e.g. "2024-12".
+         *
+         * @return the shard name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the one-off dues of the shard.
+         *
+         * @return the dues, empty if the shard could not be read
+         */
+        public List<Due> getDues() {
+            return dues;
+        }
+
+        /**
+         * Gets the recurring dues of the shard.
+         *
+         * @return the series, empty if the shard could not be read
+         */
+        public List<RecurringDue> getSeries() {
+            return series;
+        }
+
+        /**
+         * Gets the reason the shard could not be read.
+         *
+         * @return the failure, or null if the shard was read
+         */
+        public Exception getError() {
+            return error;
+        }
+    }
+
+    private final Path directory;
+    private final AtomicFileWriter writer;
+    private final StorageCodec codec;
+
+    /**
+     * Creates a store over a directory, which is created on the first write.
+     *
+     * @param directory The directory holding the shards
+     * @param writer    Replaces shard files; its durability mode applies to every shard
+     * @param codec     Compresses the shards as they are written; any codec can be read
+     */
+    public DueShardStore(Path directory, AtomicFileWriter writer, StorageCodec codec) {
+        this.directory = directory;
+        this.writer = writer;
+        this.codec = codec;
+    }
+
+    /**
+     * Gets the directory holding the shards.
+     *
+     * @return the shard directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Checks if the shard directory exists.
+     *
+     * @return true if the store has been written
+     */
+    public boolean exists() {
+        return Files.isDirectory(directory);
+    }
+
+    /**
+     * Gets the name of the shard a due belongs to: the month of its due date.
+     *
+     * @param due The due
+     * @return the shard name, e.g. "2024-12"
+     */
+    public static String shardOf(Due due) {
+        return monthOf(due).toString();
+    }
+
+    /**
+     * Gets the month a due's shard covers.
+     *
+     * @param due The due
+     * @return the month of its due date
+     */
+    public static YearMonth monthOf(Due due) {
+        return YearMonth.of(due.getDueDate().getYear(), due.getDueDate().getMonth());
+    }
+
+    /**
+     * Gets the month a shard covers.
+     *
+     * @param name The shard name
+     * @return the month, or null for the series shard or a name that is not a month
+     */
+    public static YearMonth monthOfShard(String name) {
+        try {
+            return YearMonth.parse(name);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lists the shards on disk.
+     *
+     * @return the shard names, sorted
+     * @throws IOException if the directory cannot be listed
+     */
+    public SortedSet<String> listShards() throws IOException {
+        SortedSet<String> names = new TreeSet<>();
+        if (!exists()) {
+            return names;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                names.add(fileName.substring(0, fileName.length() - EXTENSION.length()));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Reads every shard on the common fork-join pool, so loading scales with the cores.
+     *
+     * @return the shards, in name order
+     * @throws IOException if the directory cannot be listed
+     */
+    public List<Shard> loadAll() throws IOException {
+        return loadAll(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Reads every shard on the given pool. Leftover temporary files of interrupted saves are
+     * removed first; the shards they were replacing still hold their last good copy.
+     *
+     * @param pool The pool parsing the shards
+     * @return the shards, in name order
+     * @throws IOException if the directory cannot be listed
+     */
+    public List<Shard> loadAll(ForkJoinPool pool) throws IOException {
+        if (!exists()) {
+            return new ArrayList<>();
+        }
+        try (DirectoryStream<Path> temps = Files.newDirectoryStream(directory, "*.tmp")) {
+            for (Path temp : temps) {
+                Files.deleteIfExists(temp);
+            }
+        }
+        List<String> names = new ArrayList<>(listShards());
+        return pool.invoke(new LoadTask(names, 0, names.size()));
+    }
+
+    /**
+     * Replaces one shard with the given contents, or deletes it if they are empty.
+     *
+     * @param name   The shard name
+     * @param dues   The one-off dues of the shard
+     * @param series The recurring dues of the shard
+     * @param buffer Scratch buffer for serialization
+     * @throws IOException if the shard cannot be written
+     */
+    public void write(String name, Collection<Due> dues, Collection<RecurringDue> series, ByteBuffer buffer)
+            throws IOException {
+        Path file = fileOf(name);
+        if (dues.isEmpty() && series.isEmpty()) {
+            Files.deleteIfExists(file);
+            return;
+        }
+        Files.createDirectories(directory);
+        writer.write(file, codec.compressing(channel -> {
+            DueJsonWriter json = new DueJsonWriter(channel, buffer);
+            json.beginArray();
+            for (Due due : dues) {
+                json.writeArrayElement(due);
+            }
+            for (RecurringDue recurringDue : series) {
+                json.writeArrayElement(recurringDue);
+            }
+            json.endArray();
+            json.flush();
+        }));
+    }
+
+    /**
+     * Moves an unreadable shard aside so that it can be inspected or recovered by hand.
+     *
+     * @param name The shard name
+     * @return the path the shard was moved to
+     * @throws IOException if the shard cannot be moved
+     */
+    public Path quarantine(String name) throws IOException {
+        Path corrupt = directory.resolve(name + EXTENSION + ".corrupt-" + System.currentTimeMillis());
+        Files.move(fileOf(name), corrupt, StandardCopyOption.REPLACE_EXISTING);
+        return corrupt;
+    }
+
+    /**
+     * Deletes every shard, and the directory if nothing else is left in it.
+     *
+     * @throws IOException if a shard cannot be deleted
+     */
+    public void deleteAll() throws IOException {
+        for (String name : listShards()) {
+            Files.deleteIfExists(fileOf(name));
+        }
+        try (DirectoryStream<Path> rest = Files.newDirectoryStream(directory)) {
+            if (rest.iterator().hasNext()) {
+                return;
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Gets the total size of the shards.
+     *
+     * @return the size in bytes
+     * @throws IOException if a shard cannot be measured
+     */
+    public long sizeInBytes() throws IOException {
+        long total = 0;
+        for (String name : listShards()) {
+            Path file = fileOf(name);
+            if (Files.exists(file)) {
+                total += Files.size(file);
+            }
+        }
+        return total;
+    }
+
+    private Path fileOf(String name) {
+        return directory.resolve(name + EXTENSION);
+    }
+
+    /**
+     * Parses one shard, reporting a failure in the result rather than throwing so that the
+     * other shards still load.
+     *
+     * @param name The shard name
+     * @return the shard contents
+     */
+    private Shard read(String name) {
+        try {
+            List<Due> dues = new ArrayList<>();
+            List<RecurringDue> series = new ArrayList<>();
+            DueJsonFormat.readArray(fileOf(name), dues::add, series::add);
+            return new Shard(name, dues, series, null);
+        } catch (Exception e) {
+            return new Shard(name, Collections.<Due>emptyList(), Collections.<RecurringDue>emptyList(), e);
+        }
+    }
+
+    /**
+     * Splits a run of shards in halves until each task parses a single shard.
+     */
+    private final class LoadTask extends RecursiveTask<List<Shard>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> names;
+        private final int from;
+        private final int to;
+
+        LoadTask(List<String> names, int from, int to) {
+            this.names = names;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Shard> compute() {
+            if (to - from <= 1) {
+                List<Shard> shards = new ArrayList<>(1);
+                if (from < to) {
+                    shards.add(read(names.get(from)));
+                }
+                return shards;
+            }
+            int middle = (from + to) >>> 1;
+            LoadTask left = new LoadTask(names, from, middle);
+            left.fork();
+            List<Shard> shards = new LoadTask(names, middle, to).compute();
+            List<Shard> merged = left.join();
+            merged.addAll(shards);
+            return merged;
+        }
+    }
+}
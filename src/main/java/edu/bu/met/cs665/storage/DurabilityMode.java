@@ -0,0 +1,58 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: DurabilityMode.java
+ * Description: This enum defines how hard a save works to reach stable storage.
+ */
+
+package edu.bu.met.cs665.storage;
+
+/**
+ * Durability levels for atomic saves.
+ * Every mode writes to a temporary file and renames it over the target, so a process crash
+ * never leaves a torn file behind; the modes differ in when data is forced to the disk.
+ */
+public enum DurabilityMode {
+    /** Never fsync. Fastest; a power loss may drop recent saves. */
+    NONE,
+    /** Fsync the data and the directory on every save. Slowest; nothing acknowledged is lost. */
+    SYNC_EACH,
+    /**
+     * Fsync the data on every save but the directory only once per interval in the background.
+     * A power loss may undo the renames of the last interval, leaving the previous complete
+     * file, but never keeps a rename whose data is missing.
+     */
+    SYNC_INTERVAL;
+
+    /** System property selecting the durability mode, e.g. -Dduemanager.durability=sync_each. */
+    public static final String PROPERTY = "duemanager.durability";
+
+    /**
+     * Parses a durability mode name, ignoring case and accepting dashes for underscores.
+     *
+     * @param name The mode name, e.g. "sync-each"
+     * @return the matching mode
+     * @throws IllegalArgumentException if the name does not match any mode
+     */
+    public static DurabilityMode parse(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Durability mode cannot be null");
+        }
+        try {
+            return valueOf(name.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown durability mode: " + name);
+        }
+    }
+
+    /**
+     * Gets the durability mode configured through the system property, defaulting to NONE.
+     *
+     * @return the configured mode
+     */
+    public static DurabilityMode fromSystemProperty() {
+        String value = System.getProperty(PROPERTY);
+        return value == null ? NONE : parse(value);
+    }
+}
@@ -0,0 +1,213 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: StorageCodec.java
+ * Description: This enum defines how saved dues are compressed.
+ */
+
+package edu.bu.met.cs665.storage;
+
+import java.io.BufferedInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compression of the saved dues. Compression streams between the serializer and the file in
+ * both directions, so neither side ever holds the whole file in memory. Every codec is
+ * recognized by the first bytes of a file, so a store can be read whatever codec wrote it and
+ * switching codecs needs no conversion. Another codec is added as another constant with its
+ * own streams and header check.
+ */
+public enum StorageCodec {
+    /** Plain JSON. Default; readable by hand. */
+    NONE {
+        @Override
+        OutputStream compress(OutputStream out) {
+            return out;
+        }
+
+        @Override
+        InputStream decompress(InputStream in) {
+            return in;
+        }
+
+        @Override
+        boolean matches(int first, int second) {
+            return false;
+        }
+    },
+    /** GZIP at the default level. Smallest; the files can be read with standard tools such as zcat. */
+    GZIP {
+        @Override
+        OutputStream compress(OutputStream out) throws IOException {
+            return new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+
+        @Override
+        InputStream decompress(InputStream in) throws IOException {
+            return new GZIPInputStream(in, BUFFER_SIZE);
+        }
+
+        @Override
+        boolean matches(int first, int second) {
+            return first == 0x1f && second == 0x8b;
+        }
+    },
+    /** Zlib deflate at the fastest level. Saves much faster than GZIP for a slightly larger file. */
+    DEFLATE {
+        @Override
+        OutputStream compress(OutputStream out) {
+            return new DeflaterOutputStream(out, new Deflater(Deflater.BEST_SPEED), BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    // The Deflater is ours rather than the stream's default, so it must be freed here
+                    try {
+                        super.close();
+                    } finally {
+                        def.end();
+                    }
+                }
+            };
+        }
+
+        @Override
+        InputStream decompress(InputStream in) {
+            return new InflaterInputStream(in, new Inflater(), BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        inf.end();
+                    }
+                }
+            };
+        }
+
+        @Override
+        boolean matches(int first, int second) {
+            // A zlib header: deflate with a 32K window, and a check making the pair a multiple of 31
+            return first == 0x78 && ((first << 8) | second) % 31 == 0;
+        }
+    };
+
+    /** System property selecting the codec used for saves, e.g. -Dduemanager.storage.codec=gzip. */
+    public static final String PROPERTY = "duemanager.storage.codec";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Wraps a stream so that what is written to it is compressed.
+     *
+     * @param out The stream receiving compressed bytes
+     * @return the compressing stream
+     * @throws IOException if the header cannot be written
+     */
+    abstract OutputStream compress(OutputStream out) throws IOException;
+
+    /**
+     * Wraps a stream so that what is read from it is decompressed.
+     *
+     * @param in The stream of compressed bytes
+     * @return the decompressing stream
+     * @throws IOException if the header cannot be read
+     */
+    abstract InputStream decompress(InputStream in) throws IOException;
+
+    /**
+     * Checks if the first two bytes of a file are this codec's header.
+     *
+     * @param first  The first byte, or -1 at the end of the file
+     * @param second The second byte, or -1 at the end of the file
+     * @return true if the file was written with this codec
+     */
+    abstract boolean matches(int first, int second);
+
+    /**
+     * Wraps a content writer so that the contents it writes reach the file compressed.
+     *
+     * @param content Produces the uncompressed contents
+     * @return a content writer producing the compressed contents
+     */
+    public AtomicFileWriter.ContentWriter compressing(AtomicFileWriter.ContentWriter content) {
+        if (this == NONE) {
+            return content;
+        }
+        return channel -> {
+            // Closing the codec stream finishes it and frees its native memory; the file
+            // channel itself stays open for the writer to force and close
+            OutputStream file = new FilterOutputStream(Channels.newOutputStream(channel)) {
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    out.write(bytes, offset, length);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+            try (OutputStream compressed = compress(file)) {
+                content.writeTo(Channels.newChannel(compressed));
+            }
+        };
+    }
+
+    /**
+     * Opens a stored file for reading, detecting and undoing its compression.
+     *
+     * @param in The raw file contents
+     * @return a stream of the uncompressed contents; closing it closes the file
+     * @throws IOException if the file cannot be read
+     */
+    public static InputStream decompressing(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+        buffered.mark(2);
+        int first = buffered.read();
+        int second = buffered.read();
+        buffered.reset();
+        for (StorageCodec codec : values()) {
+            if (codec.matches(first, second)) {
+                return codec.decompress(buffered);
+            }
+        }
+        return buffered;
+    }
+
+    /**
+     * Parses a codec name, ignoring case.
+     *
+     * @param name The codec name, e.g. "gzip"
+     * @return the matching codec
+     * @throws IllegalArgumentException if the name does not match any codec
+     */
+    public static StorageCodec parse(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Storage codec cannot be null");
+        }
+        try {
+            return valueOf(name.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown storage codec: " + name);
+        }
+    }
+
+    /**
+     * Gets the codec configured through the system property, defaulting to NONE.
+     *
+     * @return the configured codec
+     */
+    public static StorageCodec fromSystemProperty() {
+        String value = System.getProperty(PROPERTY);
+        return value == null ? NONE : parse(value);
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Name: Raymond Chen
+ * Course: CS-665 Software Designs & Patterns
+ * Date: 10/18/2026
+ * File Name: StorageLayout.java
+ * Description: This enum defines how the dues are laid out on disk.
+ */
+
+package edu.bu.met.cs665.storage;
+
+/**
+ * On-disk layouts for the due store. A store opened with one layout but found in the other is
+ * read from what exists and rewritten in the configured layout.
+ */
+public enum StorageLayout {
+    /** One JSON file holding every due. Every save rewrites the whole store. */
+    SINGLE_FILE,
+    /**
+     * A directory of JSON files, one per month of due dates plus one for recurring dues.
+     * Shards are parsed in parallel on load and a save rewrites only the shards that changed.
+     */
+    MONTHLY_SHARDS;
+
+    /** System property selecting the layout, e.g. -Dduemanager.storage.layout=monthly-shards. */
+    public static final String PROPERTY = "duemanager.storage.layout";
+
+    /**
+     * Parses a layout name, ignoring case and accepting dashes for underscores.
+     *
+     * @param name The layout name, e.g. "monthly-shards"
+     * @return the matching layout
+     * @throws IllegalArgumentException if the name does not match any layout
+     */
+    public static StorageLayout parse(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Storage layout cannot be null");
+        }
+        try {
+            return valueOf(name.trim().toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown storage layout: " + name);
+        }
+    }
+
+    /**
+     * Gets the layout configured through the system property, defaulting to SINGLE_FILE.
+     *
+     * @return the configured layout
+     */
+    public static StorageLayout fromSystemProperty() {
+        String value = System.getProperty(PROPERTY);
+        return value == null ? SINGLE_FILE : parse(value);
+    }
+}
@@ -0,0 +1,249 @@
+package edu.bu.met.cs665;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the OpenRouter chat completions endpoint.
+ * Each request takes the next scripted reply, or the default reply once the script is empty,
+ * so tests can inject latency, error statuses, Retry-After headers and streamed (SSE) replies.
+ * A {@link Responder} can instead compute the default reply from each request, which lets
+ * benchmarks mimic a real model with latency distributions and error rates.
+ */
+public class OpenRouterStub implements AutoCloseable {
+    /**
+     * A scripted reply.
+     */
+    public static final class Reply {
+        private final int status;
+        private final String body;
+        private final long delayMillis;
+        private final String retryAfter;
+        private final String[] events;
+        private final long eventGapMillis;
+
+        private Reply(int status, String body, long delayMillis, String retryAfter) {
+            this(status, body, delayMillis, retryAfter, null, 0);
+        }
+
+        private Reply(int status, String body, long delayMillis, String retryAfter, String[] events,
+                      long eventGapMillis) {
+            this.status = status;
+            this.body = body;
+            this.delayMillis = delayMillis;
+            this.retryAfter = retryAfter;
+            this.events = events;
+            this.eventGapMillis = eventGapMillis;
+        }
+
+        /**
+         * A streamed completion sending each piece of content as a server-sent event delta,
+         * pausing between events, and ending with "[DONE]".
+         */
+        public static Reply stream(long gapMillis, String... contentPieces) {
+            String[] events = new String[contentPieces.length + 1];
+            for (int i = 0; i < contentPieces.length; i++) {
+                JSONObject delta = new JSONObject().put("content", contentPieces[i]);
+                JSONObject choice = new JSONObject().put("index", 0).put("delta", delta);
+                events[i] = new JSONObject().put("choices", new JSONArray().put(choice)).toString();
+            }
+            events[contentPieces.length] = "[DONE]";
+            return new Reply(200, null, 0, null, events, gapMillis);
+        }
+
+        /**
+         * A stream of raw server-sent event data, for malformed streams; nothing is added.
+         */
+        public static Reply events(String... data) {
+            return new Reply(200, null, 0, null, data, 0);
+        }
+
+        /**
+         * A successful completion whose message content is the given text.
+         */
+        public static Reply completion(String content) {
+            JSONObject message = new JSONObject().put("role", "assistant").put("content", content);
+            JSONObject choice = new JSONObject().put("index", 0).put("message", message);
+            return new Reply(200, new JSONObject().put("choices", new JSONArray().put(choice)).toString(), 0, null);
+        }
+
+        /**
+         * An error status with an OpenRouter-style error body.
+         */
+        public static Reply status(int status) {
+            JSONObject error = new JSONObject().put("code", status).put("message", "stub error " + status);
+            return new Reply(status, new JSONObject().put("error", error).toString(), 0, null);
+        }
+
+        /**
+         * This reply, sent after the given delay.
+         */
+        public Reply delayed(long millis) {
+            return new Reply(status, body, millis, retryAfter, events, eventGapMillis);
+        }
+
+        /**
+         * This reply with a Retry-After header.
+         */
+        public Reply retryAfter(String value) {
+            return new Reply(status, body, delayMillis, value, events, eventGapMillis);
+        }
+    }
+
+    /**
+     * Computes a reply from the JSON body of a request.
+     */
+    public interface Responder {
+        /**
+         * Answers one request.
+         */
+        Reply respond(JSONObject request);
+    }
+
+    static {
+        // Without TCP_NODELAY the header and body writes meet delayed ACKs, adding ~40 ms a reply
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final Deque<Reply> script = new ArrayDeque<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile Responder defaultResponder = request -> Reply.status(500);
+
+    /**
+     * Starts the stub on an ephemeral loopback port.
+     */
+    public OpenRouterStub() throws IOException {
+        this(0);
+    }
+
+    /**
+     * Starts the stub on the given loopback port.
+     */
+    public OpenRouterStub(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/api/v1/chat/completions", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "openrouter-stub");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+    }
+
+    /**
+     * Gets the base URL to hand to the client.
+     */
+    public String getBaseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1";
+    }
+
+    /**
+     * Queues replies for the next requests.
+     */
+    public synchronized OpenRouterStub then(Reply... replies) {
+        for (Reply reply : replies) {
+            script.add(reply);
+        }
+        return this;
+    }
+
+    /**
+     * Sets the reply used once the script is empty.
+     */
+    public OpenRouterStub otherwise(Reply reply) {
+        return otherwise(request -> reply);
+    }
+
+    /**
+     * Sets the responder used once the script is empty.
+     */
+    public OpenRouterStub otherwise(Responder responder) {
+        defaultResponder = responder;
+        return this;
+    }
+
+    /**
+     * Gets the number of requests received.
+     */
+    public int getRequestCount() {
+        return requests.get();
+    }
+
+    private synchronized Reply nextScripted() {
+        return script.poll();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            // Read the whole request so the client is not blocked writing it
+            ByteArrayOutputStream request = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            for (int read; (read = exchange.getRequestBody().read(buffer)) != -1; ) {
+                request.write(buffer, 0, read);
+            }
+            Reply reply = nextScripted();
+            if (reply == null) {
+                String text = new String(request.toByteArray(), StandardCharsets.UTF_8);
+                reply = defaultResponder.respond(text.isEmpty() ? new JSONObject() : new JSONObject(text));
+            }
+            if (reply.delayMillis > 0) {
+                Thread.sleep(reply.delayMillis);
+            }
+            if (reply.retryAfter != null) {
+                exchange.getResponseHeaders().set("Retry-After", reply.retryAfter);
+            }
+            if (reply.events != null) {
+                sendEvents(exchange, reply);
+                return;
+            }
+            byte[] bytes = reply.body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(reply.status, bytes.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // The client gave up (e.g. timed out) before the reply was sent
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void sendEvents(HttpExchange exchange, Reply reply) throws IOException, InterruptedException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream body = exchange.getResponseBody()) {
+            body.write(": OPENROUTER PROCESSING\n\n".getBytes(StandardCharsets.UTF_8));
+            body.flush();
+            for (String event : reply.events) {
+                Thread.sleep(reply.eventGapMillis);
+                body.write(("data: " + event + "\n\n").getBytes(StandardCharsets.UTF_8));
+                body.flush();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -13,7 +13,11 @@ import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.io.IOException;
+import edu.bu.met.cs665.service.DueChangeEvent;
+
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class TestCommand {
@@ -117,26 +121,26 @@ public class TestCommand {
     public void testMarkCompletedCommand() {
         // Given a due in the manager
         dueManager.addDue(testDue);
-        MarkCompletedCommand markCommand = new MarkCompletedCommand(testDue);
+        MarkCompletedCommand markCommand = new MarkCompletedCommand(dueManager, testDue);
 
         // When executing the mark completed command
         commandHistory.executeCommand(markCommand);
 
         // Then the due should be marked as completed
-        assertTrue(testDue.isCompleted());
+        assertTrue(dueManager.getDueById(testDue.getId()).isCompleted());
 
         // When undoing the mark completed
         commandHistory.undo();
 
         // Then the due should be marked as not completed
-        assertFalse(testDue.isCompleted());
+        assertFalse(dueManager.getDueById(testDue.getId()).isCompleted());
     }
 
     @Test
     public void testCommandHistory() {
         // Given a series of commands
         AddDueCommand addCommand = new AddDueCommand(dueManager, testDue);
-        MarkCompletedCommand markCommand = new MarkCompletedCommand(testDue);
+        MarkCompletedCommand markCommand = new MarkCompletedCommand(dueManager, testDue);
 
         // When executing multiple commands
         commandHistory.executeCommand(addCommand);
@@ -202,4 +206,50 @@ public class TestCommand {
         // Then nothing should happen (no exception should be thrown)
         assertTrue(dueManager.getAllDues().isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCommandsAndUndoRedoNotifyListeners() {
+        // Given a listener recording every change
+        List<String> events = new ArrayList<>();
+        List<DueChangeEvent> received = new ArrayList<>();
+        dueManager.addChangeListener(event -> {
+            events.add(event.getType() + " " + event.getDue().getId());
+            received.add(event);
+        });
+
+        // When a due is added, completed and removed, and every step is undone and redone
+        commandHistory.executeCommand(new AddDueCommand(dueManager, testDue));
+        commandHistory.executeCommand(new MarkCompletedCommand(dueManager, dueManager.getDueById(1)));
+        commandHistory.executeCommand(new RemoveDueCommand(dueManager, dueManager.getDueById(1)));
+        commandHistory.undo();
+        commandHistory.undo();
+        commandHistory.undo();
+        commandHistory.redo();
+
+        // Then each change should be announced in order, with versions that only grow
+        assertEquals(Arrays.asList("ADDED 1", "COMPLETED 1", "REMOVED 1",
+                "ADDED 1", "UNCOMPLETED 1", "REMOVED 1", "ADDED 1"), events);
+        assertFalse(received.get(1).getPrevious().isCompleted());
+        assertTrue(received.get(1).getDue().isCompleted());
+        for (int i = 1; i < received.size(); i++) {
+            assertTrue(received.get(i).getVersion() > received.get(i - 1).getVersion());
+        }
+    }
+
+    @Test
+    public void testFailingListenerDoesNotBlockChanges() {
+        // Given a listener that throws and one that counts
+        List<DueChangeEvent> received = new ArrayList<>();
+        dueManager.addChangeListener(event -> {
+            throw new IllegalStateException("boom");
+        });
+        dueManager.addChangeListener(received::add);
+
+        // When a due is added
+        commandHistory.executeCommand(new AddDueCommand(dueManager, testDue));
+
+        // Then the change should still apply and reach the other listener
+        assertNotNull(dueManager.getDueById(1));
+        assertEquals(1, received.size());
+    }
+}
@@ -0,0 +1,174 @@
+package edu.bu.met.cs665;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.model.RecurringDue;
+import edu.bu.met.cs665.service.DueDashboard;
+import edu.bu.met.cs665.service.DueDashboard.Bucket;
+import edu.bu.met.cs665.service.DueManager;
+import edu.bu.met.cs665.storage.DurabilityMode;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+public class TestDueDashboard {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DueManager manager;
+    private MutableClock clock;
+
+    /**
+     * A clock that tests can move forward.
+     */
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(LocalDateTime start) {
+            this.instant = start.toInstant(ZoneOffset.UTC);
+        }
+
+        private void set(LocalDateTime time) {
+            instant = time.toInstant(ZoneOffset.UTC);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    @Before
+    public void setUp() {
+        manager = new DueManager(folder.getRoot().toPath().resolve("dues.json"), DurabilityMode.NONE, null);
+        // A Tuesday
+        clock = new MutableClock(LocalDateTime.of(2024, 12, 10, 12, 0));
+    }
+
+    @After
+    public void tearDown() {
+        manager.close();
+    }
+
+    private static Due due(int id, LocalDateTime dueDate) {
+        return new Due.DueBuilder(id).course("CS665").title("Due " + id).dueDate(dueDate).build();
+    }
+
+    @Test
+    public void testCountsFollowChangesAndRollOverAtMidnight() {
+        // Given dues overdue, earlier today, tomorrow, in five days and next month
+        manager.addDue(due(1, LocalDateTime.of(2024, 12, 9, 23, 59)));
+        manager.addDue(due(2, LocalDateTime.of(2024, 12, 10, 9, 0)));
+        manager.addDue(due(3, LocalDateTime.of(2024, 12, 11, 23, 59)));
+        manager.addDue(due(4, LocalDateTime.of(2024, 12, 15, 23, 59)));
+        manager.addDue(due(5, LocalDateTime.of(2025, 1, 15, 23, 59)));
+        DueDashboard dashboard = new DueDashboard(manager, clock, false);
+
+        // When one due is completed, one removed, one added and one moved to later
+        manager.setCompleted(1, true);
+        manager.removeDue(5);
+        manager.addDue(due(6, LocalDateTime.of(2024, 12, 11, 8, 0)));
+        manager.addDue(due(4, LocalDateTime.of(2024, 12, 20, 23, 59)));
+
+        // Then each bucket should count only what is pending in it
+        DueDashboard.Summary summary = dashboard.getSummary();
+        assertEquals(0, summary.getCount(Bucket.OVERDUE));
+        assertEquals(1, summary.getCount(Bucket.TODAY));
+        assertEquals(2, summary.getCount(Bucket.TOMORROW));
+        assertEquals(0, summary.getCount(Bucket.THIS_WEEK));
+        assertEquals(1, summary.getCount(Bucket.LATER));
+        assertEquals(4, summary.getPending());
+
+        // When the day rolls over to Wednesday and later to the next Tuesday
+        clock.set(LocalDateTime.of(2024, 12, 11, 0, 0, 1));
+        DueDashboard.Summary wednesday = dashboard.getSummary();
+        clock.set(LocalDateTime.of(2024, 12, 17, 8, 0));
+        DueDashboard.Summary nextWeek = dashboard.getSummary();
+
+        // Then every due should shift along the buckets
+        assertEquals(1, wednesday.getCount(Bucket.OVERDUE));
+        assertEquals(2, wednesday.getCount(Bucket.TODAY));
+        assertEquals(0, wednesday.getCount(Bucket.TOMORROW));
+        assertEquals(1, wednesday.getCount(Bucket.LATER));
+        assertEquals(3, nextWeek.getCount(Bucket.OVERDUE));
+        assertEquals(1, nextWeek.getCount(Bucket.THIS_WEEK));
+        assertEquals(0, nextWeek.getCount(Bucket.LATER));
+        dashboard.close();
+    }
+
+    @Test
+    public void testRecurringOccurrencesCountWithinTheWeek() {
+        // Given a weekly series on Wednesdays and Fridays
+        manager.addRecurringDue(new RecurringDue.RecurringDueBuilder(1).course("CS665").title("Reading")
+                .start(LocalDateTime.of(2024, 9, 4, 18, 0)).weekly().on(DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY)
+                .build());
+        DueDashboard dashboard = new DueDashboard(manager, clock, false);
+        assertEquals(1, dashboard.getCount(Bucket.TOMORROW));
+        assertEquals(1, dashboard.getCount(Bucket.THIS_WEEK));
+        // Every Wednesday and Friday from Sep 4 to Dec 6 is still pending
+        assertEquals(28, dashboard.getCount(Bucket.OVERDUE));
+
+        // When tomorrow's occurrence is completed and the series later removed
+        manager.setOccurrenceCompleted(1, LocalDateTime.of(2024, 12, 11, 18, 0).toLocalDate(), true);
+        int afterCompletion = dashboard.getCount(Bucket.TOMORROW);
+        manager.removeRecurringDue(1);
+
+        // Then the counts should follow both changes
+        assertEquals(0, afterCompletion);
+        assertEquals(0, dashboard.getSummary().getPending());
+        dashboard.close();
+    }
+
+    @Test
+    public void testPastPendingOccurrencesAreOverdue() {
+        // Given a series on Mondays and Tuesdays since last week, with last Monday's done
+        manager.addRecurringDue(new RecurringDue.RecurringDueBuilder(1).course("CS665").title("Quiz")
+                .start(LocalDateTime.of(2024, 12, 2, 9, 0)).weekly().on(DayOfWeek.MONDAY, DayOfWeek.TUESDAY)
+                .completed(LocalDate.of(2024, 12, 2)).build());
+        DueDashboard dashboard = new DueDashboard(manager, clock, false);
+
+        // Then last Tuesday and yesterday should be overdue, and this morning's due today
+        assertEquals(2, dashboard.getCount(Bucket.OVERDUE));
+        assertEquals(1, dashboard.getCount(Bucket.TODAY));
+
+        // When last Tuesday's is completed and the day rolls over with today's still pending
+        manager.setOccurrenceCompleted(1, LocalDate.of(2024, 12, 3), true);
+        int afterCompletion = dashboard.getCount(Bucket.OVERDUE);
+        clock.set(LocalDateTime.of(2024, 12, 11, 0, 0, 1));
+        DueDashboard.Summary wednesday = dashboard.getSummary();
+
+        // Then the completion should leave the overdue count and today's occurrence join it
+        assertEquals(1, afterCompletion);
+        assertEquals(2, wednesday.getCount(Bucket.OVERDUE));
+        assertEquals(0, wednesday.getCount(Bucket.TODAY));
+
+        // And reopening a past occurrence or removing the series should be counted too
+        manager.setOccurrenceCompleted(1, LocalDate.of(2024, 12, 2), false);
+        assertEquals(3, dashboard.getCount(Bucket.OVERDUE));
+        manager.removeRecurringDue(1);
+        assertEquals(0, dashboard.getSummary().getPending());
+        dashboard.close();
+    }
+}
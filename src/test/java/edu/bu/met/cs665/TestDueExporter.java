@@ -0,0 +1,207 @@
+package edu.bu.met.cs665;
+
+import static org.junit.Assert.*;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import edu.bu.met.cs665.export.DueExporter;
+import edu.bu.met.cs665.export.ExportFormat;
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.model.RecurringDue;
+import edu.bu.met.cs665.query.DueQuery;
+import edu.bu.met.cs665.service.DueSnapshot;
+import edu.bu.met.cs665.storage.DueJsonFormat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+
+public class TestDueExporter {
+    private static Due due(int id, String course, String title, LocalDateTime dueDate) {
+        return new Due.DueBuilder(id).course(course).title(title).dueDate(dueDate).build();
+    }
+
+    private static String export(ExportFormat format, DueQuery query, Due... dues) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DueExporter.export(Arrays.asList(dues).iterator(), query, format, out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testJsonLinesRoundTripAndQueryFilters() throws IOException {
+        // Given dues in two courses and months, one with notes spanning lines
+        Due project = new Due.DueBuilder(1).course("CS665").title("Project").dueDate(LocalDateTime.of(2024, 12, 10, 23, 59))
+                .location("Room 101").notes("Submit \"final\" PDF\nand slides").build();
+        Due quiz = due(2, "CS544", "Quiz", LocalDateTime.of(2024, 12, 12, 10, 0));
+        Due finals = due(3, "CS665", "Final", LocalDateTime.of(2025, 1, 5, 9, 0));
+
+        // When CS665's December dues are exported as JSON Lines
+        DueQuery query = new DueQuery.Builder().course("cs665").dueBetween(LocalDate.of(2024, 12, 1),
+                LocalDate.of(2024, 12, 31)).build();
+        String text = export(ExportFormat.NDJSON, query, project, quiz, finals);
+
+        // Then one line should be written, reading back as the same due
+        String[] lines = text.split("\n");
+        assertEquals(1, lines.length);
+        assertTrue(text.endsWith("\n"));
+        Due read = DueJsonFormat.readDue(new JSONObject(lines[0]));
+        assertEquals(project.getNotes(), read.getNotes());
+        assertEquals(project.getDueDate(), read.getDueDate());
+        assertEquals("Room 101", read.getLocation());
+    }
+
+    @Test
+    public void testCsvQuotesOnlyWhenNeeded() throws IOException {
+        // Given dues with commas, quotes and line breaks in their text
+        Due plain = due(1, "CS665", "Assignment 5", LocalDateTime.of(2024, 12, 10, 23, 59));
+        Due tricky = new Due.DueBuilder(2).course("CS544").title("Read ch. 3, 4").completed(true)
+                .dueDate(LocalDateTime.of(2024, 12, 12, 10, 0)).notes("The \"observer\" one\r\nsee slides").build();
+
+        // When they are exported as CSV with a limit larger than the store
+        String text = export(ExportFormat.CSV, new DueQuery.Builder().limit(5).build(), plain, tricky);
+
+        // Then fields should be quoted and quotes doubled per RFC 4180, with CRLF rows
+        assertEquals("id,course,title,due_date,completed,location,notes\r\n"
+                + "1,CS665,Assignment 5,2024-12-10 23:59,false,,\r\n"
+                + "2,CS544,\"Read ch. 3, 4\",2024-12-12 10:00,true,,\"The \"\"observer\"\" one\r\nsee slides\"\r\n", text);
+    }
+
+    @Test
+    public void testIcsEscapesAndFoldsLongLines() throws IOException {
+        // Given a completed due with special characters and long, multi-byte notes
+        StringBuilder notes = new StringBuilder("Bring; pens, paper\nand ");
+        for (int i = 0; i < 40; i++) {
+            notes.append("é");
+        }
+        Due exam = new Due.DueBuilder(7).course("CS665").title("Exam").dueDate(LocalDateTime.of(2024, 12, 15, 9, 30))
+                .location("Room 101").notes(notes.toString()).completed(true).build();
+
+        // When it is exported as a calendar
+        String text = export(ExportFormat.ICS, new DueQuery.Builder().build(), exam);
+
+        // Then it should be one event with escaped text and no line over 75 octets
+        assertTrue(text.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"));
+        assertTrue(text.endsWith("END:VCALENDAR\r\n"));
+        assertTrue(text.contains("UID:due-7@duemanager\r\n"));
+        assertTrue(text.contains("DTSTART:20241215T093000\r\n"));
+        assertFalse(text.contains("DTEND"));
+        assertTrue(text.contains("CATEGORIES:CS665,Completed\r\n"));
+        assertTrue(text.contains("DESCRIPTION:Bring\\; pens\\, paper\\nand "));
+        for (String line : text.split("\r\n")) {
+            assertTrue(line, line.getBytes(StandardCharsets.UTF_8).length <= 75);
+        }
+        String unfolded = text.replace("\r\n ", "");
+        assertTrue(unfolded.contains(notes.substring(notes.indexOf("é"))));
+    }
+
+    @Test
+    public void testRecurringSeriesAreExportedInEveryFormat() throws IOException {
+        // Given a one-off due and two series, one starting on a Monday but due Tuesdays and Thursdays
+        Due project = due(1, "CS665", "Project", LocalDateTime.of(2024, 12, 20, 23, 59));
+        RecurringDue quiz = new RecurringDue.RecurringDueBuilder(2).course("CS665").title("Quiz")
+                .start(LocalDateTime.of(2024, 12, 2, 10, 0)).on(DayOfWeek.TUESDAY, DayOfWeek.THURSDAY).count(4)
+                .completed(LocalDate.of(2024, 12, 5)).build();
+        RecurringDue reading = new RecurringDue.RecurringDueBuilder(3).course("CS544").title("Reading")
+                .start(LocalDateTime.of(2024, 12, 2, 9, 0)).weekly().build();
+        DueSnapshot snapshot = DueSnapshot.of(Collections.singletonList(project), Arrays.asList(quiz, reading));
+        DueQuery cs665 = new DueQuery.Builder().course("CS665").build();
+
+        // When CS665 is exported in each format
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        long lines = DueExporter.export(snapshot, cs665, ExportFormat.NDJSON, ndjson);
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        long rows = DueExporter.export(snapshot, cs665, ExportFormat.CSV, csv);
+        ByteArrayOutputStream ics = new ByteArrayOutputStream();
+        DueExporter.export(snapshot, cs665, ExportFormat.ICS, ics);
+
+        // Then JSON Lines should carry the series as one record that reads back whole
+        assertEquals(2, lines);
+        String[] records = new String(ndjson.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        RecurringDue read = DueJsonFormat.readRecurringDue(new JSONObject(records[1]));
+        assertEquals(4, read.getCount());
+        assertEquals(quiz.getCompletedDates(), read.getCompletedDates());
+
+        // And CSV should have a row per occurrence with its own completion status
+        assertEquals(5, rows);
+        String table = new String(csv.toByteArray(), StandardCharsets.UTF_8);
+        assertTrue(table.contains("2,CS665,Quiz,2024-12-03 10:00,false,,\r\n2,CS665,Quiz,2024-12-05 10:00,true,,\r\n"));
+        assertTrue(table.contains("2,CS665,Quiz,2024-12-12 10:00,false,,\r\n"));
+
+        // And the calendar should hold a ruled event from the first occurrence plus a completed override
+        String calendar = new String(ics.toByteArray(), StandardCharsets.UTF_8);
+        assertEquals(3, calendar.split("BEGIN:VEVENT", -1).length - 1);
+        assertTrue(calendar.contains("UID:due-2@duemanager\r\nDTSTAMP:"));
+        assertTrue(calendar.contains("DTSTART:20241203T100000\r\nRRULE:FREQ=WEEKLY;BYDAY=TU,TH;COUNT=4\r\n"));
+        assertTrue(calendar.contains("RECURRENCE-ID:20241205T100000\r\nDTSTART:20241205T100000\r\n"));
+        assertFalse(calendar.contains("due-3@"));
+
+        // And a date range should keep only the occurrences inside it
+        DueQuery later = new DueQuery.Builder().course("CS665").dueBetween(LocalDate.of(2024, 12, 6),
+                LocalDate.of(2024, 12, 11)).build();
+        ByteArrayOutputStream window = new ByteArrayOutputStream();
+        assertEquals(1, DueExporter.export(snapshot, later, ExportFormat.CSV, window));
+        assertTrue(new String(window.toByteArray(), StandardCharsets.UTF_8).contains("2024-12-10 10:00"));
+    }
+
+    @Test
+    public void testIcsRuleEndsAtTheEarlierOfUntilAndCount() throws IOException {
+        // Given a biweekly series on every weekday with both an end date and a count
+        RecurringDue standup = new RecurringDue.RecurringDueBuilder(4).course("CS665").title("Standup")
+                .start(LocalDateTime.of(2024, 9, 2, 9, 0)).biweekly().on(DayOfWeek.values())
+                .until(LocalDate.of(2024, 12, 31)).count(10).build();
+        DueSnapshot snapshot = DueSnapshot.of(Collections.<Due>emptyList(), Collections.singletonList(standup));
+
+        // When it is exported as a calendar
+        ByteArrayOutputStream ics = new ByteArrayOutputStream();
+        DueExporter.export(snapshot, new DueQuery.Builder().build(), ExportFormat.ICS, ics);
+        String calendar = new String(ics.toByteArray(), StandardCharsets.UTF_8);
+
+        // Then the rule should end at the tenth occurrence, without COUNT, folded within 75 octets
+        assertTrue(calendar.replace("\r\n ", "").contains(
+                "RRULE:FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,TU,WE,TH,FR,SA,SU;UNTIL=20240918T235959\r\n"));
+        for (String line : calendar.split("\r\n")) {
+            assertTrue(line, line.length() <= 75);
+        }
+    }
+
+    @Test
+    public void testLargeStoreStreamsThroughBoundedBuffers() throws IOException {
+        // Given a store of 200,000 dues
+        Due[] dues = new Due[200_000];
+        for (int i = 0; i < dues.length; i++) {
+            dues[i] = due(i + 1, "CS" + (600 + i % 10), "Assignment " + i, LocalDateTime.of(2024, 9, 1, 23, 59)
+                    .plusHours(i % 5000));
+        }
+        DueSnapshot snapshot = DueSnapshot.of(Arrays.asList(dues), Collections.emptyList());
+
+        // When the store is exported to a stream that only counts bytes and write sizes
+        long[] bytes = new long[2];
+        OutputStream counting = new OutputStream() {
+            @Override
+            public void write(int b) {
+                bytes[0]++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                bytes[0] += len;
+                bytes[1] = Math.max(bytes[1], len);
+            }
+        };
+        Iterator<Due> iterator = snapshot.iterator();
+        long written = DueExporter.export(iterator, due -> true, ExportFormat.CSV, counting);
+
+        // Then every due should be written in chunks no larger than the exporter's buffer
+        assertEquals(dues.length, written);
+        assertTrue(bytes[0] > 200_000 * 30);
+        assertTrue(bytes[1] <= 8 * 1024 * 3);
+    }
+}
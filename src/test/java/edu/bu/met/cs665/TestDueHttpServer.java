@@ -0,0 +1,300 @@
+package edu.bu.met.cs665;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.bu.met.cs665.command.CommandHistory;
+import edu.bu.met.cs665.metrics.Metrics;
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.server.DueHttpServer;
+import edu.bu.met.cs665.service.DueManager;
+import edu.bu.met.cs665.storage.DurabilityMode;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class TestDueHttpServer {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DueManager dueManager;
+    private DueHttpServer server;
+    private String baseUrl;
+
+    @Before
+    public void setUp() throws IOException {
+        dueManager = new DueManager(folder.getRoot().toPath().resolve("dues.json"), DurabilityMode.NONE);
+        server = new DueHttpServer(dueManager, new CommandHistory(), new InetSocketAddress("127.0.0.1", 0), 2, 16);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+        dueManager.close();
+    }
+
+    private static final class Response {
+        private final int status;
+        private final String body;
+
+        private Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    private Response request(String method, String path, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            byte[] chunk = new byte[1024];
+            int read;
+            while ((read = in.read(chunk)) != -1) {
+                bytes.write(chunk, 0, read);
+            }
+        }
+        return new Response(status, new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testAddListCompleteRemoveAndUndo() throws IOException {
+        // When two dues are added
+        Response added = request("POST", "/dues",
+                "{\"course\":\"CS665\",\"title\":\"Project\",\"due_date\":\"2024-12-10 23:59\"}");
+        request("POST", "/dues", "{\"course\":\"CS544\",\"title\":\"Quiz\",\"due_date\":\"2024-12-20 10:00\"}");
+
+        // Then they should be created and listed
+        assertEquals(201, added.status);
+        assertEquals(1, new JSONObject(added.body).getInt("id"));
+        assertEquals(2, new JSONArray(request("GET", "/dues", null).body).length());
+
+        // And a range query should only return the first
+        JSONArray range = new JSONArray(request("GET", "/dues?from=2024-12-01&to=2024-12-15", null).body);
+        assertEquals(1, range.length());
+        assertEquals("Project", range.getJSONObject(0).getString("title"));
+
+        // When the first is completed, then it should be persisted as completed
+        Response completed = request("POST", "/dues/1/complete", null);
+        assertTrue(new JSONObject(completed.body).getBoolean("completed"));
+        assertTrue(new DueManager(dueManager.getSaveFile(), DurabilityMode.NONE).getDueById(1).isCompleted());
+
+        // When the second is removed and the removal undone, then it should be back
+        assertEquals(200, request("DELETE", "/dues/2", null).status);
+        assertEquals(404, request("GET", "/dues/2", null).status);
+        assertEquals(200, request("POST", "/undo", null).status);
+        assertEquals("Quiz", new JSONObject(request("GET", "/dues/2", null).body).getString("title"));
+    }
+
+    @Test
+    public void testArchivedDueCanBeReadButNotChanged() throws IOException {
+        // Given a completed due that has been archived
+        request("POST", "/dues", "{\"course\":\"CS665\",\"title\":\"Project\",\"due_date\":\"2024-12-10 23:59\"}");
+        request("POST", "/dues/1/complete", null);
+        assertEquals(1, dueManager.archiveDues(LocalDateTime.of(2024, 12, 15, 0, 0), Duration.ofDays(30)));
+
+        // Then it should still be readable
+        assertEquals("Project", new JSONObject(request("GET", "/dues/1", null).body).getString("title"));
+
+        // But completing or removing it should be refused without touching the store
+        Response removed = request("DELETE", "/dues/1", null);
+        assertEquals(404, removed.status);
+        assertTrue(removed.body, removed.body.contains("archived"));
+        assertEquals(404, request("POST", "/dues/1/complete", null).status);
+        assertEquals(0, dueManager.getSnapshot().size());
+        assertEquals(1, dueManager.getArchivedDues().size());
+    }
+
+    @Test
+    public void testFailureAfterHeadersAbortsTheResponse() throws IOException {
+        // Given a store whose range listing fails after the response has started
+        server.close();
+        dueManager.close();
+        dueManager = new DueManager(folder.getRoot().toPath().resolve("dues.json"), DurabilityMode.NONE) {
+            @Override
+            public List<Due> getDuesBetween(LocalDate from, LocalDate to) {
+                return new AbstractList<Due>() {
+                    @Override
+                    public Due get(int index) {
+                        if (index == 1) {
+                            throw new IllegalStateException("Store went away");
+                        }
+                        return new Due.DueBuilder(1).course("CS665").title("Project")
+                                .dueDate(LocalDateTime.of(2024, 12, 10, 23, 59)).build();
+                    }
+
+                    @Override
+                    public int size() {
+                        return 2;
+                    }
+                };
+            }
+        };
+        server = new DueHttpServer(dueManager, new CommandHistory(), new InetSocketAddress("127.0.0.1", 0), 2, 16);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getPort();
+        long aborted = Metrics.global().counter("http.aborted").sum();
+        long errors = Metrics.global().counter("http.status.5xx").sum();
+
+        // When the range is listed
+        HttpURLConnection connection =
+                (HttpURLConnection) new URL(baseUrl + "/dues?from=2024-12-01&to=2024-12-31").openConnection();
+        int status = connection.getResponseCode();
+        boolean truncated = false;
+        try (InputStream in = connection.getInputStream()) {
+            while (in.read() != -1) {
+                // Drain until the end, or until the connection is dropped
+            }
+        } catch (IOException e) {
+            truncated = true;
+        }
+
+        // Then the client should see the 200 cut short, counted as an abort and not a 5xx
+        assertEquals(200, status);
+        assertTrue(truncated);
+        assertEquals(aborted + 1, Metrics.global().counter("http.aborted").sum());
+        assertEquals(errors, Metrics.global().counter("http.status.5xx").sum());
+    }
+
+    @Test
+    public void testOverflowIsAnsweredWith503() throws Exception {
+        // Given a server with one worker and a queue of one, whose worker is stuck in a range listing
+        server.close();
+        dueManager.close();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        dueManager = new DueManager(folder.getRoot().toPath().resolve("dues.json"), DurabilityMode.NONE) {
+            @Override
+            public List<Due> getDuesBetween(LocalDate from, LocalDate to) {
+                entered.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Collections.emptyList();
+            }
+        };
+        server = new DueHttpServer(dueManager, new CommandHistory(), new InetSocketAddress("127.0.0.1", 0), 1, 1);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getPort();
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try {
+            Future<Response> running = clients.submit(() -> request("GET", "/dues?from=2024-12-01&to=2024-12-31", null));
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+            Future<Response> queued = clients.submit(() -> request("GET", "/dashboard", null));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (Metrics.global().gaugeValues().get("http.queue.depth") < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+
+            // When a third request arrives
+            HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + "/dashboard").openConnection();
+
+            // Then it should be turned away with a 503 while the others still complete
+            assertEquals(503, connection.getResponseCode());
+            assertEquals("1", connection.getHeaderField("Retry-After"));
+            release.countDown();
+            assertEquals(200, running.get(10, TimeUnit.SECONDS).status);
+            assertEquals(200, queued.get(10, TimeUnit.SECONDS).status);
+        } finally {
+            release.countDown();
+            clients.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBadRequestsAreRejected() throws IOException {
+        assertEquals(400, request("POST", "/dues", "{\"title\":\"No course\"}").status);
+        assertEquals(400, request("GET", "/dues/abc", null).status);
+        assertEquals(400, request("GET", "/dues?from=2024-13-01&to=2024-12-01", null).status);
+        assertEquals(404, request("POST", "/dues/99/complete", null).status);
+        assertEquals(409, request("POST", "/redo", null).status);
+        assertEquals(404, request("GET", "/nothing", null).status);
+    }
+
+    @Test
+    public void testListWithoutRangeIncludesRecurringDues() throws IOException {
+        // Given a one-off due and a weekly series starting today
+        request("POST", "/dues", "{\"course\":\"CS665\",\"title\":\"Project\",\"due_date\":\"2024-12-10 23:59\"}");
+        dueManager.addRecurringDue(dueManager.newRecurringDue().course("CS665").title("Reading")
+                .start(LocalDate.now().atTime(18, 0)).weekly().build());
+
+        // When every due is listed
+        JSONArray dues = new JSONArray(request("GET", "/dues", null).body);
+
+        // Then the series should be there with its occurrences up to four weeks out, as in the menu
+        assertEquals(1 + 5, dues.length());
+        assertEquals("Project", dues.getJSONObject(0).getString("title"));
+        for (int i = 1; i < dues.length(); i++) {
+            assertTrue(dues.getJSONObject(i).getBoolean("recurring"));
+        }
+        int shown = 0;
+        for (List<Due> day : dueManager.getDuesByDate().values()) {
+            shown += day.size();
+        }
+        assertEquals(shown, dues.length());
+    }
+
+    @Test
+    public void testExportAndDashboardReflectTheStore() throws IOException {
+        // Given dues in two courses
+        request("POST", "/dues", "{\"course\":\"CS665\",\"title\":\"Project\",\"due_date\":\"2024-12-10 23:59\"}");
+        request("POST", "/dues", "{\"course\":\"CS544\",\"title\":\"Quiz\",\"due_date\":\"2024-12-20 10:00\"}");
+        request("POST", "/dues", "{\"course\":\"CS665\",\"title\":\"Final\",\"due_date\":\"2025-01-05 09:00\"}");
+
+        // When one course in December is exported as a calendar and everything as JSON Lines
+        Response calendar = request("GET", "/export?format=ics&course=cs665&to=2024-12-31", null);
+        Response lines = request("GET", "/export", null);
+        Response pending = request("GET", "/export?format=csv&pending", null);
+
+        // Then only the matching due should become an event, and every due a line
+        assertEquals(200, calendar.status);
+        assertTrue(calendar.body.startsWith("BEGIN:VCALENDAR\r\n"));
+        assertTrue(calendar.body.contains("SUMMARY:CS665: Project\r\n"));
+        assertFalse(calendar.body.contains("Final"));
+        assertEquals(1, calendar.body.split("BEGIN:VEVENT", -1).length - 1);
+        String[] records = lines.body.split("\n");
+        assertEquals(3, records.length);
+        assertEquals("Quiz", new JSONObject(records[1]).getString("title"));
+        assertEquals(4, pending.body.split("\r\n").length);
+        JSONObject dashboard = new JSONObject(request("GET", "/dashboard", null).body);
+        assertEquals(3, dashboard.getInt("overdue"));
+        assertEquals(3, dashboard.getInt("pending"));
+        assertEquals(400, request("GET", "/export?format=ics&sort=due", null).status);
+        assertEquals(400, request("GET", "/export?format=pdf", null).status);
+    }
+}
@@ -0,0 +1,159 @@
+package edu.bu.met.cs665;
+
+import static org.junit.Assert.*;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.bu.met.cs665.OpenRouterStub.Reply;
+import edu.bu.met.cs665.client.CircuitBreaker;
+import edu.bu.met.cs665.client.LocalDueParser;
+import edu.bu.met.cs665.client.OpenRouterClient;
+import edu.bu.met.cs665.client.RetryPolicy;
+import edu.bu.met.cs665.command.CommandHistory;
+import edu.bu.met.cs665.ingest.DueIngestion;
+import edu.bu.met.cs665.service.DueManager;
+import edu.bu.met.cs665.storage.DurabilityMode;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class TestDueIngestion {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private OpenRouterStub stub;
+    private DueManager manager;
+    private CommandHistory history;
+
+    @Before
+    public void setUp() throws Exception {
+        stub = new OpenRouterStub();
+        manager = new DueManager(folder.getRoot().toPath().resolve("dues.json"), DurabilityMode.NONE, null);
+        history = new CommandHistory();
+    }
+
+    @After
+    public void tearDown() {
+        manager.close();
+        stub.close();
+    }
+
+    private DueIngestion ingestion(boolean streaming) {
+        return new DueIngestion(client(streaming), manager, history);
+    }
+
+    private OpenRouterClient client(boolean streaming) {
+        return new OpenRouterClient.Builder()
+                .baseUrl(stub.getBaseUrl())
+                .apiKey("test-key")
+                .streaming(streaming)
+                .retryPolicy(new RetryPolicy.Builder().maxAttempts(1).readTimeoutMillis(2000).build())
+                .circuitBreaker(new CircuitBreaker(100, 1))
+                .rateLimiter(null)
+                .build();
+    }
+
+    @Test
+    public void testStubModelAddsUndoableDue() {
+        // Given a stub that answers each request by parsing its prompt, like a model would
+        LocalDueParser parser = new LocalDueParser();
+        LocalDateTime now = LocalDateTime.of(2024, 12, 2, 9, 0);
+        stub.otherwise(request -> {
+            String content = request.getJSONArray("messages").getJSONObject(0).getString("content");
+            String prompt = content.substring(content.lastIndexOf(": ") + 2);
+            String answer = parser.parse(prompt, now);
+            return request.optBoolean("stream")
+                    ? Reply.stream(1, answer.substring(0, 10), answer.substring(10))
+                    : Reply.completion(answer);
+        });
+
+        // When a due is ingested plainly and another one streamed
+        DueIngestion.Result plain = ingestion(false).ingest("CS665 assignment 5 on 2024-12-10 5pm");
+        DueIngestion.Result streamed = ingestion(true).ingest("CS544 quiz 2 on 2024-12-12");
+
+        // Then both should be added through the command history
+        assertEquals(DueIngestion.Status.ADDED, plain.getStatus());
+        assertEquals("CS665", plain.getDue().getCourse());
+        assertEquals(LocalDateTime.of(2024, 12, 10, 17, 0), plain.getDue().getDueDate());
+        assertEquals(DueIngestion.Status.ADDED, streamed.getStatus());
+        assertEquals("CS544", streamed.getDue().getCourse());
+        assertEquals(2, manager.getSnapshot().size());
+        history.undo();
+        assertEquals(1, manager.getSnapshot().size());
+    }
+
+    @Test
+    public void testFailuresAreReportedWithoutAdding() {
+        // Given answers that are an error, lack a field, are not JSON, or do not fit a due
+        stub.then(Reply.completion(new JSONObject().put("error", "Not a due").toString()),
+                Reply.completion("{\"course\":\"CS665\",\"due_date\":\"2024-12-10 23:59\"}"),
+                Reply.completion("Sure! Here is your due."),
+                Reply.completion("{\"course\":\"CS665\",\"title\":\"A\",\"due_date\":\"next week\"}"));
+        DueIngestion ingestion = ingestion(false);
+
+        // When four requests are ingested
+        DueIngestion.Result rejected = ingestion.ingest("hello");
+        DueIngestion.Result missing = ingestion.ingest("CS665 on friday");
+        DueIngestion.Result invalid = ingestion.ingest("CS665 thing");
+        DueIngestion.Result failed = ingestion.ingest("CS665 A next week");
+
+        // Then each should say why, and nothing should be stored
+        assertEquals(DueIngestion.Status.REJECTED, rejected.getStatus());
+        assertEquals("Not a due", rejected.getDetail());
+        assertEquals(DueIngestion.Status.MISSING_FIELD, missing.getStatus());
+        assertEquals("title", missing.getDetail());
+        assertEquals(DueIngestion.Status.INVALID_RESPONSE, invalid.getStatus());
+        assertEquals(DueIngestion.Status.FAILED, failed.getStatus());
+        assertEquals(0, manager.getSnapshot().size());
+        assertFalse(history.canUndo());
+    }
+
+    @Test
+    public void testListIsParsedConcurrentlyAndAddedInOrder() {
+        // Given a model whose answers take longer the earlier the request, one of them an error
+        LocalDueParser parser = new LocalDueParser();
+        LocalDateTime now = LocalDateTime.of(2024, 12, 2, 9, 0);
+        stub.otherwise(request -> {
+            String content = request.getJSONArray("messages").getJSONObject(0).getString("content");
+            String prompt = content.substring(content.lastIndexOf(": ") + 2);
+            if (prompt.startsWith("hello")) {
+                return Reply.completion(new JSONObject().put("error", "Not a due").toString()).delayed(100);
+            }
+            int number = Integer.parseInt(prompt.split(" ")[2]);
+            return Reply.completion(parser.parse(prompt, now)).delayed(400 - 50 * number);
+        });
+        List<String> prompts = Arrays.asList("CS665 assignment 1 on 2024-12-10", "CS665 assignment 2 on 2024-12-11",
+                "hello", "CS665 assignment 4 on 2024-12-13", "CS665 assignment 5 on 2024-12-14",
+                "CS665 assignment 6 on 2024-12-15");
+        DueIngestion ingestion = new DueIngestion(client(false), () -> manager, history, 6);
+
+        // When the list is ingested at once
+        long start = System.nanoTime();
+        List<DueIngestion.Result> results = ingestion.ingestAll(prompts);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then it should take about the slowest answer, not the 1,350 ms of all of them
+        assertTrue("took " + elapsedMillis + " ms", elapsedMillis < 1000);
+        assertEquals(6, stub.getRequestCount());
+
+        // And the dues should be added in input order with the error reported in place
+        assertEquals(DueIngestion.Status.REJECTED, results.get(2).getStatus());
+        int previousId = 0;
+        for (int i : new int[] {0, 1, 3, 4, 5}) {
+            DueIngestion.Result result = results.get(i);
+            assertEquals(DueIngestion.Status.ADDED, result.getStatus());
+            assertEquals("Assignment " + (i + 1), result.getDue().getTitle());
+            assertTrue(result.getDue().getId() > previousId);
+            previousId = result.getDue().getId();
+        }
+        assertEquals(5, manager.getSnapshot().size());
+        assertEquals(5, history.getUndoDepth());
+    }
+}
@@ -23,7 +23,9 @@ import java.io.IOException;
 public class TestDueManagerApp {
     private DueManager dueManager;
     private static final String DUES_FILE = "dues.json";
+    private static final String ARCHIVE_FILE = DUES_FILE + ".archive";
     private File backupFile;
+    private File archiveBackupFile;
 
     @Before
     public void setUp() {
@@ -38,6 +40,17 @@ public class TestDueManagerApp {
                 System.err.println("Failed to backup dues file: " + e.getMessage());
             }
         }
+        // The archive gets the same treatment, so archived dues from one test do not leak into another
+        File archiveFile = new File(ARCHIVE_FILE);
+        if (archiveFile.exists()) {
+            archiveBackupFile = new File(ARCHIVE_FILE + ".backup");
+            try {
+                Files.copy(archiveFile.toPath(), archiveBackupFile.toPath());
+                archiveFile.delete();
+            } catch (IOException e) {
+                System.err.println("Failed to backup archive file: " + e.getMessage());
+            }
+        }
         dueManager = new DueManager();
     }
 
@@ -56,6 +69,15 @@ public class TestDueManagerApp {
                 System.err.println("Failed to restore dues file: " + e.getMessage());
             }
         }
+        new File(ARCHIVE_FILE).delete();
+        if (archiveBackupFile != null && archiveBackupFile.exists()) {
+            try {
+                Files.copy(archiveBackupFile.toPath(), Paths.get(ARCHIVE_FILE));
+                archiveBackupFile.delete();
+            } catch (IOException e) {
+                System.err.println("Failed to restore archive file: " + e.getMessage());
+            }
+        }
     }
 
     @Test
@@ -281,4 +303,52 @@ public class TestDueManagerApp {
         assertNull("Location should be null", due.getLocation());
         assertNull("Notes should be null", due.getNotes());
     }
-}
\ No newline at end of file
+
+    // Tests that saved dues survive a reload, including characters that need escaping.
+    @Test
+    public void testSaveAndReloadEscapedStrings() {
+        // Given a due whose text fields contain quotes, backslashes, control and non-ASCII characters
+        LocalDateTime dueDate = LocalDateTime.of(2024, 12, 5, 9, 7);
+        Due due = new Due.DueBuilder(7)
+                .course("CS665 \"Design\"")
+                .title("Line1\nLine2\tTabbed \\ slash")
+                .dueDate(dueDate)
+                .completed(true)
+                .location("Caf\u00e9 \u2615 \uD83D\uDCDA")
+                .notes("ctrl\u0001char")
+                .build();
+        dueManager.addDue(due);
+
+        // When a fresh manager loads the saved file
+        DueManager reloaded = new DueManager();
+
+        // Then every field should round trip unchanged
+        Due loaded = reloaded.findDue(7);
+        assertNotNull(loaded);
+        assertEquals(due.getCourse(), loaded.getCourse());
+        assertEquals(due.getTitle(), loaded.getTitle());
+        assertEquals(dueDate, loaded.getDueDate());
+        assertTrue(loaded.isCompleted());
+        assertEquals(due.getLocation(), loaded.getLocation());
+        assertEquals(due.getNotes(), loaded.getNotes());
+    }
+
+    // Tests that background startup hands out a readiness future for the loaded store.
+    @Test
+    public void testBackgroundStartupLoadsStore() throws Exception {
+        // Given a saved due
+        dueManager.addDue(new Due.DueBuilder(1)
+                .course("CS665")
+                .title("Assignment 1")
+                .dueDate(LocalDateTime.now().plusDays(1))
+                .completed(false)
+                .build());
+
+        // When the app starts in background mode
+        DueManagerApp app = new DueManagerApp(DueManagerApp.StartupMode.BACKGROUND);
+
+        // Then the readiness future should complete with the loaded store
+        DueManager loaded = app.getDueManagerReady().get(10, java.util.concurrent.TimeUnit.SECONDS);
+        assertEquals(1, loaded.getAllDues().size());
+    }
+}
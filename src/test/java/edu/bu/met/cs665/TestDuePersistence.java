@@ -0,0 +1,328 @@
+package edu.bu.met.cs665;
+
+import static org.junit.Assert.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.model.RecurringDue;
+import edu.bu.met.cs665.service.DueManager;
+import edu.bu.met.cs665.storage.DueArchive;
+import edu.bu.met.cs665.storage.DurabilityMode;
+import edu.bu.met.cs665.storage.StorageCodec;
+import edu.bu.met.cs665.storage.StorageLayout;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class TestDuePersistence {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Due newDue(int id) {
+        return new Due.DueBuilder(id)
+                .course("CS665")
+                .title("Assignment " + id)
+                .dueDate(LocalDateTime.of(2024, 12, id, 23, 59))
+                .completed(false)
+                .build();
+    }
+
+    @Test
+    public void testEveryDurabilityModeRoundTrips() throws IOException {
+        for (DurabilityMode mode : DurabilityMode.values()) {
+            // Given a manager using the durability mode
+            Path file = folder.newFolder(mode.name()).toPath().resolve("dues.json");
+            DueManager manager = new DueManager(file, mode);
+
+            // When dues are saved and the manager is closed
+            manager.addDue(newDue(1));
+            manager.addDue(newDue(2));
+            manager.close();
+
+            // Then a fresh manager should see them and no temporary file should remain
+            DueManager reloaded = new DueManager(file, mode);
+            assertEquals(mode.name(), 2, reloaded.getAllDues().size());
+            assertFalse(Files.exists(file.resolveSibling("dues.json.tmp")));
+            reloaded.close();
+        }
+    }
+
+    @Test
+    public void testCorruptFileIsMovedAsideNotOverwritten() throws IOException {
+        // Given a truncated dues file, as left behind by a crash under the old non-atomic save
+        Path file = folder.getRoot().toPath().resolve("dues.json");
+        String truncated = "[{\"id\":1,\"course\":\"CS665\",\"title\":\"Assign";
+        Files.write(file, truncated.getBytes(StandardCharsets.UTF_8));
+
+        // When the manager loads it and then saves
+        DueManager manager = new DueManager(file, DurabilityMode.NONE);
+        assertTrue(manager.getAllDues().isEmpty());
+        manager.addDue(newDue(1));
+
+        // Then the damaged contents should be preserved in a quarantine file
+        File[] quarantined = folder.getRoot().listFiles((dir, name) -> name.startsWith("dues.json.corrupt-"));
+        assertNotNull(quarantined);
+        assertEquals(1, quarantined.length);
+        assertEquals(truncated, new String(Files.readAllBytes(quarantined[0].toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testStaleTempFileIsIgnored() throws IOException {
+        // Given a good save and a half-written temporary file from an interrupted save
+        Path file = folder.getRoot().toPath().resolve("dues.json");
+        DueManager manager = new DueManager(file, DurabilityMode.SYNC_EACH);
+        manager.addDue(newDue(1));
+        Files.write(file.resolveSibling("dues.json.tmp"), "[{\"id\":".getBytes(StandardCharsets.UTF_8));
+
+        // When the store is reopened
+        DueManager reloaded = new DueManager(file, DurabilityMode.SYNC_EACH);
+
+        // Then the last good save should be loaded and the temporary file discarded
+        assertEquals(1, reloaded.getAllDues().size());
+        assertFalse(Files.exists(file.resolveSibling("dues.json.tmp")));
+    }
+
+    private static Due due(int id, LocalDateTime dueDate, boolean completed) {
+        return new Due.DueBuilder(id).course("CS665").title("Task " + id).dueDate(dueDate).completed(completed)
+                .build();
+    }
+
+    @Test
+    public void testDoneDuesMoveToArchive() throws IOException {
+        // Given completed and pending dues, some long past
+        Path file = folder.getRoot().toPath().resolve("dues.json");
+        LocalDateTime now = LocalDateTime.of(2024, 12, 1, 12, 0);
+        DueManager manager = new DueManager(file, DurabilityMode.NONE);
+        manager.addDue(due(1, now.minusDays(2), true));
+        manager.addDue(due(2, now.minusDays(45), false));
+        manager.addDue(due(3, now.plusDays(2), true));
+        manager.addDue(due(4, now.minusDays(2), false));
+
+        // When the done ones are archived with a 30 day retention
+        int archived = manager.archiveDues(now, Duration.ofDays(30));
+
+        // Then the completed past due and the stale one should leave the working set and the save file
+        assertEquals(2, archived);
+        assertEquals(2, manager.getAllDues().size());
+        assertFalse(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).contains("Task 1"));
+        assertEquals(2, Files.readAllLines(file.resolveSibling("dues.json.archive")).size());
+
+        // And they should still be found on demand, including after a restart
+        DueManager reloaded = new DueManager(file, DurabilityMode.NONE);
+        assertEquals(2, reloaded.getArchivedDues().size());
+        assertTrue(reloaded.findDue(1).isCompleted());
+        List<Due> november = reloaded.getArchivedDuesBetween(LocalDate.of(2024, 11, 1), LocalDate.of(2024, 11, 30));
+        assertEquals(1, november.size());
+        assertEquals(1, november.get(0).getId());
+
+        // And new dues should not reuse archived IDs
+        Due next = reloaded.createDueFromJson("{\"course\":\"CS665\",\"title\":\"New\",\"due_date\":\"2024-12-20 23:59\"}");
+        assertEquals(5, next.getId());
+    }
+
+    @Test
+    public void testArchivedDuesAreReadOnlyUntilPutBack() {
+        // Given a completed due that has been archived
+        Path file = folder.getRoot().toPath().resolve("dues.json");
+        LocalDateTime now = LocalDateTime.of(2024, 12, 1, 12, 0);
+        DueManager manager = new DueManager(file, DurabilityMode.NONE);
+        Due done = due(1, now.minusDays(2), true);
+        manager.addDue(done);
+        manager.archiveDues(now, Duration.ofDays(30));
+
+        // Then it should be found for reading but not as a due that can be changed
+        assertNull(manager.getDueById(1));
+        assertEquals("Task 1", manager.findDue(1).getTitle());
+        assertTrue(manager.isArchived(1));
+        assertFalse(manager.removeDue(1));
+
+        // When it is put back into the working set
+        manager.addDue(done);
+
+        // Then it should no longer count as archived, also after a restart
+        assertFalse(manager.isArchived(1));
+        assertTrue(manager.getArchivedDues().isEmpty());
+        DueManager reloaded = new DueManager(file, DurabilityMode.NONE);
+        assertFalse(reloaded.isArchived(1));
+        assertTrue(reloaded.getArchivedDues().isEmpty());
+        assertEquals("Task 1", reloaded.getDueById(1).getTitle());
+    }
+
+    @Test
+    public void testArchiveSurvivesTornAndRepeatedLines() throws IOException {
+        // Given an archive with a due archived twice, as after a crash before the save, and a torn last line
+        Path file = folder.getRoot().toPath().resolve("dues.json");
+        String archive = "{\"id\":1,\"course\":\"CS665\",\"title\":\"Old\",\"due_date\":\"2024-10-01 23:59\",\"completed\":false}\n"
+                + "{\"id\":1,\"course\":\"CS665\",\"title\":\"Old\",\"due_date\":\"2024-10-01 23:59\",\"completed\":true}\n"
+                + "{\"id\":2,\"course\":\"CS6";
+        Files.write(file.resolveSibling("dues.json.archive"), archive.getBytes(StandardCharsets.UTF_8));
+
+        // When the store is opened
+        DueManager manager = new DueManager(file, DurabilityMode.NONE);
+
+        // Then the last copy should win and the torn line should be ignored
+        List<Due> archived = manager.getArchivedDues();
+        assertEquals(1, archived.size());
+        assertTrue(archived.get(0).isCompleted());
+        assertNull(manager.getDueById(2));
+    }
+
+    @Test
+    public void testAppendAfterTornLineStartsOnANewLine() throws IOException {
+        // Given an archive whose last append was torn part way through its second due
+        Path file = folder.getRoot().toPath().resolve("dues.json.archive");
+        DueArchive archive = new DueArchive(file, DurabilityMode.NONE);
+        archive.append(Arrays.asList(newDue(1), newDue(2)));
+        long firstLine = Files.readAllLines(file).get(0).length() + 1;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(firstLine + 10);
+        }
+
+        // When another due is appended
+        archive.append(Collections.singletonList(newDue(3)));
+
+        // Then the due before the torn line and the new due should both read back
+        List<Due> archived = archive.readAll();
+        assertEquals(Arrays.asList(1, 3), archived.stream().map(Due::getId).collect(Collectors.toList()));
+        assertTrue(archive.readIds().get(3));
+    }
+
+    @Test
+    public void testShardedSaveRewritesOnlyDirtyShards() throws IOException {
+        // Given a sharded store with dues in November and December and a recurring due
+        Path file = folder.getRoot().toPath().resolve("dues.json");
+        DueManager manager = new DueManager(file, DurabilityMode.NONE, null, StorageLayout.MONTHLY_SHARDS);
+        manager.addDue(newDue(1));
+        manager.addDue(newDue(2));
+        manager.addDue(new Due.DueBuilder(3).course("CS544").title("Quiz")
+                .dueDate(LocalDateTime.of(2024, 11, 20, 9, 0)).build());
+        manager.addRecurringDue(new RecurringDue.RecurringDueBuilder(4).course("CS665").title("Reading")
+                .start(LocalDateTime.of(2024, 9, 2, 9, 0)).weekly().count(10).build());
+        Path shards = manager.getShardDirectory();
+        assertEquals(Arrays.asList("2024-11.json", "2024-12.json", "recurring.json"), listFiles(shards));
+        assertFalse(Files.exists(file));
+
+        // When the November shard is reformatted by hand and a December due is completed
+        Path november = shards.resolve("2024-11.json");
+        String reformatted = "[\n" + new String(Files.readAllBytes(november), StandardCharsets.UTF_8).substring(1);
+        Files.write(november, reformatted.getBytes(StandardCharsets.UTF_8));
+        manager.markAsCompleted(2);
+
+        // Then only the December shard should have been rewritten
+        assertEquals(reformatted, new String(Files.readAllBytes(november), StandardCharsets.UTF_8));
+        manager.close();
+        DueManager reloaded = new DueManager(file, DurabilityMode.NONE, null, StorageLayout.MONTHLY_SHARDS);
+        assertTrue(reloaded.getDueById(2).isCompleted());
+        assertEquals("Quiz", reloaded.getDueById(3).getTitle());
+        assertEquals(10, reloaded.getRecurringDue(4).occurrencesBetween(LocalDate.of(2024, 9, 1),
+                LocalDate.of(2024, 12, 31)).size());
+
+        // And moving the only November due away should delete its shard
+        reloaded.addDue(new Due.DueBuilder(3).course("CS544").title("Quiz")
+                .dueDate(LocalDateTime.of(2025, 1, 20, 9, 0)).build());
+        assertEquals(Arrays.asList("2024-12.json", "2025-01.json", "recurring.json"), listFiles(shards));
+        reloaded.close();
+    }
+
+    @Test
+    public void testLayoutMigratesAndCorruptShardIsIsolated() throws IOException {
+        // Given a single-file store
+        Path file = folder.getRoot().toPath().resolve("dues.json");
+        DueManager manager = new DueManager(file, DurabilityMode.NONE);
+        for (int id = 1; id <= 3; id++) {
+            manager.addDue(newDue(id));
+        }
+        manager.addDue(new Due.DueBuilder(4).course("CS544").title("Quiz")
+                .dueDate(LocalDateTime.of(2025, 1, 20, 9, 0)).build());
+        manager.close();
+
+        // When it is opened with the sharded layout
+        DueManager sharded = new DueManager(file, DurabilityMode.NONE, null, StorageLayout.MONTHLY_SHARDS);
+
+        // Then its dues should be moved into shards and the single file removed
+        assertEquals(4, sharded.getSnapshot().size());
+        assertFalse(Files.exists(file));
+        Path shards = sharded.getShardDirectory();
+        assertEquals(Arrays.asList("2024-12.json", "2025-01.json"), listFiles(shards));
+        sharded.close();
+
+        // When the January shard is damaged
+        Files.write(shards.resolve("2025-01.json"), "[{\"id\":4,".getBytes(StandardCharsets.UTF_8));
+        DueManager damaged = new DueManager(file, DurabilityMode.NONE, null, StorageLayout.MONTHLY_SHARDS);
+
+        // Then the other shards should still load, the damaged one should be set aside
+        assertEquals(3, damaged.getSnapshot().size());
+        assertNull(damaged.getDueById(4));
+        assertEquals(1, listFiles(shards).stream().filter(name -> name.startsWith("2025-01.json.corrupt-")).count());
+        damaged.close();
+
+        // And opening it with the single-file layout should move it back
+        DueManager single = new DueManager(file, DurabilityMode.NONE);
+        assertEquals(3, single.getSnapshot().size());
+        assertTrue(Files.exists(file));
+        assertEquals(1, listFiles(shards).size());
+        single.close();
+    }
+
+    @Test
+    public void testEveryCodecRoundTripsAndIsDetected() throws IOException {
+        String notes = String.join(" ", Collections.nCopies(40, "Submit the report through Blackboard."));
+        long plainSize = 0;
+        for (StorageCodec codec : StorageCodec.values()) {
+            for (StorageLayout layout : StorageLayout.values()) {
+                // Given dues with long notes saved with the codec
+                Path file = folder.newFolder(codec + "-" + layout).toPath().resolve("dues.json");
+                DueManager manager = new DueManager(file, DurabilityMode.NONE, null, layout, codec);
+                manager.beginBatch();
+                for (int id = 1; id <= 20; id++) {
+                    manager.addDue(new Due.DueBuilder(id).course("CS665").title("Assignment " + id)
+                            .dueDate(LocalDateTime.of(2024, 12, id, 23, 59)).notes(notes).build());
+                }
+                manager.endBatch();
+                manager.close();
+                Path saved = layout == StorageLayout.SINGLE_FILE ? file
+                        : manager.getShardDirectory().resolve("2024-12.json");
+                byte[] bytes = Files.readAllBytes(saved);
+                if (codec == StorageCodec.NONE) {
+                    assertEquals('[', bytes[0]);
+                    plainSize = bytes.length;
+                } else {
+                    assertTrue(codec + " should shrink the file", bytes.length * 4 < plainSize);
+                }
+
+                // When it is reopened without compression
+                DueManager reloaded = new DueManager(file, DurabilityMode.NONE, null, layout, StorageCodec.NONE);
+
+                // Then the codec should be detected and the next save should write plain JSON
+                assertEquals(codec + " " + layout, 20, reloaded.getSnapshot().size());
+                assertEquals(notes, reloaded.getDueById(7).getNotes());
+                reloaded.markAsCompleted(7);
+                assertEquals('[', Files.readAllBytes(saved)[0]);
+                reloaded.close();
+            }
+        }
+    }
+
+    private static List<String> listFiles(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString()).sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
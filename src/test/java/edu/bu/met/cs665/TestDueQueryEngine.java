@@ -0,0 +1,217 @@
+package edu.bu.met.cs665;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.query.DueQuery;
+import edu.bu.met.cs665.query.DueQueryEngine;
+import edu.bu.met.cs665.query.QueryPlan;
+import edu.bu.met.cs665.service.DueManager;
+import edu.bu.met.cs665.storage.DurabilityMode;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public class TestDueQueryEngine {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DueManager dueManager;
+    private DueQueryEngine engine;
+
+    @Before
+    public void setUp() {
+        dueManager = new DueManager(folder.getRoot().toPath().resolve("dues.json"), DurabilityMode.NONE);
+    }
+
+    @After
+    public void tearDown() {
+        if (engine != null) {
+            engine.close();
+        }
+        dueManager.close();
+    }
+
+    private void add(int id, String course, String title, LocalDateTime dueDate, boolean completed, String location) {
+        dueManager.addDue(new Due.DueBuilder(id).course(course).title(title).dueDate(dueDate).completed(completed)
+                .location(location).build());
+    }
+
+    private static List<Integer> ids(List<Due> dues) {
+        return dues.stream().map(Due::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testPendingCourseDuesWithLocationInRange() {
+        // Given a mix of CS665 and other dues in December
+        add(1, "CS665", "Essay", LocalDateTime.of(2024, 12, 12, 23, 59), false, "Room 101");
+        add(2, "CS665", "Quiz", LocalDateTime.of(2024, 12, 3, 9, 0), false, "Hall B");
+        add(3, "CS665", "Lab", LocalDateTime.of(2024, 12, 5, 9, 0), true, "Lab 2");
+        add(4, "CS665", "Reading", LocalDateTime.of(2024, 12, 6, 9, 0), false, null);
+        add(5, "CS544", "Quiz", LocalDateTime.of(2024, 12, 4, 9, 0), false, "Room 5");
+        add(6, "cs665", "Final", LocalDateTime.of(2024, 12, 20, 9, 0), false, "Gym");
+        add(7, "CS665", "Project", LocalDateTime.of(2024, 12, 14, 9, 0), false, "Room 7");
+        engine = new DueQueryEngine(dueManager);
+
+        // When pending CS665 dues with a location between Dec 1 and 15 are asked for, first two by deadline
+        DueQuery query = new DueQuery.Builder().course("cs665").pending().hasLocation(true)
+                .dueBetween(LocalDate.of(2024, 12, 1), LocalDate.of(2024, 12, 15))
+                .sortBy(DueQuery.Sort.DUE_DATE).limit(2).build();
+
+        // Then the two earliest matching dues should come back in order
+        assertEquals(Arrays.asList(2, 1), ids(engine.execute(query)));
+        assertEquals(query.toString(), DueQuery.parse(Arrays.asList(query.toString().split(" "))).toString());
+    }
+
+    @Test
+    public void testPlannerPicksMostSelectiveIndex() {
+        // Given 200 CS665 dues spread over 100 days and a handful of CS544 dues
+        dueManager.beginBatch();
+        for (int i = 1; i <= 200; i++) {
+            add(i, "CS665", "Weekly task " + i, LocalDateTime.of(2024, 9, 1, 12, 0).plusDays(i / 2), false, null);
+        }
+        for (int i = 201; i <= 203; i++) {
+            add(i, "CS544", "Quiz", LocalDateTime.of(2024, 9, 1, 12, 0).plusDays(i - 200), false, null);
+        }
+        add(204, "CS665", "Capstone presentation", LocalDateTime.of(2024, 12, 1, 12, 0), false, null);
+        dueManager.endBatch();
+        engine = new DueQueryEngine(dueManager);
+
+        // Then each query should use the index that yields the fewest candidates
+        QueryPlan byCourse = engine.explain(new DueQuery.Builder().course("CS544").build());
+        assertEquals(QueryPlan.AccessPath.COURSE_INDEX, byCourse.getAccessPath());
+        assertEquals(3, byCourse.getEstimatedRows());
+
+        QueryPlan byDate = engine.explain(new DueQuery.Builder().course("CS665")
+                .dueBetween(LocalDate.of(2024, 9, 10), LocalDate.of(2024, 9, 11)).build());
+        assertEquals(QueryPlan.AccessPath.DATE_INDEX, byDate.getAccessPath());
+        assertEquals(4, byDate.getEstimatedRows());
+        assertTrue(byDate.explain().contains("filter: course=CS665"));
+
+        QueryPlan byText = engine.explain(new DueQuery.Builder().course("CS665").text("capstone").build());
+        assertEquals(QueryPlan.AccessPath.TEXT_INDEX, byText.getAccessPath());
+        assertEquals(1, byText.getEstimatedRows());
+
+        assertEquals(QueryPlan.AccessPath.ID_LOOKUP,
+                engine.explain(new DueQuery.Builder().id(7).course("CS665").build()).getAccessPath());
+        QueryPlan scan = engine.explain(new DueQuery.Builder().pending().limit(5).build());
+        assertEquals(QueryPlan.AccessPath.FULL_SCAN, scan.getAccessPath());
+        assertTrue(scan.explain().contains("store order, stops at limit"));
+
+        // And the results should agree with the plans
+        assertEquals(Arrays.asList(201, 202, 203), ids(engine.execute(new DueQuery.Builder().course("CS544").build())));
+        assertEquals(Arrays.asList(204),
+                ids(engine.execute(new DueQuery.Builder().text("Capstone presentation").build())));
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), ids(engine.execute(new DueQuery.Builder().pending().limit(5)
+                .build())));
+    }
+
+    @Test
+    public void testIndexesFollowChanges() {
+        // Given an engine over two dues
+        add(1, "CS665", "Essay draft", LocalDateTime.of(2024, 12, 2, 9, 0), false, null);
+        add(2, "CS665", "Quiz", LocalDateTime.of(2024, 12, 3, 9, 0), false, null);
+        engine = new DueQueryEngine(dueManager);
+        DueQuery december = new DueQuery.Builder().dueBetween(LocalDate.of(2024, 12, 1), LocalDate.of(2024, 12, 31))
+                .sortBy(DueQuery.Sort.DUE_DATE).build();
+
+        // When one is removed, one is moved to January and another is added
+        dueManager.removeDue(2);
+        add(1, "CS665", "Essay final", LocalDateTime.of(2025, 1, 10, 9, 0), false, null);
+        add(3, "CS544", "Lab", LocalDateTime.of(2024, 12, 9, 9, 0), false, null);
+        dueManager.setCompleted(3, true);
+
+        // Then queries should reflect every change
+        assertEquals(Arrays.asList(3), ids(engine.execute(december)));
+        assertTrue(engine.execute(new DueQuery.Builder().text("draft").build()).isEmpty());
+        assertEquals(Arrays.asList(1), ids(engine.execute(new DueQuery.Builder().text("final").build())));
+        assertEquals(Arrays.asList(3), ids(engine.execute(new DueQuery.Builder().completed(true).build())));
+    }
+
+    @Test
+    public void testQueryDuringChangeSeesStoreBeforeIt() {
+        // Given a December due and a listener that queries before the engine hears of a change
+        add(1, "CS665", "Essay", LocalDateTime.of(2024, 12, 2, 9, 0), false, null);
+        DueQuery december = new DueQuery.Builder().dueBetween(LocalDate.of(2024, 12, 1), LocalDate.of(2024, 12, 31))
+                .build();
+        List<List<Integer>> seen = new ArrayList<>();
+        dueManager.addChangeListener(event -> seen.add(ids(engine.execute(december))));
+        engine = new DueQueryEngine(dueManager);
+
+        // When the due is moved to January
+        add(1, "CS665", "Essay", LocalDateTime.of(2025, 1, 10, 9, 0), false, null);
+
+        // Then the query in between should still find it in December, and afterwards not at all
+        assertEquals(Arrays.asList(Arrays.asList(1)), seen);
+        assertTrue(engine.execute(december).isEmpty());
+    }
+
+    @Test
+    public void testResultsMatchBruteForce() {
+        // Given a random store
+        Random random = new Random(42);
+        String[] courses = {"CS665", "CS544", "CS521"};
+        String[] words = {"quiz", "essay", "lab", "project", "reading"};
+        dueManager.beginBatch();
+        for (int i = 1; i <= 300; i++) {
+            add(i, courses[random.nextInt(3)], words[random.nextInt(5)] + " " + words[random.nextInt(5)],
+                    LocalDateTime.of(2024, 9, 1, 0, 0).plusHours(random.nextInt(24 * 120)), random.nextBoolean(),
+                    random.nextBoolean() ? "Room " + i : null);
+        }
+        dueManager.endBatch();
+        engine = new DueQueryEngine(dueManager);
+
+        // When random queries run
+        for (int q = 0; q < 200; q++) {
+            DueQuery.Builder builder = new DueQuery.Builder();
+            if (random.nextBoolean()) {
+                builder.course(courses[random.nextInt(3)]);
+            }
+            if (random.nextBoolean()) {
+                builder.completed(random.nextBoolean());
+            }
+            if (random.nextBoolean()) {
+                LocalDate from = LocalDate.of(2024, 9, 1).plusDays(random.nextInt(120));
+                builder.dueBetween(from, from.plusDays(random.nextInt(30)));
+            }
+            if (random.nextInt(3) == 0) {
+                builder.text(words[random.nextInt(5)]);
+            }
+            if (random.nextInt(3) == 0) {
+                builder.hasLocation(random.nextBoolean());
+            }
+            builder.sortBy(DueQuery.Sort.values()[random.nextInt(3)]).limit(random.nextInt(3) == 0 ? 0 : 7);
+            DueQuery query = builder.build();
+
+            // Then the engine should return what filtering and sorting everything would
+            List<Due> expected = new ArrayList<>();
+            for (Due due : dueManager.getSnapshot()) {
+                if (query.matches(due)) {
+                    expected.add(due);
+                }
+            }
+            if (query.getSort() == DueQuery.Sort.DUE_DATE) {
+                expected.sort((a, b) -> a.getDueDate().equals(b.getDueDate()) ? Integer.compare(a.getId(), b.getId())
+                        : a.getDueDate().compareTo(b.getDueDate()));
+            } else if (query.getSort() == DueQuery.Sort.DUE_DATE_DESC) {
+                expected.sort((a, b) -> a.getDueDate().equals(b.getDueDate()) ? Integer.compare(b.getId(), a.getId())
+                        : b.getDueDate().compareTo(a.getDueDate()));
+            }
+            if (query.getLimit() > 0 && expected.size() > query.getLimit()) {
+                expected = expected.subList(0, query.getLimit());
+            }
+            assertEquals(query + "\n" + engine.explain(query), ids(expected), ids(engine.execute(query)));
+        }
+    }
+}
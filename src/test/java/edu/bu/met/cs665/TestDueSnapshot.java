@@ -0,0 +1,201 @@
+package edu.bu.met.cs665;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.service.DueManager;
+import edu.bu.met.cs665.service.DueSnapshot;
+import edu.bu.met.cs665.storage.DurabilityMode;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+public class TestDueSnapshot {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DueManager dueManager;
+
+    @After
+    public void tearDown() {
+        if (dueManager != null) {
+            dueManager.close();
+        }
+    }
+
+    private static Due newDue(int id) {
+        return new Due.DueBuilder(id)
+                .course("CS665")
+                .title("Assignment " + id)
+                .dueDate(LocalDateTime.of(2024, 12, 10, 23, 59))
+                .completed(false)
+                .build();
+    }
+
+    private static List<Integer> ids(Iterable<Due> dues) {
+        List<Integer> ids = new ArrayList<>();
+        for (Due due : dues) {
+            ids.add(due.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void testIteratesInIdOrder() {
+        // Given dues added out of order, including IDs that share no trie path
+        int[] order = {70000, 3, -5, 1, Integer.MAX_VALUE, 33, Integer.MIN_VALUE, 0};
+        DueSnapshot snapshot = DueSnapshot.EMPTY;
+        for (int id : order) {
+            snapshot = snapshot.with(newDue(id));
+        }
+
+        // Then iteration and forEach should both visit every due in ID order
+        List<Integer> expected = new ArrayList<>();
+        for (int id : new int[] {Integer.MIN_VALUE, -5, 0, 1, 3, 33, 70000, Integer.MAX_VALUE}) {
+            expected.add(id);
+        }
+        assertEquals(expected, ids(snapshot));
+        List<Integer> visited = new ArrayList<>();
+        snapshot.forEach(due -> visited.add(due.getId()));
+        assertEquals(expected, visited);
+        assertEquals(order.length, snapshot.size());
+        assertEquals(33, snapshot.get(33).getId());
+        assertNull(snapshot.get(34));
+    }
+
+    @Test
+    public void testOlderSnapshotsAreUnchanged() {
+        // Given a snapshot holding two dues
+        DueSnapshot first = DueSnapshot.EMPTY.with(newDue(1)).with(newDue(2));
+
+        // When later versions remove one and complete the other
+        DueSnapshot second = first.without(1).with(first.get(2).withCompleted(true));
+
+        // Then the first snapshot should still show the original state
+        assertEquals(2, first.size());
+        assertFalse(first.get(2).isCompleted());
+        assertEquals(0, first.get(2).getVersion());
+        assertEquals(1, second.size());
+        assertNull(second.get(1));
+        assertTrue(second.get(2).isCompleted());
+        assertEquals(1, second.get(2).getVersion());
+        assertTrue(second.getVersion() > first.getVersion());
+        assertSame(second, second.without(1));
+        assertTrue(DueSnapshot.EMPTY.with(newDue(5)).without(5).isEmpty());
+    }
+
+    @Test
+    public void testReaderKeepsConsistentViewWhileManagerChanges() {
+        // Given a manager with three dues and a reader holding its snapshot
+        dueManager = new DueManager(folder.getRoot().toPath().resolve("dues.json"), DurabilityMode.NONE);
+        for (int id = 1; id <= 3; id++) {
+            dueManager.addDue(newDue(id));
+        }
+        DueSnapshot snapshot = dueManager.getSnapshot();
+        Iterator<Due> reader = snapshot.iterator();
+        assertEquals(1, reader.next().getId());
+
+        // When the store changes mid-iteration
+        dueManager.removeDue(2);
+        dueManager.markAsCompleted(3);
+        dueManager.addDue(newDue(4));
+
+        // Then the reader should finish on the old version and the manager should show the new one
+        assertEquals(2, reader.next().getId());
+        assertFalse(reader.next().isCompleted());
+        assertFalse(reader.hasNext());
+        assertEquals(3, snapshot.size());
+        assertEquals(3, dueManager.getSnapshot().size());
+        assertTrue(dueManager.getDueById(3).isCompleted());
+    }
+
+    @Test
+    public void testConcurrentReadersSeeWholeVersions() throws Exception {
+        // Given a writer that keeps adding and completing dues
+        dueManager = new DueManager(folder.getRoot().toPath().resolve("dues.json"), DurabilityMode.NONE);
+        dueManager.beginBatch();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                // Every add is followed by its completion, so at most the newest due is pending
+                DueSnapshot snapshot = dueManager.getSnapshot();
+                int count = 0;
+                int pending = 0;
+                for (Due due : snapshot) {
+                    count++;
+                    if (!due.isCompleted()) {
+                        pending++;
+                    }
+                }
+                if (count != snapshot.size() || pending > 1) {
+                    failure.set("count " + count + " of " + snapshot.size() + ", pending " + pending);
+                }
+            }
+        });
+        reader.start();
+
+        // When the writer runs concurrently with the reader
+        for (int id = 1; id <= 5000; id++) {
+            dueManager.addDue(newDue(id));
+            dueManager.markAsCompleted(id);
+        }
+        done.set(true);
+        reader.join();
+        dueManager.endBatch();
+
+        // Then the reader should never have seen a torn version
+        assertNull(failure.get());
+        assertEquals(5000, dueManager.getAllDues().size());
+    }
+
+    @Test
+    public void testReadViewsDoNotCopy() {
+        // Given a store with ten dues, every third one completed
+        dueManager = new DueManager(folder.getRoot().toPath().resolve("dues.json"), DurabilityMode.NONE);
+        dueManager.beginBatch();
+        for (int i = 1; i <= 10; i++) {
+            dueManager.addDue(newDue(i));
+            if (i % 3 == 0) {
+                dueManager.setCompleted(i, true);
+            }
+        }
+        dueManager.endBatch();
+
+        // When the store is read through a view, a filtered visitor and a filtered stream
+        Collection<Due> view = dueManager.getDuesView();
+        List<Integer> visited = new ArrayList<>();
+        dueManager.forEachDue(Due::isCompleted, due -> visited.add(due.getId()));
+        List<Integer> streamed = dueManager.streamDues(Due::isCompleted).map(Due::getId).collect(Collectors.toList());
+
+        // Then all should agree, in ID order
+        assertEquals(10, view.size());
+        assertTrue(view.contains(dueManager.getDueById(4)));
+        assertEquals(Arrays.asList(3, 6, 9), visited);
+        assertEquals(visited, streamed);
+        assertEquals(10, dueManager.streamDues().count());
+
+        // And the view should be read-only and keep showing the version it was taken from
+        try {
+            view.clear();
+            fail("View should be read-only");
+        } catch (UnsupportedOperationException expected) {
+            // Expected
+        }
+        dueManager.removeDue(1);
+        assertEquals(10, view.size());
+        assertEquals(9, dueManager.getDuesView().size());
+    }
+}
@@ -0,0 +1,181 @@
+package edu.bu.met.cs665;
+
+import static org.junit.Assert.*;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Test;
+
+import edu.bu.met.cs665.client.DueParserBackend;
+import edu.bu.met.cs665.client.HedgedDueParser;
+import edu.bu.met.cs665.client.LocalDueParser;
+import edu.bu.met.cs665.client.OpenRouterClient;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TestHedgedDueParser {
+    private HedgedDueParser parser;
+
+    @After
+    public void tearDown() {
+        if (parser != null) {
+            parser.close();
+        }
+    }
+
+    /**
+     * Backend answering after a fixed delay.
+     */
+    private static final class FakeBackend implements DueParserBackend {
+        private final String name;
+        private final long delayMillis;
+        private final String response;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private FakeBackend(String name, long delayMillis, String response) {
+            this.name = name;
+            this.delayMillis = delayMillis;
+            this.response = response;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String parse(String prompt) {
+            calls.incrementAndGet();
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return response;
+        }
+    }
+
+    private static String due(String title) {
+        return new JSONObject().put("course", "CS665").put("title", title).put("due_date", "2024-12-10 23:59")
+                .toString();
+    }
+
+    private static long millisSince(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @Test
+    public void testHedgesSlowPrimary() {
+        // Given a slow primary and a fast secondary, with a 100 ms hedge delay
+        FakeBackend slow = new FakeBackend("slow", 2000, due("from slow"));
+        FakeBackend fast = new FakeBackend("fast", 20, due("from fast"));
+        parser = new HedgedDueParser(Arrays.asList(slow, fast), null, 100, 5000);
+
+        // When a due is requested
+        long start = System.nanoTime();
+        String response = parser.parse("CS665 A5");
+
+        // Then the hedge should win long before the primary answers
+        assertEquals("from fast", new JSONObject(response).getString("title"));
+        assertTrue("took " + millisSince(start) + " ms", millisSince(start) < 1000);
+        assertEquals(1, slow.calls.get());
+        assertEquals(1, fast.calls.get());
+    }
+
+    @Test
+    public void testFastPrimaryIsNotHedged() {
+        // Given a primary answering well within the hedge delay
+        FakeBackend primary = new FakeBackend("primary", 10, due("from primary"));
+        FakeBackend secondary = new FakeBackend("secondary", 10, due("from secondary"));
+        parser = new HedgedDueParser(Arrays.asList(primary, secondary), null, 1000, 5000);
+
+        // Then only the primary should be asked
+        assertEquals("from primary", new JSONObject(parser.parse("CS665 A5")).getString("title"));
+        assertEquals(0, secondary.calls.get());
+    }
+
+    @Test
+    public void testFailedPrimaryFallsThroughImmediately() {
+        // Given a primary that fails at once and a long hedge delay
+        FakeBackend failing = new FakeBackend("failing", 0, "{\"error\": \"HTTP 500\"}");
+        FakeBackend backup = new FakeBackend("backup", 10, due("from backup"));
+        parser = new HedgedDueParser(Arrays.asList(failing, backup), null, 5000, 10_000);
+
+        // When a due is requested
+        long start = System.nanoTime();
+        String response = parser.parse("CS665 A5");
+
+        // Then the backup should be asked without waiting for the hedge delay
+        assertEquals("from backup", new JSONObject(response).getString("title"));
+        assertTrue("took " + millisSince(start) + " ms", millisSince(start) < 1000);
+    }
+
+    @Test
+    public void testFailingFirstBackendIsDemoted() {
+        // Given a first backend that always fails and a second that answers quickly
+        FakeBackend failing = new FakeBackend("failing", 0, "{\"error\": \"HTTP 500\"}");
+        FakeBackend backup = new FakeBackend("backup", 10, due("from backup"));
+        parser = new HedgedDueParser(Arrays.asList(failing, backup), null, 5000, 10_000);
+
+        // When a first request finds out, and more requests follow before any p90 exists
+        assertEquals("from backup", new JSONObject(parser.parse("CS665 A1")).getString("title"));
+        int failedCalls = failing.calls.get();
+        for (int i = 2; i <= 4; i++) {
+            assertEquals("from backup", new JSONObject(parser.parse("CS665 A" + i)).getString("title"));
+        }
+
+        // Then the second backend should have become primary, so the first is no longer tried
+        assertEquals(1, failedCalls);
+        assertEquals(1, failing.calls.get());
+        assertEquals(4, backup.calls.get());
+    }
+
+    @Test
+    public void testAllBackendsFailingUsesFallback() {
+        // Given backends that answer with prose instead of a due
+        FakeBackend chatty = new FakeBackend("chatty", 0, "I cannot help with that.");
+        parser = new HedgedDueParser(Arrays.asList(chatty), new LocalDueParser(), 100, 1000);
+
+        // Then the local parser should answer
+        assertEquals("CS544", new JSONObject(parser.parse("CS544 quiz 2024-12-12")).getString("course"));
+    }
+
+    @Test
+    public void testPrimaryAdaptsToLatency() throws Exception {
+        // Given a configured primary that is slower than the second backend
+        FakeBackend slow = new FakeBackend("slow", 150, due("from slow"));
+        FakeBackend fast = new FakeBackend("fast", 5, due("from fast"));
+        parser = new HedgedDueParser(Arrays.asList(slow, fast), null, 30, 5000);
+        assertEquals("slow", parser.getPrimaryName());
+
+        // When enough requests have been hedged for both backends to gather statistics
+        for (int i = 0; i < 10; i++) {
+            parser.parse("CS665 A5");
+        }
+        Thread.sleep(300);
+
+        // Then the faster backend should become the primary
+        assertEquals("fast", parser.getPrimaryName());
+        assertTrue(parser.summary().startsWith("fast"));
+        int slowCalls = slow.calls.get();
+        assertEquals("from fast", new JSONObject(parser.parse("CS665 A5")).getString("title"));
+        assertEquals(slowCalls, slow.calls.get());
+    }
+
+    @Test
+    public void testModelsFromSystemProperty() {
+        // Given two configured models, one on another endpoint
+        System.setProperty(HedgedDueParser.MODELS_PROPERTY, "model-a, model-b@http://127.0.0.1:1/v1");
+        try {
+            parser = HedgedDueParser.fromSystemProperties();
+        } finally {
+            System.clearProperty(HedgedDueParser.MODELS_PROPERTY);
+        }
+
+        // Then both should be listed, the first as primary
+        assertEquals("model-a", parser.getPrimaryName());
+        assertTrue(parser.summary().contains("model-b@http://127.0.0.1:1/v1"));
+        assertEquals(OpenRouterClient.MODEL, new OpenRouterClient().getName());
+    }
+}
@@ -0,0 +1,60 @@
+package edu.bu.met.cs665;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import edu.bu.met.cs665.metrics.LatencyHistogram;
+import edu.bu.met.cs665.metrics.Metrics;
+import edu.bu.met.cs665.metrics.MetricsMBean;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class TestMetrics {
+
+    @Test
+    public void testHistogramPercentilesWithinPrecision() {
+        // Given latencies of 1..10000 microseconds
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        for (int i = 1; i <= 10000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        // Then percentiles should be within the bucket precision of the exact values
+        assertEquals(10000, histogram.getCount());
+        assertEquals(5000_000L, histogram.getPercentileNanos(50), 5000_000L * 0.04);
+        assertEquals(9900_000L, histogram.getPercentileNanos(99), 9900_000L * 0.04);
+        assertEquals(10000_000L, histogram.getMaxNanos());
+        assertEquals(5000_500L, histogram.getMeanNanos());
+    }
+
+    @Test
+    public void testEmptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram("empty");
+        assertEquals(0, histogram.getPercentileNanos(99));
+        assertEquals(0, histogram.getMeanNanos());
+    }
+
+    @Test
+    public void testMBeanExposesEveryMetricKind() throws Exception {
+        // Given a registry with a counter, a gauge and a histogram
+        Metrics metrics = new Metrics();
+        metrics.counter("saves").add(3);
+        metrics.gauge("size", () -> 42);
+        metrics.histogram("latency").record(2000);
+
+        // When read through the MBean
+        MetricsMBean bean = new MetricsMBean(metrics);
+
+        // Then each metric should appear as an attribute
+        assertEquals(3L, bean.getAttribute("saves"));
+        assertEquals(42L, bean.getAttribute("size"));
+        assertEquals(1L, bean.getAttribute("latency.count"));
+        assertEquals(2L, bean.getAttribute("latency.max_us"));
+        List<String> names = Arrays.asList(Arrays.stream(bean.getMBeanInfo().getAttributes())
+                .map(info -> info.getName()).toArray(String[]::new));
+        assertTrue(names.contains("latency.p99_us"));
+        assertTrue(((String) bean.invoke("dump", null, null)).contains("saves 3"));
+    }
+}
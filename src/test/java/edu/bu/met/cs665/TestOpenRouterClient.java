@@ -0,0 +1,265 @@
+package edu.bu.met.cs665;
+
+import static org.junit.Assert.*;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.bu.met.cs665.OpenRouterStub.Reply;
+import edu.bu.met.cs665.client.CircuitBreaker;
+import edu.bu.met.cs665.client.JsonObjectAccumulator;
+import edu.bu.met.cs665.client.LocalDueParser;
+import edu.bu.met.cs665.client.OpenRouterClient;
+import edu.bu.met.cs665.client.RetryPolicy;
+import edu.bu.met.cs665.client.ServerSentEventReader;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TestOpenRouterClient {
+    private static final String DUE_JSON =
+            "{\"course\":\"CS665\",\"title\":\"Assignment 5\",\"due_date\":\"2024-12-10 23:59\"}";
+
+    private OpenRouterStub stub;
+
+    @Before
+    public void setUp() throws Exception {
+        stub = new OpenRouterStub();
+    }
+
+    @After
+    public void tearDown() {
+        stub.close();
+    }
+
+    private static RetryPolicy.Builder fastRetries() {
+        return new RetryPolicy.Builder()
+                .connectTimeoutMillis(1000)
+                .readTimeoutMillis(1000)
+                .deadlineMillis(5000)
+                .maxAttempts(3)
+                .initialBackoffMillis(10)
+                .maxBackoffMillis(20);
+    }
+
+    private OpenRouterClient client(RetryPolicy policy, CircuitBreaker breaker, LocalDueParser fallback) {
+        return new OpenRouterClient(stub.getBaseUrl(), "test-key", policy, breaker, fallback);
+    }
+
+    @Test
+    public void testRetriesTransientErrors() {
+        // Given an endpoint that fails twice with retryable statuses before answering
+        stub.then(Reply.status(503), Reply.status(429)).otherwise(Reply.completion(DUE_JSON));
+        OpenRouterClient client = client(fastRetries().build(), new CircuitBreaker(5, 60_000), null);
+
+        // When a due is requested
+        String response = client.getResponse("CS665 assignment 5 on 12/10");
+
+        // Then the third attempt should provide the answer
+        assertEquals(DUE_JSON, response);
+        assertEquals(3, stub.getRequestCount());
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitBreaker().getState());
+    }
+
+    @Test
+    public void testDoesNotRetryPermanentErrors() {
+        // Given an endpoint rejecting the API key
+        stub.otherwise(Reply.status(401));
+        OpenRouterClient client = client(fastRetries().build(), new CircuitBreaker(1, 60_000), new LocalDueParser());
+
+        // When a due is requested
+        String response = client.getResponse("CS665 assignment 5 tomorrow");
+
+        // Then the error should be returned after one attempt, without tripping the breaker
+        assertTrue(new JSONObject(response).getString("error").startsWith("HTTP 401"));
+        assertEquals(1, stub.getRequestCount());
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitBreaker().getState());
+    }
+
+    @Test
+    public void testHonorsRetryAfter() {
+        // Given an endpoint asking the client to wait a second before retrying
+        stub.then(Reply.status(429).retryAfter("1")).otherwise(Reply.completion(DUE_JSON));
+        OpenRouterClient client = client(fastRetries().build(), new CircuitBreaker(5, 60_000), null);
+
+        // When a due is requested
+        long start = System.nanoTime();
+        String response = client.getResponse("CS665 assignment 5");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Then the retry should wait at least as long as requested
+        assertEquals(DUE_JSON, response);
+        assertTrue("waited only " + elapsedMillis + " ms", elapsedMillis >= 1000);
+    }
+
+    @Test
+    public void testSlowEndpointTimesOutWithinDeadline() {
+        // Given an endpoint that takes far longer than the read timeout
+        stub.otherwise(Reply.completion(DUE_JSON).delayed(3000));
+        RetryPolicy policy = fastRetries().readTimeoutMillis(200).deadlineMillis(1000).build();
+        OpenRouterClient client = client(policy, new CircuitBreaker(5, 60_000), null);
+
+        // When a due is requested
+        long start = System.nanoTime();
+        String response = client.getResponse("CS665 assignment 5");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Then the call should give up with an error instead of hanging
+        assertTrue(new JSONObject(response).getString("error").contains("timed out"));
+        assertTrue("took " + elapsedMillis + " ms", elapsedMillis < 2000);
+    }
+
+    @Test
+    public void testOpenCircuitFailsFastToFallback() {
+        // Given an endpoint that keeps failing and a breaker opening after two failures
+        stub.otherwise(Reply.status(500));
+        RetryPolicy policy = fastRetries().maxAttempts(2).build();
+        OpenRouterClient client = client(policy, new CircuitBreaker(2, 60_000), new LocalDueParser());
+
+        // When the first request uses up its retries
+        String first = client.getResponse("CS665 assignment 5 2024-12-10 5pm");
+
+        // Then the breaker should open and the fallback should answer
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitBreaker().getState());
+        assertEquals("2024-12-10 17:00", new JSONObject(first).getString("due_date"));
+        assertEquals(2, stub.getRequestCount());
+
+        // When another request arrives while the breaker is open
+        String second = client.getResponse("CS544 quiz 2024-12-12");
+
+        // Then it should be answered locally without touching the endpoint
+        assertEquals("CS544", new JSONObject(second).getString("course"));
+        assertEquals(2, stub.getRequestCount());
+    }
+
+    @Test
+    public void testCircuitBreakerHalfOpenTrial() {
+        // Given a breaker on a fake clock that opens after one failure for one second
+        AtomicLong now = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(1, 1000, now::get);
+        breaker.recordFailure();
+        assertFalse(breaker.allowRequest());
+
+        // When the open period passes
+        now.addAndGet(1_000_000_000L);
+
+        // Then exactly one trial should be let through, and its failure should reopen the breaker
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        // When a later trial succeeds the breaker should close
+        now.addAndGet(1_000_000_000L);
+        assertTrue(breaker.allowRequest());
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    public void testMalformedStreamEndsHalfOpenTrial() {
+        // Given a half-open breaker and a trial answered by a stream of malformed choices
+        AtomicLong now = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker(1, 1000, now::get);
+        breaker.recordFailure();
+        now.addAndGet(1_000_000_000L);
+        stub.then(Reply.events("{\"choices\":[1]}", "{\"choices\":[{\"delta\":\"x\"}]}", "[DONE]"))
+                .otherwise(Reply.stream(0, DUE_JSON));
+        OpenRouterClient client = client(fastRetries().maxAttempts(1).build(), breaker, new LocalDueParser());
+
+        // When the trial is made
+        String trial = client.getStreamingResponse("CS665 assignment 5 on 12/10");
+
+        // Then the fallback should answer and the failed trial should reopen the breaker
+        assertEquals("CS665", new JSONObject(trial).getString("course"));
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        // And once the open period passes the next trial should be let through and close it
+        now.addAndGet(1_000_000_000L);
+        assertEquals(DUE_JSON, client.getStreamingResponse("CS665 assignment 5"));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testLocalParser() {
+        // Given a fixed time on Wednesday, 2024-12-04
+        LocalDateTime now = LocalDateTime.of(2024, 12, 4, 10, 0);
+        LocalDueParser parser = new LocalDueParser();
+
+        // Then relative dates, times and course codes should be recognised
+        JSONObject due = new JSONObject(parser.parse("cs 665 assignment 5 due next tuesday at 5pm", now));
+        assertEquals("CS665", due.getString("course"));
+        assertEquals("Assignment 5", due.getString("title"));
+        assertEquals("2024-12-10 17:00", due.getString("due_date"));
+        assertEquals("2024-12-05 23:59",
+                new JSONObject(parser.parse("CS544 quiz tomorrow", now)).getString("due_date"));
+        assertEquals("2024-12-11 23:59",
+                new JSONObject(parser.parse("CS544 project wednesday", now)).getString("due_date"));
+        assertEquals("2025-01-03 09:30",
+                new JSONObject(parser.parse("CS544 final 1/3 09:30", now)).getString("due_date"));
+        assertTrue(new JSONObject(parser.parse("read a book", now)).has("error"));
+    }
+
+    @Test
+    public void testStreamingStopsAtClosingBrace() {
+        // Given a streamed answer whose due object is followed by a long tail of chatter
+        stub.otherwise(Reply.stream(300, "Sure! {\"course\":\"CS665\",", "\"title\":\"A {5}\",",
+                "\"due_date\":\"2024-12-10 23:59\"}", " Let me", " know", " if", " you", " need", " more."));
+        OpenRouterClient client = client(fastRetries().build(), new CircuitBreaker(5, 60_000), null);
+
+        // When a due is requested in streaming mode
+        long start = System.nanoTime();
+        String response = client.getStreamingResponse("CS665 A5");
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // Then the object should be returned once its closing brace arrives, ignoring the tail
+        JSONObject due = new JSONObject(response);
+        assertEquals("A {5}", due.getString("title"));
+        assertEquals("2024-12-10 23:59", due.getString("due_date"));
+        assertTrue("took " + elapsedMillis + " ms", elapsedMillis < 2000);
+    }
+
+    @Test
+    public void testStreamingRetriesBeforeStreamStarts() {
+        // Given an endpoint that is overloaded once before streaming
+        stub.then(Reply.status(503)).otherwise(Reply.stream(0, DUE_JSON));
+        OpenRouterClient client = client(fastRetries().build(), new CircuitBreaker(5, 60_000), null);
+
+        // Then the streamed retry should provide the answer
+        assertEquals(DUE_JSON, client.getStreamingResponse("CS665 assignment 5"));
+        assertEquals(2, stub.getRequestCount());
+    }
+
+    @Test
+    public void testServerSentEventReader() throws Exception {
+        // Given a stream with a comment, a multi-line event, a field that is not data and no final blank line
+        String stream = ": keep-alive\n\nevent: message\ndata: first\ndata:second\n\nid: 7\n\ndata: last";
+        ServerSentEventReader reader = new ServerSentEventReader(
+                new ByteArrayInputStream(stream.getBytes(StandardCharsets.UTF_8)));
+
+        // Then only the data of each event should be returned
+        assertEquals("first\nsecond", reader.nextData());
+        assertEquals("last", reader.nextData());
+        assertNull(reader.nextData());
+    }
+
+    @Test
+    public void testJsonObjectAccumulator() {
+        // Given an object split across chunks with braces and escaped quotes inside strings
+        JsonObjectAccumulator accumulator = new JsonObjectAccumulator();
+        assertFalse(accumulator.append("Here you go: {\"title\":\"say \\\"}\\\" {\""));
+        assertFalse(accumulator.append(",\"nested\":{\"a\":1}"));
+
+        // When the closing brace arrives
+        assertTrue(accumulator.append("} trailing {text}"));
+
+        // Then exactly the object should be extracted
+        assertEquals("{\"title\":\"say \\\"}\\\" {\",\"nested\":{\"a\":1}}", accumulator.getResult());
+        assertEquals("say \"}\" {", new JSONObject(accumulator.getResult()).getString("title"));
+    }
+}
@@ -0,0 +1,122 @@
+package edu.bu.met.cs665;
+
+import static org.junit.Assert.*;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import edu.bu.met.cs665.OpenRouterStub.Reply;
+import edu.bu.met.cs665.client.CircuitBreaker;
+import edu.bu.met.cs665.client.OpenRouterClient;
+import edu.bu.met.cs665.client.RateLimiter;
+import edu.bu.met.cs665.client.RetryPolicy;
+import edu.bu.met.cs665.metrics.Metrics;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class TestRateLimiter {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private static long millisSince(long start) {
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    @Test
+    public void testSustainedRate() throws Exception {
+        // Given 600 requests per minute (one per 100 ms) with no burst
+        RateLimiter limiter = new RateLimiter(600, 1, 10, 10);
+
+        // When six requests run back to back
+        long start = System.nanoTime();
+        for (int i = 0; i < 6; i++) {
+            assertTrue(limiter.acquire(SECOND));
+            limiter.release();
+        }
+
+        // Then the last five should have waited for tokens
+        assertTrue("took " + millisSince(start) + " ms", millisSince(start) >= 450);
+    }
+
+    @Test
+    public void testLimitsRequestsInFlight() throws Exception {
+        // Given a limiter allowing two requests at once and plenty of tokens
+        RateLimiter limiter = new RateLimiter(6000, 10, 2, 10);
+        assertTrue(limiter.acquire(0));
+        assertTrue(limiter.acquire(0));
+
+        // When a third request arrives
+        CompletableFuture<Boolean> third = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.acquire(5 * SECOND);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        });
+        Thread.sleep(100);
+
+        // Then it should queue until a running request finishes
+        assertFalse(third.isDone());
+        assertEquals(1, limiter.getQueueDepth());
+        limiter.release();
+        assertTrue(third.get(1, TimeUnit.SECONDS));
+        assertEquals(0, limiter.getQueueDepth());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    public void testShedsWhenQueueIsFullOrWaitTooLong() throws Exception {
+        // Given one request in flight and one caller waiting in a queue of one
+        RateLimiter limiter = new RateLimiter(6000, 10, 1, 1);
+        assertTrue(limiter.acquire(0));
+        CompletableFuture<Boolean> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.acquire(5 * SECOND);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        });
+        while (limiter.getQueueDepth() == 0) {
+            Thread.sleep(5);
+        }
+        long shedBefore = Metrics.global().counter("ai.ratelimit.shed").sum();
+
+        // When another caller arrives, it should be shed at once
+        long start = System.nanoTime();
+        assertFalse(limiter.acquire(5 * SECOND));
+        assertTrue(millisSince(start) < 100);
+        assertEquals(shedBefore + 1, Metrics.global().counter("ai.ratelimit.shed").sum());
+
+        // When the slot frees up the queued caller should go, and a short wait should then time out
+        limiter.release();
+        assertTrue(waiting.get(1, TimeUnit.SECONDS));
+        start = System.nanoTime();
+        assertFalse(limiter.acquire(TimeUnit.MILLISECONDS.toNanos(100)));
+        assertTrue(millisSince(start) >= 90);
+    }
+
+    @Test
+    public void testClientShedsBeyondQueue() throws Exception {
+        // Given a slow endpoint and a client allowing one request in flight and none waiting
+        try (OpenRouterStub stub = new OpenRouterStub()) {
+            stub.otherwise(Reply.completion("{\"course\":\"CS665\"}").delayed(500));
+            OpenRouterClient client = new OpenRouterClient.Builder()
+                    .baseUrl(stub.getBaseUrl())
+                    .apiKey("test-key")
+                    .retryPolicy(new RetryPolicy.Builder().maxAttempts(1).build())
+                    .circuitBreaker(new CircuitBreaker(5, 60_000))
+                    .rateLimiter(new RateLimiter(600, 5, 1, 0))
+                    .build();
+
+            // When two requests arrive together
+            CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> client.getResponse("CS665 A1"));
+            Thread.sleep(100);
+            String second = client.getResponse("CS665 A2");
+
+            // Then the second should be shed without reaching the endpoint
+            assertTrue(new JSONObject(second).getString("error").startsWith("Too many AI requests"));
+            assertEquals("{\"course\":\"CS665\"}", first.get(2, TimeUnit.SECONDS));
+            assertEquals(1, stub.getRequestCount());
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package edu.bu.met.cs665;
+
+import static org.junit.Assert.*;
+
+import org.json.JSONArray;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.bu.met.cs665.command.AddRecurringDueCommand;
+import edu.bu.met.cs665.command.CommandHistory;
+import edu.bu.met.cs665.command.MarkCompletedCommand;
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.model.RecurringDue;
+import edu.bu.met.cs665.service.DueChangeEvent;
+import edu.bu.met.cs665.service.DueManager;
+import edu.bu.met.cs665.storage.DurabilityMode;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class TestRecurringDue {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DueManager dueManager;
+
+    @Before
+    public void setUp() {
+        dueManager = new DueManager(folder.getRoot().toPath().resolve("dues.json"), DurabilityMode.NONE);
+    }
+
+    private static List<LocalDate> dates(List<Due> dues) {
+        List<LocalDate> dates = new ArrayList<>();
+        for (Due due : dues) {
+            dates.add(due.getDueDate().toLocalDate());
+        }
+        return dates;
+    }
+
+    @Test
+    public void testWeeklyOnWeekdaysUntilDate() {
+        // Given a reading due every Tuesday and Thursday at 18:00 until September 19
+        RecurringDue reading = new RecurringDue.RecurringDueBuilder(1)
+                .course("CS665").title("Reading")
+                .start(LocalDateTime.of(2024, 9, 3, 18, 0))
+                .weekly().on(DayOfWeek.TUESDAY, DayOfWeek.THURSDAY)
+                .until(LocalDate.of(2024, 9, 19))
+                .build();
+
+        // When the occurrences are expanded over a wide window
+        List<Due> occurrences = reading.occurrencesBetween(LocalDate.of(2024, 1, 1), LocalDate.of(2025, 1, 1));
+
+        // Then there should be six, at the series' time of day
+        assertEquals(6, occurrences.size());
+        assertEquals(LocalDate.of(2024, 9, 5), occurrences.get(1).getDueDate().toLocalDate());
+        assertEquals(LocalDate.of(2024, 9, 19), occurrences.get(5).getDueDate().toLocalDate());
+        assertEquals(LocalDateTime.of(2024, 9, 10, 18, 0), occurrences.get(2).getDueDate());
+        assertTrue(occurrences.get(0).isRecurring());
+        assertEquals(1, occurrences.get(0).getId());
+    }
+
+    @Test
+    public void testBiweeklyWithCount() {
+        // Given a lab every other Friday, three times
+        RecurringDue lab = new RecurringDue.RecurringDueBuilder(1)
+                .course("CS544").title("Lab")
+                .start(LocalDateTime.of(2024, 9, 6, 23, 59))
+                .biweekly().count(3)
+                .build();
+
+        // Then the count should be honoured even when the window starts after the first occurrence
+        assertEquals(3, lab.occurrencesBetween(LocalDate.MIN, LocalDate.MAX).size());
+        assertEquals(LocalDate.of(2024, 10, 4),
+                lab.occurrencesBetween(LocalDate.of(2024, 9, 21), LocalDate.MAX).get(0).getDueDate().toLocalDate());
+        assertTrue(lab.occurrencesBetween(LocalDate.of(2024, 10, 5), LocalDate.MAX).isEmpty());
+        assertFalse(lab.occursOn(LocalDate.of(2024, 9, 13)));
+    }
+
+    @Test
+    public void testUnboundedSeriesExpandsOnlyTheWindow() {
+        // Given a weekly series without an end
+        RecurringDue quiz = new RecurringDue.RecurringDueBuilder(1)
+                .course("CS665").title("Quiz")
+                .start(LocalDateTime.of(2024, 9, 3, 9, 0))
+                .build();
+
+        // Then a month far ahead should hold just its Tuesdays, and nothing past the expansion cap
+        assertEquals(5, quiz.occurrencesBetween(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 31)).size());
+        assertTrue(quiz.occurrencesBetween(LocalDate.of(2040, 1, 1), LocalDate.of(2040, 12, 31)).isEmpty());
+    }
+
+    @Test
+    public void testRangeQueriesIncludeOccurrences() {
+        // Given a one-off due and a weekly series
+        dueManager.addDue(new Due.DueBuilder(1).course("CS665").title("Project")
+                .dueDate(LocalDateTime.of(2024, 9, 11, 23, 59)).build());
+        dueManager.addRecurringDue(dueManager.newRecurringDue().course("CS665").title("Quiz")
+                .start(LocalDateTime.of(2024, 9, 3, 9, 0)).build());
+
+        // When a two week window is queried
+        List<Due> dues = dueManager.getDuesBetween(LocalDate.of(2024, 9, 9), LocalDate.of(2024, 9, 22));
+        Map<LocalDate, List<Due>> byDate = dueManager.getDuesByDate(LocalDate.of(2024, 9, 9),
+                LocalDate.of(2024, 9, 22));
+
+        // Then both should appear in date order, with only the occurrences in the window
+        assertEquals(3, dues.size());
+        assertEquals(LocalDate.of(2024, 9, 10), dues.get(0).getDueDate().toLocalDate());
+        assertEquals("Project", dues.get(1).getTitle());
+        assertEquals(LocalDate.of(2024, 9, 17), dues.get(2).getDueDate().toLocalDate());
+        assertEquals(3, byDate.size());
+        assertEquals(1, dueManager.getAllDues().size());
+    }
+
+    @Test
+    public void testOccurrenceCompletionIsStoredSparselyAndUndoable() throws Exception {
+        // Given a weekly series added through the command history
+        CommandHistory history = new CommandHistory();
+        RecurringDue quiz = dueManager.newRecurringDue().course("CS665").title("Quiz")
+                .start(LocalDateTime.of(2024, 9, 3, 9, 0)).until(LocalDate.of(2024, 12, 10)).build();
+        history.executeCommand(new AddRecurringDueCommand(dueManager, quiz));
+
+        // When one occurrence is completed
+        Due second = dueManager.getDuesBetween(LocalDate.of(2024, 9, 10), LocalDate.of(2024, 9, 10)).get(0);
+        history.executeCommand(new MarkCompletedCommand(dueManager, second));
+
+        // Then only that occurrence should be completed
+        assertEquals(1, dueManager.getRecurringDue(quiz.getId()).getCompletedDates().size());
+        assertEquals(Arrays.asList(false, true, false), completion(dueManager));
+
+        // And the file should hold the rule once with its single exception, and reload the same
+        JSONArray stored = new JSONArray(new String(Files.readAllBytes(dueManager.getSaveFile()),
+                StandardCharsets.UTF_8));
+        assertEquals(1, stored.length());
+        assertEquals("2024-09-10",
+                stored.getJSONObject(0).getJSONObject("recurrence").getJSONArray("completed").getString(0));
+        DueManager reloaded = new DueManager(dueManager.getSaveFile(), DurabilityMode.NONE);
+        assertEquals(Arrays.asList(false, true, false), completion(reloaded));
+        assertEquals(LocalDate.of(2024, 12, 10), reloaded.getRecurringDue(quiz.getId()).getUntil());
+
+        // And undo should reopen the occurrence, then remove the series
+        history.undo();
+        assertEquals(Arrays.asList(false, false, false), completion(dueManager));
+        history.undo();
+        assertTrue(dueManager.getRecurringDues().isEmpty());
+    }
+
+    private static List<Boolean> completion(DueManager manager) {
+        List<Boolean> completed = new ArrayList<>();
+        for (Due due : manager.getDuesBetween(LocalDate.of(2024, 9, 3), LocalDate.of(2024, 9, 17))) {
+            completed.add(due.isCompleted());
+        }
+        return completed;
+    }
+
+    @Test
+    public void testNewIdsSkipSeries() {
+        // Given a stored series
+        dueManager.addRecurringDue(dueManager.newRecurringDue().course("CS665").title("Quiz")
+                .start(LocalDateTime.of(2024, 9, 3, 9, 0)).build());
+        DueManager reloaded = new DueManager(dueManager.getSaveFile(), DurabilityMode.NONE);
+
+        // Then a due created after reloading should not reuse its ID
+        Due due = reloaded.createDueFromJson(
+                "{\"course\":\"CS665\",\"title\":\"A1\",\"due_date\":\"2024-09-10 23:59\"}");
+        assertEquals(2, due.getId());
+        assertEquals(dates(reloaded.getDuesBetween(LocalDate.of(2024, 9, 3), LocalDate.of(2024, 9, 3))),
+                Collections.singletonList(LocalDate.of(2024, 9, 3)));
+    }
+
+    @Test
+    public void testSeriesChangesAreAnnounced() {
+        // Given a listener and a weekly series
+        List<DueChangeEvent> events = new ArrayList<>();
+        dueManager.addChangeListener(events::add);
+        RecurringDue quiz = dueManager.newRecurringDue().course("CS665").title("Quiz")
+                .start(LocalDateTime.of(2024, 9, 3, 9, 0)).build();
+
+        // When the series is added, one occurrence completed and the series removed
+        dueManager.addRecurringDue(quiz);
+        dueManager.setOccurrenceCompleted(quiz.getId(), LocalDate.of(2024, 9, 10), true);
+        dueManager.removeRecurringDue(quiz.getId());
+
+        // Then the occurrence event should carry the occurrence, the others the series
+        assertEquals(3, events.size());
+        assertEquals(DueChangeEvent.Type.ADDED, events.get(0).getType());
+        assertSame(quiz, events.get(0).getRecurringDue());
+        assertEquals(DueChangeEvent.Type.COMPLETED, events.get(1).getType());
+        assertEquals(LocalDateTime.of(2024, 9, 10, 9, 0), events.get(1).getDue().getDueDate());
+        assertTrue(events.get(1).getDue().isCompleted());
+        assertEquals(DueChangeEvent.Type.REMOVED, events.get(2).getType());
+        assertNull(events.get(2).getDue());
+    }
+}
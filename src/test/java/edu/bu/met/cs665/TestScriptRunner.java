@@ -0,0 +1,157 @@
+package edu.bu.met.cs665;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.bu.met.cs665.command.CommandHistory;
+import edu.bu.met.cs665.metrics.Metrics;
+import edu.bu.met.cs665.script.ScriptRunner;
+import edu.bu.met.cs665.service.DueManager;
+import edu.bu.met.cs665.storage.DurabilityMode;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class TestScriptRunner {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private DueManager dueManager;
+    private ByteArrayOutputStream out;
+    private ByteArrayOutputStream err;
+
+    @Before
+    public void setUp() {
+        dueManager = new DueManager(folder.getRoot().toPath().resolve("dues.json"), DurabilityMode.NONE);
+        out = new ByteArrayOutputStream();
+        err = new ByteArrayOutputStream();
+    }
+
+    private int run(String script, int batchSize) throws IOException {
+        ScriptRunner runner = new ScriptRunner(dueManager, new CommandHistory(), new PrintStream(out, true),
+                new PrintStream(err, true), batchSize);
+        return runner.run(new BufferedReader(new StringReader(script)));
+    }
+
+    @Test
+    public void testScriptRunsAllCommands() throws IOException {
+        // Given a script using every command
+        String script = "# set up\n"
+                + "add CS665 \"Assignment 5\" \"2024-12-10 23:59\" location=\"Room 101\" notes=\"Submit PDF\"\n"
+                + "add CS544 Quiz 2024-12-12\n"
+                + "add CS521 Lab 2025-01-15T09:00\n"
+                + "complete 1 2\n"
+                + "remove 3\n"
+                + "undo\n"
+                + "\n"
+                + "list --from 2024-12-01 --to 2024-12-31\n";
+
+        // When it runs
+        int failures = run(script, ScriptRunner.DEFAULT_BATCH_SIZE);
+
+        // Then every command should apply and the list should only show December
+        assertEquals(0, failures);
+        assertEquals("1\t2024-12-10 23:59\tCS665\tAssignment 5\tdone\n"
+                + "2\t2024-12-12 23:59\tCS544\tQuiz\tdone\n", out.toString().replace("\r\n", "\n"));
+        assertEquals("Room 101", dueManager.getDueById(1).getLocation());
+        assertEquals(LocalDateTime.of(2025, 1, 15, 9, 0), dueManager.getDueById(3).getDueDate());
+
+        // And the result should be saved
+        DueManager reloaded = new DueManager(dueManager.getSaveFile(), DurabilityMode.NONE);
+        assertEquals(3, reloaded.getAllDues().size());
+        assertTrue(reloaded.getDueById(2).isCompleted());
+    }
+
+    @Test
+    public void testSavesOncePerBatch() throws IOException {
+        // Given a script with ten adds
+        StringBuilder script = new StringBuilder();
+        for (int i = 1; i <= 10; i++) {
+            script.append("add CS665 Task").append(i).append(" 2024-12-10\n");
+        }
+        long savesBefore = Metrics.global().histogram("dues.save").getCount();
+
+        // When it runs with a batch size of four
+        run(script.toString(), 4);
+
+        // Then it should save after each full batch and once at the end
+        assertEquals(3, Metrics.global().histogram("dues.save").getCount() - savesBefore);
+    }
+
+    @Test
+    public void testFailingLinesAreReportedAndSkipped() throws IOException {
+        int failures = run("add CS665\ncomplete 42\nfrobnicate\nadd CS665 Ok 2024-12-10\n", 10);
+
+        assertEquals(3, failures);
+        assertEquals(1, dueManager.getAllDues().size());
+        assertTrue(err.toString().contains("line 2: Due with ID 42 not found"));
+    }
+
+    @Test
+    public void testRecurringDues() throws IOException {
+        // Given a script adding a twice-weekly series and completing one occurrence
+        String script = "recur CS665 Reading \"2024-09-03 18:00\" weekly days=tue,THU until=2024-09-12\n"
+                + "complete 1@2024-09-05\n"
+                + "complete 1@2024-09-06\n"
+                + "list --from 2024-09-01 --to 2024-09-30\n";
+
+        // When it runs
+        int failures = run(script, ScriptRunner.DEFAULT_BATCH_SIZE);
+
+        // Then the listing should show the expanded occurrences, and the off-day completion should fail
+        assertEquals(1, failures);
+        assertEquals("1\t2024-09-03 18:00\tCS665\tReading\tpending\n"
+                + "1\t2024-09-05 18:00\tCS665\tReading\tdone\n"
+                + "1\t2024-09-10 18:00\tCS665\tReading\tpending\n"
+                + "1\t2024-09-12 18:00\tCS665\tReading\tpending\n", out.toString().replace("\r\n", "\n"));
+        assertTrue(err.toString().contains("no occurrence on 2024-09-06"));
+    }
+
+    @Test
+    public void testListWithoutRangeIncludesRecurringDues() throws IOException {
+        // Given a one-off due and a weekly series that started a week ago
+        LocalDate start = LocalDate.now().minusWeeks(1);
+        String script = "add CS544 Quiz 2024-12-12\n"
+                + "recur CS665 Reading \"" + start + " 18:00\" weekly\n"
+                + "list\n";
+
+        // When it runs
+        int failures = run(script, ScriptRunner.DEFAULT_BATCH_SIZE);
+
+        // Then the listing should show the one-off due and the occurrences up to four weeks out
+        assertEquals(0, failures);
+        String[] lines = out.toString().replace("\r\n", "\n").split("\n");
+        assertEquals(1 + 6, lines.length);
+        assertEquals("1\t2024-12-12 23:59\tCS544\tQuiz\tpending", lines[0]);
+        assertEquals("2\t" + start + " 18:00\tCS665\tReading\tpending", lines[1]);
+        assertEquals("2\t" + start.plusWeeks(5) + " 18:00\tCS665\tReading\tpending", lines[6]);
+    }
+
+    @Test
+    public void testQueryAndExplain() throws IOException {
+        // Given a script that adds dues, then queries and explains
+        String script = "add CS665 Essay 2024-12-12 location=\"Room 101\"\n"
+                + "add CS665 Quiz 2024-12-03 location=Hall\n"
+                + "add CS544 Lab 2024-12-04 location=Lab\n"
+                + "add CS665 Reading 2024-12-05\n"
+                + "query course=CS665 pending location=yes from=2024-12-01 to=2024-12-15 sort=due limit=1\n"
+                + "explain course=CS544\n";
+
+        // When it runs
+        assertEquals(0, run(script, ScriptRunner.DEFAULT_BATCH_SIZE));
+
+        // Then the query should print the earliest match and the plan should name the index
+        String output = out.toString().replace("\r\n", "\n");
+        assertTrue(output.startsWith("2\t2024-12-03 23:59\tCS665\tQuiz\tpending\n"));
+        assertTrue(output.contains("access: COURSE_INDEX [course=CS544] (est. 1 of 4 dues)"));
+    }
+}
@@ -0,0 +1,108 @@
+package edu.bu.met.cs665;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.service.TenantDueManager;
+import edu.bu.met.cs665.storage.DurabilityMode;
+
+import java.time.LocalDateTime;
+
+public class TestTenantDueManager {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TenantDueManager tenants;
+
+    @After
+    public void tearDown() {
+        if (tenants != null) {
+            tenants.close();
+        }
+    }
+
+    private static Due newDue(int id, String title) {
+        return new Due.DueBuilder(id)
+                .course("CS665")
+                .title(title)
+                .dueDate(LocalDateTime.of(2024, 12, 10, 23, 59))
+                .completed(false)
+                .build();
+    }
+
+    @Test
+    public void testPartitionsAreIsolated() {
+        // Given two users adding dues through their own partitions
+        tenants = new TenantDueManager(folder.getRoot().toPath(), DurabilityMode.NONE, 1 << 20);
+        tenants.withTenant("alice", manager -> {
+            manager.addDue(manager.createDueFromJson(
+                    "{\"course\":\"CS665\",\"title\":\"Alice HW\",\"due_date\":\"2024-12-10 23:59\"}"));
+            return null;
+        });
+        int bobId = tenants.withTenant("bob", manager -> {
+            Due due = manager.createDueFromJson(
+                    "{\"course\":\"CS544\",\"title\":\"Bob HW\",\"due_date\":\"2024-12-11 23:59\"}");
+            manager.addDue(due);
+            return due.getId();
+        });
+
+        // Then each user should have their own ID sequence and data
+        assertEquals(1, bobId);
+        assertEquals("Alice HW", tenants.withTenant("alice", manager -> manager.getDueById(1).getTitle()));
+        assertEquals("Bob HW", tenants.withTenant("bob", manager -> manager.getDueById(1).getTitle()));
+        assertTrue(folder.getRoot().toPath().resolve("alice").resolve("dues.json").toFile().exists());
+    }
+
+    @Test
+    public void testIdlePartitionsAreEvictedAndReloaded() {
+        // Given a budget that fits roughly one small partition
+        tenants = new TenantDueManager(folder.getRoot().toPath(), DurabilityMode.NONE, 400);
+        tenants.withTenant("alice", manager -> {
+            manager.addDue(newDue(1, "Alice HW"));
+            return null;
+        });
+
+        // When another user's partition is loaded
+        tenants.withTenant("bob", manager -> {
+            manager.addDue(newDue(1, "Bob HW"));
+            return null;
+        });
+
+        // Then the least recently used partition should have been evicted
+        assertFalse(tenants.isResident("alice"));
+        assertTrue(tenants.isResident("bob"));
+
+        // And it should reload from disk on next use
+        assertEquals("Alice HW", tenants.withTenant("alice", manager -> manager.getDueById(1).getTitle()));
+    }
+
+    @Test
+    public void testPinnedPartitionIsNotEvicted() {
+        // Given a tiny budget
+        tenants = new TenantDueManager(folder.getRoot().toPath(), DurabilityMode.NONE, 1);
+
+        // When a nested call loads a second user while the first is in use
+        boolean outerStillResident = tenants.withTenant("alice", alice -> {
+            alice.addDue(newDue(1, "Alice HW"));
+            tenants.withTenant("bob", bob -> {
+                bob.addDue(newDue(1, "Bob HW"));
+                return null;
+            });
+            return tenants.isResident("alice");
+        });
+
+        // Then the partition in use should have survived eviction
+        assertTrue(outerStillResident);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPathTraversalUserIdRejected() {
+        tenants = new TenantDueManager(folder.getRoot().toPath(), DurabilityMode.NONE, 1 << 20);
+        tenants.withTenant("../etc", manager -> null);
+    }
+}
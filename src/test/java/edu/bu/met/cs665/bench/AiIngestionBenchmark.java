@@ -0,0 +1,158 @@
+package edu.bu.met.cs665.bench;
+
+import edu.bu.met.cs665.OpenRouterStub;
+import edu.bu.met.cs665.client.CircuitBreaker;
+import edu.bu.met.cs665.client.LocalDueParser;
+import edu.bu.met.cs665.client.OpenRouterClient;
+import edu.bu.met.cs665.client.RetryPolicy;
+import edu.bu.met.cs665.command.CommandHistory;
+import edu.bu.met.cs665.ingest.DueIngestion;
+import edu.bu.met.cs665.metrics.LatencyHistogram;
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.service.DueManager;
+import edu.bu.met.cs665.storage.DueJsonFormat;
+import edu.bu.met.cs665.storage.DurabilityMode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end benchmark of the AI path: prompt, chat completion over HTTP, JSON checks,
+ * {@code createDueFromJson} and {@code AddDueCommand}, against a local {@link OpenRouterStub}
+ * that answers like a model. The stub parses each prompt with the {@link LocalDueParser},
+ * waits a log-normally distributed time around the given median, fails the given percentage
+ * of requests with 429 or 500, and streams its answer when the client asks for it. With more
+ * than one thread the requests are ingested as one list by {@code ingestAll}, so the wall time
+ * can be compared with the sequential run.
+ *
+ * <p>Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=edu.bu.met.cs665.bench.AiIngestionBenchmark -Dexec.args="500 40 5 [stream|plain] [threads]"
+ *
+ * <p>or serve the stub on a port for the console, started with
+ * {@code -Dduemanager.ai.base.url=http://127.0.0.1:8765/api/v1 -Dduemanager.ai.api.key=stub}:
+ * -Dexec.args="serve 8765 40 5"
+ */
+public class AiIngestionBenchmark {
+    private static final long SEED = 665;
+    private static final String PROMPT_MARKER = "Now parse this due request: ";
+
+    /**
+     * Runs the benchmark, or serves the stub.
+     *
+     * @param args requests, median latency (ms), error percentage, "stream" or "plain" and the
+     *             number of threads; or "serve",
+     *             port, median latency (ms) and error percentage
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length > 0 && args[0].equals("serve")) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : 8765;
+            OpenRouterStub stub = new OpenRouterStub(port).otherwise(model(
+                    args.length > 2 ? Long.parseLong(args[2]) : 40, args.length > 3 ? Integer.parseInt(args[3]) : 0));
+            System.out.println("Serving a model stub at " + stub.getBaseUrl());
+            new CountDownLatch(1).await();
+            return;
+        }
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        long medianMillis = args.length > 1 ? Long.parseLong(args[1]) : 40;
+        int errorPercent = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        boolean streaming = args.length > 3 && args[3].equals("stream");
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+        System.out.printf("requests=%d, median=%dms, errors=%d%%, streaming=%s, threads=%d%n", requests,
+                medianMillis, errorPercent, streaming, threads);
+
+        Path directory = Files.createTempDirectory("due-ai");
+        try (OpenRouterStub stub = new OpenRouterStub().otherwise(model(medianMillis, errorPercent))) {
+            OpenRouterClient client = new OpenRouterClient.Builder()
+                    .baseUrl(stub.getBaseUrl())
+                    .apiKey("bench")
+                    .streaming(streaming)
+                    .retryPolicy(new RetryPolicy.Builder().initialBackoffMillis(5).maxBackoffMillis(50).build())
+                    // Keep the breaker closed so that every request reaches the stub
+                    .circuitBreaker(new CircuitBreaker(Integer.MAX_VALUE, 1))
+                    .rateLimiter(null)
+                    .build();
+            DueManager manager = new DueManager(directory.resolve("dues.json"), DurabilityMode.NONE, null);
+            DueIngestion ingestion = new DueIngestion(client, () -> manager, new CommandHistory(), threads);
+            WorkloadGenerator generator = new WorkloadGenerator(SEED, LocalDate.now(), 15, LocalDateTime.now());
+
+            LatencyHistogram latency = new LatencyHistogram("ingest");
+            Map<DueIngestion.Status, Integer> outcomes = new EnumMap<>(DueIngestion.Status.class);
+            long start = System.nanoTime();
+            if (threads > 1) {
+                List<String> prompts = new ArrayList<>(requests);
+                for (int i = 1; i <= requests; i++) {
+                    prompts.add(prompt(generator.nextDue(i)));
+                }
+                for (DueIngestion.Result result : ingestion.ingestAll(prompts)) {
+                    outcomes.merge(result.getStatus(), 1, Integer::sum);
+                }
+            } else {
+                for (int i = 1; i <= requests; i++) {
+                    long requestStart = System.nanoTime();
+                    DueIngestion.Result result = ingestion.ingest(prompt(generator.nextDue(i)));
+                    latency.recordSince(requestStart);
+                    outcomes.merge(result.getStatus(), 1, Integer::sum);
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            manager.close();
+
+            System.out.printf("wall=%.0fms, throughput=%.1f dues/s, stub requests=%d, stored=%d%n", seconds * 1000,
+                    requests / seconds, stub.getRequestCount(), manager.getSnapshot().size());
+            if (threads == 1) {
+                System.out.println("latency   " + latency.summary());
+            }
+            System.out.println("outcomes  " + outcomes);
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    /**
+     * A responder behaving like a model: parse the prompt, wait, sometimes fail.
+     */
+    private static OpenRouterStub.Responder model(long medianMillis, int errorPercent) {
+        Random random = new Random(SEED);
+        LocalDueParser parser = new LocalDueParser();
+        return request -> {
+            double gaussian;
+            int roll;
+            synchronized (random) {
+                gaussian = random.nextGaussian();
+                roll = random.nextInt(100);
+            }
+            // Log-normal with sigma 0.5: most answers near the median, a long slow tail
+            long delay = Math.round(medianMillis * Math.exp(0.5 * gaussian));
+            if (roll < errorPercent) {
+                return OpenRouterStub.Reply.status(roll % 2 == 0 ? 429 : 500).delayed(delay / 4);
+            }
+            String content = request.getJSONArray("messages").getJSONObject(0).getString("content");
+            int marker = content.lastIndexOf(PROMPT_MARKER);
+            String answer = parser.parse(marker < 0 ? content : content.substring(marker + PROMPT_MARKER.length()));
+            if (!request.optBoolean("stream")) {
+                return OpenRouterStub.Reply.completion(answer).delayed(delay);
+            }
+            // Time to first token is most of the latency; the rest is spread across the deltas
+            String[] pieces = answer.split("(?<=\\G.{12})");
+            return OpenRouterStub.Reply.stream(delay / 4 / pieces.length, pieces).delayed(delay * 3 / 4);
+        };
+    }
+
+    private static String prompt(Due due) {
+        return due.getCourse() + " " + due.getTitle() + " due " + due.getDueDate().format(DueJsonFormat.DATE_TIME);
+    }
+}
@@ -0,0 +1,91 @@
+package edu.bu.met.cs665.bench;
+
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.service.DueManager;
+import edu.bu.met.cs665.storage.DurabilityMode;
+import edu.bu.met.cs665.storage.StorageCodec;
+import edu.bu.met.cs665.storage.StorageLayout;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Compares the storage codecs: file size against the time of a full save and of a load.
+ *
+ * <p>Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=edu.bu.met.cs665.bench.CompressionBenchmark -Dexec.args="100000"
+ */
+public class CompressionBenchmark {
+    private static final int ROUNDS = 5;
+    private static final String[] NOTES = {
+        "Submit the report and the source code through Blackboard",
+        "Read chapters 3 and 4 before class; the quiz covers the observer and strategy patterns, "
+            + "with one question on each and a bonus question on their differences",
+        null,
+        "Group project milestone: the UML class diagram, the sequence diagram for checkout and a "
+            + "one-page summary of the design decisions, uploaded as a single PDF"
+    };
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional store size
+     */
+    public static void main(String[] args) throws IOException {
+        int storeSize = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        System.out.printf("store=%d dues%n", storeSize);
+        System.out.printf("%-10s %12s %8s %14s %14s%n", "codec", "size(KB)", "ratio", "best save(ms)", "best load(ms)");
+        long plainSize = 0;
+        for (StorageCodec codec : StorageCodec.values()) {
+            Path directory = Files.createTempDirectory("due-codec");
+            try {
+                Path file = directory.resolve("dues.json");
+                DueManager manager = new DueManager(file, DurabilityMode.NONE, null, StorageLayout.SINGLE_FILE, codec);
+                long save = Long.MAX_VALUE;
+                for (int round = 0; round < ROUNDS; round++) {
+                    manager.beginBatch();
+                    for (int i = 1; i <= storeSize; i++) {
+                        manager.addDue(due(i, round));
+                    }
+                    long start = System.nanoTime();
+                    manager.endBatch();
+                    save = Math.min(save, System.nanoTime() - start);
+                }
+                manager.close();
+
+                long load = Long.MAX_VALUE;
+                for (int round = 0; round < ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    new DueManager(file, DurabilityMode.NONE, null, StorageLayout.SINGLE_FILE, codec).close();
+                    load = Math.min(load, System.nanoTime() - start);
+                }
+                long size = Files.size(file);
+                if (codec == StorageCodec.NONE) {
+                    plainSize = size;
+                }
+                System.out.printf("%-10s %12d %8.2f %14d %14d%n", codec, size / 1024,
+                        (double) plainSize / size, save / 1_000_000, load / 1_000_000);
+            } finally {
+                try (Stream<Path> files = Files.walk(directory)) {
+                    files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+                }
+            }
+        }
+    }
+
+    private static Due due(int id, int round) {
+        return new Due.DueBuilder(id)
+                .course("CS" + (600 + id % 10))
+                .title("Assignment " + id)
+                .dueDate(LocalDateTime.of(2024, 9, 1, 23, 59).plusHours(id % 2400))
+                .completed((id + round) % 3 == 0)
+                .location(id % 2 == 0 ? "Room " + (100 + id % 50) : null)
+                .notes(NOTES[id % NOTES.length])
+                .build();
+    }
+}
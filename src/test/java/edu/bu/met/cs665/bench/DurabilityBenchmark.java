@@ -0,0 +1,92 @@
+package edu.bu.met.cs665.bench;
+
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.service.DueManager;
+import edu.bu.met.cs665.storage.AtomicFileWriter;
+import edu.bu.met.cs665.storage.DurabilityMode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Measures the commit latency of each durability mode.
+ * Every commit rewrites the whole store, so the store is pre-filled to a realistic size.
+ * SYNC_INTERVAL forces each save's data before its rename and defers only the directory fsync,
+ * so it is run twice: with the given interval, and with an interval longer than the run, which
+ * leaves only the per-save data fsync and shows what the deferred directory fsync saves.
+ *
+ * <p>Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=edu.bu.met.cs665.bench.DurabilityBenchmark -Dexec.args="1000 200 1000"
+ */
+public class DurabilityBenchmark {
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional store size, number of measured commits and sync interval in milliseconds
+     */
+    public static void main(String[] args) throws IOException {
+        int storeSize = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int commits = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        long interval = args.length > 2 ? Long.parseLong(args[2]) : AtomicFileWriter.DEFAULT_SYNC_INTERVAL_MILLIS;
+        System.out.printf("store=%d dues, commits=%d, interval=%dms%n", storeSize, commits, interval);
+        System.out.printf("%-20s %10s %10s %10s %10s%n", "mode", "mean(us)", "p50(us)", "p99(us)", "max(us)");
+        for (DurabilityMode mode : DurabilityMode.values()) {
+            System.setProperty(AtomicFileWriter.SYNC_INTERVAL_PROPERTY, Long.toString(interval));
+            run(mode.name(), mode, storeSize, commits);
+        }
+        System.setProperty(AtomicFileWriter.SYNC_INTERVAL_PROPERTY, Long.toString(Long.MAX_VALUE / 2));
+        run("SYNC_INTERVAL(data)", DurabilityMode.SYNC_INTERVAL, storeSize, commits);
+        System.clearProperty(AtomicFileWriter.SYNC_INTERVAL_PROPERTY);
+    }
+
+    private static void run(String label, DurabilityMode mode, int storeSize, int commits) throws IOException {
+        Path directory = Files.createTempDirectory("due-durability");
+        try {
+            DueManager manager = new DueManager(directory.resolve("dues.json"), mode);
+            for (int i = 1; i <= storeSize; i++) {
+                manager.addDue(due(i));
+            }
+
+            long[] latencies = new long[commits];
+            for (int i = 0; i < commits; i++) {
+                int id = storeSize + i + 1;
+                long start = System.nanoTime();
+                manager.addDue(due(id));
+                latencies[i] = System.nanoTime() - start;
+            }
+            manager.close();
+
+            Arrays.sort(latencies);
+            long total = 0;
+            for (long latency : latencies) {
+                total += latency;
+            }
+            System.out.printf("%-20s %10d %10d %10d %10d%n", label,
+                    total / commits / 1000,
+                    latencies[commits / 2] / 1000,
+                    latencies[Math.min(commits - 1, (int) (commits * 0.99))] / 1000,
+                    latencies[commits - 1] / 1000);
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static Due due(int id) {
+        return new Due.DueBuilder(id)
+                .course("CS" + (600 + id % 10))
+                .title("Assignment " + id)
+                .dueDate(LocalDateTime.of(2024, 12, 1, 23, 59).plusHours(id))
+                .completed(id % 3 == 0)
+                .notes("Submit the report and the source code through Blackboard")
+                .build();
+    }
+}
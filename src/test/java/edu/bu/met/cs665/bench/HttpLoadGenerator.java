@@ -0,0 +1,142 @@
+package edu.bu.met.cs665.bench;
+
+import edu.bu.met.cs665.command.CommandHistory;
+import edu.bu.met.cs665.metrics.LatencyHistogram;
+import edu.bu.met.cs665.server.DueHttpServer;
+import edu.bu.met.cs665.service.DueManager;
+import edu.bu.met.cs665.storage.DurabilityMode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop load generator for the HTTP API.
+ * Each client thread issues a mix of range queries, single lookups, full listings and adds.
+ * Without a URL argument an embedded server on a temporary store is started and measured.
+ *
+ * <p>Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=edu.bu.met.cs665.bench.HttpLoadGenerator -Dexec.args="16 10 [http://localhost:8080]"
+ */
+public class HttpLoadGenerator {
+    private static final int SEED_DUES = 500;
+
+    /**
+     * Runs the load test.
+     *
+     * @param args client threads, duration in seconds and an optional base URL
+     */
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        DueHttpServer embedded = null;
+        DueManager embeddedManager = null;
+        String baseUrl;
+        if (args.length > 2) {
+            baseUrl = args[2];
+        } else {
+            // As the --server launcher does; the JDK reads it when the first server is created
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+            Path directory = Files.createTempDirectory("due-http");
+            embeddedManager = new DueManager(directory.resolve("dues.json"), DurabilityMode.NONE);
+            embedded = new DueHttpServer(embeddedManager, new CommandHistory(), new InetSocketAddress("127.0.0.1", 0),
+                    Math.max(4, Runtime.getRuntime().availableProcessors() * 2), 1024);
+            embedded.start();
+            baseUrl = "http://127.0.0.1:" + embedded.getPort();
+        }
+
+        for (int i = 0; i < SEED_DUES; i++) {
+            addDue(baseUrl, i);
+        }
+
+        LatencyHistogram latency = new LatencyHistogram("load");
+        LongAdder errors = new LongAdder();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        int roll = random.nextInt(100);
+                        if (roll < 60) {
+                            int day = 1 + random.nextInt(25);
+                            get(baseUrl + "/dues?from=2024-12-" + pad(day) + "&to=2024-12-" + pad(day + 3));
+                        } else if (roll < 90) {
+                            get(baseUrl + "/dues/" + (1 + random.nextInt(SEED_DUES)));
+                        } else if (roll < 95) {
+                            get(baseUrl + "/dues");
+                        } else {
+                            addDue(baseUrl, random.nextInt(1000));
+                        }
+                        latency.recordSince(start);
+                    } catch (IOException e) {
+                        errors.increment();
+                    }
+                }
+            }, "load-client-" + c);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        System.out.printf("clients=%d duration=%ds requests=%d errors=%d throughput=%.0f req/s%n",
+                clients, seconds, latency.getCount(), errors.sum(), latency.getCount() / (double) seconds);
+        System.out.println("latency " + latency.summary());
+        if (embedded != null) {
+            embedded.close();
+            embeddedManager.close();
+        }
+    }
+
+    private static String pad(int day) {
+        return day < 10 ? "0" + day : String.valueOf(day);
+    }
+
+    private static void addDue(String baseUrl, int n) throws IOException {
+        String body = "{\"course\":\"CS" + (600 + n % 10) + "\",\"title\":\"Load " + n
+                + "\",\"due_date\":\"2024-12-" + pad(1 + n % 28) + " 23:59\"}";
+        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + "/dues").openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        drain(connection);
+    }
+
+    private static void get(String url) throws IOException {
+        drain((HttpURLConnection) new URL(url).openConnection());
+    }
+
+    private static void drain(HttpURLConnection connection) throws IOException {
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        byte[] buffer = new byte[8192];
+        if (in != null) {
+            try (InputStream body = in) {
+                while (body.read(buffer) != -1) {
+                    // Reading to the end lets the connection be reused
+                }
+            }
+        }
+        if (status >= 500) {
+            throw new IOException("HTTP " + status);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package edu.bu.met.cs665.bench;
+
+import edu.bu.met.cs665.command.AddDueCommand;
+import edu.bu.met.cs665.command.CommandHistory;
+import edu.bu.met.cs665.command.MarkCompletedCommand;
+import edu.bu.met.cs665.command.RemoveDueCommand;
+import edu.bu.met.cs665.metrics.LatencyHistogram;
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.service.DueManager;
+import edu.bu.met.cs665.storage.DurabilityMode;
+import edu.bu.met.cs665.storage.StorageCodec;
+import edu.bu.met.cs665.storage.StorageLayout;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.stream.Stream;
+
+/**
+ * Macro load test of the whole store. A {@link WorkloadGenerator} fills a store of the given
+ * size, the store is reopened from disk, and a mixed trace of adds, completions, removes,
+ * undos and week listings is replayed through {@link DueManager} and {@link CommandHistory}.
+ * Throughput, per-operation latency percentiles, heap, file size and load time are reported.
+ *
+ * <p>With a thresholds file the run fails (exit status 1) when any result is past its limit, so
+ * it can gate a build against regressions. Recognized keys, all optional:
+ * {@code throughput.min} (ops/s), {@code load.max.ms}, {@code heap.max.mb}, {@code file.max.mb}
+ * and {@code <operation>.p99.max.us} for add, complete, remove, undo and list.
+ * The layout, codec and durability come from the usual system properties.
+ *
+ * <p>Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=edu.bu.met.cs665.bench.MacroBenchmark -Dexec.args="100000 20000 [thresholds.properties]"
+ */
+public class MacroBenchmark {
+    private static final long SEED = 665;
+    private static final LocalDate TERM_START = LocalDate.of(2024, 9, 2);
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args store size, number of operations and an optional thresholds file
+     */
+    public static void main(String[] args) throws IOException {
+        int storeSize = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        Properties thresholds = new Properties();
+        if (args.length > 2) {
+            try (InputStream in = Files.newInputStream(Paths.get(args[2]))) {
+                thresholds.load(in);
+            }
+        }
+        StorageLayout layout = StorageLayout.fromSystemProperty();
+        StorageCodec codec = StorageCodec.fromSystemProperty();
+        DurabilityMode durability = DurabilityMode.fromSystemProperty();
+        System.out.printf("store=%d dues, operations=%d, layout=%s, codec=%s, durability=%s%n", storeSize,
+                operations, layout, codec, durability);
+
+        Path directory = Files.createTempDirectory("due-macro");
+        try {
+            Path file = directory.resolve("dues.json");
+            WorkloadGenerator generator = new WorkloadGenerator(SEED, TERM_START, 15, NOW);
+            long heapBefore = usedHeap();
+            DueManager filler = new DueManager(file, durability, null, layout, codec);
+            long start = System.nanoTime();
+            generator.fill(filler, 1, storeSize);
+            long fillMillis = (System.nanoTime() - start) / 1_000_000;
+            filler.close();
+
+            start = System.nanoTime();
+            DueManager manager = new DueManager(file, durability, null, layout, codec);
+            long loadMillis = (System.nanoTime() - start) / 1_000_000;
+            long heapMegabytes = Math.max(0, usedHeap() - heapBefore) / (1024 * 1024);
+
+            Map<WorkloadGenerator.Operation, LatencyHistogram> latencies =
+                    new EnumMap<>(WorkloadGenerator.Operation.class);
+            for (WorkloadGenerator.Operation operation : WorkloadGenerator.Operation.values()) {
+                latencies.put(operation, new LatencyHistogram(operation.name().toLowerCase()));
+            }
+            CommandHistory history = new CommandHistory();
+            int nextId = storeSize + 1;
+            long listed = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                WorkloadGenerator.Operation operation = generator.nextOperation();
+                Due target = operation == WorkloadGenerator.Operation.COMPLETE
+                        || operation == WorkloadGenerator.Operation.REMOVE ? pickDue(manager, generator, nextId) : null;
+                long operationStart = System.nanoTime();
+                switch (operation) {
+                    case ADD:
+                        history.executeCommand(new AddDueCommand(manager, generator.nextDue(nextId++)));
+                        break;
+                    case COMPLETE:
+                        if (target != null) {
+                            history.executeCommand(new MarkCompletedCommand(manager, target));
+                        }
+                        break;
+                    case REMOVE:
+                        if (target != null) {
+                            history.executeCommand(new RemoveDueCommand(manager, target));
+                        }
+                        break;
+                    case UNDO:
+                        history.undo();
+                        break;
+                    default:
+                        LocalDate from = generator.nextDate();
+                        listed += manager.getDuesBetween(from, from.plusDays(6)).size();
+                        break;
+                }
+                latencies.get(operation).recordSince(operationStart);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            double throughput = operations / seconds;
+            long fileMegabytes = sizeOf(directory) / (1024 * 1024);
+            manager.close();
+
+            System.out.printf("fill=%dms load=%dms heap=%dMB files=%dMB listed=%d%n", fillMillis, loadMillis,
+                    heapMegabytes, fileMegabytes, listed);
+            System.out.printf("throughput=%.0f ops/s%n", throughput);
+            for (LatencyHistogram histogram : latencies.values()) {
+                System.out.printf("%-9s %s%n", histogram.getName(), histogram.summary());
+            }
+
+            List<String> violations = new ArrayList<>();
+            check(violations, thresholds, "throughput.min", throughput, false);
+            check(violations, thresholds, "load.max.ms", loadMillis, true);
+            check(violations, thresholds, "heap.max.mb", heapMegabytes, true);
+            check(violations, thresholds, "file.max.mb", fileMegabytes, true);
+            for (LatencyHistogram histogram : latencies.values()) {
+                check(violations, thresholds, histogram.getName() + ".p99.max.us",
+                        histogram.getPercentileNanos(99) / 1000.0, true);
+            }
+            if (!violations.isEmpty()) {
+                violations.forEach(violation -> System.out.println("REGRESSION " + violation));
+                System.exit(1);
+            }
+            if (!thresholds.isEmpty()) {
+                System.out.println("All thresholds met");
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    /**
+     * Picks a live due at random, retrying past removed IDs.
+     */
+    private static Due pickDue(DueManager manager, WorkloadGenerator generator, int nextId) {
+        for (int attempt = 0; attempt < 8; attempt++) {
+            Due due = manager.getSnapshot().get(1 + generator.nextInt(nextId - 1));
+            if (due != null) {
+                return due;
+            }
+        }
+        return null;
+    }
+
+    private static void check(List<String> violations, Properties thresholds, String key, double value,
+                              boolean isMaximum) {
+        String limit = thresholds.getProperty(key);
+        if (limit == null) {
+            return;
+        }
+        double bound = Double.parseDouble(limit.trim());
+        if (isMaximum ? value > bound : value < bound) {
+            violations.add(String.format("%s: %.1f is %s the limit of %s", key, value,
+                    isMaximum ? "above" : "below", limit.trim()));
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static long sizeOf(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        }
+    }
+}
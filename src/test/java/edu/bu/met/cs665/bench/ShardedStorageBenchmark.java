@@ -0,0 +1,107 @@
+package edu.bu.met.cs665.bench;
+
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.service.DueManager;
+import edu.bu.met.cs665.storage.AtomicFileWriter;
+import edu.bu.met.cs665.storage.DueShardStore;
+import edu.bu.met.cs665.storage.DurabilityMode;
+import edu.bu.met.cs665.storage.StorageCodec;
+import edu.bu.met.cs665.storage.StorageLayout;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Compares the single-file and monthly-shard layouts: startup load time, shard parsing on
+ * pools of growing parallelism, and the latency of saving one edit.
+ *
+ * <p>Run with:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=edu.bu.met.cs665.bench.ShardedStorageBenchmark -Dexec.args="200000 48"
+ */
+public class ShardedStorageBenchmark {
+    private static final int ROUNDS = 5;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional store size and number of months the dues are spread over
+     */
+    public static void main(String[] args) throws IOException {
+        int storeSize = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        int months = args.length > 1 ? Integer.parseInt(args[1]) : 48;
+        System.out.printf("store=%d dues over %d months, cores=%d%n", storeSize, months,
+                Runtime.getRuntime().availableProcessors());
+        Path directory = Files.createTempDirectory("due-shards");
+        try {
+            Path single = directory.resolve("single.json");
+            Path sharded = directory.resolve("sharded.json");
+            fill(new DueManager(single, DurabilityMode.NONE), storeSize, months);
+            fill(new DueManager(sharded, DurabilityMode.NONE, null, StorageLayout.MONTHLY_SHARDS), storeSize, months);
+
+            System.out.printf("%-28s %10s %14s%n", "load", "best(ms)", "best edit(us)");
+            report("single file", single, StorageLayout.SINGLE_FILE);
+            report("monthly shards", sharded, StorageLayout.MONTHLY_SHARDS);
+
+            DueShardStore store = new DueShardStore(directory.resolve("sharded.json.shards"),
+                    new AtomicFileWriter(sharded, DurabilityMode.NONE), StorageCodec.NONE);
+            for (int parallelism = 1; parallelism <= Runtime.getRuntime().availableProcessors(); parallelism *= 2) {
+                ForkJoinPool pool = new ForkJoinPool(parallelism);
+                long best = Long.MAX_VALUE;
+                for (int round = 0; round < ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    store.loadAll(pool);
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                pool.shutdown();
+                System.out.printf("%-28s %10d%n", "parse shards, " + parallelism + " threads", best / 1_000_000);
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static void fill(DueManager manager, int storeSize, int months) {
+        manager.beginBatch();
+        for (int i = 1; i <= storeSize; i++) {
+            manager.addDue(due(i, i % months));
+        }
+        manager.endBatch();
+        manager.close();
+    }
+
+    private static void report(String name, Path file, StorageLayout layout) {
+        long best = Long.MAX_VALUE;
+        DueManager manager = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            manager = new DueManager(file, DurabilityMode.NONE, null, layout);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        long edit = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS * 4; round++) {
+            long start = System.nanoTime();
+            manager.setCompleted(1, round % 2 == 0);
+            edit = Math.min(edit, System.nanoTime() - start);
+        }
+        manager.close();
+        System.out.printf("%-28s %10d %14d%n", name, best / 1_000_000, edit / 1000);
+    }
+
+    private static Due due(int id, int month) {
+        return new Due.DueBuilder(id)
+                .course("CS" + (600 + id % 10))
+                .title("Assignment " + id)
+                .dueDate(LocalDateTime.of(2024, 1, 1, 23, 59).plusMonths(month).plusHours(id % 600))
+                .completed(id % 3 == 0)
+                .notes("Submit the report and the source code through Blackboard")
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package edu.bu.met.cs665.bench;
+
+import edu.bu.met.cs665.metrics.LatencyHistogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Launch-time benchmark of the ways to start the app. Each mode runs one short CLI invocation,
+ * a script that adds a due and lists the store, from process start to exit, in a fresh working
+ * directory each time:
+ * "no-cds" with class data sharing off, "default" with the JDK's own archive, "appcds" with
+ * the archive of the app's classes built by {@code mvn -Pcds verify}, and "native" with the
+ * executable built by {@code mvn -Pnative package}. Modes whose artifact is missing are skipped.
+ *
+ * <p>Run with:
+ * mvn -Pcds verify -DskipTests
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=edu.bu.met.cs665.bench.StartupBenchmark -Dexec.args="20"
+ */
+public class StartupBenchmark {
+    private static final Path TARGET = Paths.get("target");
+    private static final Path JAR = TARGET.resolve("DueManager-1.0-SNAPSHOT-jar-with-dependencies.jar");
+    private static final Path ARCHIVE = TARGET.resolve("DueManager.jsa");
+    private static final Path NATIVE = TARGET.resolve("duemanager");
+    private static final String SCRIPT = "add CS665 \"Assignment 5\" \"2024-12-10 23:59\"\nlist\n";
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args runs per mode
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        if (!Files.exists(JAR)) {
+            System.out.println("Build the jar first: mvn -Pcds verify -DskipTests");
+            return;
+        }
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String jar = JAR.toAbsolutePath().toString();
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("no-cds", Arrays.asList(java, "-Xshare:off", "-jar", jar));
+        modes.put("default", Arrays.asList(java, "-jar", jar));
+        if (Files.exists(ARCHIVE)) {
+            modes.put("appcds", Arrays.asList(java, "-XX:SharedArchiveFile=" + ARCHIVE.toAbsolutePath(),
+                    "-Xshare:on", "-jar", jar));
+        }
+        if (Files.isExecutable(NATIVE)) {
+            modes.put("native", Collections.singletonList(NATIVE.toAbsolutePath().toString()));
+        }
+        System.out.printf("runs=%d, java=%s%n", runs, System.getProperty("java.version"));
+
+        Path directory = Files.createTempDirectory("due-startup");
+        try {
+            Path script = directory.resolve("startup.script");
+            Files.write(script, SCRIPT.getBytes(StandardCharsets.UTF_8));
+            for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+                List<String> command = new ArrayList<>(mode.getValue());
+                command.add("--script=" + script);
+                // One unmeasured launch warms the page cache
+                launch(command, directory);
+                LatencyHistogram latency = new LatencyHistogram(mode.getKey());
+                for (int i = 0; i < runs; i++) {
+                    long start = System.nanoTime();
+                    launch(command, directory);
+                    latency.recordSince(start);
+                }
+                System.out.printf("%-8s  p50=%5.1fms  p90=%5.1fms  max=%5.1fms%n", mode.getKey(),
+                        latency.getPercentileNanos(50) / 1e6, latency.getPercentileNanos(90) / 1e6,
+                        latency.getMaxNanos() / 1e6);
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    /**
+     * Runs one invocation against an empty store and waits for it to exit.
+     */
+    private static void launch(List<String> command, Path directory) throws IOException, InterruptedException {
+        Files.deleteIfExists(directory.resolve("dues.json"));
+        File output = directory.resolve("output.txt").toFile();
+        Process process = new ProcessBuilder(command).directory(directory.toFile())
+                .redirectErrorStream(true).redirectOutput(output).start();
+        int status = process.waitFor();
+        if (status != 0) {
+            throw new IllegalStateException(command.get(0) + " exited with " + status + ": "
+                    + new String(Files.readAllBytes(output.toPath()), StandardCharsets.UTF_8));
+        }
+    }
+}
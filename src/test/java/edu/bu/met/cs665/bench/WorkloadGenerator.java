@@ -0,0 +1,212 @@
+package edu.bu.met.cs665.bench;
+
+import edu.bu.met.cs665.model.Due;
+import edu.bu.met.cs665.service.DueManager;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Random;
+
+/**
+ * Generates realistic synthetic dues and operation traces from a seed, so that runs can be
+ * repeated and compared.
+ *
+ * <p>The shape follows what real course loads look like rather than uniform noise:
+ * <ul>
+ *   <li>Courses are Zipf-distributed, so a few courses hold most of the dues.</li>
+ *   <li>Deadlines cluster on Fridays and Sundays at 23:59 and thicken towards the end of term.</li>
+ *   <li>Most dues have no notes or a short one, but a long tail carries pasted instructions of
+ *       a few hundred to a couple of thousand characters.</li>
+ *   <li>Dues whose deadline has passed are mostly completed.</li>
+ * </ul>
+ */
+public class WorkloadGenerator {
+    /**
+     * The operations of a trace.
+     */
+    public enum Operation {
+        /** Add a new due. */
+        ADD,
+        /** Mark an existing due completed. */
+        COMPLETE,
+        /** Remove an existing due. */
+        REMOVE,
+        /** Undo the last command. */
+        UNDO,
+        /** List the dues of one week. */
+        LIST
+    }
+
+    private static final String[] KINDS = {"Homework", "Quiz", "Lab", "Reading", "Project milestone", "Essay",
+        "Discussion post", "Exam"};
+    private static final String[] WORDS = {"submit", "the", "report", "and", "source", "code", "through",
+        "Blackboard", "chapter", "read", "before", "class", "include", "diagram", "pattern", "observer",
+        "strategy", "test", "cases", "group", "rubric", "late", "penalty", "per", "day", "PDF", "format"};
+    private static final LocalTime[] TIMES = {LocalTime.of(23, 59), LocalTime.of(23, 59), LocalTime.of(23, 59),
+        LocalTime.of(9, 0), LocalTime.of(17, 0), LocalTime.of(12, 0)};
+
+    private final Random random;
+    private final String[] courses;
+    private final double[] courseWeights;
+    private final LocalDate termStart;
+    private final int termWeeks;
+    private final LocalDateTime now;
+    private final int[] mix;
+
+    /**
+     * Creates a generator for a store of four terms of 40 courses, with a default operation
+     * mix of 30% adds, 25% completions, 10% removes, 5% undos and 30% listings.
+     *
+     * @param seed      The random seed
+     * @param termStart The first day of the first term
+     * @param termWeeks The length of each term in weeks
+     * @param now       The time dues before which are mostly completed
+     */
+    public WorkloadGenerator(long seed, LocalDate termStart, int termWeeks, LocalDateTime now) {
+        this(seed, termStart, termWeeks, now, new int[] {30, 25, 10, 5, 30});
+    }
+
+    /**
+     * Creates a generator with a custom operation mix.
+     *
+     * @param seed      The random seed
+     * @param termStart The first day of the first term
+     * @param termWeeks The length of each term in weeks
+     * @param now       The time dues before which are mostly completed
+     * @param mix       The relative weight of each {@link Operation}, in declaration order
+     */
+    public WorkloadGenerator(long seed, LocalDate termStart, int termWeeks, LocalDateTime now, int[] mix) {
+        if (mix.length != Operation.values().length) {
+            throw new IllegalArgumentException("Expected a weight for each of " + Operation.values().length
+                    + " operations");
+        }
+        this.random = new Random(seed);
+        this.termStart = termStart;
+        this.termWeeks = termWeeks;
+        this.now = now;
+        this.mix = mix.clone();
+        this.courses = new String[40];
+        this.courseWeights = new double[courses.length];
+        double total = 0;
+        for (int i = 0; i < courses.length; i++) {
+            courses[i] = "CS" + (500 + i * 7);
+            total += 1.0 / Math.pow(i + 1, 1.1);
+            courseWeights[i] = total;
+        }
+        for (int i = 0; i < courses.length; i++) {
+            courseWeights[i] /= total;
+        }
+    }
+
+    /**
+     * Generates a due.
+     *
+     * @param id The ID of the due
+     * @return the due
+     */
+    public Due nextDue(int id) {
+        String course = courses[pickCourse()];
+        // Squaring a uniform week skews deadlines towards the end of term
+        int term = random.nextInt(4);
+        int week = (int) (termWeeks * (1 - Math.pow(random.nextDouble(), 2)));
+        DayOfWeek day = random.nextInt(3) == 0 ? DayOfWeek.values()[random.nextInt(7)]
+                : (random.nextBoolean() ? DayOfWeek.FRIDAY : DayOfWeek.SUNDAY);
+        LocalDate date = termStart.plusWeeks((long) term * (termWeeks + 2) + week)
+                .with(TemporalAdjusters.nextOrSame(day));
+        LocalDateTime dueDate = date.atTime(TIMES[random.nextInt(TIMES.length)]);
+        String kind = KINDS[random.nextInt(KINDS.length)];
+        boolean completed = dueDate.isBefore(now) ? random.nextInt(10) < 9 : random.nextInt(20) == 0;
+        return new Due.DueBuilder(id)
+                .course(course)
+                .title(kind + " " + (1 + random.nextInt(12)))
+                .dueDate(dueDate)
+                .completed(completed)
+                .location(random.nextBoolean() ? "Room " + (100 + random.nextInt(300)) : null)
+                .notes(nextNotes())
+                .build();
+    }
+
+    /**
+     * Adds generated dues with consecutive IDs to a manager in a single batch.
+     *
+     * @param manager The manager to fill
+     * @param firstId The ID of the first due
+     * @param count   The number of dues
+     */
+    public void fill(DueManager manager, int firstId, int count) {
+        manager.beginBatch();
+        for (int i = 0; i < count; i++) {
+            manager.addDue(nextDue(firstId + i));
+        }
+        manager.endBatch();
+    }
+
+    /**
+     * Picks the next operation of a trace according to the mix.
+     *
+     * @return the operation
+     */
+    public Operation nextOperation() {
+        int total = 0;
+        for (int weight : mix) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (Operation operation : Operation.values()) {
+            roll -= mix[operation.ordinal()];
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return Operation.LIST;
+    }
+
+    /**
+     * Picks a date inside the generated terms, for listings.
+     *
+     * @return the date
+     */
+    public LocalDate nextDate() {
+        return termStart.plusDays(random.nextInt(4 * (termWeeks + 2) * 7));
+    }
+
+    /**
+     * Picks a number below a bound.
+     *
+     * @param bound The exclusive bound
+     * @return the number
+     */
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    private int pickCourse() {
+        double roll = random.nextDouble();
+        for (int i = 0; i < courseWeights.length; i++) {
+            if (roll < courseWeights[i]) {
+                return i;
+            }
+        }
+        return courseWeights.length - 1;
+    }
+
+    private String nextNotes() {
+        int roll = random.nextInt(100);
+        if (roll < 40) {
+            return null;
+        }
+        // 45% one short sentence, 15% a pasted block of instructions
+        int words = roll < 85 ? 4 + random.nextInt(12) : 50 + random.nextInt(300);
+        StringBuilder notes = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                notes.append(i % 15 == 0 ? ". " : " ");
+            }
+            notes.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return notes.append('.').toString();
+    }
+}